@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.anchor;
+
+import com.webauthn4j.util.AssertUtil;
+
+import java.security.cert.TrustAnchor;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapts a blocking {@link TrustAnchorResolver} to {@link AsyncTrustAnchorResolver}
+ * by running it on the specified {@link Executor}
+ */
+public class ExecutorTrustAnchorResolver implements AsyncTrustAnchorResolver {
+
+    private final TrustAnchorResolver trustAnchorResolver;
+    private final Executor executor;
+
+    public ExecutorTrustAnchorResolver(TrustAnchorResolver trustAnchorResolver, Executor executor) {
+        AssertUtil.notNull(trustAnchorResolver, "trustAnchorResolver must not be null");
+        AssertUtil.notNull(executor, "executor must not be null");
+        this.trustAnchorResolver = trustAnchorResolver;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<Set<TrustAnchor>> resolveAsync(byte[] aaguid) {
+        return CompletableFuture.supplyAsync(() -> trustAnchorResolver.resolve(aaguid), executor);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+
+/**
+ * An {@link Authenticator} view over a record of {@link MappedAuthenticatorStore}.
+ * The counter is read from and written to the store, and the other members are decoded on first access.
+ */
+public class MappedAuthenticator implements Authenticator {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    private static final long serialVersionUID = 1L;
+
+    //~ Instance fields ================================================================================================
+    private final transient MappedAuthenticatorStore store;
+    private final byte[] credentialId;
+    private transient volatile AttestedCredentialData attestedCredentialData;
+    private transient volatile AttestationStatement attestationStatement;
+    private transient volatile boolean attestationStatementLoaded;
+
+    MappedAuthenticator(MappedAuthenticatorStore store, byte[] credentialId) {
+        this.store = store;
+        this.credentialId = credentialId;
+    }
+
+    public byte[] getCredentialId() {
+        return credentialId.clone();
+    }
+
+    @Override
+    public AttestedCredentialData getAttestedCredentialData() {
+        if (attestedCredentialData == null) {
+            attestedCredentialData = store.readAttestedCredentialData(credentialId);
+        }
+        return attestedCredentialData;
+    }
+
+    @Override
+    public AttestationStatement getAttestationStatement() {
+        if (!attestationStatementLoaded) {
+            attestationStatement = store.readAttestationStatement(credentialId);
+            attestationStatementLoaded = true;
+        }
+        return attestationStatement;
+    }
+
+    @Override
+    public long getCounter() {
+        return store.readCounter(credentialId);
+    }
+
+    @Override
+    public void setCounter(long value) {
+        store.updateCounter(credentialId, value);
+    }
+
+    /**
+     * Serializes a detached copy, as the view itself is bound to an open store.
+     */
+    private Object writeReplace() {
+        return new AuthenticatorImpl(getAttestedCredentialData(), getAttestationStatement(), getCounter());
+    }
+}
@@ -0,0 +1,942 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.webauthn4j.converter.util.CborConverter;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.response.attestation.authenticator.CredentialPublicKey;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.ConstUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A local, memory-mapped {@link Authenticator} store keyed by credential ID.
+ * <p>
+ * Records are appended to a log file which is mapped in fixed size segments, and are located through an
+ * open-addressing hash index kept in direct (off-heap) memory. Counters are updated in place, removed or replaced
+ * records are reclaimed by a compaction running on a background thread, and the index is rebuilt from record headers
+ * on open, so no record has to be decoded to restore the store after a restart.
+ * <p>
+ * Authenticators returned by {@link #get(byte[])} are views over the log: the counter is read from and written to
+ * the mapped file, and {@link AttestedCredentialData} and {@link AttestationStatement} are decoded on first access.
+ */
+public class MappedAuthenticatorStore implements Closeable {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    private static final int MAGIC = 0x57344A53;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private static final int END_OF_LOG = 0;
+    private static final int END_OF_SEGMENT = -1;
+
+    private static final byte STATUS_REMOVED = 0;
+    private static final byte STATUS_LIVE = 1;
+
+    // record layout
+    private static final int LENGTH_OFFSET = 0;
+    private static final int STATUS_OFFSET = 4;
+    private static final int COUNTER_OFFSET = 5;
+    private static final int AAGUID_OFFSET = 9;
+    private static final int CREDENTIAL_ID_LENGTH_OFFSET = 25;
+    private static final int CREDENTIAL_ID_OFFSET = 27;
+
+    // index slot layout
+    private static final int SLOT_SIZE = 12;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final double INDEX_LOAD_FACTOR = 0.7;
+
+    private static final long MIN_COMPACTION_GARBAGE = 1024 * 1024;
+
+    // counters are updated under the read lock, so each is guarded by one of these stripes instead
+    private static final int COUNTER_LOCK_STRIPES = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(MappedAuthenticatorStore.class);
+
+    //~ Instance fields
+    // ================================================================================================
+    private final Path path;
+    private final CborConverter cborConverter;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final Object[] counterLocks = new Object[COUNTER_LOCK_STRIPES];
+    private final ExecutorService compactionExecutor;
+
+    private int segmentSize;
+    private FileChannel channel;
+    private List<MappedByteBuffer> segments;
+    private long writePosition;
+
+    private ByteBuffer index;
+    private int indexMask;
+    private int size;
+
+    private long liveBytes;
+    private long garbageBytes;
+    private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private CompletableFuture<Void> pendingCompaction;
+    private boolean closed;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public MappedAuthenticatorStore(Path path, Registry registry, int segmentSize) {
+        AssertUtil.notNull(path, "path must not be null");
+        AssertUtil.notNull(registry, "registry must not be null");
+        AssertUtil.isTrue(segmentSize >= 4096, "segmentSize must be 4096 or greater");
+
+        this.path = path;
+        this.cborConverter = new CborConverter(registry);
+        this.segmentSize = segmentSize;
+        for (int i = 0; i < counterLocks.length; i++) {
+            counterLocks[i] = new Object();
+        }
+        this.compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webauthn4j-authenticator-store-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public MappedAuthenticatorStore(Path path, Registry registry) {
+        this(path, registry, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedAuthenticatorStore(Path path) {
+        this(path, Registry.getDefault());
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Stores the authenticator, replacing the record previously stored for the same credential ID.
+     *
+     * @param authenticator authenticator to store
+     */
+    public void put(Authenticator authenticator) {
+        AssertUtil.notNull(authenticator, "authenticator must not be null");
+        AttestedCredentialData attestedCredentialData = authenticator.getAttestedCredentialData();
+        AssertUtil.notNull(attestedCredentialData, "attestedCredentialData must not be null");
+        byte[] record = encode(attestedCredentialData, authenticator.getAttestationStatement(), authenticator.getCounter());
+
+        writerLock.lock();
+        try {
+            assertOpen();
+            long offset = append(record);
+            byte[] credentialId = attestedCredentialData.getCredentialId();
+            lock.writeLock().lock();
+            try {
+                int slot = findSlot(credentialId, hash(credentialId));
+                long previous = getSlotOffset(slot);
+                if (previous >= 0) {
+                    discard(previous);
+                } else {
+                    size++;
+                }
+                setSlot(slot, hash(credentialId), offset);
+                liveBytes += record.length;
+                if (size > (indexMask + 1) * INDEX_LOAD_FACTOR) {
+                    resizeIndex((indexMask + 1) * 2);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            scheduleCompactionIfNeeded();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a view of the authenticator stored for the credential ID, or {@code null} if there is none.
+     *
+     * @param credentialId credential ID
+     * @return authenticator view
+     */
+    public Authenticator get(byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            return lookup(credentialId) < 0 ? null : new MappedAuthenticator(this, credentialId.clone());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            return lookup(credentialId) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the authenticator stored for the credential ID.
+     *
+     * @param credentialId credential ID
+     * @return true if an authenticator was removed
+     */
+    public boolean remove(byte[] credentialId) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        writerLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                assertOpen();
+                int slot = findSlot(credentialId, hash(credentialId));
+                long offset = getSlotOffset(slot);
+                if (offset < 0) {
+                    return false;
+                }
+                discard(offset);
+                deleteSlot(slot);
+                size--;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            scheduleCompactionIfNeeded();
+            return true;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Updates the counter of the stored authenticator in place.
+     * The mapping and the index are left unchanged, so only concurrent accesses to counters sharing the same lock
+     * stripe wait for the update; puts, removes and compactions are excluded by the read lock.
+     *
+     * @param credentialId credential ID
+     * @param counter      new counter value
+     */
+    public void updateCounter(byte[] credentialId, long counter) {
+        AssertUtil.notNull(credentialId, "credentialId must not be null");
+        if (counter < 0 || counter > ConstUtil.UINT_MAX_VALUE) {
+            throw new IllegalArgumentException("[Assertion failed] - this argument is unsigned int. it must be in the range of 0 to 4294967295.");
+        }
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            int hash = hash(credentialId);
+            long offset = getSlotOffset(findSlot(credentialId, hash));
+            if (offset < 0) {
+                throw new IllegalStateException("authenticator is not found in the store");
+            }
+            // the counter field is not aligned, so a plain putInt is not atomic against a concurrent getInt
+            synchronized (counterLock(hash)) {
+                segment(offset).putInt(position(offset) + COUNTER_OFFSET, (int) counter);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ratio of bytes held by removed or replaced records to all record bytes in the log.
+     *
+     * @return garbage ratio
+     */
+    public double getGarbageRatio() {
+        lock.readLock().lock();
+        try {
+            long total = liveBytes + garbageBytes;
+            return total == 0 ? 0 : (double) garbageBytes / total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the garbage ratio above which a background compaction is scheduled.
+     *
+     * @param compactionThreshold garbage ratio between 0 and 1
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        AssertUtil.isTrue(compactionThreshold > 0 && compactionThreshold <= 1, "compactionThreshold must be in the range of (0, 1]");
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Rewrites the log on the background thread, dropping removed and replaced records.
+     * The records are copied without blocking the store; puts and removes only wait while the changes made
+     * during the copy are replayed onto the compacted log.
+     *
+     * @return future completed when the compacted log is in place
+     */
+    public CompletableFuture<Void> compactAsync() {
+        writerLock.lock();
+        try {
+            assertOpen();
+            // a compaction which has already started may miss changes made before this call, so only
+            // a compaction which has not started yet is shared
+            if (pendingCompaction == null) {
+                pendingCompaction = CompletableFuture.runAsync(this::compact, compactionExecutor);
+            }
+            return pendingCompaction;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the mapped log to the storage device.
+     */
+    public void sync() {
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdown();
+        }
+        writerLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                for (MappedByteBuffer segment : segments) {
+                    segment.force();
+                }
+                channel.close();
+                closed = true;
+                segments = null;
+                index = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    long readCounter(byte[] credentialId) {
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            long offset = requireRecord(credentialId);
+            synchronized (counterLock(hash(credentialId))) {
+                return Integer.toUnsignedLong(segment(offset).getInt(position(offset) + COUNTER_OFFSET));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    AttestedCredentialData readAttestedCredentialData(byte[] credentialId) {
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            long offset = requireRecord(credentialId);
+            ByteBuffer segment = segment(offset);
+            int position = position(offset);
+            byte[] aaguid = new byte[16];
+            ByteBuffer view = segment.duplicate();
+            view.position(position + AAGUID_OFFSET);
+            view.get(aaguid);
+            view.position(position + CREDENTIAL_ID_OFFSET + credentialId.length);
+            int keyLength = view.getInt();
+            view.limit(view.position() + keyLength);
+            CredentialPublicKey credentialPublicKey = cborConverter.readValue(new ByteBufferBackedInputStream(view), CredentialPublicKey.class);
+            return new AttestedCredentialData(aaguid, credentialId.clone(), credentialPublicKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    AttestationStatement readAttestationStatement(byte[] credentialId) {
+        lock.readLock().lock();
+        try {
+            assertOpen();
+            long offset = requireRecord(credentialId);
+            ByteBuffer view = segment(offset).duplicate();
+            view.position(position(offset) + CREDENTIAL_ID_OFFSET + credentialId.length);
+            int keyLength = view.getInt();
+            view.position(view.position() + keyLength);
+            int statementLength = view.getInt();
+            if (statementLength == 0) {
+                return null;
+            }
+            view.limit(view.position() + statementLength);
+            return cborConverter.readValue(new ByteBufferBackedInputStream(view), AttestationStatement.class);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] encode(AttestedCredentialData attestedCredentialData, AttestationStatement attestationStatement, long counter) {
+        byte[] aaguid = attestedCredentialData.getAaguid();
+        byte[] credentialId = attestedCredentialData.getCredentialId();
+        AssertUtil.isTrue(aaguid != null && aaguid.length == 16, "aaguid must be 16 bytes");
+        AssertUtil.isTrue(credentialId != null && credentialId.length <= 0xFFFF, "credentialId must not exceed 65535 bytes");
+        byte[] credentialPublicKey = cborConverter.writeValueAsBytes(attestedCredentialData.getCredentialPublicKey());
+        byte[] statement = attestationStatement == null ? new byte[0] : cborConverter.writeValueAsBytes(attestationStatement);
+
+        int length = CREDENTIAL_ID_OFFSET + credentialId.length + 4 + credentialPublicKey.length + 4 + statement.length;
+        if (length > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("authenticator record exceeds the segment size");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(length);
+        buffer.put(STATUS_LIVE);
+        buffer.putInt((int) counter);
+        buffer.put(aaguid);
+        buffer.putShort((short) credentialId.length);
+        buffer.put(credentialId);
+        buffer.putInt(credentialPublicKey.length);
+        buffer.put(credentialPublicKey);
+        buffer.putInt(statement.length);
+        buffer.put(statement);
+        return buffer.array();
+    }
+
+    private void open() throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments = new ArrayList<>();
+        if (exists) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IllegalStateException("file is not an authenticator store: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("unsupported authenticator store version: " + version);
+            }
+            segmentSize = header.getInt();
+            long fileSize = channel.size();
+            for (long position = 0; position < fileSize; position += segmentSize) {
+                mapSegment();
+            }
+        } else {
+            mapSegment();
+            MappedByteBuffer first = segments.get(0);
+            first.putInt(0, MAGIC);
+            first.putInt(4, VERSION);
+            first.putInt(8, segmentSize);
+        }
+        rebuildIndex();
+    }
+
+    /**
+     * Scans record headers from the start of the log to restore the index, the write position and the statistics.
+     */
+    private void rebuildIndex() {
+        allocateIndex(INITIAL_INDEX_CAPACITY);
+        size = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        long offset = HEADER_SIZE;
+        while (true) {
+            int segmentIndex = (int) (offset / segmentSize);
+            if (segmentIndex >= segments.size()) {
+                break;
+            }
+            int position = position(offset);
+            int length = segmentSize - position < 4 ? END_OF_SEGMENT : segments.get(segmentIndex).getInt(position + LENGTH_OFFSET);
+            if (length == END_OF_LOG) {
+                break;
+            }
+            if (length == END_OF_SEGMENT) {
+                offset = (long) (segmentIndex + 1) * segmentSize;
+                continue;
+            }
+            if (segments.get(segmentIndex).get(position + STATUS_OFFSET) == STATUS_LIVE) {
+                byte[] credentialId = readCredentialId(offset);
+                int slot = findSlot(credentialId, hash(credentialId));
+                long previous = getSlotOffset(slot);
+                if (previous >= 0) {
+                    // a put interrupted before the previous record was marked as removed
+                    discard(previous);
+                } else {
+                    size++;
+                }
+                setSlot(slot, hash(credentialId), offset);
+                liveBytes += length;
+                if (size > (indexMask + 1) * INDEX_LOAD_FACTOR) {
+                    resizeIndex((indexMask + 1) * 2);
+                }
+            } else {
+                garbageBytes += length;
+            }
+            offset += length;
+        }
+        writePosition = offset;
+    }
+
+    private long append(byte[] record) {
+        int position = position(writePosition);
+        if (segmentSize - position < record.length) {
+            if (segmentSize - position >= 4) {
+                segment(writePosition).putInt(position, END_OF_SEGMENT);
+            }
+            writePosition = (writePosition / segmentSize + 1) * segmentSize;
+            position = 0;
+        }
+        while (writePosition / segmentSize >= segments.size()) {
+            mapSegment();
+        }
+        long offset = writePosition;
+        ByteBuffer view = segment(offset).duplicate();
+        view.position(position + 4);
+        view.put(record, 4, record.length - 4);
+        // the length is written last so that a torn append reads as the end of the log
+        view.putInt(position, record.length);
+        writePosition += record.length;
+        return offset;
+    }
+
+    private void mapSegment() {
+        try {
+            long start = (long) segments.size() * segmentSize;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, start, segmentSize);
+            List<MappedByteBuffer> newSegments = new ArrayList<>(segments);
+            newSegments.add(segment);
+            lock.writeLock().lock();
+            try {
+                segments = newSegments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void discard(long offset) {
+        ByteBuffer segment = segment(offset);
+        int position = position(offset);
+        segment.put(position + STATUS_OFFSET, STATUS_REMOVED);
+        int length = segment.getInt(position + LENGTH_OFFSET);
+        liveBytes -= length;
+        garbageBytes += length;
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (garbageBytes >= MIN_COMPACTION_GARBAGE && getGarbageRatio() >= compactionThreshold) {
+            compactAsync();
+        }
+    }
+
+    private void compact() {
+        long snapshotEnd;
+        long[] offsets;
+        int[] hashes;
+        writerLock.lock();
+        try {
+            pendingCompaction = null;
+            if (closed) {
+                return;
+            }
+            // the log is append-only, so the records indexed at this point stay readable while they are copied
+            snapshotEnd = writePosition;
+            offsets = new long[size];
+            hashes = new int[size];
+            int count = 0;
+            for (int slot = 0; slot <= indexMask; slot++) {
+                long offset = getSlotOffset(slot);
+                if (offset >= 0) {
+                    offsets[count] = offset;
+                    hashes[count] = getSlotHash(slot);
+                    count++;
+                }
+            }
+        } finally {
+            writerLock.unlock();
+        }
+
+        Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        MappedAuthenticatorStore compacted = null;
+        boolean moved = false;
+        try {
+            compacted = new MappedAuthenticatorStore(compactedPath, segmentSize, cborConverter);
+            for (int i = 0; i < offsets.length; i++) {
+                byte[] record = readRecord(offsets[i]);
+                if (record == null) {
+                    return;
+                }
+                compacted.copyRecord(record, hashes[i]);
+            }
+            writerLock.lock();
+            try {
+                lock.writeLock().lock();
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    replayChanges(compacted, snapshotEnd);
+                    for (MappedByteBuffer segment : compacted.segments) {
+                        segment.force();
+                    }
+                    // the current log stays open until the compacted one is in place, so a failed move leaves the store intact
+                    Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    moved = true;
+                    FileChannel previousChannel = channel;
+                    channel = compacted.channel;
+                    segments = compacted.segments;
+                    index = compacted.index;
+                    indexMask = compacted.indexMask;
+                    size = compacted.size;
+                    liveBytes = compacted.liveBytes;
+                    garbageBytes = compacted.garbageBytes;
+                    writePosition = compacted.writePosition;
+                    compacted.closed = true;
+                    previousChannel.close();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                writerLock.unlock();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to compact the authenticator store", e);
+            throw new UncheckedIOException(e);
+        } finally {
+            if (compacted != null) {
+                compacted.close();
+            }
+            if (!moved) {
+                try {
+                    Files.deleteIfExists(compactedPath);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete {}", compactedPath, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the changes made since the records were copied to the compacted store: records removed or replaced
+     * after the snapshot are dropped, records appended after it are copied, and the counters are refreshed.
+     */
+    private void replayChanges(MappedAuthenticatorStore compacted, long snapshotEnd) {
+        for (int slot = 0; slot <= compacted.indexMask; slot++) {
+            long newOffset = compacted.getSlotOffset(slot);
+            if (newOffset < 0) {
+                continue;
+            }
+            long oldOffset = lookup(compacted.readCredentialId(newOffset));
+            if (oldOffset < 0 || oldOffset >= snapshotEnd) {
+                compacted.discard(newOffset);
+                compacted.deleteSlot(slot);
+                compacted.size--;
+                // deleteSlot may have shifted the next entry of the probe sequence into this slot
+                slot--;
+            } else {
+                int counter = segment(oldOffset).getInt(position(oldOffset) + COUNTER_OFFSET);
+                compacted.segment(newOffset).putInt(compacted.position(newOffset) + COUNTER_OFFSET, counter);
+            }
+        }
+        long offset = nextRecord(snapshotEnd);
+        while (offset >= 0 && offset < writePosition) {
+            ByteBuffer segment = segment(offset);
+            int position = position(offset);
+            if (segment.get(position + STATUS_OFFSET) == STATUS_LIVE) {
+                compacted.copyRecord(readRecord(offset), hash(readCredentialId(offset)));
+            }
+            offset = nextRecord(offset + segment.getInt(position + LENGTH_OFFSET));
+        }
+    }
+
+    /**
+     * Returns the offset of the record at or after the offset, skipping the unused end of a segment,
+     * or -1 at the end of the log.
+     */
+    private long nextRecord(long offset) {
+        while (true) {
+            int segmentIndex = (int) (offset / segmentSize);
+            if (segmentIndex >= segments.size()) {
+                return -1;
+            }
+            int position = position(offset);
+            int length = segmentSize - position < 4 ? END_OF_SEGMENT : segments.get(segmentIndex).getInt(position + LENGTH_OFFSET);
+            if (length == END_OF_LOG) {
+                return -1;
+            }
+            if (length != END_OF_SEGMENT) {
+                return offset;
+            }
+            offset = (long) (segmentIndex + 1) * segmentSize;
+        }
+    }
+
+    /**
+     * Copies the record out of the log, or returns {@code null} if the store is closed.
+     */
+    private byte[] readRecord(long offset) {
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            ByteBuffer view = segment(offset).duplicate();
+            int position = position(offset);
+            byte[] record = new byte[view.getInt(position + LENGTH_OFFSET)];
+            view.position(position);
+            view.get(record);
+            return record;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a bare store used as the target of a compaction.
+     */
+    private MappedAuthenticatorStore(Path path, int segmentSize, CborConverter cborConverter) throws IOException {
+        this.path = path;
+        this.cborConverter = cborConverter;
+        this.segmentSize = segmentSize;
+        this.compactionExecutor = null;
+        Files.deleteIfExists(path);
+        open();
+    }
+
+    private void copyRecord(byte[] record, int hash) {
+        // the source record may have been removed while it was copied, which is resolved by replayChanges
+        record[STATUS_OFFSET] = STATUS_LIVE;
+        long offset = append(record);
+        int slot = findSlot(readCredentialId(offset), hash);
+        long previous = getSlotOffset(slot);
+        if (previous >= 0) {
+            discard(previous);
+        } else {
+            size++;
+        }
+        setSlot(slot, hash, offset);
+        liveBytes += record.length;
+        if (size > (indexMask + 1) * INDEX_LOAD_FACTOR) {
+            resizeIndex((indexMask + 1) * 2);
+        }
+    }
+
+    private long requireRecord(byte[] credentialId) {
+        long offset = lookup(credentialId);
+        if (offset < 0) {
+            throw new IllegalStateException("authenticator is removed from the store");
+        }
+        return offset;
+    }
+
+    private Object counterLock(int hash) {
+        return counterLocks[hash & (COUNTER_LOCK_STRIPES - 1)];
+    }
+
+    private long lookup(byte[] credentialId) {
+        return getSlotOffset(findSlot(credentialId, hash(credentialId)));
+    }
+
+    private byte[] readCredentialId(long offset) {
+        ByteBuffer view = segment(offset).duplicate();
+        int position = position(offset);
+        byte[] credentialId = new byte[Short.toUnsignedInt(view.getShort(position + CREDENTIAL_ID_LENGTH_OFFSET))];
+        view.position(position + CREDENTIAL_ID_OFFSET);
+        view.get(credentialId);
+        return credentialId;
+    }
+
+    private boolean credentialIdEquals(long offset, byte[] credentialId) {
+        ByteBuffer segment = segment(offset);
+        int position = position(offset);
+        if (Short.toUnsignedInt(segment.getShort(position + CREDENTIAL_ID_LENGTH_OFFSET)) != credentialId.length) {
+            return false;
+        }
+        for (int i = 0; i < credentialId.length; i++) {
+            if (segment.get(position + CREDENTIAL_ID_OFFSET + i) != credentialId[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer segment(long offset) {
+        return segments.get((int) (offset / segmentSize));
+    }
+
+    private int position(long offset) {
+        return (int) (offset % segmentSize);
+    }
+
+    // ~ Index
+    // ================================================================================================
+
+    private static int hash(byte[] credentialId) {
+        int hash = Arrays.hashCode(credentialId);
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    private void allocateIndex(int capacity) {
+        index = ByteBuffer.allocateDirect(slotPosition(capacity));
+        indexMask = capacity - 1;
+        for (int slot = 0; slot < capacity; slot++) {
+            index.putLong(slotPosition(slot), -1);
+        }
+    }
+
+    /**
+     * Returns the position of the slot in the index. The product is computed in long, so that an index growing
+     * beyond the capacity of a {@link ByteBuffer} fails instead of wrapping around.
+     */
+    private static int slotPosition(int slot) {
+        return Math.toIntExact((long) slot * SLOT_SIZE);
+    }
+
+    /**
+     * Returns the slot holding the credential ID, or the empty slot where it would be inserted.
+     */
+    private int findSlot(byte[] credentialId, int hash) {
+        int slot = hash & indexMask;
+        while (true) {
+            long offset = getSlotOffset(slot);
+            if (offset < 0) {
+                return slot;
+            }
+            if (getSlotHash(slot) == hash && credentialIdEquals(offset, credentialId)) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    private long getSlotOffset(int slot) {
+        return index.getLong(slotPosition(slot));
+    }
+
+    private int getSlotHash(int slot) {
+        return index.getInt(slotPosition(slot) + 8);
+    }
+
+    private void setSlot(int slot, int hash, long offset) {
+        index.putLong(slotPosition(slot), offset);
+        index.putInt(slotPosition(slot) + 8, hash);
+    }
+
+    /**
+     * Empties the slot and shifts back the entries of the probe sequence, so that no tombstone is needed.
+     */
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & indexMask;
+            long offset = getSlotOffset(next);
+            if (offset < 0) {
+                break;
+            }
+            int hash = getSlotHash(next);
+            int home = hash & indexMask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                setSlot(hole, hash, offset);
+                hole = next;
+            }
+        }
+        index.putLong(slotPosition(hole), -1);
+    }
+
+    private void resizeIndex(int capacity) {
+        ByteBuffer oldIndex = index;
+        int oldCapacity = indexMask + 1;
+        allocateIndex(capacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long offset = oldIndex.getLong(slotPosition(slot));
+            if (offset >= 0) {
+                int hash = oldIndex.getInt(slotPosition(slot) + 8);
+                int newSlot = hash & indexMask;
+                while (getSlotOffset(newSlot) >= 0) {
+                    newSlot = (newSlot + 1) & indexMask;
+                }
+                setSlot(newSlot, hash, offset);
+            }
+        }
+    }
+
+    private void assertOpen() {
+        if (closed) {
+            throw new IllegalStateException("authenticator store is closed");
+        }
+    }
+}
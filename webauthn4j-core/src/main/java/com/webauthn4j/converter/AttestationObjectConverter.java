@@ -16,28 +16,46 @@
 
 package com.webauthn4j.converter;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.response.attestation.AttestationObject;
 import com.webauthn4j.converter.util.CborConverter;
+import com.webauthn4j.converter.util.InputLimits;
 import com.webauthn4j.registry.Registry;
 import com.webauthn4j.util.Base64UrlUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Converter for {@link AttestationObject}
  */
 public class AttestationObjectConverter {
 
+    //~ Static fields/initializers
+    // ================================================================================================
+    private static final String AUTHENTICATOR_DATA_FIELD = "authData";
+
     //~ Instance fields
     // ================================================================================================
     private CborConverter cborConverter;
+    private JsonFactory cborFactory;
+    private InputLimits inputLimits;
 
     //~ Constructors
     // ================================================================================================
 
     public AttestationObjectConverter(Registry registry){
-        cborConverter = new CborConverter(registry.getCborMapper());
+        cborConverter = new CborConverter(registry);
+        cborFactory = registry.getCborReader(Object.class).getFactory();
+        inputLimits = registry.getInputLimits();
     }
 
     //~ Methods
@@ -55,6 +73,17 @@ public class AttestationObjectConverter {
         return cborConverter.readValue(source, AttestationObject.class);
     }
 
+    /**
+     * Converts the attestation object which has been passed to {@link #extractAuthenticatorData(byte[])}.
+     * As the extraction checks the attestation object against the input limits, it is not scanned again.
+     *
+     * @param source attestation object bytes the authenticator data has been extracted from
+     * @return attestation object
+     */
+    public AttestationObject convertExtracted(byte[] source) {
+        return cborConverter.readValue(new ByteArrayInputStream(source), AttestationObject.class);
+    }
+
     public byte[] convertToBytes(AttestationObject source) {
         return cborConverter.writeValueAsBytes(source);
     }
@@ -64,9 +93,48 @@ public class AttestationObjectConverter {
         return Base64UrlUtil.encodeToString(bytes);
     }
 
+    /**
+     * Extracts the raw authenticator data from the attestation object.
+     * The attestation object is read as a stream, so that the attestation statement is skipped without being decoded.
+     * The whole map is scanned and a duplicated key is rejected, as the full decode would otherwise bind
+     * an authData other than the one extracted here. The other members are checked against the input limits
+     * while they are skipped, and the authData is copied out in chunks rather than into a buffer of its declared length.
+     *
+     * @param attestationObject attestation object bytes
+     * @return authenticator data bytes
+     */
     public byte[] extractAuthenticatorData(byte[] attestationObject) {
-        try {
-            return cborConverter.readTree(attestationObject).get("authData").binaryValue();
+        inputLimits.checkPayloadSize(attestationObject.length);
+        try (JsonParser parser = cborFactory.createParser(attestationObject)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new DataConversionException("attestationObject must be a map");
+            }
+            byte[] authenticatorData = null;
+            Set<String> fieldNames = new HashSet<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                if (!fieldNames.add(fieldName)) {
+                    throw new DataConversionException("Duplicate key '" + fieldName + "' in attestationObject");
+                }
+                JsonToken token = parser.nextToken();
+                if (AUTHENTICATOR_DATA_FIELD.equals(fieldName)) {
+                    if (token != JsonToken.VALUE_EMBEDDED_OBJECT) {
+                        throw new DataConversionException("authData must be a byte string");
+                    }
+                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                    parser.readBinaryValue(outputStream);
+                    authenticatorData = outputStream.toByteArray();
+                }
+                else {
+                    inputLimits.validateValue(parser, 1);
+                }
+            }
+            if (authenticatorData == null) {
+                throw new DataConversionException("authData is not found");
+            }
+            return authenticatorData;
+        } catch (JsonParseException e) {
+            throw new DataConversionException("Input data does not match expected form", e);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -30,7 +30,7 @@ public class AuthenticationExtensionsClientInputsConverter {
     // ================================================================================================
 
     public AuthenticationExtensionsClientInputsConverter(Registry registry){
-        jsonConverter = new JsonConverter(registry.getJsonMapper());
+        jsonConverter = new JsonConverter(registry);
     }
 
     //~ Methods
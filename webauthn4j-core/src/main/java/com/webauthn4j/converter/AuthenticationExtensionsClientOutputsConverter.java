@@ -20,17 +20,21 @@ import com.webauthn4j.converter.util.JsonConverter;
 import com.webauthn4j.registry.Registry;
 import com.webauthn4j.response.extension.client.AuthenticationExtensionsClientOutputs;
 
+import java.io.StringReader;
+
 public class AuthenticationExtensionsClientOutputsConverter {
 
     //~ Instance fields
     // ================================================================================================
     private JsonConverter jsonConverter;
+    private Registry registry;
 
     //~ Constructors
     // ================================================================================================
 
     public AuthenticationExtensionsClientOutputsConverter(Registry registry){
-        jsonConverter = new JsonConverter(registry.getJsonMapper());
+        jsonConverter = new JsonConverter(registry);
+        this.registry = registry;
     }
 
     //~ Methods
@@ -40,7 +44,9 @@ public class AuthenticationExtensionsClientOutputsConverter {
         if (value == null) {
             return null;
         }
-        return jsonConverter.readValue(value, AuthenticationExtensionsClientOutputs.class);
+        // the input is scanned once, with the extension count checked, and then read without being scanned again
+        registry.getInputLimits().validateExtensions(registry.getJsonReader(Object.class).getFactory(), value);
+        return jsonConverter.readValue(new StringReader(value), AuthenticationExtensionsClientOutputs.class);
     }
 
     public String convertToString(AuthenticationExtensionsClientOutputs value) {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.response.attestation.authenticator.CredentialPublicKey;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.UnsignedNumberUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Converter between {@link Authenticator} and a compact, versioned binary form for persistence.
+ * <p>
+ * The binary form holds the AAGUID, the credential ID, the COSE encoded credential public key, the counter and
+ * the attestation statement if present. When a {@link CertificateRepository} is given, attestation certificates are
+ * stored into it and only their references are written, so that a certificate shared by many authenticators is
+ * persisted once.
+ */
+public class AuthenticatorConverter {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    public static final byte VERSION_1 = 1;
+
+    private static final int FLAG_ATTESTATION_STATEMENT = 0x01;
+    private static final int FLAG_CERTIFICATE_REFERENCE = 0x02;
+
+    private static final String INPUT_MISMATCH_ERROR_MESSAGE = "Input data does not match expected form";
+
+    //~ Instance fields
+    // ================================================================================================
+    private final ObjectWriter credentialPublicKeyWriter;
+    private final ObjectReader credentialPublicKeyReader;
+    private final ObjectWriter attestationStatementWriter;
+    private final ObjectReader attestationStatementReader;
+    private final ObjectReader inlineAttestationStatementReader;
+    private final CertificateRepository certificateRepository;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public AuthenticatorConverter(Registry registry, CertificateRepository certificateRepository) {
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.certificateRepository = certificateRepository;
+        this.credentialPublicKeyWriter = registry.getCborWriter(CredentialPublicKey.class);
+        this.credentialPublicKeyReader = registry.getCborReader(CredentialPublicKey.class);
+        ObjectWriter writer = registry.getCborWriter(AttestationStatementEnvelope.class);
+        ObjectReader reader = registry.getCborReader(AttestationStatementEnvelope.class);
+        this.inlineAttestationStatementReader = reader;
+        if (certificateRepository != null) {
+            writer = writer.withAttribute(CertificateRepository.class, certificateRepository);
+            reader = reader.withAttribute(CertificateRepository.class, certificateRepository);
+        }
+        this.attestationStatementWriter = writer;
+        this.attestationStatementReader = reader;
+    }
+
+    public AuthenticatorConverter(Registry registry) {
+        this(registry, null);
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    public byte[] convert(Authenticator source) {
+        AssertUtil.notNull(source, "source must not be null");
+        AttestedCredentialData attestedCredentialData = source.getAttestedCredentialData();
+        AssertUtil.notNull(attestedCredentialData, "attestedCredentialData must not be null");
+        byte[] aaguid = attestedCredentialData.getAaguid();
+        byte[] credentialId = attestedCredentialData.getCredentialId();
+        AssertUtil.isTrue(aaguid != null && aaguid.length == 16, "aaguid must be 16 bytes");
+        AssertUtil.isTrue(credentialId != null && credentialId.length <= 0xFFFF, "credentialId must not exceed 65535 bytes");
+
+        try {
+            byte[] credentialPublicKey = credentialPublicKeyWriter.writeValueAsBytes(attestedCredentialData.getCredentialPublicKey());
+            AssertUtil.isTrue(credentialPublicKey.length <= 0xFFFF, "credentialPublicKey must not exceed 65535 bytes");
+            AttestationStatement attestationStatement = source.getAttestationStatement();
+            byte[] statement = attestationStatement == null ? null : attestationStatementWriter.writeValueAsBytes(new AttestationStatementEnvelope(attestationStatement));
+
+            int flags = 0;
+            int length = 1 + 1 + 4 + 16 + 2 + credentialId.length + 2 + credentialPublicKey.length;
+            if (statement != null) {
+                flags |= FLAG_ATTESTATION_STATEMENT;
+                length += 4 + statement.length;
+                if (certificateRepository != null) {
+                    flags |= FLAG_CERTIFICATE_REFERENCE;
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            buffer.put(VERSION_1);
+            buffer.put((byte) flags);
+            buffer.put(UnsignedNumberUtil.toBytes(source.getCounter()));
+            buffer.put(aaguid);
+            buffer.put(UnsignedNumberUtil.toBytes(credentialId.length));
+            buffer.put(credentialId);
+            buffer.put(UnsignedNumberUtil.toBytes(credentialPublicKey.length));
+            buffer.put(credentialPublicKey);
+            if (statement != null) {
+                buffer.putInt(statement.length);
+                buffer.put(statement);
+            }
+            return buffer.array();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public AuthenticatorImpl convert(byte[] source) {
+        AssertUtil.notNull(source, "source must not be null");
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(source);
+            byte version = buffer.get();
+            if (version != VERSION_1) {
+                throw new DataConversionException("unsupported version: " + version);
+            }
+            int flags = buffer.get();
+            long counter = UnsignedNumberUtil.getUnsignedInt(buffer);
+            byte[] aaguid = new byte[16];
+            buffer.get(aaguid);
+            byte[] credentialId = new byte[UnsignedNumberUtil.getUnsignedShort(buffer)];
+            buffer.get(credentialId);
+            int credentialPublicKeyLength = UnsignedNumberUtil.getUnsignedShort(buffer);
+            CredentialPublicKey credentialPublicKey = credentialPublicKeyReader.readValue(source, buffer.position(), credentialPublicKeyLength);
+            buffer.position(buffer.position() + credentialPublicKeyLength);
+
+            AttestationStatement attestationStatement = null;
+            if ((flags & FLAG_ATTESTATION_STATEMENT) != 0) {
+                if ((flags & FLAG_CERTIFICATE_REFERENCE) != 0 && certificateRepository == null) {
+                    throw new DataConversionException("certificate references cannot be resolved without CertificateRepository");
+                }
+                int statementLength = buffer.getInt();
+                ObjectReader reader = (flags & FLAG_CERTIFICATE_REFERENCE) != 0 ? attestationStatementReader : inlineAttestationStatementReader;
+                AttestationStatementEnvelope envelope = reader.readValue(source, buffer.position(), statementLength);
+                buffer.position(buffer.position() + statementLength);
+                attestationStatement = envelope.getAttestationStatement();
+            }
+            if (buffer.hasRemaining()) {
+                throw new DataConversionException("provided data does not have proper byte layout");
+            }
+            return new AuthenticatorImpl(new AttestedCredentialData(aaguid, credentialId, credentialPublicKey), attestationStatement, counter);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new DataConversionException("provided data does not have proper byte layout", e);
+        } catch (MismatchedInputException | JsonParseException e) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Carries the format of the attestation statement along with it, in the same way as {@code AttestationObject}
+     */
+    static class AttestationStatementEnvelope {
+
+        @JsonProperty("attStmt")
+        @JsonTypeInfo(
+                use = JsonTypeInfo.Id.NAME,
+                include = JsonTypeInfo.As.EXTERNAL_PROPERTY,
+                property = "fmt"
+        )
+        private final AttestationStatement attestationStatement;
+
+        @JsonCreator
+        AttestationStatementEnvelope(@JsonProperty("attStmt") AttestationStatement attestationStatement) {
+            this.attestationStatement = attestationStatement;
+        }
+
+        AttestationStatement getAttestationStatement() {
+            return attestationStatement;
+        }
+    }
+}
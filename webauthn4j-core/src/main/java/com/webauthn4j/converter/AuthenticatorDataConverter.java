@@ -20,6 +20,7 @@ import com.webauthn4j.converter.exception.DataConversionException;
 import com.webauthn4j.converter.jackson.deserializer.AuthenticationExtensionsAuthenticatorOutputsEnvelope;
 import com.webauthn4j.converter.jackson.deserializer.CredentialPublicKeyEnvelope;
 import com.webauthn4j.converter.util.CborConverter;
+import com.webauthn4j.converter.util.InputLimits;
 import com.webauthn4j.registry.Registry;
 import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
 import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
@@ -30,21 +31,32 @@ import com.webauthn4j.util.UnsignedNumberUtil;
 import java.io.*;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Converter for {@link AuthenticatorData}
  */
 public class AuthenticatorDataConverter {
 
+    //~ Static fields/initializers
+    // ================================================================================================
+    public static final int RP_ID_HASH_LENGTH = 32;
+    public static final int FLAGS_OFFSET = 32;
+    private static final int FIXED_PART_LENGTH = 37;
+
     //~ Instance fields
     // ================================================================================================
     private CborConverter cborConverter;
+    private Registry registry;
+    private InputLimits inputLimits;
 
     //~ Constructors
     // ================================================================================================
 
     public AuthenticatorDataConverter(Registry registry){
-        cborConverter = new CborConverter(registry.getCborMapper());
+        cborConverter = new CborConverter(registry);
+        this.registry = registry;
+        inputLimits = registry.getInputLimits();
     }
 
 
@@ -80,6 +92,7 @@ public class AuthenticatorDataConverter {
 
     public AuthenticatorData convert(byte[] value) {
         try{
+            inputLimits.checkPayloadSize(value.length);
             ByteBuffer byteBuffer = ByteBuffer.wrap(value);
 
             byte[] rpIdHash = new byte[32];
@@ -110,14 +123,44 @@ public class AuthenticatorDataConverter {
         }
     }
 
+    /**
+     * Extracts rpIdHash from the raw authenticator data without decoding the rest of it
+     *
+     * @param authenticatorData authenticator data bytes
+     * @return rpIdHash
+     */
+    public byte[] extractRpIdHash(byte[] authenticatorData) {
+        assertFixedPartLength(authenticatorData);
+        return Arrays.copyOf(authenticatorData, RP_ID_HASH_LENGTH);
+    }
+
+    /**
+     * Extracts flags from the raw authenticator data without decoding the rest of it
+     *
+     * @param authenticatorData authenticator data bytes
+     * @return flags
+     */
+    public byte extractFlags(byte[] authenticatorData) {
+        assertFixedPartLength(authenticatorData);
+        return authenticatorData[FLAGS_OFFSET];
+    }
+
+    private void assertFixedPartLength(byte[] authenticatorData) {
+        if (authenticatorData == null || authenticatorData.length < FIXED_PART_LENGTH) {
+            throw new DataConversionException("provided data does not have proper byte layout");
+        }
+    }
+
     private AttestedCredentialData convertToAttestedCredentialData(ByteBuffer byteBuffer) {
         byte[] aaGuid = new byte[16];
         byteBuffer.get(aaGuid, 0, 16);
         int length = UnsignedNumberUtil.getUnsignedShort(byteBuffer);
+        inputLimits.checkCredentialIdLength(length);
         byte[] credentialId = new byte[length];
         byteBuffer.get(credentialId, 0, length);
         byte[] remaining = new byte[byteBuffer.remaining()];
         byteBuffer.get(remaining);
+        inputLimits.validate(registry.getCborReader(Object.class).getFactory(), remaining);
         ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(remaining);
         CredentialPublicKeyEnvelope credentialPublicKeyEnvelope = convertToCredentialPublicKey(byteArrayInputStream);
         CredentialPublicKey credentialPublicKey = credentialPublicKeyEnvelope.getCredentialPublicKey();
@@ -137,6 +180,7 @@ public class AuthenticatorDataConverter {
         }
         byte[] remaining = new byte[byteBuffer.remaining()];
         byteBuffer.get(remaining);
+        inputLimits.validateExtensions(registry.getCborReader(Object.class).getFactory(), remaining);
         ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(remaining);
         AuthenticationExtensionsAuthenticatorOutputsEnvelope envelope =
                 cborConverter.readValue(byteArrayInputStream, AuthenticationExtensionsAuthenticatorOutputsEnvelope.class);
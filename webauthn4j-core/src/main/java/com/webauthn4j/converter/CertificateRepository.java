@@ -0,0 +1,42 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Holds attestation certificates which {@link AuthenticatorConverter} stores by reference,
+ * so that a certificate shared by many authenticators is persisted once.
+ */
+public interface CertificateRepository {
+
+    /**
+     * Stores the certificate and returns the reference to it.
+     *
+     * @param certificate certificate to store
+     * @return reference to the certificate
+     */
+    byte[] store(X509Certificate certificate);
+
+    /**
+     * Loads the certificate referenced by the reference.
+     *
+     * @param reference reference returned by {@link #store(X509Certificate)}
+     * @return the certificate, or {@code null} if it is not found
+     */
+    X509Certificate load(byte[] reference);
+}
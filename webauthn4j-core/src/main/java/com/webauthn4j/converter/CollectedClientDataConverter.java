@@ -36,7 +36,7 @@ public class CollectedClientDataConverter {
     // ================================================================================================
 
     public CollectedClientDataConverter(Registry registry){
-        jsonConverter = new JsonConverter(registry.getJsonMapper());
+        jsonConverter = new JsonConverter(registry);
     }
 
     //~ Methods
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+
+import java.nio.ByteBuffer;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link CertificateRepository} which holds certificates on heap, referenced by the SHA-256 hash of their encoding
+ */
+public class InMemoryCertificateRepository implements CertificateRepository {
+
+    private final Map<ByteBuffer, X509Certificate> certificates = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] store(X509Certificate certificate) {
+        try {
+            byte[] reference = MessageDigestUtil.createSHA256().digest(certificate.getEncoded());
+            certificates.putIfAbsent(ByteBuffer.wrap(reference), certificate);
+            return reference;
+        } catch (CertificateEncodingException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    @Override
+    public X509Certificate load(byte[] reference) {
+        return certificates.get(ByteBuffer.wrap(reference));
+    }
+
+    /**
+     * Returns the stored certificates
+     *
+     * @return unmodifiable view of the certificates keyed by their reference
+     */
+    public Map<ByteBuffer, X509Certificate> getCertificates() {
+        return Collections.unmodifiableMap(certificates);
+    }
+}
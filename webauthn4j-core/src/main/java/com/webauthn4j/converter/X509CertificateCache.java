@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.CertificateUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of parsed {@link X509Certificate}s keyed by the SHA-256 hash of their DER encoding.
+ * The same attestation and intermediate certificates appear in many attestation statements, so parsing them once
+ * saves CPU, and sharing one instance per encoding saves heap for stored attestation statements.
+ * <p>
+ * Lookups do not lock, and concurrent misses for the same encoding parse it once. When the cache is full,
+ * arbitrary entries other than the one just added are evicted, so eviction is approximate rather than LRU.
+ * <p>
+ * With interning enabled, a certificate evicted from the cache is still returned for the same encoding
+ * as long as it is strongly reachable elsewhere, e.g. from a stored attestation statement.
+ * The cached certificates are shared, and must not be mutated.
+ */
+public class X509CertificateCache {
+
+    //~ Static fields/initializers
+    // =============================================================================================================
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    //~ Instance fields
+    // ================================================================================================
+    private final Map<ByteBuffer, X509Certificate> certificates = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, InternedCertificate> internedCertificates = new ConcurrentHashMap<>();
+    private final ReferenceQueue<X509Certificate> referenceQueue = new ReferenceQueue<>();
+    private final int maxEntries;
+    private final boolean interning;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public X509CertificateCache(int maxEntries, boolean interning) {
+        AssertUtil.isTrue(maxEntries >= 0, "maxEntries must not be negative");
+        this.maxEntries = maxEntries;
+        this.interning = interning;
+    }
+
+    public X509CertificateCache(int maxEntries) {
+        this(maxEntries, false);
+    }
+
+    public X509CertificateCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    //~ Methods
+    // ========================================================================================================
+
+    /**
+     * Returns the certificate encoded in the specified bytes, parsing it only if it is not cached
+     *
+     * @param derEncodedCertificate DER encoded certificate
+     * @return certificate
+     */
+    public X509Certificate parse(byte[] derEncodedCertificate) {
+        ByteBuffer key = ByteBuffer.wrap(MessageDigestUtil.createSHA256().digest(derEncodedCertificate));
+        return lookup(key, () -> CertificateUtil.generateX509Certificate(derEncodedCertificate));
+    }
+
+    /**
+     * Returns the cached certificate with the same encoding as the specified certificate, caching it if there is none
+     *
+     * @param certificate certificate
+     * @return the shared certificate instance
+     */
+    public X509Certificate intern(X509Certificate certificate) {
+        ByteBuffer key;
+        try {
+            key = ByteBuffer.wrap(MessageDigestUtil.createSHA256().digest(certificate.getEncoded()));
+        } catch (CertificateEncodingException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+        return lookup(key, () -> certificate);
+    }
+
+    public int size() {
+        return certificates.size();
+    }
+
+    public boolean isInterning() {
+        return interning;
+    }
+
+    private X509Certificate lookup(ByteBuffer key, Supplier<X509Certificate> supplier) {
+        X509Certificate certificate = certificates.get(key);
+        if (certificate != null) {
+            return certificate;
+        }
+        if (maxEntries == 0) {
+            return resolve(key, supplier);
+        }
+        certificate = certificates.computeIfAbsent(key, k -> resolve(k, supplier));
+        evict(key);
+        return certificate;
+    }
+
+    private X509Certificate resolve(ByteBuffer key, Supplier<X509Certificate> supplier) {
+        if (!interning) {
+            return supplier.get();
+        }
+        expungeStaleEntries();
+        InternedCertificate existing = internedCertificates.get(key);
+        X509Certificate certificate = existing == null ? null : existing.get();
+        if (certificate != null) {
+            return certificate;
+        }
+        certificate = supplier.get();
+        InternedCertificate reference = new InternedCertificate(key, certificate, referenceQueue);
+        existing = internedCertificates.putIfAbsent(key, reference);
+        while (existing != null) {
+            X509Certificate existingCertificate = existing.get();
+            if (existingCertificate != null) {
+                return existingCertificate;
+            }
+            if (internedCertificates.replace(key, existing, reference)) {
+                break;
+            }
+            existing = internedCertificates.putIfAbsent(key, reference);
+        }
+        return certificate;
+    }
+
+    private void evict(ByteBuffer added) {
+        if (certificates.size() <= maxEntries) {
+            return;
+        }
+        Iterator<ByteBuffer> iterator = certificates.keySet().iterator();
+        while (certificates.size() > maxEntries && iterator.hasNext()) {
+            if (!iterator.next().equals(added)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void expungeStaleEntries() {
+        InternedCertificate reference;
+        while ((reference = (InternedCertificate) referenceQueue.poll()) != null) {
+            internedCertificates.remove(reference.key, reference);
+        }
+    }
+
+    private static class InternedCertificate extends WeakReference<X509Certificate> {
+
+        private final ByteBuffer key;
+
+        private InternedCertificate(ByteBuffer key, X509Certificate certificate, ReferenceQueue<X509Certificate> queue) {
+            super(certificate, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter.exception;
+
+import com.webauthn4j.converter.util.InputLimits;
+
+/**
+ * Thrown if the input to be decoded exceeds one of the {@link InputLimits}
+ */
+public class InputLimitExceededException extends DataConversionException {
+
+    private final InputLimits.Limit limit;
+
+    public InputLimitExceededException(InputLimits.Limit limit, String message) {
+        super(message);
+        this.limit = limit;
+    }
+
+    public InputLimits.Limit getLimit() {
+        return limit;
+    }
+}
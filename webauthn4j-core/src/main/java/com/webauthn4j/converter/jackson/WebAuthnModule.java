@@ -16,10 +16,12 @@
 
 package com.webauthn4j.converter.jackson;
 
+import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.webauthn4j.converter.jackson.deserializer.*;
 import com.webauthn4j.converter.jackson.serializer.*;
+import com.webauthn4j.registry.AttestationStatementFormat;
 import com.webauthn4j.registry.Registry;
 import com.webauthn4j.request.extension.client.ExtensionClientInput;
 import com.webauthn4j.request.extension.client.FIDOAppIDExtensionClientInput;
@@ -39,6 +41,10 @@ import java.security.cert.X509Certificate;
  */
 public class WebAuthnModule extends SimpleModule {
 
+    private final ExtensionAuthenticatorOutputDeserializer extensionAuthenticatorOutputDeserializer = new ExtensionAuthenticatorOutputDeserializer();
+    private final ExtensionClientInputDeserializer extensionClientInputDeserializer = new ExtensionClientInputDeserializer();
+    private final ExtensionClientOutputDeserializer extensionClientOutputDeserializer = new ExtensionClientOutputDeserializer();
+
     public WebAuthnModule(Registry registry) {
         super("WebAuthnModule");
 
@@ -47,11 +53,11 @@ public class WebAuthnModule extends SimpleModule {
         this.addDeserializer(Challenge.class, new ChallengeDeserializer());
         this.addDeserializer(CredentialPublicKeyEnvelope.class, new CredentialPublicKeyEnvelopeDeserializer());
         this.addDeserializer(AuthenticatorData.class, new AuthenticatorDataDeserializer(registry));
-        this.addDeserializer(ExtensionAuthenticatorOutput.class, new ExtensionAuthenticatorOutputDeserializer());
-        this.addDeserializer(ExtensionClientInput.class, new ExtensionClientInputDeserializer());
-        this.addDeserializer(ExtensionClientOutput.class, new ExtensionClientOutputDeserializer());
+        this.addDeserializer(ExtensionAuthenticatorOutput.class, extensionAuthenticatorOutputDeserializer);
+        this.addDeserializer(ExtensionClientInput.class, extensionClientInputDeserializer);
+        this.addDeserializer(ExtensionClientOutput.class, extensionClientOutputDeserializer);
         this.addDeserializer(JWS.class, new JWSDeserializer(registry));
-        this.addDeserializer(X509Certificate.class, new X509CertificateDeserializer());
+        this.addDeserializer(X509Certificate.class, new X509CertificateDeserializer(registry.getX509CertificateCache()));
 
         this.addSerializer(CertPath.class, new CertPathSerializer());
         this.addSerializer(Challenge.class, new ChallengeSerializer());
@@ -60,30 +66,83 @@ public class WebAuthnModule extends SimpleModule {
         this.addSerializer(JWS.class, new JWSSerializer());
         this.addSerializer(X509Certificate.class, new X509CertificateSerializer());
 
-        this.registerSubtypes(new NamedType(FIDOU2FAttestationStatement.class, FIDOU2FAttestationStatement.FORMAT));
-        this.registerSubtypes(new NamedType(PackedAttestationStatement.class, PackedAttestationStatement.FORMAT));
-        this.registerSubtypes(new NamedType(AndroidKeyAttestationStatement.class, AndroidKeyAttestationStatement.FORMAT));
-        this.registerSubtypes(new NamedType(AndroidSafetyNetAttestationStatement.class, AndroidSafetyNetAttestationStatement.FORMAT));
-        this.registerSubtypes(new NamedType(NoneAttestationStatement.class, NoneAttestationStatement.FORMAT));
-
-        this.registerSubtypes(new NamedType(FIDOAppIDExtensionClientInput.class, FIDOAppIDExtensionClientInput.ID));
-        this.registerSubtypes(new NamedType(SupportedExtensionsExtensionClientInput.class, SupportedExtensionsExtensionClientInput.ID));
-
-        this.registerSubtypes(new NamedType(AuthenticatorSelectionExtensionClientOutput.class, AuthenticatorSelectionExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(BiometricAuthenticatorPerformanceBoundsExtensionClientOutput.class, BiometricAuthenticatorPerformanceBoundsExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(FIDOAppIDExtensionClientOutput.class, FIDOAppIDExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(GenericTransactionAuthorizationExtensionClientOutput.class, GenericTransactionAuthorizationExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(LocationExtensionClientOutput.class, LocationExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(SimpleTransactionAuthorizationExtensionClientOutput.class, SimpleTransactionAuthorizationExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(SupportedExtensionsExtensionClientOutput.class, SupportedExtensionsExtensionClientOutput.ID));
-        this.registerSubtypes(new NamedType(UserVerificationIndexExtensionClientOutput.class, UserVerificationIndexExtensionClientOutput.ID));
-
-        this.registerSubtypes(new NamedType(GenericTransactionAuthorizationExtensionAuthenticatorOutput.class, GenericTransactionAuthorizationExtensionAuthenticatorOutput.ID));
-        this.registerSubtypes(new NamedType(LocationExtensionAuthenticatorOutput.class, LocationExtensionAuthenticatorOutput.ID));
-        this.registerSubtypes(new NamedType(SimpleTransactionAuthorizationExtensionAuthenticatorOutput.class, SimpleTransactionAuthorizationExtensionAuthenticatorOutput.ID));
-        this.registerSubtypes(new NamedType(SupportedExtensionsExtensionAuthenticatorOutput.class, SupportedExtensionsExtensionAuthenticatorOutput.ID));
-        this.registerSubtypes(new NamedType(UserVerificationIndexExtensionAuthenticatorOutput.class, UserVerificationIndexExtensionAuthenticatorOutput.ID));
+        for (AttestationStatementFormat format : registry.getAttestationStatementFormatRegistry().getFormats()) {
+            this.registerAttestationStatementFormat(format);
+        }
+
+        this.registerExtensionClientInput(FIDOAppIDExtensionClientInput.ID, FIDOAppIDExtensionClientInput.class);
+        this.registerExtensionClientInput(SupportedExtensionsExtensionClientInput.ID, SupportedExtensionsExtensionClientInput.class);
+
+        this.registerExtensionClientOutput(AuthenticatorSelectionExtensionClientOutput.ID, AuthenticatorSelectionExtensionClientOutput.class);
+        this.registerExtensionClientOutput(BiometricAuthenticatorPerformanceBoundsExtensionClientOutput.ID, BiometricAuthenticatorPerformanceBoundsExtensionClientOutput.class);
+        this.registerExtensionClientOutput(FIDOAppIDExtensionClientOutput.ID, FIDOAppIDExtensionClientOutput.class);
+        this.registerExtensionClientOutput(GenericTransactionAuthorizationExtensionClientOutput.ID, GenericTransactionAuthorizationExtensionClientOutput.class);
+        this.registerExtensionClientOutput(LocationExtensionClientOutput.ID, LocationExtensionClientOutput.class);
+        this.registerExtensionClientOutput(SimpleTransactionAuthorizationExtensionClientOutput.ID, SimpleTransactionAuthorizationExtensionClientOutput.class);
+        this.registerExtensionClientOutput(SupportedExtensionsExtensionClientOutput.ID, SupportedExtensionsExtensionClientOutput.class);
+        this.registerExtensionClientOutput(UserVerificationIndexExtensionClientOutput.ID, UserVerificationIndexExtensionClientOutput.class);
+
+        this.registerExtensionAuthenticatorOutput(GenericTransactionAuthorizationExtensionAuthenticatorOutput.ID, GenericTransactionAuthorizationExtensionAuthenticatorOutput.class);
+        this.registerExtensionAuthenticatorOutput(LocationExtensionAuthenticatorOutput.ID, LocationExtensionAuthenticatorOutput.class);
+        this.registerExtensionAuthenticatorOutput(SimpleTransactionAuthorizationExtensionAuthenticatorOutput.ID, SimpleTransactionAuthorizationExtensionAuthenticatorOutput.class);
+        this.registerExtensionAuthenticatorOutput(SupportedExtensionsExtensionAuthenticatorOutput.ID, SupportedExtensionsExtensionAuthenticatorOutput.class);
+        this.registerExtensionAuthenticatorOutput(UserVerificationIndexExtensionAuthenticatorOutput.ID, UserVerificationIndexExtensionAuthenticatorOutput.class);
+    }
+
+    /**
+     * Registers the attestation statement class, and its deserializer if provided, for the format identifier
+     *
+     * @param format attestation statement format
+     * @return this module
+     */
+    @SuppressWarnings("unchecked")
+    public WebAuthnModule registerAttestationStatementFormat(AttestationStatementFormat format) {
+        Class<AttestationStatement> type = (Class<AttestationStatement>) format.getAttestationStatementClass();
+        JsonDeserializer<? extends AttestationStatement> deserializer = format.getDeserializer();
+        if (deserializer != null) {
+            this.addDeserializer(type, deserializer);
+        }
+        this.registerSubtypes(new NamedType(type, format.getFormat()));
+        return this;
+    }
+
+    /**
+     * Registers a client extension input type for the extension identifier
+     *
+     * @param identifier extension identifier
+     * @param type       extension client input type
+     * @return this module
+     */
+    public WebAuthnModule registerExtensionClientInput(String identifier, Class<? extends ExtensionClientInput> type) {
+        extensionClientInputDeserializer.registerExtensionType(identifier, type);
+        this.registerSubtypes(new NamedType(type, identifier));
+        return this;
+    }
+
+    /**
+     * Registers a client extension output type for the extension identifier
+     *
+     * @param identifier extension identifier
+     * @param type       extension client output type
+     * @return this module
+     */
+    public WebAuthnModule registerExtensionClientOutput(String identifier, Class<? extends ExtensionClientOutput> type) {
+        extensionClientOutputDeserializer.registerExtensionType(identifier, type);
+        this.registerSubtypes(new NamedType(type, identifier));
+        return this;
+    }
 
+    /**
+     * Registers an authenticator extension output type for the extension identifier
+     *
+     * @param identifier extension identifier
+     * @param type       extension authenticator output type
+     * @return this module
+     */
+    public WebAuthnModule registerExtensionAuthenticatorOutput(String identifier, Class<? extends ExtensionAuthenticatorOutput> type) {
+        extensionAuthenticatorOutputDeserializer.registerExtensionType(identifier, type);
+        this.registerSubtypes(new NamedType(type, identifier));
+        return this;
     }
 
 }
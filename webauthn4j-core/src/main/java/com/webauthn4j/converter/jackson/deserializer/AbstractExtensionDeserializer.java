@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter.jackson.deserializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClassResolver;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base Jackson Deserializer for extensions, which selects the extension type by the field name.
+ * Extension types are looked up from a map populated by {@link #registerExtensionType(String, Class)}.
+ * Subtypes registered to the ObjectMapper in other ways are resolved once, on the first unknown identifier.
+ *
+ * @param <T> extension type
+ */
+public abstract class AbstractExtensionDeserializer<T> extends StdDeserializer<T> {
+
+    private final Class<T> extensionClass;
+    private final Map<String, Class<? extends T>> extensionTypes = new ConcurrentHashMap<>();
+    private volatile boolean subtypesResolved = false;
+
+    protected AbstractExtensionDeserializer(Class<T> extensionClass) {
+        super(extensionClass);
+        this.extensionClass = extensionClass;
+    }
+
+    /**
+     * Registers the type to be used for the extension identifier
+     *
+     * @param identifier extension identifier
+     * @param type       extension type
+     */
+    public void registerExtensionType(String identifier, Class<? extends T> type) {
+        AssertUtil.notNull(identifier, "identifier must not be null");
+        AssertUtil.notNull(type, "type must not be null");
+        extensionTypes.put(identifier, type);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+
+        String name = p.getParsingContext().getCurrentName();
+        if (name == null) {
+            name = p.getParsingContext().getParent().getCurrentName();
+        }
+
+        Class<? extends T> type = name == null ? null : extensionTypes.get(name);
+        if (type == null && !subtypesResolved) {
+            resolveSubtypes(ctxt.getConfig());
+            type = name == null ? null : extensionTypes.get(name);
+        }
+        if (type == null) {
+            throw new InvalidFormatException(p, "value is out of range", name, extensionClass);
+        }
+        return (T) ctxt.readValue(p, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resolveSubtypes(DeserializationConfig config) {
+        AnnotatedClass annotatedClass = AnnotatedClassResolver.resolveWithoutSuperTypes(config, extensionClass);
+        Collection<NamedType> namedTypes = config.getSubtypeResolver().collectAndResolveSubtypesByClass(config, annotatedClass);
+        for (NamedType namedType : namedTypes) {
+            if (namedType.hasName() && extensionClass.isAssignableFrom(namedType.getType())) {
+                extensionTypes.putIfAbsent(namedType.getName(), (Class<? extends T>) namedType.getType());
+            }
+        }
+        subtypesResolved = true;
+    }
+}
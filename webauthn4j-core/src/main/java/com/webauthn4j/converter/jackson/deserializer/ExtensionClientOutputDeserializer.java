@@ -16,51 +16,14 @@
 
 package com.webauthn4j.converter.jackson.deserializer;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationConfig;
-import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.exc.InvalidFormatException;
-import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
-import com.fasterxml.jackson.databind.introspect.AnnotatedClassResolver;
-import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.webauthn4j.response.extension.client.ExtensionClientOutput;
 
-import java.io.IOException;
-import java.util.Collection;
-import java.util.Objects;
-
 /**
  * Jackson Deserializer for {@link ExtensionClientOutput}
  */
-public class ExtensionClientOutputDeserializer extends StdDeserializer<ExtensionClientOutput> {
+public class ExtensionClientOutputDeserializer extends AbstractExtensionDeserializer<ExtensionClientOutput> {
 
     public ExtensionClientOutputDeserializer() {
         super(ExtensionClientOutput.class);
     }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public ExtensionClientOutput deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-
-        String name = p.getParsingContext().getCurrentName();
-        if(name == null){
-            name = p.getParsingContext().getParent().getCurrentName();
-        }
-
-        DeserializationConfig config = ctxt.getConfig();
-        AnnotatedClass annotatedClass = AnnotatedClassResolver.resolveWithoutSuperTypes(config, ExtensionClientOutput.class);
-        Collection<NamedType> namedTypes = config.getSubtypeResolver().collectAndResolveSubtypesByClass(config, annotatedClass);
-
-        for (NamedType namedType : namedTypes){
-            if(Objects.equals(namedType.getName(), name)){
-                return (ExtensionClientOutput)ctxt.readValue(p, namedType.getType());
-            }
-        }
-
-        throw new InvalidFormatException(p, "value is out of range", name, ExtensionClientOutput.class);
-
-    }
 }
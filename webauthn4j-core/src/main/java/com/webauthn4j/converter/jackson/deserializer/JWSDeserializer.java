@@ -52,8 +52,8 @@ public class JWSDeserializer extends StdDeserializer<JWS> {
         String payloadString = data[1];
         String signatureString = data[2];
         try {
-            JWSHeader header = registry.getJsonMapper().readValue(Base64UrlUtil.decode(headerString), JWSHeader.class);
-            Response payload = registry.getJsonMapper().readValue(Base64UrlUtil.decode(payloadString), Response.class);
+            JWSHeader header = registry.getJsonReader(JWSHeader.class).readValue(Base64UrlUtil.decode(headerString));
+            Response payload = registry.getJsonReader(Response.class).readValue(Base64UrlUtil.decode(payloadString));
             byte[] signature = Base64UrlUtil.decode(signatureString);
             return new JWS(header, headerString, payload, payloadString, signature);
         } catch (IOException e) {
@@ -19,19 +19,32 @@ package com.webauthn4j.converter.jackson.deserializer;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.webauthn4j.util.CertificateUtil;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.webauthn4j.converter.CertificateRepository;
+import com.webauthn4j.converter.X509CertificateCache;
+import com.webauthn4j.util.AssertUtil;
 
 import java.io.IOException;
 import java.security.cert.X509Certificate;
 
 /**
  * Jackson Deserializer for {@link X509Certificate}
+ * <p>
+ * If a {@link CertificateRepository} is set as the {@link CertificateRepository} class keyed attribute,
+ * the value is read as a reference to a certificate held by it.
+ * Otherwise, the value is parsed through the {@link X509CertificateCache}.
  */
 public class X509CertificateDeserializer extends StdDeserializer<X509Certificate> {
+    private final X509CertificateCache x509CertificateCache;
 
+    public X509CertificateDeserializer(X509CertificateCache x509CertificateCache) {
+        super(X509Certificate.class);
+        AssertUtil.notNull(x509CertificateCache, "x509CertificateCache must not be null");
+        this.x509CertificateCache = x509CertificateCache;
+    }
 
     public X509CertificateDeserializer() {
-        super(X509Certificate.class);
+        this(new X509CertificateCache(0));
     }
 
     /**
@@ -43,6 +56,14 @@ public class X509CertificateDeserializer extends StdDeserializer<X509Certificate
         if (value.length == 0) {
             return null;
         }
-        return CertificateUtil.generateX509Certificate(value);
+        CertificateRepository certificateRepository = (CertificateRepository) ctxt.getAttribute(CertificateRepository.class);
+        if (certificateRepository != null) {
+            X509Certificate certificate = certificateRepository.load(value);
+            if (certificate == null) {
+                throw MismatchedInputException.from(p, X509Certificate.class, "certificate is not found in the repository");
+            }
+            return certificate;
+        }
+        return x509CertificateCache.parse(value);
     }
 }
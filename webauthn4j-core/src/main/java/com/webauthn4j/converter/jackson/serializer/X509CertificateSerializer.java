@@ -19,6 +19,7 @@ package com.webauthn4j.converter.jackson.serializer;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.webauthn4j.converter.CertificateRepository;
 import com.webauthn4j.util.exception.UnexpectedCheckedException;
 
 import java.io.IOException;
@@ -27,6 +28,9 @@ import java.security.cert.X509Certificate;
 
 /**
  * Jackson Serializer for {@link X509Certificate}
+ * <p>
+ * If a {@link CertificateRepository} is set as the {@link CertificateRepository} class keyed attribute,
+ * the certificate is stored into it and its reference is written instead of the encoded certificate.
  */
 public class X509CertificateSerializer extends StdSerializer<X509Certificate> {
 
@@ -40,6 +44,11 @@ public class X509CertificateSerializer extends StdSerializer<X509Certificate> {
     @Override
     public void serialize(X509Certificate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
         try {
+            CertificateRepository certificateRepository = (CertificateRepository) provider.getAttribute(CertificateRepository.class);
+            if (certificateRepository != null) {
+                gen.writeBinary(certificateRepository.store(value));
+                return;
+            }
             gen.writeBinary(value.getEncoded());
         } catch (CertificateEncodingException e) {
             throw new UnexpectedCheckedException(e);
@@ -1,18 +1,26 @@
 package com.webauthn4j.converter.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
 import com.webauthn4j.response.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A utility class for CBOR serialization/deserialization
@@ -21,16 +29,34 @@ public class CborConverter {
 
     private static final String INPUT_MISMATCH_ERROR_MESSAGE = "Input data does not match expected form";
 
-    private final ObjectMapper cborMapper;
+    private final Function<Class<?>, ObjectReader> readerProvider;
+    private final Function<Class<?>, ObjectWriter> writerProvider;
+
+    private final InputLimits inputLimits;
+    private final Supplier<JsonFactory> factoryProvider;
 
     public CborConverter(ObjectMapper cborMapper) {
-        this.cborMapper = cborMapper;
+        Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+        this.readerProvider = valueType -> readers.computeIfAbsent(valueType, cborMapper::readerFor);
+        Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+        this.writerProvider = valueType -> writers.computeIfAbsent(valueType, cborMapper::writerFor);
+        this.inputLimits = null;
+        this.factoryProvider = cborMapper::getFactory;
+    }
+
+    public CborConverter(Registry registry) {
+        this.readerProvider = registry::getCborReader;
+        this.writerProvider = registry::getCborWriter;
+        this.inputLimits = registry.getInputLimits();
+        // the readers are resolved lazily, as the converter can be created while the registry builds its mappers
+        this.factoryProvider = () -> registry.getCborReader(Object.class).getFactory();
     }
 
     @SuppressWarnings("unchecked")
     public <T> T readValue(byte[] src, Class valueType){
         try {
-            return (T)cborMapper.readValue(src, valueType);
+            validateInput(src);
+            return (T)readerProvider.apply(valueType).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -43,7 +69,7 @@ public class CborConverter {
     @SuppressWarnings("unchecked")
     public <T> T readValue(InputStream src, Class valueType){
         try {
-            return (T)cborMapper.readValue(src, valueType);
+            return (T)readerProvider.apply(valueType).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -54,7 +80,8 @@ public class CborConverter {
 
     public <T> T readValue(byte[] src, TypeReference valueTypeRef) {
         try {
-            return cborMapper.readValue(src, valueTypeRef);
+            validateInput(src);
+            return readerProvider.apply(Object.class).forType(valueTypeRef).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -65,7 +92,7 @@ public class CborConverter {
 
     public AuthenticationExtensionsAuthenticatorOutputs readValue(InputStream inputStream, TypeReference<AuthenticationExtensionsAuthenticatorOutputs> typeReference) {
         try {
-            return cborMapper.readValue(inputStream, typeReference);
+            return readerProvider.apply(Object.class).forType(typeReference).readValue(inputStream);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -76,7 +103,8 @@ public class CborConverter {
 
     public JsonNode readTree(byte[] bytes){
         try {
-            return cborMapper.readTree(bytes);
+            validateInput(bytes);
+            return readerProvider.apply(JsonNode.class).readTree(new ByteArrayInputStream(bytes));
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -85,9 +113,15 @@ public class CborConverter {
         }
     }
 
+    private void validateInput(byte[] src) {
+        if (inputLimits != null) {
+            inputLimits.validate(factoryProvider.get(), src);
+        }
+    }
+
     public byte[] writeValueAsBytes(Object value){
         try {
-            return cborMapper.writeValueAsBytes(value);
+            return writerProvider.apply(Object.class).writeValueAsBytes(value);
         }
         catch (JsonProcessingException e) {
             throw new UncheckedIOException(e);
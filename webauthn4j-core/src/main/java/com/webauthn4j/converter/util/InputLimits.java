@@ -0,0 +1,336 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.exception.InputLimitExceededException;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits on the size and the shape of the data to be decoded, which bound the CPU time and memory spent on
+ * a crafted attestation object, authenticator data or client data.
+ * <p>
+ * The input is scanned with the streaming parser before it is bound to objects. The scan skips over byte strings
+ * and text without reading them, so that a length header claiming more bytes than the input has is rejected
+ * before the buffer for it is allocated. Rejected inputs are counted per {@link Limit}.
+ * <p>
+ * The limits are immutable once built with {@link Builder}, as an instance is shared by the converters of a registry.
+ */
+public class InputLimits {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    public static final int DEFAULT_MAX_PAYLOAD_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_NESTING_DEPTH = 16;
+    public static final int DEFAULT_MAX_X5C_LENGTH = 8;
+    public static final int DEFAULT_MAX_CREDENTIAL_ID_LENGTH = 1023;
+    public static final int DEFAULT_MAX_EXTENSION_COUNT = 32;
+
+    private static final String X5C_FIELD = "x5c";
+    private static final String INPUT_MISMATCH_ERROR_MESSAGE = "Input data does not match expected form";
+
+    //~ Instance fields
+    // ================================================================================================
+    private final int maxPayloadSize;
+    private final int maxNestingDepth;
+    private final int maxX5cLength;
+    private final int maxCredentialIdLength;
+    private final int maxExtensionCount;
+
+    private final Map<Limit, LongAdder> rejectedCounts = new EnumMap<>(Limit.class);
+
+    //~ Constructors
+    // ================================================================================================
+
+    public InputLimits() {
+        this(new Builder());
+    }
+
+    private InputLimits(Builder builder) {
+        maxPayloadSize = builder.maxPayloadSize;
+        maxNestingDepth = builder.maxNestingDepth;
+        maxX5cLength = builder.maxX5cLength;
+        maxCredentialIdLength = builder.maxCredentialIdLength;
+        maxExtensionCount = builder.maxExtensionCount;
+        for (Limit limit : Limit.values()) {
+            rejectedCounts.put(limit, new LongAdder());
+        }
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Checks the size and the structure of the input
+     *
+     * @param factory factory of the streaming parser for the input format
+     * @param source  input
+     */
+    public void validate(JsonFactory factory, byte[] source) {
+        checkPayloadSize(source.length);
+        try (JsonParser parser = factory.createParser(source)) {
+            scan(parser, parser.nextToken(), 0, false);
+        } catch (IOException e) {
+            throw handleIOException(e);
+        }
+    }
+
+    /**
+     * Checks the size and the structure of the input
+     *
+     * @param factory factory of the streaming parser for the input format
+     * @param source  input
+     */
+    public void validate(JsonFactory factory, String source) {
+        checkPayloadSize(source.length());
+        try (JsonParser parser = factory.createParser(source)) {
+            scan(parser, parser.nextToken(), 0, false);
+        } catch (IOException e) {
+            throw handleIOException(e);
+        }
+    }
+
+    /**
+     * Checks the size and the structure of the input, and the number of the extensions in the map it holds
+     *
+     * @param factory factory of the streaming parser for the input format
+     * @param source  extensions map
+     */
+    public void validateExtensions(JsonFactory factory, byte[] source) {
+        checkPayloadSize(source.length);
+        try (JsonParser parser = factory.createParser(source)) {
+            scan(parser, parser.nextToken(), 0, true);
+        } catch (IOException e) {
+            throw handleIOException(e);
+        }
+    }
+
+    /**
+     * Checks the size and the structure of the input, and the number of the extensions in the map it holds
+     *
+     * @param factory factory of the streaming parser for the input format
+     * @param source  extensions map
+     */
+    public void validateExtensions(JsonFactory factory, String source) {
+        checkPayloadSize(source.length());
+        try (JsonParser parser = factory.createParser(source)) {
+            scan(parser, parser.nextToken(), 0, true);
+        } catch (IOException e) {
+            throw handleIOException(e);
+        }
+    }
+
+    /**
+     * Checks the structure of the value at the current token of a parser reading a larger input, e.g. a member of
+     * the attestation object read with the streaming parser, so that the input is not scanned separately.
+     * The parser is left at the last token of the value.
+     *
+     * @param parser parser positioned at the first token of the value
+     * @param depth  nesting depth of the value in the input
+     */
+    public void validateValue(JsonParser parser, int depth) {
+        try {
+            scan(parser, parser.getCurrentToken(), depth, false);
+        } catch (IOException e) {
+            throw handleIOException(e);
+        }
+    }
+
+    public void checkPayloadSize(int size) {
+        if (size > maxPayloadSize) {
+            throw reject(Limit.PAYLOAD_SIZE, "payload size exceeds " + maxPayloadSize + " bytes");
+        }
+    }
+
+    public void checkCredentialIdLength(int length) {
+        if (length > maxCredentialIdLength) {
+            throw reject(Limit.CREDENTIAL_ID_LENGTH, "credentialId length exceeds " + maxCredentialIdLength + " bytes");
+        }
+    }
+
+    /**
+     * Scans the value starting at the token, as the data following it, e.g. the extensions following the credential
+     * public key in the authenticator data, is scanned separately. Nesting is tracked with a counter instead of recursion,
+     * so that the scan itself cannot overflow the stack regardless of the input.
+     */
+    private void scan(JsonParser parser, JsonToken firstToken, int baseDepth, boolean extensions) throws IOException {
+        int depth = baseDepth;
+        int extensionCount = 0;
+        int x5cDepth = -1;
+        int x5cLength = 0;
+        String fieldName = null;
+        for (JsonToken token = firstToken; token != null; token = parser.nextToken()) {
+            if (token == JsonToken.FIELD_NAME) {
+                fieldName = parser.getCurrentName();
+                if (extensions && depth == baseDepth + 1 && ++extensionCount > maxExtensionCount) {
+                    throw reject(Limit.EXTENSION_COUNT, "extension count exceeds " + maxExtensionCount);
+                }
+                continue;
+            }
+            if (token.isStructEnd()) {
+                if (depth == x5cDepth) {
+                    x5cDepth = -1;
+                }
+                depth--;
+            } else {
+                if (depth == x5cDepth && ++x5cLength > maxX5cLength) {
+                    throw reject(Limit.X5C_LENGTH, "x5c length exceeds " + maxX5cLength);
+                }
+                if (token.isStructStart()) {
+                    if (++depth > maxNestingDepth) {
+                        throw reject(Limit.NESTING_DEPTH, "nesting depth exceeds " + maxNestingDepth);
+                    }
+                    if (token == JsonToken.START_ARRAY && X5C_FIELD.equals(fieldName) && x5cDepth < 0) {
+                        x5cDepth = depth;
+                        x5cLength = 0;
+                    }
+                }
+            }
+            fieldName = null;
+            if (depth == baseDepth) {
+                if (baseDepth == 0 && token.isScalarValue()) {
+                    // a scalar value is skipped by moving to the next token only. A value nested in a larger input
+                    // is skipped by the reader of the input moving on.
+                    parser.nextToken();
+                }
+                return;
+            }
+        }
+    }
+
+    private InputLimitExceededException reject(Limit limit, String message) {
+        rejectedCounts.get(limit).increment();
+        return new InputLimitExceededException(limit, message);
+    }
+
+    private RuntimeException handleIOException(IOException e) {
+        if (e instanceof JsonParseException) {
+            return new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
+        }
+        return new UncheckedIOException(e);
+    }
+
+    /**
+     * Returns the number of the inputs rejected for exceeding the limit
+     *
+     * @param limit limit
+     * @return rejected count
+     */
+    public long getRejectedCount(Limit limit) {
+        return rejectedCounts.get(limit).sum();
+    }
+
+    /**
+     * Returns the number of the inputs rejected for exceeding any limit
+     *
+     * @return rejected count
+     */
+    public long getRejectedCount() {
+        long sum = 0;
+        for (LongAdder count : rejectedCounts.values()) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+
+    public int getMaxPayloadSize() {
+        return maxPayloadSize;
+    }
+
+    public int getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
+    public int getMaxX5cLength() {
+        return maxX5cLength;
+    }
+
+    public int getMaxCredentialIdLength() {
+        return maxCredentialIdLength;
+    }
+
+    public int getMaxExtensionCount() {
+        return maxExtensionCount;
+    }
+
+    /**
+     * Builder for {@link InputLimits}
+     */
+    public static class Builder {
+
+        private int maxPayloadSize = DEFAULT_MAX_PAYLOAD_SIZE;
+        private int maxNestingDepth = DEFAULT_MAX_NESTING_DEPTH;
+        private int maxX5cLength = DEFAULT_MAX_X5C_LENGTH;
+        private int maxCredentialIdLength = DEFAULT_MAX_CREDENTIAL_ID_LENGTH;
+        private int maxExtensionCount = DEFAULT_MAX_EXTENSION_COUNT;
+
+        public Builder setMaxPayloadSize(int maxPayloadSize) {
+            AssertUtil.isTrue(maxPayloadSize > 0, "maxPayloadSize must be positive");
+            this.maxPayloadSize = maxPayloadSize;
+            return this;
+        }
+
+        public Builder setMaxNestingDepth(int maxNestingDepth) {
+            AssertUtil.isTrue(maxNestingDepth > 0, "maxNestingDepth must be positive");
+            this.maxNestingDepth = maxNestingDepth;
+            return this;
+        }
+
+        public Builder setMaxX5cLength(int maxX5cLength) {
+            AssertUtil.isTrue(maxX5cLength > 0, "maxX5cLength must be positive");
+            this.maxX5cLength = maxX5cLength;
+            return this;
+        }
+
+        public Builder setMaxCredentialIdLength(int maxCredentialIdLength) {
+            AssertUtil.isTrue(maxCredentialIdLength > 0, "maxCredentialIdLength must be positive");
+            this.maxCredentialIdLength = maxCredentialIdLength;
+            return this;
+        }
+
+        public Builder setMaxExtensionCount(int maxExtensionCount) {
+            AssertUtil.isTrue(maxExtensionCount >= 0, "maxExtensionCount must not be negative");
+            this.maxExtensionCount = maxExtensionCount;
+            return this;
+        }
+
+        public InputLimits build() {
+            return new InputLimits(this);
+        }
+    }
+
+    /**
+     * Kinds of the input limits
+     */
+    public enum Limit {
+        PAYLOAD_SIZE,
+        NESTING_DEPTH,
+        X5C_LENGTH,
+        CREDENTIAL_ID_LENGTH,
+        EXTENSION_COUNT
+    }
+}
@@ -1,15 +1,24 @@
 package com.webauthn4j.converter.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A utility class for JSON serialization/deserialization
@@ -18,16 +27,34 @@ public class JsonConverter {
 
     private static final String INPUT_MISMATCH_ERROR_MESSAGE = "Input data does not match expected form";
 
-    private final ObjectMapper jsonMapper;
+    private final Function<Class<?>, ObjectReader> readerProvider;
+    private final Function<Class<?>, ObjectWriter> writerProvider;
+
+    private final InputLimits inputLimits;
+    private final Supplier<JsonFactory> factoryProvider;
 
     public JsonConverter(ObjectMapper jsonMapper){
-        this.jsonMapper = jsonMapper;
+        Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+        this.readerProvider = valueType -> readers.computeIfAbsent(valueType, jsonMapper::readerFor);
+        Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+        this.writerProvider = valueType -> writers.computeIfAbsent(valueType, jsonMapper::writerFor);
+        this.inputLimits = null;
+        this.factoryProvider = jsonMapper::getFactory;
+    }
+
+    public JsonConverter(Registry registry) {
+        this.readerProvider = registry::getJsonReader;
+        this.writerProvider = registry::getJsonWriter;
+        this.inputLimits = registry.getInputLimits();
+        // the readers are resolved lazily, as the converter can be created while the registry builds its mappers
+        this.factoryProvider = () -> registry.getJsonReader(Object.class).getFactory();
     }
 
     @SuppressWarnings("unchecked")
     public <T> T readValue(String src, Class valueType){
         try {
-            return (T)jsonMapper.readValue(src, valueType);
+            validateInput(src);
+            return (T)readerProvider.apply(valueType).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -39,7 +66,28 @@ public class JsonConverter {
     @SuppressWarnings("unchecked")
     public <T> T readValue(InputStream src, Class valueType){
         try {
-            return (T)jsonMapper.readValue(src, valueType);
+            return (T)readerProvider.apply(valueType).readValue(src);
+        }
+        catch (MismatchedInputException | JsonParseException e){
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the value without checking it against the input limits, for an input the caller has already checked
+     *
+     * @param src       input
+     * @param valueType value type
+     * @param <T>       value type
+     * @return value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T readValue(Reader src, Class valueType){
+        try {
+            return (T)readerProvider.apply(valueType).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -51,7 +99,8 @@ public class JsonConverter {
 
     public <T> T readValue(String src, TypeReference valueTypeRef) {
         try {
-            return jsonMapper.readValue(src, valueTypeRef);
+            validateInput(src);
+            return readerProvider.apply(Object.class).forType(valueTypeRef).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -63,7 +112,7 @@ public class JsonConverter {
 
     public <T> T readValue(InputStream src, TypeReference valueTypeRef){
         try {
-            return jsonMapper.readValue(src, valueTypeRef);
+            return readerProvider.apply(Object.class).forType(valueTypeRef).readValue(src);
         }
         catch (MismatchedInputException | JsonParseException e){
             throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
@@ -73,9 +122,15 @@ public class JsonConverter {
         }
     }
 
+    private void validateInput(String src) {
+        if (inputLimits != null) {
+            inputLimits.validate(factoryProvider.get(), src);
+        }
+    }
+
     public byte[] writeValueAsBytes(Object value) {
         try {
-            return jsonMapper.writeValueAsBytes(value);
+            return writerProvider.apply(Object.class).writeValueAsBytes(value);
         }
         catch (JsonProcessingException e) {
             throw new UncheckedIOException(e);
@@ -84,7 +139,7 @@ public class JsonConverter {
 
     public String writeValueAsString(Object value) {
         try {
-            return jsonMapper.writeValueAsString(value);
+            return writerProvider.apply(Object.class).writeValueAsString(value);
         }
         catch (JsonProcessingException e) {
             throw new UncheckedIOException(e);
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.registry;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.validator.attestation.AttestationStatementValidator;
+
+/**
+ * Attestation statement format, which binds the format identifier carried in the fmt field of the attestation object
+ * to its {@link AttestationStatement} class, deserializer and, optionally, validator.
+ * <p>
+ * A format providing its validator is verified by it without being passed to the registration context validator.
+ * The formats defined by the WebAuthn specification provide none, so that the configured validators decide
+ * how strictly they are verified.
+ * <p>
+ * Third-party formats can be made discoverable by {@link AttestationStatementFormatRegistry#loadServices(ClassLoader)}
+ * by listing the implementation class in {@code META-INF/services/com.webauthn4j.registry.AttestationStatementFormat}.
+ * Implementations must have a public no-arg constructor to be discovered.
+ */
+public interface AttestationStatementFormat {
+
+    /**
+     * Returns the attestation statement format identifier, e.g. "packed"
+     * @return format identifier
+     */
+    String getFormat();
+
+    /**
+     * Returns the {@link AttestationStatement} class the attStmt field is deserialized to
+     * @return attestation statement class
+     */
+    Class<? extends AttestationStatement> getAttestationStatementClass();
+
+    /**
+     * Returns the deserializer for the attestation statement class
+     * @return deserializer, or null to use the bean deserializer of the class
+     */
+    JsonDeserializer<? extends AttestationStatement> getDeserializer();
+
+    /**
+     * Returns the validator implementing the verification procedure of the format
+     * @return validator, or null to use the validators configured to the registration context validator
+     */
+    default AttestationStatementValidator getAttestationStatementValidator() {
+        return null;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.registry;
+
+import com.webauthn4j.response.attestation.statement.AndroidKeyAttestationStatement;
+import com.webauthn4j.response.attestation.statement.AndroidSafetyNetAttestationStatement;
+import com.webauthn4j.response.attestation.statement.FIDOU2FAttestationStatement;
+import com.webauthn4j.response.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.response.attestation.statement.PackedAttestationStatement;
+import com.webauthn4j.util.AssertUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of {@link AttestationStatementFormat}s keyed by the format identifier.
+ * <p>
+ * The registry is read by {@link Registry} when its mappers are built, so formats must be registered before
+ * it is passed to {@link Registry.Builder#setAttestationStatementFormatRegistry(AttestationStatementFormatRegistry)}.
+ */
+public class AttestationStatementFormatRegistry {
+
+    private final Logger logger = LoggerFactory.getLogger(AttestationStatementFormatRegistry.class);
+
+    private final Map<String, AttestationStatementFormat> formats = new LinkedHashMap<>();
+
+    public AttestationStatementFormatRegistry() {
+    }
+
+    private AttestationStatementFormatRegistry(AttestationStatementFormatRegistry source) {
+        formats.putAll(source.formats);
+    }
+
+    /**
+     * Creates a registry with the formats defined by the WebAuthn specification, followed by the formats discovered
+     * with the context class loader.
+     * The discovery runs once per JVM and its result is shared by the registries created afterwards.
+     * @return registry
+     */
+    public static AttestationStatementFormatRegistry createDefault() {
+        return new AttestationStatementFormatRegistry(DefaultHolder.DEFAULT);
+    }
+
+    /**
+     * Registers the format, replacing the format registered with the same identifier
+     * @param format attestation statement format
+     * @return this registry
+     */
+    public AttestationStatementFormatRegistry register(AttestationStatementFormat format) {
+        AssertUtil.notNull(format, "format must not be null");
+        AssertUtil.notNull(format.getFormat(), "format identifier must not be null");
+        formats.put(format.getFormat(), format);
+        return this;
+    }
+
+    /**
+     * Registers the formats discovered by {@link ServiceLoader}. A discovered format does not replace the format
+     * already registered with the same identifier.
+     * @param classLoader class loader to discover the formats with
+     * @return this registry
+     */
+    public AttestationStatementFormatRegistry loadServices(ClassLoader classLoader) {
+        for (AttestationStatementFormat format : ServiceLoader.load(AttestationStatementFormat.class, classLoader)) {
+            if (formats.containsKey(format.getFormat())) {
+                logger.warn("Attestation statement format '{}' provided by {} is ignored as the format is already registered.",
+                        format.getFormat(), format.getClass().getName());
+                continue;
+            }
+            register(format);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the format registered with the identifier
+     * @param format format identifier
+     * @return attestation statement format, or null if the format is not registered
+     */
+    public AttestationStatementFormat get(String format) {
+        return formats.get(format);
+    }
+
+    /**
+     * Returns the registered formats in registration order
+     * @return attestation statement formats
+     */
+    public Collection<AttestationStatementFormat> getFormats() {
+        return Collections.unmodifiableCollection(formats.values());
+    }
+
+    private static class DefaultHolder {
+
+        private static final AttestationStatementFormatRegistry DEFAULT = new AttestationStatementFormatRegistry()
+                .register(new DefaultAttestationStatementFormat(FIDOU2FAttestationStatement.FORMAT, FIDOU2FAttestationStatement.class))
+                .register(new DefaultAttestationStatementFormat(PackedAttestationStatement.FORMAT, PackedAttestationStatement.class))
+                .register(new DefaultAttestationStatementFormat(AndroidKeyAttestationStatement.FORMAT, AndroidKeyAttestationStatement.class))
+                .register(new DefaultAttestationStatementFormat(AndroidSafetyNetAttestationStatement.FORMAT, AndroidSafetyNetAttestationStatement.class))
+                .register(new DefaultAttestationStatementFormat(NoneAttestationStatement.FORMAT, NoneAttestationStatement.class))
+                .loadServices(Thread.currentThread().getContextClassLoader());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.registry;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.attestation.AttestationStatementValidator;
+
+/**
+ * {@link AttestationStatementFormat} composed of its parts
+ */
+public class DefaultAttestationStatementFormat implements AttestationStatementFormat {
+
+    //~ Instance fields ================================================================================================
+    private final String format;
+    private final Class<? extends AttestationStatement> attestationStatementClass;
+    private final JsonDeserializer<? extends AttestationStatement> deserializer;
+    private final AttestationStatementValidator attestationStatementValidator;
+
+    public DefaultAttestationStatementFormat(String format, Class<? extends AttestationStatement> attestationStatementClass,
+                                             JsonDeserializer<? extends AttestationStatement> deserializer,
+                                             AttestationStatementValidator attestationStatementValidator) {
+        AssertUtil.notNull(format, "format must not be null");
+        AssertUtil.notNull(attestationStatementClass, "attestationStatementClass must not be null");
+        this.format = format;
+        this.attestationStatementClass = attestationStatementClass;
+        this.deserializer = deserializer;
+        this.attestationStatementValidator = attestationStatementValidator;
+    }
+
+    public DefaultAttestationStatementFormat(String format, Class<? extends AttestationStatement> attestationStatementClass,
+                                             JsonDeserializer<? extends AttestationStatement> deserializer) {
+        this(format, attestationStatementClass, deserializer, null);
+    }
+
+    public DefaultAttestationStatementFormat(String format, Class<? extends AttestationStatement> attestationStatementClass) {
+        this(format, attestationStatementClass, null);
+    }
+
+    @Override
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public Class<? extends AttestationStatement> getAttestationStatementClass() {
+        return attestationStatementClass;
+    }
+
+    @Override
+    public JsonDeserializer<? extends AttestationStatement> getDeserializer() {
+        return deserializer;
+    }
+
+    @Override
+    public AttestationStatementValidator getAttestationStatementValidator() {
+        return attestationStatementValidator;
+    }
+}
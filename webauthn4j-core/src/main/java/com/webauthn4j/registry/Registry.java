@@ -1,40 +1,106 @@
 package com.webauthn4j.registry;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.webauthn4j.converter.X509CertificateCache;
+import com.webauthn4j.converter.util.InputLimits;
 import com.webauthn4j.converter.jackson.WebAuthnModule;
+import com.webauthn4j.request.extension.client.ExtensionClientInput;
+import com.webauthn4j.response.extension.authenticator.ExtensionAuthenticatorOutput;
+import com.webauthn4j.response.extension.client.ExtensionClientOutput;
+import com.webauthn4j.util.AssertUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * External processor registry
  *
- * ObjectMapper instance can be injected with this registry
+ * ObjectMapper instance can be injected with this registry.
+ * The readers and writers shared by the converters and validators are created from private copies of the mappers,
+ * taken on the first reader or writer request, so reconfiguring the mappers returned by {@link #getJsonMapper()}
+ * and {@link #getCborMapper()} afterwards does not affect them.
+ * Use {@link Builder} to register additional modules,
+ * and {@link #getDefault()} to share a single registry with the default configuration.
  */
 public class Registry {
 
-    private ObjectMapper jsonMapper;
-    private ObjectMapper cborMapper;
+    private static final Registry DEFAULT = new Registry();
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private volatile ObjectMapper jsonReaderMapper;
+    private volatile ObjectMapper cborReaderMapper;
+    private final X509CertificateCache x509CertificateCache;
+    private final AttestationStatementFormatRegistry attestationStatementFormatRegistry;
+    private final InputLimits inputLimits;
+
+    private final Map<Class<?>, ObjectReader> jsonReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> jsonWriters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> cborReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> cborWriters = new ConcurrentHashMap<>();
 
     // TODO: Hold ExtensionConverter, ExtensionValidator
 
     public Registry(){
+        this(new Builder());
+    }
+
+    /**
+     * Creates a registry with the specified mappers.
+     * The {@link X509CertificateCache} of the registry is used by the mappers if a {@link WebAuthnModule} created
+     * with this registry is registered to them before the first reader or writer is requested.
+     * @param jsonMapper jsonMapper
+     * @param cborMapper cborMapper
+     * @deprecated use {@link Builder} to register additional modules
+     */
+    @Deprecated
+    public Registry(ObjectMapper jsonMapper, ObjectMapper cborMapper) {
+        AssertUtil.notNull(jsonMapper, "jsonMapper must not be null");
+        AssertUtil.notNull(cborMapper, "cborMapper must not be null");
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+        this.x509CertificateCache = new X509CertificateCache();
+        this.attestationStatementFormatRegistry = AttestationStatementFormatRegistry.createDefault();
+        this.inputLimits = new InputLimits();
+    }
+
+    private Registry(Builder builder) {
+        x509CertificateCache = builder.x509CertificateCache;
+        attestationStatementFormatRegistry = builder.attestationStatementFormatRegistry != null ?
+                builder.attestationStatementFormatRegistry : AttestationStatementFormatRegistry.createDefault();
+        inputLimits = builder.inputLimits;
         jsonMapper = new ObjectMapper();
-        jsonMapper.registerModule(new WebAuthnModule(this));
+        jsonMapper.registerModule(builder.createWebAuthnModule(this));
         jsonMapper.configure(DeserializationFeature.WRAP_EXCEPTIONS, false);
         jsonMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        jsonMapper.registerModules(builder.jsonModules);
         cborMapper = new ObjectMapper(new CBORFactory());
-        cborMapper.registerModule(new WebAuthnModule(this));
+        cborMapper.registerModule(builder.createWebAuthnModule(this));
         cborMapper.configure(DeserializationFeature.WRAP_EXCEPTIONS, false);
         cborMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        cborMapper.registerModules(builder.cborModules);
     }
 
-    public Registry(ObjectMapper jsonMapper, ObjectMapper cborMapper) {
-        this.jsonMapper = jsonMapper;
-        this.cborMapper = cborMapper;
+    /**
+     * Returns the shared registry with the default configuration
+     * @return default registry
+     */
+    public static Registry getDefault() {
+        return DEFAULT;
     }
 
     /**
-     * Returns registered jsonMapper
+     * Returns registered jsonMapper.
+     * Prefer {@link #getJsonReader(Class)} and {@link #getJsonWriter(Class)}, which are shared.
      * @return jsonMapper
      */
     public ObjectMapper getJsonMapper() {
@@ -42,11 +108,222 @@ public class Registry {
     }
 
     /**
-     * Returns registered cborMapper
+     * Returns registered cborMapper.
+     * Prefer {@link #getCborReader(Class)} and {@link #getCborWriter(Class)}, which are shared.
      * @return cborMapper
      */
     public ObjectMapper getCborMapper() {
         return cborMapper;
     }
 
+    /**
+     * Returns the cache of parsed attestation certificates shared by the mappers
+     * @return x509CertificateCache
+     */
+    public X509CertificateCache getX509CertificateCache() {
+        return x509CertificateCache;
+    }
+
+    /**
+     * Returns the attestation statement formats the mappers are configured with
+     * @return attestationStatementFormatRegistry
+     */
+    public AttestationStatementFormatRegistry getAttestationStatementFormatRegistry() {
+        return attestationStatementFormatRegistry;
+    }
+
+    /**
+     * Returns the limits applied to the data decoded with the mappers
+     * @return inputLimits
+     */
+    public InputLimits getInputLimits() {
+        return inputLimits;
+    }
+
+    /**
+     * Returns the {@link ObjectReader} of jsonMapper for the type, created once per type
+     * @param type value type
+     * @return reader
+     */
+    public ObjectReader getJsonReader(Class<?> type) {
+        return jsonReaders.computeIfAbsent(type, key -> getJsonReaderMapper().readerFor(key));
+    }
+
+    /**
+     * Returns the {@link ObjectWriter} of jsonMapper for the type, created once per type
+     * @param type value type
+     * @return writer
+     */
+    public ObjectWriter getJsonWriter(Class<?> type) {
+        return jsonWriters.computeIfAbsent(type, key -> getJsonReaderMapper().writerFor(key));
+    }
+
+    /**
+     * Returns the {@link ObjectReader} of cborMapper for the type, created once per type
+     * @param type value type
+     * @return reader
+     */
+    public ObjectReader getCborReader(Class<?> type) {
+        return cborReaders.computeIfAbsent(type, key -> getCborReaderMapper().readerFor(key));
+    }
+
+    /**
+     * Returns the {@link ObjectWriter} of cborMapper for the type, created once per type
+     * @param type value type
+     * @return writer
+     */
+    public ObjectWriter getCborWriter(Class<?> type) {
+        return cborWriters.computeIfAbsent(type, key -> getCborReaderMapper().writerFor(key));
+    }
+
+    private ObjectMapper getJsonReaderMapper() {
+        ObjectMapper mapper = jsonReaderMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                if (jsonReaderMapper == null) {
+                    jsonReaderMapper = jsonMapper.copy();
+                }
+                mapper = jsonReaderMapper;
+            }
+        }
+        return mapper;
+    }
+
+    private ObjectMapper getCborReaderMapper() {
+        ObjectMapper mapper = cborReaderMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                if (cborReaderMapper == null) {
+                    cborReaderMapper = cborMapper.copy();
+                }
+                mapper = cborReaderMapper;
+            }
+        }
+        return mapper;
+    }
+
+    /**
+     * Builder for {@link Registry}
+     */
+    public static class Builder {
+
+        private final List<Module> jsonModules = new ArrayList<>();
+        private final List<Module> cborModules = new ArrayList<>();
+        private final List<Consumer<WebAuthnModule>> extensionRegistrations = new ArrayList<>();
+        private X509CertificateCache x509CertificateCache = new X509CertificateCache();
+        private AttestationStatementFormatRegistry attestationStatementFormatRegistry;
+        private InputLimits inputLimits = new InputLimits();
+
+        /**
+         * Registers the module to both jsonMapper and cborMapper
+         * @param module module
+         * @return this builder
+         */
+        public Builder registerModule(Module module) {
+            registerJsonModule(module);
+            registerCborModule(module);
+            return this;
+        }
+
+        public Builder registerJsonModule(Module module) {
+            AssertUtil.notNull(module, "module must not be null");
+            jsonModules.add(module);
+            return this;
+        }
+
+        public Builder registerCborModule(Module module) {
+            AssertUtil.notNull(module, "module must not be null");
+            cborModules.add(module);
+            return this;
+        }
+
+        /**
+         * Registers a custom client extension input type, so that it is deserialized without subtype resolution
+         * @param identifier extension identifier
+         * @param type extension client input type
+         * @return this builder
+         */
+        public Builder registerExtensionClientInput(String identifier, Class<? extends ExtensionClientInput> type) {
+            extensionRegistrations.add(module -> module.registerExtensionClientInput(identifier, type));
+            return this;
+        }
+
+        public Builder registerExtensionClientOutput(String identifier, Class<? extends ExtensionClientOutput> type) {
+            extensionRegistrations.add(module -> module.registerExtensionClientOutput(identifier, type));
+            return this;
+        }
+
+        public Builder registerExtensionAuthenticatorOutput(String identifier, Class<? extends ExtensionAuthenticatorOutput> type) {
+            extensionRegistrations.add(module -> module.registerExtensionAuthenticatorOutput(identifier, type));
+            return this;
+        }
+
+        /**
+         * Sets the cache of parsed certificates, e.g. to change its size or to enable interning
+         * @param x509CertificateCache certificate cache
+         * @return this builder
+         */
+        public Builder setX509CertificateCache(X509CertificateCache x509CertificateCache) {
+            AssertUtil.notNull(x509CertificateCache, "x509CertificateCache must not be null");
+            this.x509CertificateCache = x509CertificateCache;
+            return this;
+        }
+
+        /**
+         * Sets the attestation statement formats to deserialize, e.g. to register a vendor specific format.
+         * Defaults to {@link AttestationStatementFormatRegistry#createDefault()}.
+         * @param attestationStatementFormatRegistry attestation statement format registry
+         * @return this builder
+         */
+        public Builder setAttestationStatementFormatRegistry(AttestationStatementFormatRegistry attestationStatementFormatRegistry) {
+            AssertUtil.notNull(attestationStatementFormatRegistry, "attestationStatementFormatRegistry must not be null");
+            this.attestationStatementFormatRegistry = attestationStatementFormatRegistry;
+            return this;
+        }
+
+        /**
+         * Sets the limits on the size and the shape of the data to decode
+         * @param inputLimits input limits
+         * @return this builder
+         */
+        public Builder setInputLimits(InputLimits inputLimits) {
+            AssertUtil.notNull(inputLimits, "inputLimits must not be null");
+            this.inputLimits = inputLimits;
+            return this;
+        }
+
+        /**
+         * Enables Afterburner, which replaces reflection based property access with generated bytecode.
+         * jackson-module-afterburner is an optional dependency, and must be added to the classpath to use this.
+         * @return this builder
+         */
+        public Builder enableAfterburner() {
+            return registerModule(AfterburnerSupport.createModule());
+        }
+
+        public Registry build() {
+            return new Registry(this);
+        }
+
+        private WebAuthnModule createWebAuthnModule(Registry registry) {
+            WebAuthnModule module = new WebAuthnModule(registry);
+            extensionRegistrations.forEach(registration -> registration.accept(module));
+            return module;
+        }
+    }
+
+    /**
+     * Keeps the reference to the optional Afterburner class out of {@link Builder},
+     * so that the builder can be loaded without jackson-module-afterburner on the classpath.
+     */
+    private static class AfterburnerSupport {
+
+        private AfterburnerSupport() {
+        }
+
+        static Module createModule() {
+            return new AfterburnerModule();
+        }
+    }
+
 }
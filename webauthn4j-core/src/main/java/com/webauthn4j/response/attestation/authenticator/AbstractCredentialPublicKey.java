@@ -21,9 +21,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
 import com.webauthn4j.response.attestation.statement.COSEKeyOperation;
 import com.webauthn4j.response.attestation.statement.COSEKeyType;
+import com.webauthn4j.util.SignatureUtil;
 
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.util.Arrays;
@@ -80,12 +80,12 @@ public abstract class AbstractCredentialPublicKey implements CredentialPublicKey
     @Override
     public boolean verifySignature(byte[] signature, byte[] data) {
         try {
-            Signature verifier = Signature.getInstance(getAlgorithmName());
+            Signature verifier = SignatureUtil.createSignature(getAlgorithmName());
             verifier.initVerify(getPublicKey());
             verifier.update(data);
 
             return verifier.verify(signature);
-        } catch (NoSuchAlgorithmException | SignatureException | InvalidKeyException | RuntimeException e) {
+        } catch (SignatureException | InvalidKeyException | RuntimeException e) {
             return false;
         }
     }
@@ -31,6 +31,7 @@ import java.security.PublicKey;
         include = JsonTypeInfo.As.PROPERTY,
         property = "1")
 @JsonSubTypes({
+        @JsonSubTypes.Type(value = OKPCredentialPublicKey.class, name = "1"),
         @JsonSubTypes.Type(value = EC2CredentialPublicKey.class, name = "2"),
         @JsonSubTypes.Type(value = RSACredentialPublicKey.class, name = "3")
 })
@@ -28,7 +28,9 @@ public enum Curve {
 
     SECP256R1(1),
     SECP384R1(2),
-    SECP521R1(3);
+    SECP521R1(3),
+    ED25519(6),
+    ED448(7);
 
     private final int value;
 
@@ -48,6 +50,10 @@ public enum Curve {
                 return SECP384R1;
             case 3:
                 return SECP521R1;
+            case 6:
+                return ED25519;
+            case 7:
+                return ED448;
             default:
                 throw new InvalidFormatException(null, "value is out of range", value, Curve.class);
         }
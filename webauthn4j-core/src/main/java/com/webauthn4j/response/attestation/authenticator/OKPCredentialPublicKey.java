@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.response.attestation.authenticator;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.attestation.statement.COSEKeyOperation;
+import com.webauthn4j.response.attestation.statement.COSEKeyType;
+import com.webauthn4j.util.CryptoProviderPolicy;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+import com.webauthn4j.validator.exception.ConstraintViolationException;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.bouncycastle.math.ec.rfc8032.Ed448;
+
+import java.nio.ByteBuffer;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Octet key pair (OKP) public key, used with EdDSA
+ * https://tools.ietf.org/html/rfc8152#section-13.2
+ */
+public class OKPCredentialPublicKey extends AbstractCredentialPublicKey {
+
+    private static final byte[] ED25519_SUBJECT_PUBLIC_KEY_INFO_PREFIX = {0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00};
+    private static final byte[] ED448_SUBJECT_PUBLIC_KEY_INFO_PREFIX = {0x30, 0x43, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x71, 0x03, 0x3a, 0x00};
+    private static final byte[] EMPTY_CONTEXT = new byte[0];
+
+    @JsonProperty("-1")
+    private Curve curve;
+
+    @JsonProperty("-2")
+    private byte[] x;
+
+    public OKPCredentialPublicKey() {
+        super();
+    }
+
+    public OKPCredentialPublicKey(byte[] keyId, COSEAlgorithmIdentifier algorithm, COSEKeyOperation[] keyOpts, byte[] baseIV,
+                                  Curve curve, byte[] x) {
+        super(keyId, algorithm, keyOpts, baseIV);
+        this.curve = curve;
+        this.x = x;
+    }
+
+    @Override
+    public COSEKeyType getKeyType() {
+        return COSEKeyType.OKP;
+    }
+
+    public Curve getCurve() {
+        return curve;
+    }
+
+    public byte[] getX() {
+        return x;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return Arrays.copyOf(x, x.length);
+    }
+
+    /**
+     * Returns the key as JCA {@link PublicKey}.
+     * It requires a provider supporting EdDSA keys (Java 15 or later), while {@link #verifySignature(byte[], byte[])}
+     * works without it.
+     */
+    @Override
+    public PublicKey getPublicKey() {
+        byte[] prefix = curve == Curve.ED448 ? ED448_SUBJECT_PUBLIC_KEY_INFO_PREFIX : ED25519_SUBJECT_PUBLIC_KEY_INFO_PREFIX;
+        byte[] encoded = ByteBuffer.allocate(prefix.length + x.length).put(prefix).put(x).array();
+        try {
+            return CryptoProviderPolicy.getDefault().createKeyFactory("EdDSA").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (InvalidKeySpecException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    @Override
+    public boolean verifySignature(byte[] signature, byte[] data) {
+        if (signature == null || data == null || x == null || getAlgorithm() != COSEAlgorithmIdentifier.EdDSA) {
+            return false;
+        }
+        try {
+            switch (curve) {
+                case ED25519:
+                    return x.length == Ed25519.PUBLIC_KEY_SIZE && signature.length == Ed25519.SIGNATURE_SIZE &&
+                            Ed25519.verify(signature, 0, x, 0, data, 0, data.length);
+                case ED448:
+                    return x.length == Ed448.PUBLIC_KEY_SIZE && signature.length == Ed448.SIGNATURE_SIZE &&
+                            Ed448.verify(signature, 0, x, 0, EMPTY_CONTEXT, data, 0, data.length);
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void validate() {
+        if (getAlgorithm() == null) {
+            throw new ConstraintViolationException("algorithm must not be null");
+        }
+        if (curve == null) {
+            throw new ConstraintViolationException("curve must not be null");
+        }
+        if (curve != Curve.ED25519 && curve != Curve.ED448) {
+            throw new ConstraintViolationException("curve must be Ed25519 or Ed448");
+        }
+        if (x == null) {
+            throw new ConstraintViolationException("x must not be null");
+        }
+        int expectedLength = curve == Curve.ED25519 ? Ed25519.PUBLIC_KEY_SIZE : Ed448.PUBLIC_KEY_SIZE;
+        if (x.length != expectedLength) {
+            throw new ConstraintViolationException("x must be " + expectedLength + " bytes length");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+        OKPCredentialPublicKey that = (OKPCredentialPublicKey) o;
+        return curve == that.curve &&
+                Arrays.equals(x, that.x);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(super.hashCode(), curve);
+        result = 31 * result + Arrays.hashCode(x);
+        return result;
+    }
+}
@@ -80,5 +80,8 @@ public class AndroidKeyAttestationStatement implements CertificateBaseAttestatio
         if (x5c == null) {
             throw new ConstraintViolationException("x5c must not be null");
         }
+        if (x5c.isEmpty()) {
+            throw new ConstraintViolationException("x5c must not be empty");
+        }
     }
 }
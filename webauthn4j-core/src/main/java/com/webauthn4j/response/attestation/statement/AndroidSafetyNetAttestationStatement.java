@@ -35,6 +35,11 @@ public class AndroidSafetyNetAttestationStatement implements CertificateBaseAtte
     @JsonProperty
     private JWS response;
 
+    public AndroidSafetyNetAttestationStatement(String ver, JWS response) {
+        this.ver = ver;
+        this.response = response;
+    }
+
     /**
      * Default constructor for Jackson deserialization
      */
@@ -31,6 +31,7 @@ public class AttestationCertificate {
     private static final int CERTIFICATE_VERSION_3 = 3;
     private static final int NON_CA = -1;
     private X509Certificate certificate;
+    private volatile List<Rdn> subjectRdns;
 
     public AttestationCertificate(X509Certificate certificate) {
         this.certificate = certificate;
@@ -84,8 +85,7 @@ public class AttestationCertificate {
     }
 
     private String getValue(String name){
-        String subjectDN = getCertificate().getSubjectX500Principal().getName();
-        return getX500Name(subjectDN)
+        return getSubjectRdns()
                 .stream()
                 .filter(rdn -> rdn.getType().equalsIgnoreCase(name))
                 .findFirst()
@@ -93,6 +93,15 @@ public class AttestationCertificate {
                 .orElse(null);
     }
 
+    private List<Rdn> getSubjectRdns() {
+        List<Rdn> value = subjectRdns;
+        if (value == null) {
+            value = getX500Name(getCertificate().getSubjectX500Principal().getName());
+            subjectRdns = value;
+        }
+        return value;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
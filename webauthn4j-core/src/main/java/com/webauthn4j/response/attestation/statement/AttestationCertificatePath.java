@@ -25,6 +25,8 @@ import java.util.List;
 
 public class AttestationCertificatePath extends ArrayList<X509Certificate> {
 
+    private transient volatile AttestationCertificate endEntityAttestationCertificate;
+
     public AttestationCertificatePath(List<X509Certificate> certificates) {
         super();
         this.addAll(certificates);
@@ -42,6 +44,13 @@ public class AttestationCertificatePath extends ArrayList<X509Certificate> {
         if (this.isEmpty()) {
             throw new IllegalStateException();
         }
-        return new AttestationCertificate(this.get(0));
+        // The wrapper is reused while the end entity certificate stays the same
+        X509Certificate certificate = this.get(0);
+        AttestationCertificate value = endEntityAttestationCertificate;
+        if (value == null || value.getCertificate() != certificate) {
+            value = new AttestationCertificate(certificate);
+            endEntityAttestationCertificate = value;
+        }
+        return value;
     }
 }
@@ -28,7 +28,8 @@ public enum COSEAlgorithmIdentifier {
     RS512(-259, "SHA512withRSA"),
     ES256(-7, "SHA256withECDSA"),
     ES384(-35, "SHA384withECDSA"),
-    ES512(-36, "SHA512withECDSA");
+    ES512(-36, "SHA512withECDSA"),
+    EdDSA(-8, "EdDSA");
 
     private final long value;
     private final String name;
@@ -55,6 +56,8 @@ public enum COSEAlgorithmIdentifier {
                 return ES384;
             case -36:
                 return ES512;
+            case -8:
+                return EdDSA;
             default:
                 throw new InvalidFormatException(null, "value is out of range", value, COSEAlgorithmIdentifier.class);
         }
@@ -23,7 +23,9 @@ import com.webauthn4j.response.attestation.authenticator.Curve;
 
 import java.io.Serializable;
 import java.net.URI;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Origin
@@ -33,9 +35,23 @@ public class Origin implements Serializable {
     private static final String SCHEME_HTTPS = "https";
     private static final String SCHEME_HTTP = "http";
 
-    private String scheme;
-    private String host;
-    private int port;
+    /**
+     * Maximum number of origins registered with {@link #intern(Origin)}. Origins beyond it are not registered.
+     */
+    public static final int MAX_INTERNED_ORIGINS = 1024;
+
+    /**
+     * The configured origins registered with {@link #intern(Origin)}, keyed by their scheme, host and port
+     */
+    private static final Map<Origin, Origin> interned = new ConcurrentHashMap<>();
+    /**
+     * The configured origins keyed by their string form, so that {@link #create(String)} resolves them without parsing
+     */
+    private static final Map<String, Origin> internedValues = new ConcurrentHashMap<>();
+
+    private final String scheme;
+    private final String host;
+    private final int port;
 
     public Origin(String scheme, String host, int port) {
         if (!Objects.equals(SCHEME_HTTPS, scheme) && !Objects.equals(SCHEME_HTTP, scheme)) {
@@ -54,10 +70,10 @@ public class Origin implements Serializable {
         int originPort = uri.getPort();
 
         if (originPort == -1) {
-            if(this.scheme == null){
+            if(uri.getScheme() == null){
                 throw new IllegalArgumentException("scheme must be 'http' or 'https'");
             }
-            switch (this.scheme) {
+            switch (uri.getScheme()) {
                 case SCHEME_HTTPS:
                     originPort = 443;
                     break;
@@ -71,8 +87,20 @@ public class Origin implements Serializable {
         this.port = originPort;
     }
 
+    /**
+     * Returns the {@link Origin} for the value. The configured origins registered with {@link #intern(Origin)}
+     * are returned without being parsed again; any other value is parsed.
+     *
+     * @param value origin string
+     * @return origin
+     * @throws InvalidFormatException if the value is not a valid origin
+     */
     @JsonCreator
     public static Origin create(String value) throws InvalidFormatException {
+        Origin cached = value == null ? null : internedValues.get(value);
+        if (cached != null) {
+            return cached;
+        }
         try {
             return new Origin(value);
         }
@@ -81,6 +109,31 @@ public class Origin implements Serializable {
         }
     }
 
+    /**
+     * Registers the origin as a configured origin, so that {@link #create(String)} returns it for its string form.
+     * Call it when the origins are configured, not per request; only the values sent by clients which match
+     * a registered origin skip parsing. The registrations are JVM-wide and are never removed, so once
+     * {@link #MAX_INTERNED_ORIGINS} origins are registered, further origins are returned without being registered.
+     *
+     * @param origin configured origin
+     * @return the registered origin equal to the argument, or the argument if it is not registered
+     */
+    public static Origin intern(Origin origin) {
+        Origin cached = interned.get(origin);
+        if (cached != null) {
+            return cached;
+        }
+        if (interned.size() >= MAX_INTERNED_ORIGINS) {
+            return origin;
+        }
+        cached = interned.putIfAbsent(origin, origin);
+        if (cached != null) {
+            return cached;
+        }
+        internedValues.putIfAbsent(origin.toString(), origin);
+        return origin;
+    }
+
     public String getScheme() {
         return scheme;
     }
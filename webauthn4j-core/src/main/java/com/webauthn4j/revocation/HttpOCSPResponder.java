@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+import com.webauthn4j.util.AssertUtil;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+
+/**
+ * {@link OCSPResponder} querying the OCSP responder listed in the authority information access extension
+ * of the certificate over HTTP.
+ * Only http and https responder URLs are accepted and redirects are not followed, as the URL comes from the certificate.
+ */
+public class HttpOCSPResponder implements OCSPResponder {
+
+    private static final int DEFAULT_TIMEOUT = 5000;
+
+    private int connectTimeout = DEFAULT_TIMEOUT;
+    private int readTimeout = DEFAULT_TIMEOUT;
+
+    @Override
+    public byte[] respond(X509Certificate certificate, X509Certificate issuer) {
+        URL responderURL = getResponderURL(certificate);
+        byte[] request = createRequest(certificate, issuer);
+        try {
+            HttpURLConnection connection = (HttpURLConnection) responderURL.openConnection();
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+            connection.setInstanceFollowRedirects(false);
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/ocsp-request");
+            connection.setRequestProperty("Accept", "application/ocsp-response");
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(request);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new OCSPException("OCSP responder returned HTTP status " + connection.getResponseCode());
+            }
+            try (InputStream inputStream = connection.getInputStream()) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+                return outputStream.toByteArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private URL getResponderURL(X509Certificate certificate) {
+        byte[] extensionValue = certificate.getExtensionValue(Extension.authorityInfoAccess.getId());
+        if (extensionValue == null) {
+            throw new OCSPException("Certificate does not specify OCSP responder");
+        }
+        try {
+            ASN1Primitive value = ASN1Primitive.fromByteArray(DEROctetString.getInstance(extensionValue).getOctets());
+            for (AccessDescription accessDescription : AuthorityInformationAccess.getInstance(value).getAccessDescriptions()) {
+                GeneralName location = accessDescription.getAccessLocation();
+                if (accessDescription.getAccessMethod().equals(AccessDescription.id_ad_ocsp)
+                        && location.getTagNo() == GeneralName.uniformResourceIdentifier) {
+                    return toResponderURL(location.getName().toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new OCSPException("Certificate does not specify OCSP responder");
+    }
+
+    private URL toResponderURL(String location) {
+        URL url;
+        try {
+            url = new URL(location);
+        } catch (MalformedURLException e) {
+            throw new OCSPException("OCSP responder URL is malformed", e);
+        }
+        if (!"http".equalsIgnoreCase(url.getProtocol()) && !"https".equalsIgnoreCase(url.getProtocol())) {
+            throw new OCSPException("OCSP responder URL must be http or https");
+        }
+        return url;
+    }
+
+    private byte[] createRequest(X509Certificate certificate, X509Certificate issuer) {
+        try {
+            CertificateID certificateID = new CertificateID(
+                    new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1),
+                    new JcaX509CertificateHolder(issuer),
+                    certificate.getSerialNumber());
+            return new OCSPReqBuilder().addRequest(certificateID).build().getEncoded();
+        } catch (OperatorCreationException | CertificateEncodingException | org.bouncycastle.cert.ocsp.OCSPException e) {
+            throw new OCSPException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        AssertUtil.isTrue(connectTimeout >= 0, "connectTimeout must not be negative");
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        AssertUtil.isTrue(readTimeout >= 0, "readTimeout must not be negative");
+        this.readTimeout = readTimeout;
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Path;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.cert.CRL;
+import java.security.cert.CRLException;
+import java.security.cert.CRLSelector;
+import java.security.cert.CertSelector;
+import java.security.cert.CertStore;
+import java.security.cert.CertStoreSpi;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLSelector;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds {@link X509CRL}s loaded from local files or URLs, and provides them to PKIX certification path validation
+ * as a {@link CertStore}, so that revocation checking does not download CRLs while a certification path is validated.
+ * Once started, the CRLs are reloaded in the background before the earliest nextUpdate of the loaded CRLs.
+ * If a location fails to load, the previously loaded CRLs of the location are kept until the next refresh.
+ * <p>
+ * The CRLs are fetched with the connect and read timeouts of this store, outside of its lock, so that a stalled
+ * location delays neither {@link #close()} nor the lookups. Note that a certification path validated against this store
+ * only is rejected when no valid CRL of an issuer in the path is held, e.g. when the location of the issuer has never
+ * loaded, or when its CRL is past nextUpdate and could not be reloaded.
+ */
+public class LocalCRLStore implements Closeable {
+
+    //~ Static fields/initializers
+    // =============================================================================================================
+
+    private static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_MIN_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_MAX_REFRESH_INTERVAL = Duration.ofHours(1);
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Logger logger = LoggerFactory.getLogger(LocalCRLStore.class);
+
+    //~ Instance fields
+    // ================================================================================================
+    private final List<URL> locations;
+    private final Map<URL, Collection<X509CRL>> loadedCRLs = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+    private Duration refreshMargin = DEFAULT_REFRESH_MARGIN;
+    private Duration minRefreshInterval = DEFAULT_MIN_REFRESH_INTERVAL;
+    private Duration maxRefreshInterval = DEFAULT_MAX_REFRESH_INTERVAL;
+    private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+    private Clock clock = Clock.systemUTC();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public LocalCRLStore(List<URL> locations) {
+        AssertUtil.notNull(locations, "locations must not be null");
+        this.locations = Collections.unmodifiableList(new ArrayList<>(locations));
+    }
+
+    public LocalCRLStore(Path... files) {
+        this(toURLs(files));
+    }
+
+    //~ Methods
+    // ========================================================================================================
+
+    /**
+     * Loads the CRLs from all locations on the calling thread
+     *
+     * @return true if all locations are loaded successfully
+     */
+    public boolean refresh() {
+        // the locations are fetched without holding the lock, and only the loaded CRLs are swapped in under it
+        Map<URL, Collection<X509CRL>> loaded = new HashMap<>();
+        boolean succeeded = true;
+        for (URL location : locations) {
+            try {
+                loaded.put(location, load(location));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to load CRL from {}", location, e);
+                succeeded = false;
+            }
+        }
+        synchronized (this) {
+            loadedCRLs.putAll(loaded);
+            List<X509CRL> crls = new ArrayList<>();
+            loadedCRLs.values().forEach(crls::addAll);
+            snapshot = new Snapshot(crls);
+        }
+        return succeeded;
+    }
+
+    /**
+     * Loads the CRLs, and schedules background refreshes until {@link #close()} is called
+     */
+    public void start() {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("CRL store is closed");
+            }
+            if (scheduler != null) {
+                return;
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "webauthn4j-crl-store-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        boolean succeeded = refresh();
+        synchronized (this) {
+            if (!closed) {
+                scheduleRefresh(succeeded);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the CRLs issued by the specified issuer
+     *
+     * @param issuer CRL issuer
+     * @return CRLs, or empty collection if no CRL of the issuer is loaded
+     */
+    public Collection<X509CRL> getCRLs(X500Principal issuer) {
+        return snapshot.crlsByIssuer.getOrDefault(issuer, Collections.emptyList());
+    }
+
+    public Collection<X509CRL> getCRLs() {
+        return snapshot.crls;
+    }
+
+    /**
+     * Returns a {@link CertStore} holding the currently loaded CRLs, to be added to PKIXParameters
+     *
+     * @return CertStore
+     */
+    public CertStore getCertStore() {
+        return snapshot.certStore;
+    }
+
+    /**
+     * Calculates the delay of the next background refresh.
+     * The refresh is scheduled the refresh margin before the earliest nextUpdate, bounded by the min and max refresh interval.
+     *
+     * @param now             current time
+     * @param lastSucceeded   whether the last refresh loaded all locations
+     * @return delay of the next refresh
+     */
+    Duration computeRefreshDelay(Instant now, boolean lastSucceeded) {
+        if (!lastSucceeded) {
+            return minRefreshInterval;
+        }
+        Instant nextUpdate = snapshot.earliestNextUpdate;
+        if (nextUpdate == null) {
+            return maxRefreshInterval;
+        }
+        Duration delay = Duration.between(now, nextUpdate.minus(refreshMargin));
+        if (delay.compareTo(minRefreshInterval) < 0) {
+            return minRefreshInterval;
+        }
+        if (delay.compareTo(maxRefreshInterval) > 0) {
+            return maxRefreshInterval;
+        }
+        return delay;
+    }
+
+    private void scheduleRefresh(boolean lastSucceeded) {
+        long delay = computeRefreshDelay(clock.instant(), lastSucceeded).toMillis();
+        scheduler.schedule(this::refreshAndReschedule, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshAndReschedule() {
+        if (closed) {
+            return;
+        }
+        boolean succeeded = false;
+        try {
+            succeeded = refresh();
+        } finally {
+            synchronized (this) {
+                if (!closed) {
+                    scheduleRefresh(succeeded);
+                }
+            }
+        }
+    }
+
+    private Collection<X509CRL> load(URL location) {
+        URLConnection connection;
+        try {
+            connection = location.openConnection();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        connection.setConnectTimeout((int) connectTimeout.toMillis());
+        connection.setReadTimeout((int) readTimeout.toMillis());
+        try (InputStream inputStream = connection.getInputStream()) {
+            CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            Collection<? extends CRL> crls = certificateFactory.generateCRLs(inputStream);
+            if (crls.isEmpty()) {
+                // an empty file is most likely being replaced; keep the previous CRLs rather than dropping them
+                throw new IllegalArgumentException("No CRL found");
+            }
+            List<X509CRL> x509CRLs = new ArrayList<>(crls.size());
+            for (CRL crl : crls) {
+                x509CRLs.add((X509CRL) crl);
+            }
+            return x509CRLs;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CertificateException | CRLException e) {
+            throw new IllegalArgumentException("Failed to parse CRL", e);
+        }
+    }
+
+    private static List<URL> toURLs(Path... files) {
+        AssertUtil.notNull(files, "files must not be null");
+        List<URL> urls = new ArrayList<>(files.length);
+        for (Path file : files) {
+            try {
+                urls.add(file.toUri().toURL());
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        return urls;
+    }
+
+    public List<URL> getLocations() {
+        return locations;
+    }
+
+    public Duration getRefreshMargin() {
+        return refreshMargin;
+    }
+
+    /**
+     * Sets how long before the earliest nextUpdate the CRLs are reloaded
+     *
+     * @param refreshMargin refresh margin
+     */
+    public void setRefreshMargin(Duration refreshMargin) {
+        AssertUtil.notNull(refreshMargin, "refreshMargin must not be null");
+        this.refreshMargin = refreshMargin;
+    }
+
+    public Duration getMinRefreshInterval() {
+        return minRefreshInterval;
+    }
+
+    /**
+     * Sets the minimum interval of background refreshes, which is also used to retry failed loads
+     *
+     * @param minRefreshInterval min refresh interval
+     */
+    public void setMinRefreshInterval(Duration minRefreshInterval) {
+        AssertUtil.notNull(minRefreshInterval, "minRefreshInterval must not be null");
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    public Duration getMaxRefreshInterval() {
+        return maxRefreshInterval;
+    }
+
+    public void setMaxRefreshInterval(Duration maxRefreshInterval) {
+        AssertUtil.notNull(maxRefreshInterval, "maxRefreshInterval must not be null");
+        this.maxRefreshInterval = maxRefreshInterval;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the timeout of connecting to a CRL location
+     *
+     * @param connectTimeout connect timeout
+     */
+    public void setConnectTimeout(Duration connectTimeout) {
+        AssertUtil.notNull(connectTimeout, "connectTimeout must not be null");
+        AssertUtil.isTrue(!connectTimeout.isNegative() && !connectTimeout.isZero(), "connectTimeout must be positive");
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the timeout of reading a CRL from its location
+     *
+     * @param readTimeout read timeout
+     */
+    public void setReadTimeout(Duration readTimeout) {
+        AssertUtil.notNull(readTimeout, "readTimeout must not be null");
+        AssertUtil.isTrue(!readTimeout.isNegative() && !readTimeout.isZero(), "readTimeout must be positive");
+        this.readTimeout = readTimeout;
+    }
+
+    public void setClock(Clock clock) {
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.clock = clock;
+    }
+
+    /**
+     * Immutable view of the loaded CRLs, replaced as a whole on refresh
+     */
+    private static class Snapshot {
+
+        private final List<X509CRL> crls;
+        private final Map<X500Principal, List<X509CRL>> crlsByIssuer;
+        private final CertStore certStore;
+        private final Instant earliestNextUpdate;
+
+        private Snapshot(List<X509CRL> crls) {
+            Map<X500Principal, List<X509CRL>> byIssuer = new LinkedHashMap<>();
+            Instant earliest = null;
+            for (X509CRL crl : crls) {
+                byIssuer.computeIfAbsent(crl.getIssuerX500Principal(), issuer -> new ArrayList<>()).add(crl);
+                if (crl.getNextUpdate() != null) {
+                    Instant nextUpdate = crl.getNextUpdate().toInstant();
+                    if (earliest == null || nextUpdate.isBefore(earliest)) {
+                        earliest = nextUpdate;
+                    }
+                }
+            }
+            byIssuer.replaceAll((issuer, list) -> Collections.unmodifiableList(list));
+            this.crls = Collections.unmodifiableList(crls);
+            this.crlsByIssuer = Collections.unmodifiableMap(byIssuer);
+            this.earliestNextUpdate = earliest;
+            try {
+                this.certStore = new IndexedCertStore(this);
+            } catch (InvalidAlgorithmParameterException e) {
+                throw new UnexpectedCheckedException(e);
+            }
+        }
+
+        /**
+         * Returns the CRLs matching the selector, looking up the issuers of an {@link X509CRLSelector} in the index
+         */
+        private Collection<X509CRL> select(CRLSelector selector) {
+            Collection<X509CRL> candidates = crls;
+            if (selector instanceof X509CRLSelector && ((X509CRLSelector) selector).getIssuers() != null) {
+                candidates = new ArrayList<>();
+                for (X500Principal issuer : ((X509CRLSelector) selector).getIssuers()) {
+                    candidates.addAll(crlsByIssuer.getOrDefault(issuer, Collections.emptyList()));
+                }
+            }
+            if (selector == null) {
+                return candidates;
+            }
+            List<X509CRL> selected = new ArrayList<>();
+            for (X509CRL crl : candidates) {
+                if (selector.match(crl)) {
+                    selected.add(crl);
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * {@link CertStore} serving the CRLs of a {@link Snapshot} through its issuer index
+     */
+    private static class IndexedCertStore extends CertStore {
+
+        private static final String TYPE = "LocalCRL";
+
+        private IndexedCertStore(Snapshot snapshot) throws InvalidAlgorithmParameterException {
+            super(new IndexedCertStoreSpi(snapshot), null, TYPE, null);
+        }
+    }
+
+    private static class IndexedCertStoreSpi extends CertStoreSpi {
+
+        private final Snapshot snapshot;
+
+        private IndexedCertStoreSpi(Snapshot snapshot) throws InvalidAlgorithmParameterException {
+            super(null);
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public Collection<? extends Certificate> engineGetCertificates(CertSelector selector) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<? extends CRL> engineGetCRLs(CRLSelector selector) {
+            return snapshot.select(selector);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+/**
+ * Thrown if an OCSP response cannot be obtained or is not acceptable
+ */
+public class OCSPException extends RuntimeException {
+    public OCSPException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+
+    public OCSPException(String msg) {
+        super(msg);
+    }
+
+    public OCSPException(Throwable cause) {
+        super(cause);
+    }
+
+}
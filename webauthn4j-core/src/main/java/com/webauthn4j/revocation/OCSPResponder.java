@@ -0,0 +1,35 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Obtains DER encoded OCSP responses for certificates
+ */
+public interface OCSPResponder {
+
+    /**
+     * Obtains the OCSP response for the specified certificate
+     *
+     * @param certificate certificate to check
+     * @param issuer      issuer of the certificate
+     * @return DER encoded OCSPResponse
+     */
+    byte[] respond(X509Certificate certificate, X509Certificate issuer);
+
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+import com.webauthn4j.util.AssertUtil;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of OCSP responses keyed by the OCSP CertID, i.e. the hashes of the issuer name and key and the serial number.
+ * A cached response is served while it is valid according to its thisUpdate and nextUpdate,
+ * and is refreshed in the background once it comes within the refresh margin of its nextUpdate,
+ * so that certification path validation only queries the {@link OCSPResponder} on a cache miss.
+ * Concurrent misses and refreshes of the same certificate share a single query.
+ * The responses are passed to {@link java.security.cert.PKIXRevocationChecker#setOcspResponses(Map)}.
+ */
+public class OCSPResponseCache implements Closeable {
+
+    //~ Static fields/initializers
+    // =============================================================================================================
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+    private static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_VALIDITY_WITHOUT_NEXT_UPDATE = Duration.ofHours(1);
+    private static final Duration DEFAULT_CLOCK_SKEW = Duration.ofMinutes(1);
+
+    public static final int DEFAULT_REFRESH_THREADS = 2;
+    public static final int DEFAULT_REFRESH_QUEUE_CAPACITY = 256;
+    private static final long REFRESH_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(OCSPResponseCache.class);
+
+    //~ Instance fields
+    // ================================================================================================
+    private final OCSPResponder ocspResponder;
+    private final DigestCalculatorProvider digestCalculatorProvider;
+    private final Map<CacheKey, CachedResponse> entries;
+    private final Map<CacheKey, CompletableFuture<CachedResponse>> pendingFetches = new ConcurrentHashMap<>();
+
+    private Duration refreshMargin = DEFAULT_REFRESH_MARGIN;
+    private Duration validityWithoutNextUpdate = DEFAULT_VALIDITY_WITHOUT_NEXT_UPDATE;
+    private Duration clockSkew = DEFAULT_CLOCK_SKEW;
+    private Executor refreshExecutor;
+    private ExecutorService defaultRefreshExecutor;
+    private Clock clock = Clock.systemUTC();
+
+    //~ Constructors
+    // ================================================================================================
+
+    public OCSPResponseCache(OCSPResponder ocspResponder, int maxEntries) {
+        AssertUtil.notNull(ocspResponder, "ocspResponder must not be null");
+        AssertUtil.isTrue(maxEntries > 0, "maxEntries must be positive");
+        this.ocspResponder = ocspResponder;
+        try {
+            this.digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().build();
+        } catch (OperatorCreationException e) {
+            throw new OCSPException(e);
+        }
+        this.entries = new LinkedHashMap<CacheKey, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public OCSPResponseCache(OCSPResponder ocspResponder) {
+        this(ocspResponder, DEFAULT_MAX_ENTRIES);
+    }
+
+    //~ Methods
+    // ========================================================================================================
+
+    /**
+     * Returns the DER encoded OCSP response for the specified certificate.
+     * A valid cached response is returned without querying the {@link OCSPResponder}.
+     *
+     * @param certificate certificate to check
+     * @param issuer      issuer of the certificate
+     * @return DER encoded OCSPResponse
+     * @throws OCSPException if no acceptable response can be obtained
+     */
+    public byte[] getResponse(X509Certificate certificate, X509Certificate issuer) {
+        return getResponse(certificate, issuer, null);
+    }
+
+    private byte[] getResponse(X509Certificate certificate, X509Certificate issuer, Runnable beforeFetch) {
+        CacheKey key = createKey(certificate, issuer);
+        Instant now = clock.instant();
+        CachedResponse entry = getEntry(key);
+        if (entry != null && entry.isValidAt(now, clockSkew)) {
+            if (!now.isBefore(entry.nextUpdate.minus(refreshMargin))) {
+                refreshAsync(key, certificate, issuer);
+            }
+            return entry.encoded;
+        }
+        if (beforeFetch != null) {
+            beforeFetch.run();
+        }
+        return fetchShared(key, certificate, issuer).encoded;
+    }
+
+    /**
+     * Returns the OCSP responses for the certificates of a certification path, in the form accepted by
+     * {@link java.security.cert.PKIXRevocationChecker#setOcspResponses(Map)}.
+     * The path does not have to be validated beforehand: the OCSP responders are located from the certificates, so on
+     * a cache miss the certificates from the missed one up to the trust anchor are checked to be signed by their issuers
+     * before the responder is queried. Cache hits are returned without the check, and the path is left to be validated
+     * by the PKIX validation the responses are passed to.
+     *
+     * @param certificates certificates of the certification path, starting from the end entity
+     * @param trustAnchor  trust anchor issuing the last certificate of the path
+     * @return map of certificate to DER encoded OCSPResponse
+     * @throws OCSPException if a missed certificate does not chain up to the trust anchor, or no acceptable response can be obtained
+     */
+    public Map<X509Certificate, byte[]> getResponses(List<X509Certificate> certificates, TrustAnchor trustAnchor) {
+        AssertUtil.notNull(trustAnchor, "trustAnchor must not be null");
+        Map<X509Certificate, byte[]> responses = new HashMap<>();
+        for (int i = 0; i < certificates.size(); i++) {
+            X509Certificate certificate = certificates.get(i);
+            X509Certificate issuer = i + 1 < certificates.size() ? certificates.get(i + 1) : trustAnchor.getTrustedCert();
+            if (issuer == null || issuer.equals(certificate)) {
+                // the trust anchor itself is not subject to revocation checking
+                continue;
+            }
+            int index = i;
+            responses.put(certificate, getResponse(certificate, issuer, () -> verifyChain(certificates, index, trustAnchor)));
+        }
+        return responses;
+    }
+
+    private static void verifyChain(List<X509Certificate> certificates, int from, TrustAnchor trustAnchor) {
+        for (int i = from; i < certificates.size(); i++) {
+            X509Certificate certificate = certificates.get(i);
+            X509Certificate issuer = i + 1 < certificates.size() ? certificates.get(i + 1) : trustAnchor.getTrustedCert();
+            if (certificate.equals(issuer)) {
+                continue;
+            }
+            try {
+                certificate.verify(issuer == null ? trustAnchor.getCAPublicKey() : issuer.getPublicKey());
+            } catch (GeneralSecurityException e) {
+                throw new OCSPException("Certificate is not signed by its issuer: " + certificate.getSubjectX500Principal(), e);
+            }
+        }
+    }
+
+    /**
+     * Fetches the OCSP response for the specified certificate in the background, unless a fetch is already in progress
+     *
+     * @param certificate certificate to check
+     * @param issuer      issuer of the certificate
+     * @return future completed when the response is cached
+     */
+    public CompletableFuture<Void> prefetch(X509Certificate certificate, X509Certificate issuer) {
+        return refreshAsync(createKey(certificate, issuer), certificate, issuer);
+    }
+
+    public void invalidate(X509Certificate certificate, X509Certificate issuer) {
+        CacheKey key = createKey(certificate, issuer);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private CachedResponse getEntry(CacheKey key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Shuts down the pool created for background refreshes, if any. An executor set with
+     * {@link #setRefreshExecutor(Executor)} is owned by the caller, and is not shut down.
+     */
+    @Override
+    public synchronized void close() {
+        if (defaultRefreshExecutor != null) {
+            defaultRefreshExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Fetches the response on the calling thread, or waits for the fetch of the same certificate already in progress
+     */
+    private CachedResponse fetchShared(CacheKey key, X509Certificate certificate, X509Certificate issuer) {
+        CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> pending = pendingFetches.putIfAbsent(key, future);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            CachedResponse entry = fetch(key, certificate, issuer);
+            pendingFetches.remove(key, future);
+            future.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            pendingFetches.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Void> refreshAsync(CacheKey key, X509Certificate certificate, X509Certificate issuer) {
+        CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> pending = pendingFetches.putIfAbsent(key, future);
+        if (pending != null) {
+            return pending.thenApply(entry -> null);
+        }
+        try {
+            getRefreshExecutor().execute(() -> {
+                try {
+                    CachedResponse entry = fetch(key, certificate, issuer);
+                    pendingFetches.remove(key, future);
+                    future.complete(entry);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to refresh OCSP response of {}", certificate.getSubjectX500Principal(), e);
+                    pendingFetches.remove(key, future);
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the cached response is still served, and is refreshed by a later request
+            logger.debug("OCSP response refresh of {} is rejected", certificate.getSubjectX500Principal(), e);
+            pendingFetches.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future.thenApply(entry -> null);
+    }
+
+    private synchronized Executor getRefreshExecutor() {
+        // the pool is created on first use, so that a cache which never refreshes in the background starts no thread
+        if (refreshExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    DEFAULT_REFRESH_THREADS, DEFAULT_REFRESH_THREADS,
+                    REFRESH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(DEFAULT_REFRESH_QUEUE_CAPACITY),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "webauthn4j-ocsp-response-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            defaultRefreshExecutor = executor;
+            refreshExecutor = executor;
+        }
+        return refreshExecutor;
+    }
+
+    private CacheKey createKey(X509Certificate certificate, X509Certificate issuer) {
+        try {
+            CertificateID certificateID = new CertificateID(
+                    digestCalculatorProvider.get(CertificateID.HASH_SHA1), new JcaX509CertificateHolder(issuer), certificate.getSerialNumber());
+            return new CacheKey(certificateID.getIssuerNameHash(), certificateID.getIssuerKeyHash(), certificateID.getSerialNumber());
+        } catch (OperatorCreationException | CertificateEncodingException | org.bouncycastle.cert.ocsp.OCSPException e) {
+            throw new OCSPException(e);
+        }
+    }
+
+    private CachedResponse fetch(CacheKey key, X509Certificate certificate, X509Certificate issuer) {
+        byte[] encoded;
+        try {
+            encoded = ocspResponder.respond(certificate, issuer);
+        } catch (UncheckedIOException e) {
+            throw new OCSPException("Failed to query OCSP responder", e);
+        }
+        CachedResponse entry = parse(encoded, certificate, issuer, clock.instant());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    private CachedResponse parse(byte[] encoded, X509Certificate certificate, X509Certificate issuer, Instant now) {
+        try {
+            OCSPResp ocspResp = new OCSPResp(encoded);
+            if (ocspResp.getStatus() != OCSPResp.SUCCESSFUL) {
+                throw new OCSPException("OCSP responder returned status " + ocspResp.getStatus());
+            }
+            BasicOCSPResp basicOCSPResp = (BasicOCSPResp) ocspResp.getResponseObject();
+            verifySignature(basicOCSPResp, issuer, now);
+
+            X509CertificateHolder issuerHolder = new JcaX509CertificateHolder(issuer);
+            for (SingleResp singleResp : basicOCSPResp.getResponses()) {
+                if (singleResp.getCertID().getSerialNumber().equals(certificate.getSerialNumber())
+                        && singleResp.getCertID().matchesIssuer(issuerHolder, digestCalculatorProvider)) {
+                    Instant thisUpdate = singleResp.getThisUpdate().toInstant();
+                    Date nextUpdateDate = singleResp.getNextUpdate();
+                    Instant nextUpdate = nextUpdateDate == null ? thisUpdate.plus(validityWithoutNextUpdate) : nextUpdateDate.toInstant();
+                    CachedResponse entry = new CachedResponse(encoded, thisUpdate, nextUpdate);
+                    if (!entry.isValidAt(now, clockSkew)) {
+                        throw new OCSPException("OCSP response is not valid at the current time");
+                    }
+                    return entry;
+                }
+            }
+            throw new OCSPException("OCSP response does not contain the status of the certificate");
+        } catch (IOException | org.bouncycastle.cert.ocsp.OCSPException | OperatorCreationException | CertificateEncodingException e) {
+            throw new OCSPException("Failed to parse OCSP response", e);
+        }
+    }
+
+    private void verifySignature(BasicOCSPResp basicOCSPResp, X509Certificate issuer, Instant now)
+            throws OperatorCreationException, org.bouncycastle.cert.ocsp.OCSPException, CertificateEncodingException {
+        JcaContentVerifierProviderBuilder verifierProviderBuilder = new JcaContentVerifierProviderBuilder();
+        if (basicOCSPResp.isSignatureValid(verifierProviderBuilder.build(issuer.getPublicKey()))) {
+            return;
+        }
+        // delegated responder certificate issued by the issuer for OCSP signing
+        X509CertificateHolder issuerHolder = new JcaX509CertificateHolder(issuer);
+        for (X509CertificateHolder responderCertificate : basicOCSPResp.getCerts()) {
+            ExtendedKeyUsage extendedKeyUsage = ExtendedKeyUsage.fromExtensions(responderCertificate.getExtensions());
+            try {
+                if (responderCertificate.getIssuer().equals(issuerHolder.getSubject())
+                        && extendedKeyUsage != null && extendedKeyUsage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning)
+                        && responderCertificate.isValidOn(Date.from(now))
+                        && responderCertificate.isSignatureValid(verifierProviderBuilder.build(issuer.getPublicKey()))
+                        && basicOCSPResp.isSignatureValid(verifierProviderBuilder.build(responderCertificate))) {
+                    return;
+                }
+            } catch (CertException | java.security.cert.CertificateException e) {
+                logger.debug("Responder certificate verification failed", e);
+            }
+        }
+        throw new OCSPException("OCSP response signature is invalid");
+    }
+
+    public Duration getRefreshMargin() {
+        return refreshMargin;
+    }
+
+    /**
+     * Sets how long before the nextUpdate a cached response is refreshed in the background
+     *
+     * @param refreshMargin refresh margin
+     */
+    public void setRefreshMargin(Duration refreshMargin) {
+        AssertUtil.notNull(refreshMargin, "refreshMargin must not be null");
+        this.refreshMargin = refreshMargin;
+    }
+
+    public Duration getValidityWithoutNextUpdate() {
+        return validityWithoutNextUpdate;
+    }
+
+    /**
+     * Sets how long after its thisUpdate a response without nextUpdate is cached
+     *
+     * @param validityWithoutNextUpdate validity of responses without nextUpdate
+     */
+    public void setValidityWithoutNextUpdate(Duration validityWithoutNextUpdate) {
+        AssertUtil.notNull(validityWithoutNextUpdate, "validityWithoutNextUpdate must not be null");
+        this.validityWithoutNextUpdate = validityWithoutNextUpdate;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    public void setClockSkew(Duration clockSkew) {
+        AssertUtil.notNull(clockSkew, "clockSkew must not be null");
+        this.clockSkew = clockSkew;
+    }
+
+    /**
+     * Sets the executor of the background refreshes. By default, they run on a pool of {@link #DEFAULT_REFRESH_THREADS}
+     * daemon threads dedicated to this cache, created on first use and shut down by {@link #close()}, and a refresh is
+     * skipped once {@link #DEFAULT_REFRESH_QUEUE_CAPACITY} ones are waiting for it.
+     *
+     * @param refreshExecutor executor for the blocking OCSP queries
+     */
+    public synchronized void setRefreshExecutor(Executor refreshExecutor) {
+        AssertUtil.notNull(refreshExecutor, "refreshExecutor must not be null");
+        this.refreshExecutor = refreshExecutor;
+        if (defaultRefreshExecutor != null) {
+            defaultRefreshExecutor.shutdown();
+            defaultRefreshExecutor = null;
+        }
+    }
+
+    public void setClock(Clock clock) {
+        AssertUtil.notNull(clock, "clock must not be null");
+        this.clock = clock;
+    }
+
+    /**
+     * OCSP CertID of a certificate, which identifies the issuer by the hashes of its name and public key
+     */
+    private static class CacheKey {
+
+        private final byte[] issuerNameHash;
+        private final byte[] issuerKeyHash;
+        private final BigInteger serialNumber;
+
+        private CacheKey(byte[] issuerNameHash, byte[] issuerKeyHash, BigInteger serialNumber) {
+            this.issuerNameHash = issuerNameHash;
+            this.issuerKeyHash = issuerKeyHash;
+            this.serialNumber = serialNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return Arrays.equals(issuerNameHash, cacheKey.issuerNameHash) &&
+                    Arrays.equals(issuerKeyHash, cacheKey.issuerKeyHash) &&
+                    Objects.equals(serialNumber, cacheKey.serialNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hash(serialNumber);
+            result = 31 * result + Arrays.hashCode(issuerNameHash);
+            result = 31 * result + Arrays.hashCode(issuerKeyHash);
+            return result;
+        }
+    }
+
+    private static class CachedResponse {
+
+        private final byte[] encoded;
+        private final Instant thisUpdate;
+        private final Instant nextUpdate;
+
+        private CachedResponse(byte[] encoded, Instant thisUpdate, Instant nextUpdate) {
+            this.encoded = encoded;
+            this.thisUpdate = thisUpdate;
+            this.nextUpdate = nextUpdate;
+        }
+
+        private boolean isValidAt(Instant now, Duration clockSkew) {
+            return !thisUpdate.isAfter(now.plus(clockSkew)) && now.isBefore(nextUpdate);
+        }
+    }
+}
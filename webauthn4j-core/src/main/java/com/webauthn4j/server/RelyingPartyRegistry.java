@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticatorDataConverter;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.Challenge;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of the relying parties hosted by a server, indexed by rpIdHash.
+ * <p>
+ * Each relying party is registered with a configuration, and the validator (or any per-tenant object graph) for it
+ * is created by the factory given to the registry. Relying parties registered with equal configurations share a
+ * single validator instance, so the configuration type must implement {@code equals} and {@code hashCode}.
+ * The validator is released once no registered relying party refers to its configuration.
+ * The relying party of a ceremony is looked up by the rpIdHash at the head of the raw authenticator data,
+ * without decoding the ceremony.
+ *
+ * @param <C> configuration type
+ * @param <V> validator type
+ */
+public class RelyingPartyRegistry<C, V> {
+
+    //~ Instance fields
+    // ================================================================================================
+    private final Function<C, V> validatorFactory;
+    private final AuthenticatorDataConverter authenticatorDataConverter;
+    private final AttestationObjectConverter attestationObjectConverter;
+
+    private final Map<ByteBuffer, RelyingParty<C, V>> relyingParties = new ConcurrentHashMap<>();
+    private final Map<C, V> validators = new ConcurrentHashMap<>();
+    // guarded by this registry
+    private final Map<C, Integer> referenceCounts = new HashMap<>();
+
+    //~ Constructors
+    // ================================================================================================
+
+    public RelyingPartyRegistry(Function<C, V> validatorFactory, Registry registry) {
+        AssertUtil.notNull(validatorFactory, "validatorFactory must not be null");
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.validatorFactory = validatorFactory;
+        this.authenticatorDataConverter = new AuthenticatorDataConverter(registry);
+        this.attestationObjectConverter = new AttestationObjectConverter(registry);
+    }
+
+    public RelyingPartyRegistry(Function<C, V> validatorFactory) {
+        this(validatorFactory, Registry.getDefault());
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Registers the relying party, replacing the one registered with the same rpId
+     *
+     * @param rpId          rpId
+     * @param origins       origins allowed for the relying party
+     * @param configuration configuration of the relying party
+     * @return registered relying party
+     */
+    public synchronized RelyingParty<C, V> register(String rpId, Set<Origin> origins, C configuration) {
+        AssertUtil.notNull(rpId, "rpId must not be null");
+        AssertUtil.notEmpty(origins, "origins must not be empty");
+        AssertUtil.notNull(configuration, "configuration must not be null");
+
+        V validator = validators.computeIfAbsent(configuration, validatorFactory);
+        referenceCounts.merge(configuration, 1, Integer::sum);
+        byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(rpId.getBytes(StandardCharsets.UTF_8));
+        RelyingParty<C, V> relyingParty = new RelyingParty<>(rpId, rpIdHash, origins, configuration, validator);
+        RelyingParty<C, V> replaced = relyingParties.put(ByteBuffer.wrap(rpIdHash), relyingParty);
+        if (replaced != null) {
+            releaseValidator(replaced.getConfiguration());
+        }
+        return relyingParty;
+    }
+
+    /**
+     * Unregisters the relying party
+     *
+     * @param rpId rpId
+     * @return unregistered relying party, or {@code null} if it is not registered
+     */
+    public synchronized RelyingParty<C, V> unregister(String rpId) {
+        AssertUtil.notNull(rpId, "rpId must not be null");
+        byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(rpId.getBytes(StandardCharsets.UTF_8));
+        RelyingParty<C, V> removed = relyingParties.remove(ByteBuffer.wrap(rpIdHash));
+        if (removed != null) {
+            releaseValidator(removed.getConfiguration());
+        }
+        return removed;
+    }
+
+    /**
+     * Drops a reference to the configuration, and removes its validator once no registered relying party refers to it.
+     * Called while holding the lock of this registry, so that it does not race with {@link #register}.
+     */
+    private void releaseValidator(C configuration) {
+        Integer count = referenceCounts.merge(configuration, -1, Integer::sum);
+        if (count != null && count <= 0) {
+            referenceCounts.remove(configuration);
+            validators.remove(configuration);
+        }
+    }
+
+    /**
+     * Looks up the relying party by rpIdHash
+     *
+     * @param rpIdHash SHA-256 hash of rpId
+     * @return relying party, or {@code null} if it is not registered
+     */
+    public RelyingParty<C, V> findByRpIdHash(byte[] rpIdHash) {
+        AssertUtil.notNull(rpIdHash, "rpIdHash must not be null");
+        return relyingParties.get(ByteBuffer.wrap(rpIdHash));
+    }
+
+    /**
+     * Looks up the relying party by the rpIdHash at the head of the raw authenticator data
+     *
+     * @param authenticatorData authenticator data bytes
+     * @return relying party, or {@code null} if it is not registered
+     */
+    public RelyingParty<C, V> findByAuthenticatorData(byte[] authenticatorData) {
+        // validates the length of the fixed part
+        authenticatorDataConverter.extractFlags(authenticatorData);
+        return relyingParties.get(ByteBuffer.wrap(authenticatorData, 0, AuthenticatorDataConverter.RP_ID_HASH_LENGTH));
+    }
+
+    /**
+     * Looks up the relying party by the rpIdHash of the authenticator data embedded in the raw attestation object
+     *
+     * @param attestationObject attestation object bytes
+     * @return relying party, or {@code null} if it is not registered
+     */
+    public RelyingParty<C, V> findByAttestationObject(byte[] attestationObject) {
+        return findByAuthenticatorData(attestationObjectConverter.extractAuthenticatorData(attestationObject));
+    }
+
+    public int size() {
+        return relyingParties.size();
+    }
+
+    /**
+     * Returns the number of the validators held for the configurations of the registered relying parties
+     *
+     * @return validator count
+     */
+    public int getValidatorCount() {
+        return validators.size();
+    }
+
+    /**
+     * A relying party registered to {@link RelyingPartyRegistry}
+     *
+     * @param <C> configuration type
+     * @param <V> validator type
+     */
+    public static class RelyingParty<C, V> {
+
+        private final String rpId;
+        private final byte[] rpIdHash;
+        private final Origin origin;
+        private final Set<Origin> origins;
+        private final C configuration;
+        private final V validator;
+
+        RelyingParty(String rpId, byte[] rpIdHash, Set<Origin> origins, C configuration, V validator) {
+            this.rpId = rpId;
+            this.rpIdHash = rpIdHash;
+            // the origins are interned once here, so that no ceremony of the relying party copies or interns them again
+            Set<Origin> interned = new HashSet<>();
+            for (Origin origin : origins) {
+                interned.add(Origin.intern(origin));
+            }
+            this.origin = Origin.intern(origins.iterator().next());
+            this.origins = Collections.unmodifiableSet(interned);
+            this.configuration = configuration;
+            this.validator = validator;
+        }
+
+        public String getRpId() {
+            return rpId;
+        }
+
+        public byte[] getRpIdHash() {
+            return rpIdHash.clone();
+        }
+
+        public Set<Origin> getOrigins() {
+            return origins;
+        }
+
+        public C getConfiguration() {
+            return configuration;
+        }
+
+        public V getValidator() {
+            return validator;
+        }
+
+        /**
+         * Creates {@link ServerProperty} of the relying party for a ceremony
+         *
+         * @param challenge      challenge issued for the ceremony
+         * @param tokenBindingId token binding id
+         * @return server property
+         */
+        public ServerProperty createServerProperty(Challenge challenge, byte[] tokenBindingId) {
+            return new ServerProperty(origin, origins, rpId, challenge, tokenBindingId);
+        }
+    }
+}
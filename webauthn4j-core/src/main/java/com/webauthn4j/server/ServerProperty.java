@@ -21,7 +21,10 @@ import com.webauthn4j.response.client.challenge.Challenge;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * ServerProperty
@@ -29,21 +32,66 @@ import java.util.Objects;
 public class ServerProperty implements Serializable {
 
     private final Origin origin;
+    private final Set<Origin> origins;
     private final String rpId;
     private final Challenge challenge;
     private final byte[] tokenBindingId;
 
     public ServerProperty(Origin origin, String rpId, Challenge challenge, byte[] tokenBindingId) {
+        this(origin, origin == null ? Collections.emptySet() : Collections.singleton(origin), rpId, challenge, tokenBindingId);
+    }
+
+    /**
+     * Creates a {@link ServerProperty} sharing the given set of allowed origins without copying it
+     *
+     * @param origin         origin returned by {@link #getOrigin()}
+     * @param origins        unmodifiable set of the allowed origins
+     * @param rpId           rpId
+     * @param challenge      challenge
+     * @param tokenBindingId tokenBindingId
+     */
+    ServerProperty(Origin origin, Set<Origin> origins, String rpId, Challenge challenge, byte[] tokenBindingId) {
         this.origin = origin;
+        this.origins = origins;
         this.rpId = rpId;
         this.challenge = challenge;
         this.tokenBindingId = tokenBindingId;
     }
 
+    /**
+     * Creates a {@link ServerProperty} which accepts any of the allowed origins.
+     * The origins are not interned with {@link Origin#intern(Origin)}; intern the configured origins once,
+     * e.g. by registering them to {@link RelyingPartyRegistry}, rather than per ceremony.
+     *
+     * @param origins        allowed origins. The first one in iteration order is returned by {@link #getOrigin()}
+     * @param rpId           rpId
+     * @param challenge      challenge
+     * @param tokenBindingId tokenBindingId
+     * @return server property
+     */
+    public static ServerProperty create(Set<Origin> origins, String rpId, Challenge challenge, byte[] tokenBindingId) {
+        Origin origin = origins == null || origins.isEmpty() ? null : origins.iterator().next();
+        Set<Origin> allowedOrigins = Collections.emptySet();
+        if (origins != null) {
+            allowedOrigins = Collections.unmodifiableSet(new HashSet<>(origins));
+        }
+        return new ServerProperty(origin, allowedOrigins, rpId, challenge, tokenBindingId);
+    }
+
     public Origin getOrigin() {
         return origin;
     }
 
+    /**
+     * Returns the allowed origins. It is empty when the {@link ServerProperty} is constructed with a null origin,
+     * in which case only client data without origin matches.
+     *
+     * @return unmodifiable set of the allowed origins
+     */
+    public Set<Origin> getOrigins() {
+        return origins;
+    }
+
     public String getRpId() {
         return rpId;
     }
@@ -62,6 +110,7 @@ public class ServerProperty implements Serializable {
         if (o == null || getClass() != o.getClass()) return false;
         ServerProperty that = (ServerProperty) o;
         return Objects.equals(origin, that.origin) &&
+                Objects.equals(origins, that.origins) &&
                 Objects.equals(rpId, that.rpId) &&
                 Objects.equals(challenge, that.challenge) &&
                 Arrays.equals(tokenBindingId, that.tokenBindingId);
@@ -70,7 +119,7 @@ public class ServerProperty implements Serializable {
     @Override
     public int hashCode() {
 
-        int result = Objects.hash(origin, rpId, challenge);
+        int result = Objects.hash(origin, origins, rpId, challenge);
         result = 31 * result + Arrays.hashCode(tokenBindingId);
         return result;
     }
@@ -16,7 +16,12 @@
 
 package com.webauthn4j.util;
 
+import java.util.function.Supplier;
+
 public class WebAuthnException extends RuntimeException {
+
+    private static final ThreadLocal<Boolean> stackTraceSuppressed = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
     public WebAuthnException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -28,4 +33,34 @@ public class WebAuthnException extends RuntimeException {
     public WebAuthnException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Skips capturing the stack trace while {@link #supplyWithoutStackTrace(Supplier)} runs on the current thread
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (stackTraceSuppressed.get()) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
+
+    /**
+     * Runs the supplier, creating the {@link WebAuthnException}s thrown on the current thread meanwhile without
+     * a stack trace. Capturing the stack trace dominates the cost of a failed validation, while the exception type
+     * and the message identify the failure.
+     *
+     * @param supplier supplier
+     * @param <T>      result type
+     * @return the result of the supplier
+     */
+    public static <T> T supplyWithoutStackTrace(Supplier<T> supplier) {
+        Boolean previous = stackTraceSuppressed.get();
+        stackTraceSuppressed.set(Boolean.TRUE);
+        try {
+            return supplier.get();
+        } finally {
+            stackTraceSuppressed.set(previous);
+        }
+    }
 }
@@ -29,6 +29,19 @@ import java.security.MessageDigest;
  */
 class AssertionSignatureValidator {
 
+    //~ Static fields/initializers
+    // ================================================================================================
+
+    /**
+     * The shortest DER encoded ECDSA signature: SEQUENCE of two INTEGERs with one byte each
+     */
+    static final int MIN_SIGNATURE_LENGTH = 8;
+
+    /**
+     * The length of an RSA signature made with an 8192 bit key
+     */
+    static final int MAX_SIGNATURE_LENGTH = 1024;
+
     // ~ Methods
     // ========================================================================================================
 
@@ -40,6 +53,17 @@ class AssertionSignatureValidator {
         }
     }
 
+    /**
+     * Rejects a signature whose length no supported algorithm produces, before the signature is verified
+     *
+     * @param signature signature
+     */
+    public void validateSignatureLength(byte[] signature) {
+        if (signature.length < MIN_SIGNATURE_LENGTH || signature.length > MAX_SIGNATURE_LENGTH) {
+            throw new BadSignatureException("Bad signature length");
+        }
+    }
+
     private byte[] getSignedData(WebAuthnAuthenticationContext webAuthnAuthenticationContext) {
         MessageDigest messageDigest = MessageDigestUtil.createSHA256();
         byte[] rawAuthenticatorData = webAuthnAuthenticationContext.getAuthenticatorData();
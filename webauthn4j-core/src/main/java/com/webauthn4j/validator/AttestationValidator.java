@@ -16,39 +16,72 @@
 
 package com.webauthn4j.validator;
 
+import com.webauthn4j.registry.AttestationStatementFormat;
+import com.webauthn4j.registry.AttestationStatementFormatRegistry;
 import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
 import com.webauthn4j.response.attestation.statement.AttestationStatement;
 import com.webauthn4j.response.attestation.statement.AttestationType;
 import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
 import com.webauthn4j.response.attestation.statement.FIDOU2FAttestationStatement;
+import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.exception.NotImplementedException;
 import com.webauthn4j.validator.attestation.AttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.AsyncCertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.certpath.CertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.ECDAATrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.self.SelfAttestationTrustworthinessValidator;
+import com.webauthn4j.validator.event.NullValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationEvent;
+import com.webauthn4j.validator.event.ValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationStage;
 import com.webauthn4j.validator.exception.BadAaguidException;
 import com.webauthn4j.validator.exception.BadAttestationStatementException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AttestationValidator {
 
     private static final byte[] U2F_AAGUID = new byte[16];
 
     private final List<AttestationStatementValidator> attestationStatementValidators;
+    private final AttestationStatementFormatRegistry attestationStatementFormatRegistry;
+    private final Map<String, AttestationStatementValidator> attestationStatementValidatorCache = new ConcurrentHashMap<>();
 
     private final CertPathTrustworthinessValidator certPathTrustworthinessValidator;
     private final ECDAATrustworthinessValidator ecdaaTrustworthinessValidator;
     private final SelfAttestationTrustworthinessValidator selfAttestationTrustworthinessValidator;
 
+    private ValidationEventRecorder validationEventRecorder = new NullValidationEventRecorder();
+
     public AttestationValidator(
             List<AttestationStatementValidator> attestationStatementValidators,
             CertPathTrustworthinessValidator certPathTrustworthinessValidator,
             ECDAATrustworthinessValidator ecdaaTrustworthinessValidator,
             SelfAttestationTrustworthinessValidator selfAttestationTrustworthinessValidator
     ){
+        this(attestationStatementValidators,
+                certPathTrustworthinessValidator,
+                ecdaaTrustworthinessValidator,
+                selfAttestationTrustworthinessValidator,
+                AttestationStatementFormatRegistry.createDefault());
+    }
+
+    public AttestationValidator(
+            List<AttestationStatementValidator> attestationStatementValidators,
+            CertPathTrustworthinessValidator certPathTrustworthinessValidator,
+            ECDAATrustworthinessValidator ecdaaTrustworthinessValidator,
+            SelfAttestationTrustworthinessValidator selfAttestationTrustworthinessValidator,
+            AttestationStatementFormatRegistry attestationStatementFormatRegistry
+    ){
+        AssertUtil.notNull(attestationStatementFormatRegistry, "attestationStatementFormatRegistry must not be null");
         this.attestationStatementValidators = attestationStatementValidators;
+        this.attestationStatementFormatRegistry = attestationStatementFormatRegistry;
 
         this.certPathTrustworthinessValidator = certPathTrustworthinessValidator;
         this.ecdaaTrustworthinessValidator = ecdaaTrustworthinessValidator;
@@ -56,6 +89,17 @@ public class AttestationValidator {
     }
 
     public void validate(RegistrationObject registrationObject){
+        AttestationType attestationType = validateAttestationStatement(registrationObject);
+        validateTrustworthiness(registrationObject, attestationType);
+    }
+
+    /**
+     * Verifies the attestation statement, without assessing its trustworthiness
+     *
+     * @param registrationObject registration object
+     * @return attestation type of the verified attestation statement
+     */
+    public AttestationType validateAttestationStatement(RegistrationObject registrationObject){
 
         AttestationObject attestationObject = registrationObject.getAttestationObject();
 
@@ -70,7 +114,18 @@ public class AttestationValidator {
 
         /// Note: Each attestation statement format specifies its own verification procedure. See §8 Defined Attestation
         /// Statement Formats for the initially-defined formats, and  [WebAuthn-Registries] for the up-to-date list.
-        AttestationType attestationType = validateAttestationStatement(registrationObject);
+        ValidationEvent event = validationEventRecorder.begin(ValidationStage.ATTESTATION_VALIDATED);
+        event.setFormat(attestationObject.getFormat());
+        event.setAaguid(getAaguid(attestationObject));
+        event.setPayloadSize(registrationObject.getAttestationObjectBytes().length);
+        AttestationType attestationType;
+        try {
+            attestationType = findAttestationStatementValidator(registrationObject).validate(registrationObject);
+        } catch (RuntimeException e) {
+            event.end(e);
+            throw e;
+        }
+        event.end();
 
 
         if(attestationObject.getFormat().equals(FIDOU2FAttestationStatement.FORMAT)){
@@ -79,7 +134,18 @@ public class AttestationValidator {
                 throw new BadAaguidException("AAGUID is not 0x00 though it is in U2F attestation.");
             }
         }
+        return attestationType;
+    }
 
+    /**
+     * Assesses the trustworthiness of the verified attestation statement
+     *
+     * @param registrationObject registration object
+     * @param attestationType    attestation type returned by {@link #validateAttestationStatement(RegistrationObject)}
+     */
+    public void validateTrustworthiness(RegistrationObject registrationObject, AttestationType attestationType){
+
+        AttestationObject attestationObject = registrationObject.getAttestationObject();
 
         /// If validation is successful, obtain a list of acceptable trust anchors (attestation root certificates or
         /// ECDAA-Issuer public keys) for that attestation type and attestation statement format fmt,
@@ -115,7 +181,17 @@ public class AttestationValidator {
                     CertificateBaseAttestationStatement certificateBaseAttestationStatement =
                             (CertificateBaseAttestationStatement) attestationStatement;
                     byte[] aaguid = attestationObject.getAuthenticatorData().getAttestedCredentialData().getAaguid();
-                    certPathTrustworthinessValidator.validate(aaguid, certificateBaseAttestationStatement);
+                    ValidationEvent event = validationEventRecorder.begin(ValidationStage.CERT_PATH_VALIDATED);
+                    event.setFormat(attestationObject.getFormat());
+                    event.setAaguid(aaguid);
+                    event.setPayloadSize(registrationObject.getAttestationObjectBytes().length);
+                    try {
+                        certPathTrustworthinessValidator.validate(aaguid, certificateBaseAttestationStatement);
+                    } catch (RuntimeException e) {
+                        event.end(e);
+                        throw e;
+                    }
+                    event.end();
                 } else {
                     throw new IllegalStateException();
                 }
@@ -129,10 +205,71 @@ public class AttestationValidator {
 
     }
 
-    private AttestationType validateAttestationStatement(RegistrationObject registrationObject) {
+    /**
+     * Assesses the trustworthiness of the verified attestation statement. The certification path is validated by
+     * the specified {@link AsyncCertPathTrustworthinessValidator}, while other attestation types are assessed inline.
+     *
+     * @param registrationObject                    registration object
+     * @param attestationType                       attestation type returned by {@link #validateAttestationStatement(RegistrationObject)}
+     * @param asyncCertPathTrustworthinessValidator validator for the certification path
+     * @return stage completed when the trustworthiness is assessed
+     */
+    public CompletionStage<Void> validateTrustworthinessAsync(RegistrationObject registrationObject, AttestationType attestationType,
+                                                              AsyncCertPathTrustworthinessValidator asyncCertPathTrustworthinessValidator){
+        if (attestationType == AttestationType.BASIC || attestationType == AttestationType.ATT_CA) {
+            AttestationObject attestationObject = registrationObject.getAttestationObject();
+            AttestationStatement attestationStatement = attestationObject.getAttestationStatement();
+            if (!(attestationStatement instanceof CertificateBaseAttestationStatement)) {
+                throw new IllegalStateException();
+            }
+            byte[] aaguid = attestationObject.getAuthenticatorData().getAttestedCredentialData().getAaguid();
+            return asyncCertPathTrustworthinessValidator.validateAsync(aaguid, (CertificateBaseAttestationStatement) attestationStatement);
+        }
+        validateTrustworthiness(registrationObject, attestationType);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public ValidationEventRecorder getValidationEventRecorder() {
+        return validationEventRecorder;
+    }
+
+    /**
+     * Sets the recorder of the attestation statement verification and the synchronous certification path validation
+     *
+     * @param validationEventRecorder validation event recorder
+     */
+    public void setValidationEventRecorder(ValidationEventRecorder validationEventRecorder) {
+        AssertUtil.notNull(validationEventRecorder, "validationEventRecorder must not be null");
+        this.validationEventRecorder = validationEventRecorder;
+    }
+
+    private static byte[] getAaguid(AttestationObject attestationObject) {
+        AttestedCredentialData attestedCredentialData = attestationObject.getAuthenticatorData().getAttestedCredentialData();
+        return attestedCredentialData == null ? null : attestedCredentialData.getAaguid();
+    }
+
+    /**
+     * Returns the validator supporting the attestation statement format. The validator provided by the registered
+     * {@link AttestationStatementFormat} is looked up by the fmt value. Otherwise, the configured validators are probed
+     * with {@link AttestationStatementValidator#supports(RegistrationObject)} only on the first use of the format,
+     * subsequent lookups resolve the validator by the fmt value.
+     */
+    private AttestationStatementValidator findAttestationStatementValidator(RegistrationObject registrationObject) {
+        String format = registrationObject.getAttestationObject().getFormat();
+        AttestationStatementValidator cached = attestationStatementValidatorCache.get(format);
+        if (cached != null && cached.supports(registrationObject)) {
+            return cached;
+        }
+        AttestationStatementFormat attestationStatementFormat = attestationStatementFormatRegistry.get(format);
+        AttestationStatementValidator formatValidator = attestationStatementFormat == null ? null : attestationStatementFormat.getAttestationStatementValidator();
+        if (formatValidator != null && formatValidator.supports(registrationObject)) {
+            attestationStatementValidatorCache.put(format, formatValidator);
+            return formatValidator;
+        }
         for (AttestationStatementValidator validator : attestationStatementValidators) {
             if (validator.supports(registrationObject)) {
-                return validator.validate(registrationObject);
+                attestationStatementValidatorCache.put(format, validator);
+                return validator;
             }
         }
 
@@ -197,7 +197,7 @@ class BeanAssertUtil {
         if (serverProperty.getChallenge() == null) {
             throw new ConstraintViolationException("challenge must not be null");
         }
-        if (serverProperty.getOrigin() == null) {
+        if (serverProperty.getOrigins().isEmpty()) {
             throw new ConstraintViolationException("origin must not be null");
         }
     }
@@ -43,7 +43,11 @@ class OriginValidator {
         AssertUtil.notNull(collectedClientData, "collectedClientData must not be null");
         AssertUtil.notNull(serverProperty, "serverProperty must not be null");
 
-        if (!Objects.equals(collectedClientData.getOrigin(), serverProperty.getOrigin())) {
+        Origin origin = collectedClientData.getOrigin();
+        boolean allowed = serverProperty.getOrigins().isEmpty()
+                ? Objects.equals(origin, serverProperty.getOrigin())
+                : serverProperty.getOrigins().contains(origin);
+        if (!allowed) {
             logger.debug("Authentication failed: bad origin is specified");
             throw new BadOriginException("Bad origin");
         }
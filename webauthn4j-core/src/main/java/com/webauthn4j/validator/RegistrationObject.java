@@ -17,11 +17,23 @@
 package com.webauthn4j.validator;
 
 import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.response.attestation.statement.AttestationCertificate;
+import com.webauthn4j.response.attestation.statement.AttestationCertificatePath;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
 import com.webauthn4j.response.client.CollectedClientData;
 import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.validator.exception.BadAttestationStatementException;
+
+import java.security.PublicKey;
 
 /**
  * Internal data transfer object for registration data
+ * <p>
+ * Values derived from the registration data, which several validators need, are computed once on first use
+ * and shared. The returned values must not be modified.
  */
 public class RegistrationObject {
 
@@ -35,6 +47,10 @@ public class RegistrationObject {
     private final byte[] authenticatorDataBytes;
     private final ServerProperty serverProperty;
 
+    private volatile byte[] clientDataHash;
+    private volatile AttestationCertificate endEntityAttestationCertificate;
+    private volatile PublicKey credentialPublicKey;
+
     // ~ Constructor
     // ========================================================================================================
 
@@ -80,4 +96,59 @@ public class RegistrationObject {
         return serverProperty;
     }
 
+    /**
+     * Returns the SHA-256 hash of the client data
+     *
+     * @return clientDataHash
+     */
+    public byte[] getClientDataHash() {
+        byte[] value = clientDataHash;
+        if (value == null) {
+            value = MessageDigestUtil.createSHA256().digest(collectedClientDataBytes);
+            clientDataHash = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the end entity certificate of the attestation statement x5c
+     *
+     * @return end entity attestation certificate, or null if the attestation statement has no x5c
+     * @throws BadAttestationStatementException if x5c is empty
+     */
+    public AttestationCertificate getEndEntityAttestationCertificate() {
+        AttestationCertificate value = endEntityAttestationCertificate;
+        if (value == null) {
+            AttestationStatement attestationStatement = attestationObject.getAttestationStatement();
+            if (!(attestationStatement instanceof CertificateBaseAttestationStatement)) {
+                return null;
+            }
+            AttestationCertificatePath x5c = ((CertificateBaseAttestationStatement) attestationStatement).getX5c();
+            if (x5c == null) {
+                return null;
+            }
+            if (x5c.isEmpty()) {
+                throw new BadAttestationStatementException("No attestation certificate is found.");
+            }
+            value = x5c.getEndEntityAttestationCertificate();
+            endEntityAttestationCertificate = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the credential public key in the attested credential data, decoded as {@link PublicKey}
+     *
+     * @return credential public key
+     */
+    public PublicKey getCredentialPublicKey() {
+        PublicKey value = credentialPublicKey;
+        if (value == null) {
+            AttestedCredentialData attestedCredentialData = attestationObject.getAuthenticatorData().getAttestedCredentialData();
+            value = attestedCredentialData.getCredentialPublicKey().getPublicKey();
+            credentialPublicKey = value;
+        }
+        return value;
+    }
+
 }
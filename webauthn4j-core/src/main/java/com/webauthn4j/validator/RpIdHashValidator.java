@@ -37,6 +37,9 @@ class RpIdHashValidator {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    // Relying parties rarely change their rpId, so the hash of the last one is kept to skip hashing it per request
+    private volatile ExpectedRpIdHash expectedRpIdHash;
+
     // ~ Methods
     // ========================================================================================================
 
@@ -45,12 +48,32 @@ class RpIdHashValidator {
         String rpId = serverProperty.getRpId();
         AssertUtil.notNull(rpId, "rpId must not be null");
 
-        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
-        byte[] relyingPartyRpIdBytes = rpId.getBytes(StandardCharsets.UTF_8);
-        byte[] relyingPartyRpIdHash = messageDigest.digest(relyingPartyRpIdBytes);
+        byte[] relyingPartyRpIdHash = getExpectedRpIdHash(rpId);
         if (!Arrays.equals(rpIdHash, relyingPartyRpIdHash)) {
             logger.debug("Authentication failed: bad rpId is specified");
             throw new BadRpIdException("Bad rpId");
         }
     }
+
+    private byte[] getExpectedRpIdHash(String rpId) {
+        ExpectedRpIdHash cached = expectedRpIdHash;
+        if (cached != null && cached.rpId.equals(rpId)) {
+            return cached.hash;
+        }
+        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
+        byte[] hash = messageDigest.digest(rpId.getBytes(StandardCharsets.UTF_8));
+        expectedRpIdHash = new ExpectedRpIdHash(rpId, hash);
+        return hash;
+    }
+
+    private static class ExpectedRpIdHash {
+
+        private final String rpId;
+        private final byte[] hash;
+
+        private ExpectedRpIdHash(String rpId, byte[] hash) {
+            this.rpId = rpId;
+            this.hash = hash;
+        }
+    }
 }
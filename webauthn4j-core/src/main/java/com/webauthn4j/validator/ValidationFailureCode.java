@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator;
+
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.exception.InputLimitExceededException;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.validator.exception.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reason of a validation failure reported by {@link ValidationResult}, corresponding to the exception thrown by
+ * the validators for the same failure
+ */
+public enum ValidationFailureCode {
+
+    BAD_AAGUID(BadAaguidException.class),
+    BAD_ALGORITHM(BadAlgorithmException.class),
+    BAD_ATTESTATION_STATEMENT(BadAttestationStatementException.class),
+    BAD_CHALLENGE(BadChallengeException.class),
+    BAD_ORIGIN(BadOriginException.class),
+    BAD_RP_ID(BadRpIdException.class),
+    BAD_SIGNATURE(BadSignatureException.class),
+    CERTIFICATE(CertificateException.class),
+    CONSTRAINT_VIOLATION(ConstraintViolationException.class),
+    KEY_DESCRIPTION_VALIDATION(KeyDescriptionValidationException.class),
+    MALICIOUS_COUNTER_VALUE(MaliciousCounterValueException.class),
+    MALICIOUS_DATA(MaliciousDataException.class),
+    MISSING_CHALLENGE(MissingChallengeException.class),
+    PUBLIC_KEY_MISMATCH(PublicKeyMismatchException.class),
+    SELF_ATTESTATION_PROHIBITED(SelfAttestationProhibitedException.class),
+    TOKEN_BINDING(TokenBindingException.class),
+    UNEXPECTED_EXTENSION(UnexpectedExtensionException.class),
+    USER_NOT_PRESENT(UserNotPresentException.class),
+    USER_NOT_VERIFIED(UserNotVerifiedException.class),
+    INPUT_LIMIT_EXCEEDED(InputLimitExceededException.class),
+    DATA_CONVERSION(DataConversionException.class),
+    OTHER(WebAuthnException.class);
+
+    private static final Map<Class<?>, ValidationFailureCode> codes = new HashMap<>();
+
+    static {
+        for (ValidationFailureCode code : values()) {
+            codes.put(code.exceptionClass, code);
+        }
+    }
+
+    private final Class<? extends WebAuthnException> exceptionClass;
+
+    ValidationFailureCode(Class<? extends WebAuthnException> exceptionClass) {
+        this.exceptionClass = exceptionClass;
+    }
+
+    /**
+     * Returns the code for the exception, or for its nearest superclass with a code
+     *
+     * @param exception exception
+     * @return failure code
+     */
+    public static ValidationFailureCode of(WebAuthnException exception) {
+        for (Class<?> type = exception.getClass(); type != Object.class; type = type.getSuperclass()) {
+            ValidationFailureCode code = codes.get(type);
+            if (code != null) {
+                return code;
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Returns the exception class thrown by the validators for the failure
+     *
+     * @return exception class
+     */
+    public Class<? extends WebAuthnException> getExceptionClass() {
+        return exceptionClass;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator;
+
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.WebAuthnException;
+
+/**
+ * Outcome of a validation, holding either the validation response or the reason of the failure
+ *
+ * @param <T> validation response type
+ */
+public class ValidationResult<T> {
+
+    //~ Instance fields
+    // ================================================================================================
+    private final T value;
+    private final ValidationFailureCode failureCode;
+    private final String message;
+
+    //~ Constructors
+    // ================================================================================================
+
+    private ValidationResult(T value, ValidationFailureCode failureCode, String message) {
+        this.value = value;
+        this.failureCode = failureCode;
+        this.message = message;
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    public static <T> ValidationResult<T> success(T value) {
+        return new ValidationResult<>(value, null, null);
+    }
+
+    public static <T> ValidationResult<T> failure(ValidationFailureCode failureCode, String message) {
+        AssertUtil.notNull(failureCode, "failureCode must not be null");
+        return new ValidationResult<>(null, failureCode, message);
+    }
+
+    public static <T> ValidationResult<T> failure(WebAuthnException exception) {
+        return failure(ValidationFailureCode.of(exception), exception.getMessage());
+    }
+
+    public boolean isSuccess() {
+        return failureCode == null;
+    }
+
+    /**
+     * Returns the validation response
+     *
+     * @return validation response, or null if the validation failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the reason of the failure
+     *
+     * @return failure code, or null if the validation succeeded
+     */
+    public ValidationFailureCode getFailureCode() {
+        return failureCode;
+    }
+
+    /**
+     * Returns the message describing the failure
+     *
+     * @return message, or null if the validation succeeded
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "ValidationResult{success}" : "ValidationResult{" + failureCode + ": " + message + "}";
+    }
+}
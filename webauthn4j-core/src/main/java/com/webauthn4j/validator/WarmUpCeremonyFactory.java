@@ -0,0 +1,421 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticatorDataConverter;
+import com.webauthn4j.converter.CollectedClientDataConverter;
+import com.webauthn4j.registry.AttestationStatementFormat;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.authenticator.*;
+import com.webauthn4j.response.attestation.statement.*;
+import com.webauthn4j.response.client.ClientDataType;
+import com.webauthn4j.response.client.CollectedClientData;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.Challenge;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.Base64UrlUtil;
+import com.webauthn4j.util.Base64Util;
+import com.webauthn4j.util.ECUtil;
+import com.webauthn4j.util.KeyUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.util.SignatureUtil;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+import org.bouncycastle.asn1.*;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.CertIOException;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.util.BigIntegers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECPoint;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates synthetic registration and authentication ceremonies for warming up the validators.
+ * The credential keys and the attestation certificate are generated on creation, so that no external service is involved.
+ */
+class WarmUpCeremonyFactory {
+
+    // ~ Static fields/initializers
+    // ================================================================================================
+
+    static final String RP_ID = "warm-up.webauthn4j.invalid";
+    static final Origin ORIGIN = new Origin("https://" + RP_ID);
+
+    // fido-u2f requires the zero AAGUID
+    private static final byte[] AAGUID = new byte[16];
+    private static final String ATTESTATION_SUBJECT = "C=US, O=WebAuthn4J, OU=Authenticator Attestation, CN=WebAuthn4J Warm-up";
+    // android-safetynet requires the attestation certificate to be issued to attest.android.com
+    private static final String SAFETYNET_SUBJECT = "C=US, O=WebAuthn4J, CN=attest.android.com";
+    private static final String SAFETYNET_VERSION = "0";
+
+    private static final ASN1ObjectIdentifier KEY_DESCRIPTION_OID = new ASN1ObjectIdentifier("1.3.6.1.4.1.11129.2.1.17");
+    private static final int KM_TAG_PURPOSE = 1;
+    private static final int KM_TAG_ORIGIN = 702;
+    private static final int KM_PURPOSE_SIGN = 2;
+    private static final int KM_ORIGIN_GENERATED = 0;
+
+    // ~ Instance fields
+    // ================================================================================================
+
+    private final CollectedClientDataConverter collectedClientDataConverter;
+    private final AttestationObjectConverter attestationObjectConverter;
+    private final AuthenticatorDataConverter authenticatorDataConverter;
+    private final Registry registry;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(RP_ID.getBytes(StandardCharsets.UTF_8));
+    private final List<CredentialKey> credentialKeys;
+    private final KeyPair attestationKeyPair;
+    private final X509Certificate attestationCertificate;
+    private final X509Certificate safetyNetCertificate;
+
+    // ~ Constructor
+    // ========================================================================================================
+
+    WarmUpCeremonyFactory(Registry registry) {
+        this.collectedClientDataConverter = new CollectedClientDataConverter(registry);
+        this.attestationObjectConverter = new AttestationObjectConverter(registry);
+        this.authenticatorDataConverter = new AuthenticatorDataConverter(registry);
+        this.registry = registry;
+
+        this.credentialKeys = Arrays.asList(
+                CredentialKey.createES256(secureRandom),
+                CredentialKey.createRS256(),
+                CredentialKey.createEdDSA(secureRandom)
+        );
+        this.attestationKeyPair = createECKeyPair(secureRandom);
+        this.attestationCertificate = createCertificate(ATTESTATION_SUBJECT, attestationKeyPair.getPublic(), attestationKeyPair.getPrivate(), null);
+        this.safetyNetCertificate = createCertificate(SAFETYNET_SUBJECT, attestationKeyPair.getPublic(), attestationKeyPair.getPrivate(), null);
+    }
+
+    // ~ Methods
+    // ========================================================================================================
+
+    /**
+     * Returns registrations for every format registered to the {@link Registry}: none and packed self attestation for
+     * every credential key type, and packed basic, fido-u2f, android-key and android-safetynet attestation for the ES256
+     * credential key. Third-party formats are skipped, as their statements cannot be synthesized.
+     * <p>
+     * The android-safetynet response carries the creation time, so it is rejected by the validator a minute later.
+     */
+    List<WebAuthnRegistrationContext> createRegistrationContexts() {
+        CredentialKey es256CredentialKey = credentialKeys.get(0);
+        List<WebAuthnRegistrationContext> registrationContexts = new ArrayList<>();
+        for (AttestationStatementFormat attestationStatementFormat : registry.getAttestationStatementFormatRegistry().getFormats()) {
+            String format = attestationStatementFormat.getFormat();
+            switch (format) {
+                case NoneAttestationStatement.FORMAT:
+                    for (CredentialKey credentialKey : credentialKeys) {
+                        registrationContexts.add(createRegistrationContext(credentialKey, format, false));
+                    }
+                    break;
+                case PackedAttestationStatement.FORMAT:
+                    for (CredentialKey credentialKey : credentialKeys) {
+                        registrationContexts.add(createRegistrationContext(credentialKey, format, false));
+                    }
+                    registrationContexts.add(createRegistrationContext(es256CredentialKey, format, true));
+                    break;
+                case FIDOU2FAttestationStatement.FORMAT:
+                case AndroidKeyAttestationStatement.FORMAT:
+                case AndroidSafetyNetAttestationStatement.FORMAT:
+                    registrationContexts.add(createRegistrationContext(es256CredentialKey, format, true));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return registrationContexts;
+    }
+
+    /**
+     * Returns an assertion for every credential key type
+     */
+    List<AuthenticationCeremony> createAuthenticationCeremonies() {
+        List<AuthenticationCeremony> authenticationCeremonies = new ArrayList<>();
+        for (CredentialKey credentialKey : credentialKeys) {
+            authenticationCeremonies.add(createAuthenticationCeremony(credentialKey));
+        }
+        return authenticationCeremonies;
+    }
+
+    private WebAuthnRegistrationContext createRegistrationContext(CredentialKey credentialKey, String format, boolean certificateBased) {
+        Challenge challenge = new DefaultChallenge();
+        byte[] clientDataBytes = collectedClientDataConverter.convertToBytes(new CollectedClientData(ClientDataType.CREATE, challenge, ORIGIN, null));
+        byte[] clientDataHash = MessageDigestUtil.createSHA256().digest(clientDataBytes);
+
+        byte[] credentialId = new byte[32];
+        secureRandom.nextBytes(credentialId);
+        AttestedCredentialData attestedCredentialData = new AttestedCredentialData(AAGUID, credentialId, credentialKey.getCredentialPublicKey());
+        AuthenticatorData authenticatorData = new AuthenticatorData(rpIdHash, (byte) (AuthenticatorData.BIT_UP | AuthenticatorData.BIT_AT), 0, attestedCredentialData);
+        byte[] signedData = concat(authenticatorDataConverter.convert(authenticatorData), clientDataHash);
+
+        AttestationStatement attestationStatement;
+        AttestationCertificatePath x5c = new AttestationCertificatePath(Collections.singletonList(attestationCertificate));
+        switch (format) {
+            case NoneAttestationStatement.FORMAT:
+                attestationStatement = new NoneAttestationStatement();
+                break;
+            case PackedAttestationStatement.FORMAT:
+                if (certificateBased) {
+                    attestationStatement = new PackedAttestationStatement(COSEAlgorithmIdentifier.ES256, sign(attestationKeyPair.getPrivate(), signedData), x5c, null);
+                } else {
+                    attestationStatement = new PackedAttestationStatement(credentialKey.getAlgorithm(), credentialKey.sign(signedData), null, null);
+                }
+                break;
+            case FIDOU2FAttestationStatement.FORMAT:
+                byte[] userPublicKey = ((EC2CredentialPublicKey) credentialKey.getCredentialPublicKey()).getBytes();
+                byte[] u2fSignedData = ByteBuffer.allocate(1 + 32 + 32 + credentialId.length + userPublicKey.length)
+                        .put((byte) 0x00).put(rpIdHash).put(clientDataHash).put(credentialId).put(userPublicKey).array();
+                attestationStatement = new FIDOU2FAttestationStatement(x5c, sign(attestationKeyPair.getPrivate(), u2fSignedData));
+                break;
+            case AndroidKeyAttestationStatement.FORMAT:
+                // the first certificate must certify the credential key and carry the client data hash as the challenge
+                X509Certificate keyCertificate = createCertificate(ATTESTATION_SUBJECT, credentialKey.getCredentialPublicKey().getPublicKey(),
+                        attestationKeyPair.getPrivate(), createKeyDescription(clientDataHash));
+                attestationStatement = new AndroidKeyAttestationStatement(credentialKey.getAlgorithm(), credentialKey.sign(signedData),
+                        new AttestationCertificatePath(Arrays.asList(keyCertificate, attestationCertificate)));
+                break;
+            case AndroidSafetyNetAttestationStatement.FORMAT:
+                byte[] nonce = MessageDigestUtil.createSHA256().digest(signedData);
+                attestationStatement = new AndroidSafetyNetAttestationStatement(SAFETYNET_VERSION, createSafetyNetResponse(nonce));
+                break;
+            default:
+                throw new IllegalArgumentException(format);
+        }
+
+        byte[] attestationObjectBytes = attestationObjectConverter.convertToBytes(new AttestationObject(authenticatorData, attestationStatement));
+        return new WebAuthnRegistrationContext(clientDataBytes, attestationObjectBytes, new ServerProperty(ORIGIN, RP_ID, challenge, null), false);
+    }
+
+    private AuthenticationCeremony createAuthenticationCeremony(CredentialKey credentialKey) {
+        Challenge challenge = new DefaultChallenge();
+        byte[] clientDataBytes = collectedClientDataConverter.convertToBytes(new CollectedClientData(ClientDataType.GET, challenge, ORIGIN, null));
+        byte[] authenticatorDataBytes = authenticatorDataConverter.convert(new AuthenticatorData(rpIdHash, AuthenticatorData.BIT_UP, 1));
+        byte[] signature = credentialKey.sign(concat(authenticatorDataBytes, MessageDigestUtil.createSHA256().digest(clientDataBytes)));
+
+        byte[] credentialId = new byte[32];
+        secureRandom.nextBytes(credentialId);
+        WebAuthnAuthenticationContext authenticationContext = new WebAuthnAuthenticationContext(
+                credentialId, clientDataBytes, authenticatorDataBytes, signature, new ServerProperty(ORIGIN, RP_ID, challenge, null), false);
+        return new AuthenticationCeremony(authenticationContext, new AttestedCredentialData(AAGUID, credentialId, credentialKey.getCredentialPublicKey()));
+    }
+
+    private JWS createSafetyNetResponse(byte[] nonce) {
+        Map<String, Object> header = new HashMap<>();
+        header.put("alg", "ES256");
+        header.put("x5c", new AttestationCertificatePath(Arrays.asList(safetyNetCertificate, attestationCertificate)));
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("nonce", Base64Util.encodeToString(nonce));
+        payload.put("timestampMs", Instant.now().toEpochMilli());
+        payload.put("ctsProfileMatch", true);
+        payload.put("basicIntegrity", true);
+        try {
+            byte[] headerBytes = registry.getJsonWriter(Map.class).writeValueAsBytes(header);
+            byte[] payloadBytes = registry.getJsonWriter(Map.class).writeValueAsBytes(payload);
+            String headerString = Base64UrlUtil.encodeToString(headerBytes);
+            String payloadString = Base64UrlUtil.encodeToString(payloadBytes);
+            byte[] signature = sign(attestationKeyPair.getPrivate(), (headerString + "." + payloadString).getBytes(StandardCharsets.UTF_8));
+            return new JWS(registry.getJsonReader(JWSHeader.class).readValue(headerBytes), headerString,
+                    registry.getJsonReader(Response.class).readValue(payloadBytes), payloadString, signature);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the android key attestation extension of a signing key generated in the TEE
+     */
+    private static ASN1Sequence createKeyDescription(byte[] clientDataHash) {
+        ASN1Encodable[] teeEnforced = {
+                new DERTaggedObject(true, KM_TAG_PURPOSE, new DERSet(new ASN1Integer(KM_PURPOSE_SIGN))),
+                new DERTaggedObject(true, KM_TAG_ORIGIN, new ASN1Integer(KM_ORIGIN_GENERATED))
+        };
+        return new DERSequence(new ASN1Encodable[]{
+                new ASN1Integer(3), // attestationVersion
+                new ASN1Enumerated(1), // attestationSecurityLevel: TrustedEnvironment
+                new ASN1Integer(4), // keymasterVersion
+                new ASN1Enumerated(1), // keymasterSecurityLevel: TrustedEnvironment
+                new DEROctetString(clientDataHash), // attestationChallenge
+                new DEROctetString(new byte[0]), // uniqueId
+                new DERSequence(), // softwareEnforced
+                new DERSequence(teeEnforced)
+        });
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        return ByteBuffer.allocate(first.length + second.length).put(first).put(second).array();
+    }
+
+    private static byte[] sign(PrivateKey privateKey, byte[] data) {
+        try {
+            Signature signature = privateKey instanceof RSAPrivateKey ? SignatureUtil.getRS256() : SignatureUtil.getES256();
+            signature.initSign(privateKey);
+            signature.update(data);
+            return signature.sign();
+        } catch (InvalidKeyException | SignatureException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    private static KeyPair createECKeyPair(SecureRandom secureRandom) {
+        try {
+            // KeyUtil.createECKeyPair() uses SecureRandom.getInstanceStrong(), which may block on startup
+            KeyPairGenerator keyPairGenerator = KeyUtil.createECKeyPairGenerator();
+            keyPairGenerator.initialize(ECUtil.P_256_SPEC, secureRandom);
+            return keyPairGenerator.generateKeyPair();
+        } catch (InvalidAlgorithmParameterException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    /**
+     * Returns an end entity certificate issued by the attestation subject
+     */
+    private static X509Certificate createCertificate(String subject, PublicKey publicKey, PrivateKey issuerPrivateKey, ASN1Encodable keyDescription) {
+        Instant now = Instant.now();
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(
+                new X500Name(ATTESTATION_SUBJECT),
+                BigInteger.ONE,
+                Date.from(now.minus(Duration.ofDays(1))),
+                Date.from(now.plus(Duration.ofDays(1))),
+                new X500Name(subject),
+                publicKey);
+        try {
+            builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(false));
+            if (keyDescription != null) {
+                builder.addExtension(KEY_DESCRIPTION_OID, false, keyDescription);
+            }
+            return new JcaX509CertificateConverter().getCertificate(
+                    builder.build(new JcaContentSignerBuilder("SHA256withECDSA").build(issuerPrivateKey)));
+        } catch (CertIOException | CertificateException | OperatorCreationException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    /**
+     * Assertion of a synthetic credential
+     */
+    static class AuthenticationCeremony {
+
+        private final WebAuthnAuthenticationContext authenticationContext;
+        private final AttestedCredentialData attestedCredentialData;
+
+        AuthenticationCeremony(WebAuthnAuthenticationContext authenticationContext, AttestedCredentialData attestedCredentialData) {
+            this.authenticationContext = authenticationContext;
+            this.attestedCredentialData = attestedCredentialData;
+        }
+
+        WebAuthnAuthenticationContext getAuthenticationContext() {
+            return authenticationContext;
+        }
+
+        /**
+         * Returns a new authenticator with the counter below the one of the assertion, so that the assertion can be
+         * validated repeatedly without reaching the {@link MaliciousCounterValueHandler}
+         */
+        Authenticator createAuthenticator() {
+            return new AuthenticatorImpl(attestedCredentialData, new NoneAttestationStatement(), 0);
+        }
+    }
+
+    private static class CredentialKey {
+
+        private final CredentialPublicKey credentialPublicKey;
+        private final PrivateKey privateKey;
+        private final byte[] ed25519SecretKey;
+
+        private CredentialKey(CredentialPublicKey credentialPublicKey, PrivateKey privateKey, byte[] ed25519SecretKey) {
+            this.credentialPublicKey = credentialPublicKey;
+            this.privateKey = privateKey;
+            this.ed25519SecretKey = ed25519SecretKey;
+        }
+
+        static CredentialKey createES256(SecureRandom secureRandom) {
+            KeyPair keyPair = createECKeyPair(secureRandom);
+            // fido-u2f signs the 65 bytes uncompressed point, so the coordinates must not carry a sign byte
+            ECPoint point = ((ECPublicKey) keyPair.getPublic()).getW();
+            byte[] uncompressed = ByteBuffer.allocate(65).put((byte) 0x04)
+                    .put(BigIntegers.asUnsignedByteArray(32, point.getAffineX()))
+                    .put(BigIntegers.asUnsignedByteArray(32, point.getAffineY())).array();
+            return new CredentialKey(EC2CredentialPublicKey.createFromUncompressedECCKey(uncompressed), keyPair.getPrivate(), null);
+        }
+
+        static CredentialKey createRS256() {
+            KeyPair keyPair = KeyUtil.createRSAKeyPair();
+            return new CredentialKey(RSACredentialPublicKey.create((RSAPublicKey) keyPair.getPublic()), keyPair.getPrivate(), null);
+        }
+
+        static CredentialKey createEdDSA(SecureRandom secureRandom) {
+            byte[] secretKey = new byte[Ed25519.SECRET_KEY_SIZE];
+            secureRandom.nextBytes(secretKey);
+            byte[] publicKey = new byte[Ed25519.PUBLIC_KEY_SIZE];
+            Ed25519.generatePublicKey(secretKey, 0, publicKey, 0);
+            OKPCredentialPublicKey credentialPublicKey = new OKPCredentialPublicKey(null, COSEAlgorithmIdentifier.EdDSA, null, null, Curve.ED25519, publicKey);
+            return new CredentialKey(credentialPublicKey, null, secretKey);
+        }
+
+        CredentialPublicKey getCredentialPublicKey() {
+            return credentialPublicKey;
+        }
+
+        COSEAlgorithmIdentifier getAlgorithm() {
+            return credentialPublicKey.getAlgorithm();
+        }
+
+        byte[] sign(byte[] data) {
+            if (ed25519SecretKey != null) {
+                byte[] signature = new byte[Ed25519.SIGNATURE_SIZE];
+                Ed25519.sign(ed25519SecretKey, 0, data, 0, data.length, signature, 0);
+                return signature;
+            }
+            return WarmUpCeremonyFactory.sign(privateKey, data);
+        }
+    }
+}
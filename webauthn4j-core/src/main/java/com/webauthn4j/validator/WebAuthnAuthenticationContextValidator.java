@@ -28,6 +28,11 @@ import com.webauthn4j.response.extension.authenticator.ExtensionsAuthenticatorOu
 import com.webauthn4j.response.extension.client.ExtensionsClientOutputs;
 import com.webauthn4j.server.ServerProperty;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.validator.event.NullValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationEvent;
+import com.webauthn4j.validator.event.ValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationStage;
 import com.webauthn4j.validator.exception.MaliciousDataException;
 import com.webauthn4j.validator.exception.UserNotPresentException;
 import com.webauthn4j.validator.exception.UserNotVerifiedException;
@@ -61,11 +66,14 @@ public class WebAuthnAuthenticationContextValidator {
 
     private MaliciousCounterValueHandler maliciousCounterValueHandler = new DefaultMaliciousCounterValueHandler();
 
+    private boolean exceptionStackTraceEnabled = true;
+    private ValidationEventRecorder validationEventRecorder = new NullValidationEventRecorder();
+
     // ~ Constructor
     // ========================================================================================================
 
     public WebAuthnAuthenticationContextValidator(){
-        this(new Registry());
+        this(Registry.getDefault());
     }
 
     public WebAuthnAuthenticationContextValidator(Registry registry){
@@ -79,6 +87,39 @@ public class WebAuthnAuthenticationContextValidator {
     // ========================================================================================================
 
     public WebAuthnAuthenticationContextValidationResponse validate(WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator) {
+        if (exceptionStackTraceEnabled) {
+            return validateAuthentication(authenticationContext, authenticator);
+        }
+        return WebAuthnException.supplyWithoutStackTrace(() -> validateAuthentication(authenticationContext, authenticator));
+    }
+
+    /**
+     * Validates the specified {@link WebAuthnAuthenticationContext}, reporting a failure as {@link ValidationResult}
+     * instead of throwing it. The decision is the same as the one of {@link #validate(WebAuthnAuthenticationContext, Authenticator)}.
+     * A runtime exception other than {@link WebAuthnException}, e.g. an I/O failure of a revocation check, is reported
+     * as {@link ValidationFailureCode#OTHER}, while {@link IllegalArgumentException} and {@link IllegalStateException}
+     * signal misuse and are thrown.
+     *
+     * @param authenticationContext authentication context
+     * @param authenticator         authenticator
+     * @return validation result
+     */
+    public ValidationResult<WebAuthnAuthenticationContextValidationResponse> tryValidate(WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator) {
+        AssertUtil.notNull(authenticator, "authenticator must not be null");
+        try {
+            return ValidationResult.success(WebAuthnException.supplyWithoutStackTrace(() -> validateAuthentication(authenticationContext, authenticator)));
+        } catch (WebAuthnException e) {
+            return ValidationResult.failure(e);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // misuse by the caller, not a validation failure
+            throw e;
+        } catch (RuntimeException e) {
+            logger.debug("Unexpected failure on authentication validation", e);
+            return ValidationResult.failure(ValidationFailureCode.OTHER, e.getMessage());
+        }
+    }
+
+    private WebAuthnAuthenticationContextValidationResponse validateAuthentication(WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator) {
 
         BeanAssertUtil.validate(authenticationContext);
 
@@ -87,22 +128,31 @@ public class WebAuthnAuthenticationContextValidator {
         byte[] cData = authenticationContext.getClientDataJSON();
         byte[] aData = authenticationContext.getAuthenticatorData();
 
+        ServerProperty serverProperty = authenticationContext.getServerProperty();
+        BeanAssertUtil.validate(serverProperty);
+
+        // Reject the assertion from the raw bytes before anything is parsed
+        precheck(authenticationContext);
+
         // Let JSONtext be the result of running UTF-8 decode on the value of cData.
         // Let C, the client data claimed as used for the signature, be the result of running an implementation-specific JSON parser on JSONtext.
         // (In the spec, claimed as "C", but use "collectedClientData" here)
-        CollectedClientData collectedClientData = collectedClientDataConverter.convert(cData);
+        ValidationEvent clientDataEvent = validationEventRecorder.begin(ValidationStage.CLIENT_DATA_PARSED);
+        clientDataEvent.setPayloadSize(cData.length);
+        CollectedClientData collectedClientData;
+        try {
+            collectedClientData = collectedClientDataConverter.convert(cData);
+        } catch (RuntimeException e) {
+            clientDataEvent.end(e);
+            throw e;
+        }
+        clientDataEvent.end();
         AuthenticatorData authenticatorData = authenticatorDataConverter.convert(aData);
         AuthenticationExtensionsClientOutputs authenticationExtensionsClientOutputs =
                 authenticationExtensionsClientOutputsConverter.convert(authenticationContext.getClientExtensionsJSON());
-        ServerProperty serverProperty = authenticationContext.getServerProperty();
 
         BeanAssertUtil.validate(collectedClientData);
         BeanAssertUtil.validate(authenticatorData);
-        BeanAssertUtil.validate(serverProperty);
-
-        if(authenticatorData.getAttestedCredentialData() != null){
-            throw new MaliciousDataException("attestedCredentialData must be null on authentication");
-        }
 
         /// Verify that the value of C.type is the string webauthn.get.
         if (!Objects.equals(collectedClientData.getType(), ClientDataType.GET)) {
@@ -121,19 +171,6 @@ public class WebAuthnAuthenticationContextValidator {
         // also verify that C.tokenBinding.id matches the base64url encoding of the Token Binding ID for the connection.
         tokenBindingValidator.validate(collectedClientData.getTokenBinding(), serverProperty.getTokenBindingId());
 
-        // Verify that the rpIdHash in aData is the SHA-256 hash of the RP ID expected by the Relying Party.
-        rpIdHashValidator.validate(authenticatorData.getRpIdHash(), serverProperty);
-
-        // If user verification is required for this assertion, verify that the User Verified bit of the flags in aData is set.
-        if (authenticationContext.isUserVerificationRequired() && !authenticatorData.isFlagUV()) {
-            throw new UserNotVerifiedException("User not verified");
-        }
-
-        /// Verify that the User Present bit of the flags in authData is set.
-        if (!authenticationContext.isUserVerificationRequired() && !authenticatorData.isFlagUP()) {
-            throw new UserNotPresentException("User not present");
-        }
-
         // Verify that the values of the client extension outputs in clientExtensionResults and the authenticator
         // extension outputs in the extensions in authData are as expected, considering the client extension input
         // values that were given as the extensions option in the get() call. In particular, any extension identifier
@@ -146,7 +183,16 @@ public class WebAuthnAuthenticationContextValidator {
 
         // Using the credential public key, validate that sig is a valid signature over
         // the binary concatenation of the authenticatorData and the hash of the collectedClientData.
-        assertionSignatureValidator.validate(authenticationContext, authenticator.getAttestedCredentialData().getCredentialPublicKey());
+        ValidationEvent signatureEvent = validationEventRecorder.begin(ValidationStage.ASSERTION_SIGNATURE_VERIFIED);
+        signatureEvent.setAaguid(authenticator.getAttestedCredentialData().getAaguid());
+        signatureEvent.setPayloadSize(aData.length + cData.length + authenticationContext.getSignature().length);
+        try {
+            assertionSignatureValidator.validate(authenticationContext, authenticator.getAttestedCredentialData().getCredentialPublicKey());
+        } catch (RuntimeException e) {
+            signatureEvent.end(e);
+            throw e;
+        }
+        signatureEvent.end();
 
         // If the signature counter value adata.signCount is nonzero or the value stored in conjunction with
         // credential’s id attribute is nonzero, then run the following sub-step:
@@ -167,6 +213,62 @@ public class WebAuthnAuthenticationContextValidator {
         return new WebAuthnAuthenticationContextValidationResponse(collectedClientData, authenticatorData, authenticationExtensionsClientOutputs);
     }
 
+    /**
+     * Runs synthetic assertions through this validator, so that the classes are loaded, the JCA providers and
+     * the converters are initialized and the hot paths are JIT compiled before the validator takes traffic.
+     * As the JIT compiler optimizes a method after thousands of invocations, a few thousand iterations are needed to
+     * reach peak performance.
+     * <p>
+     * The assertions are signed with locally generated ES256, RS256 and EdDSA credential keys. Each assertion is
+     * validated against a new authenticator, so that the {@link MaliciousCounterValueHandler} is not invoked.
+     *
+     * @param iterations number of times each synthetic assertion is validated
+     */
+    public void warmUp(int iterations) {
+        AssertUtil.isTrue(iterations >= 0, "iterations must not be negative");
+        List<WarmUpCeremonyFactory.AuthenticationCeremony> authenticationCeremonies = new WarmUpCeremonyFactory(registry).createAuthenticationCeremonies();
+        int rejected = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (WarmUpCeremonyFactory.AuthenticationCeremony authenticationCeremony : authenticationCeremonies) {
+                try {
+                    WebAuthnException.supplyWithoutStackTrace(() ->
+                            validateAuthentication(authenticationCeremony.getAuthenticationContext(), authenticationCeremony.createAuthenticator()));
+                } catch (WebAuthnException e) {
+                    rejected++;
+                }
+            }
+        }
+        logger.debug("Warm-up validated {} assertions, {} rejected", (long) iterations * authenticationCeremonies.size(), rejected);
+    }
+
+    /**
+     * Checks the fixed part of the raw authenticator data and the signature length, so that an assertion for
+     * another relying party or with unexpected flags is rejected without running the JSON and CBOR parsers
+     */
+    private void precheck(WebAuthnAuthenticationContext authenticationContext) {
+        byte[] aData = authenticationContext.getAuthenticatorData();
+        byte flags = authenticatorDataConverter.extractFlags(aData);
+
+        // Verify that the rpIdHash in aData is the SHA-256 hash of the RP ID expected by the Relying Party.
+        rpIdHashValidator.validate(authenticatorDataConverter.extractRpIdHash(aData), authenticationContext.getServerProperty());
+
+        if (AuthenticatorData.checkFlagAT(flags)) {
+            throw new MaliciousDataException("attestedCredentialData must be null on authentication");
+        }
+
+        // If user verification is required for this assertion, verify that the User Verified bit of the flags in aData is set.
+        if (authenticationContext.isUserVerificationRequired() && !AuthenticatorData.checkFlagUV(flags)) {
+            throw new UserNotVerifiedException("User not verified");
+        }
+
+        /// Verify that the User Present bit of the flags in authData is set.
+        if (!authenticationContext.isUserVerificationRequired() && !AuthenticatorData.checkFlagUP(flags)) {
+            throw new UserNotPresentException("User not present");
+        }
+
+        assertionSignatureValidator.validateSignatureLength(authenticationContext.getSignature());
+    }
+
     public MaliciousCounterValueHandler getMaliciousCounterValueHandler() {
         return maliciousCounterValueHandler;
     }
@@ -175,4 +277,33 @@ public class WebAuthnAuthenticationContextValidator {
         AssertUtil.notNull(maliciousCounterValueHandler, "maliciousCounterValueHandler must not be null");
         this.maliciousCounterValueHandler = maliciousCounterValueHandler;
     }
+
+    public boolean isExceptionStackTraceEnabled() {
+        return exceptionStackTraceEnabled;
+    }
+
+    /**
+     * Sets whether the exceptions thrown by {@link #validate(WebAuthnAuthenticationContext, Authenticator)} capture
+     * the stack trace. Disabling it makes rejecting an assertion cheaper, e.g. under a credential stuffing attack,
+     * while the exception type and the message still identify the failure.
+     *
+     * @param exceptionStackTraceEnabled false to throw exceptions without the stack trace
+     */
+    public void setExceptionStackTraceEnabled(boolean exceptionStackTraceEnabled) {
+        this.exceptionStackTraceEnabled = exceptionStackTraceEnabled;
+    }
+
+    public ValidationEventRecorder getValidationEventRecorder() {
+        return validationEventRecorder;
+    }
+
+    /**
+     * Sets the recorder of the validation stages, e.g. {@link com.webauthn4j.validator.event.JfrValidationEventRecorder}
+     *
+     * @param validationEventRecorder validation event recorder
+     */
+    public void setValidationEventRecorder(ValidationEventRecorder validationEventRecorder) {
+        AssertUtil.notNull(validationEventRecorder, "validationEventRecorder must not be null");
+        this.validationEventRecorder = validationEventRecorder;
+    }
 }
@@ -18,24 +18,30 @@ package com.webauthn4j.validator;
 
 
 import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticatorDataConverter;
 import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
 import com.webauthn4j.converter.CollectedClientDataConverter;
 import com.webauthn4j.registry.Registry;
 import com.webauthn4j.response.WebAuthnRegistrationContext;
 import com.webauthn4j.response.attestation.AttestationObject;
 import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.response.attestation.statement.AttestationType;
+import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
 import com.webauthn4j.response.client.ClientDataType;
 import com.webauthn4j.response.client.CollectedClientData;
 import com.webauthn4j.response.extension.authenticator.ExtensionsAuthenticatorOutputs;
 import com.webauthn4j.response.extension.client.AuthenticationExtensionsClientOutputs;
 import com.webauthn4j.server.ServerProperty;
 import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.WebAuthnException;
 import com.webauthn4j.validator.attestation.AttestationStatementValidator;
 import com.webauthn4j.validator.attestation.androidkey.NullAndroidKeyAttestationStatementValidator;
 import com.webauthn4j.validator.attestation.androidsafetynet.NullAndroidSafetyNetAttestationStatementValidator;
 import com.webauthn4j.validator.attestation.none.NoneAttestationStatementValidator;
 import com.webauthn4j.validator.attestation.packed.NullPackedAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.AsyncCertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.certpath.CertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.ExecutorCertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.certpath.NullCertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.ECDAATrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.NullECDAATrustworthinessValidator;
@@ -43,26 +49,52 @@ import com.webauthn4j.validator.attestation.trustworthiness.self.DefaultSelfAtte
 import com.webauthn4j.validator.attestation.trustworthiness.self.NullSelfAttestationTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.self.SelfAttestationTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.u2f.NullFIDOU2FAttestationStatementValidator;
+import com.webauthn4j.validator.event.NullValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationEvent;
+import com.webauthn4j.validator.event.ValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationStage;
 import com.webauthn4j.validator.exception.MaliciousDataException;
 import com.webauthn4j.validator.exception.UserNotPresentException;
 import com.webauthn4j.validator.exception.UserNotVerifiedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Validates the specified {@link WebAuthnRegistrationContext} instance
  */
-public class WebAuthnRegistrationContextValidator {
+public class WebAuthnRegistrationContextValidator implements Closeable {
+
+    // ~ Static fields/initializers
+    // ================================================================================================
+
+    public static final int DEFAULT_TRUSTWORTHINESS_THREADS = 4;
+    public static final int DEFAULT_TRUSTWORTHINESS_QUEUE_CAPACITY = 256;
+
+    private static final long TRUSTWORTHINESS_THREAD_KEEP_ALIVE_SECONDS = 60;
 
     // ~ Instance fields
     // ================================================================================================
 
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
     private final Registry registry;
 
     private final CollectedClientDataConverter collectedClientDataConverter;
     private final AttestationObjectConverter attestationObjectConverter;
+    private final AuthenticatorDataConverter authenticatorDataConverter;
     private final AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter;
 
     private final ChallengeValidator challengeValidator = new ChallengeValidator();
@@ -72,7 +104,12 @@ public class WebAuthnRegistrationContextValidator {
     private final ExtensionValidator extensionValidator = new ExtensionValidator();
 
     private final AttestationValidator attestationValidator;
+    private final CertPathTrustworthinessValidator certPathTrustworthinessValidator;
+    private volatile AsyncCertPathTrustworthinessValidator asyncCertPathTrustworthinessValidator;
+    private ExecutorService defaultTrustworthinessExecutor;
 
+    private boolean exceptionStackTraceEnabled = true;
+    private ValidationEventRecorder validationEventRecorder = new NullValidationEventRecorder();
 
     // ~ Constructor
     // ========================================================================================================
@@ -87,7 +124,7 @@ public class WebAuthnRegistrationContextValidator {
                 certPathTrustworthinessValidator,
                 ecdaaTrustworthinessValidator,
                 selfAttestationTrustworthinessValidator,
-                new Registry());
+                Registry.getDefault());
     }
 
     public WebAuthnRegistrationContextValidator(
@@ -99,7 +136,7 @@ public class WebAuthnRegistrationContextValidator {
                 certPathTrustworthinessValidator,
                 ecdaaTrustworthinessValidator,
                 new DefaultSelfAttestationTrustworthinessValidator(),
-                new Registry());
+                Registry.getDefault());
     }
 
     public WebAuthnRegistrationContextValidator(
@@ -132,13 +169,16 @@ public class WebAuthnRegistrationContextValidator {
         this.registry = registry;
         collectedClientDataConverter = new CollectedClientDataConverter(registry);
         attestationObjectConverter = new AttestationObjectConverter(registry);
+        authenticatorDataConverter = new AuthenticatorDataConverter(registry);
         authenticationExtensionsClientOutputsConverter = new AuthenticationExtensionsClientOutputsConverter(registry);
 
         this.attestationValidator = new AttestationValidator(
                 attestationStatementValidators,
                 certPathTrustworthinessValidator,
                 ecdaaTrustworthinessValidator,
-                selfAttestationTrustworthinessValidator);
+                selfAttestationTrustworthinessValidator,
+                registry.getAttestationStatementFormatRegistry());
+        this.certPathTrustworthinessValidator = certPathTrustworthinessValidator;
     }
 
 
@@ -146,7 +186,7 @@ public class WebAuthnRegistrationContextValidator {
     // ========================================================================================================
 
     public static WebAuthnRegistrationContextValidator createNonStrictRegistrationContextValidator() {
-        return createNonStrictRegistrationContextValidator(new Registry());
+        return createNonStrictRegistrationContextValidator(Registry.getDefault());
     }
 
     public static WebAuthnRegistrationContextValidator createNonStrictRegistrationContextValidator(Registry registry) {
@@ -169,39 +209,147 @@ public class WebAuthnRegistrationContextValidator {
     // ========================================================================================================
 
     public WebAuthnRegistrationContextValidationResponse validate(WebAuthnRegistrationContext registrationContext) {
+        if (exceptionStackTraceEnabled) {
+            return validateRegistration(registrationContext);
+        }
+        return WebAuthnException.supplyWithoutStackTrace(() -> validateRegistration(registrationContext));
+    }
 
-        BeanAssertUtil.validate(registrationContext);
+    /**
+     * Validates the specified {@link WebAuthnRegistrationContext}, reporting a failure as {@link ValidationResult}
+     * instead of throwing it. The decision is the same as the one of {@link #validate(WebAuthnRegistrationContext)}.
+     * A runtime exception other than {@link WebAuthnException}, e.g. an I/O failure of a revocation check, is reported
+     * as {@link ValidationFailureCode#OTHER}, while {@link IllegalArgumentException} and {@link IllegalStateException}
+     * signal misuse and are thrown.
+     *
+     * @param registrationContext registration context
+     * @return validation result
+     */
+    public ValidationResult<WebAuthnRegistrationContextValidationResponse> tryValidate(WebAuthnRegistrationContext registrationContext) {
+        try {
+            return ValidationResult.success(WebAuthnException.supplyWithoutStackTrace(() -> validateRegistration(registrationContext)));
+        } catch (WebAuthnException e) {
+            return ValidationResult.failure(e);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // misuse by the caller, not a validation failure
+            throw e;
+        } catch (RuntimeException e) {
+            logger.debug("Unexpected failure on registration validation", e);
+            return ValidationResult.failure(ValidationFailureCode.OTHER, e.getMessage());
+        }
+    }
 
-        byte[] clientDataBytes = registrationContext.getClientDataJSON();
-        byte[] attestationObjectBytes = registrationContext.getAttestationObject();
+    private WebAuthnRegistrationContextValidationResponse validateRegistration(WebAuthnRegistrationContext registrationContext) {
+        VerifiedRegistration verifiedRegistration = validateExceptTrustworthiness(registrationContext);
+        attestationValidator.validateTrustworthiness(verifiedRegistration.registrationObject, verifiedRegistration.attestationType);
+        return verifiedRegistration.createResponse();
+    }
 
-        CollectedClientData collectedClientData = collectedClientDataConverter.convert(clientDataBytes);
-        AttestationObject attestationObject = attestationObjectConverter.convert(attestationObjectBytes);
-        AuthenticationExtensionsClientOutputs authenticationExtensionsClientOutputs =
-                authenticationExtensionsClientOutputsConverter.convert(registrationContext.getClientExtensionsJSON());
+    /**
+     * Validates the specified {@link WebAuthnRegistrationContext} without blocking on the attestation trustworthiness assessment.
+     * Parsing and the checks which only need the registration data run on the caller thread, while the certification path
+     * is validated by the configured {@link AsyncCertPathTrustworthinessValidator}.
+     *
+     * @param registrationContext registration context
+     * @return stage completed with the validation response, or completed exceptionally with the validation failure
+     */
+    public CompletionStage<WebAuthnRegistrationContextValidationResponse> validateAsync(WebAuthnRegistrationContext registrationContext) {
+        AsyncCertPathTrustworthinessValidator asyncValidator = getAsyncCertPathTrustworthinessValidator();
+        VerifiedRegistration verifiedRegistration;
+        CompletionStage<Void> trustworthiness;
+        try {
+            verifiedRegistration = exceptionStackTraceEnabled
+                    ? validateExceptTrustworthiness(registrationContext)
+                    : WebAuthnException.supplyWithoutStackTrace(() -> validateExceptTrustworthiness(registrationContext));
+            trustworthiness = attestationValidator.validateTrustworthinessAsync(
+                    verifiedRegistration.registrationObject, verifiedRegistration.attestationType, asyncValidator);
+        } catch (RuntimeException e) {
+            CompletableFuture<WebAuthnRegistrationContextValidationResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return trustworthiness.thenApply(nothing -> verifiedRegistration.createResponse());
+    }
 
-        BeanAssertUtil.validate(collectedClientData);
-        BeanAssertUtil.validate(attestationObject);
-        BeanAssertUtil.validateAuthenticationExtensionsClientOutputs(authenticationExtensionsClientOutputs);
+    /**
+     * Shuts down the pool created for the trustworthiness checks of {@link #validateAsync(WebAuthnRegistrationContext)},
+     * if any. The checks already submitted to it still complete. An executor set with
+     * {@link #setTrustworthinessExecutor(Executor)} is owned by the caller, and is not shut down.
+     */
+    @Override
+    public synchronized void close() {
+        if (defaultTrustworthinessExecutor != null) {
+            defaultTrustworthinessExecutor.shutdown();
+        }
+    }
 
-        if(attestationObject.getAuthenticatorData().getAttestedCredentialData() == null){
-            throw new MaliciousDataException("attestedCredentialData must not be null on registration");
+    /**
+     * Runs synthetic registrations through this validator, so that the classes are loaded, the JCA providers and
+     * the converters are initialized and the hot paths are JIT compiled before the validator takes traffic.
+     * As the JIT compiler optimizes a method after thousands of invocations, a few thousand iterations are needed to
+     * reach peak performance.
+     * <p>
+     * A registration is made for every format registered to the {@link Registry}: none and packed self attestation
+     * with ES256, RS256 and EdDSA credentials, and packed basic, fido-u2f, android-key and android-safetynet attestation
+     * with ES256 credentials. Third-party formats are skipped. All keys and certificates are generated locally.
+     * The certification path of basic attestation is not validated, so that no trust anchor source or revocation
+     * service is contacted. Registrations rejected by the configured attestation statement validators are ignored,
+     * as are android-safetynet registrations which outlive the timestamp threshold during a long warm-up.
+     *
+     * @param iterations number of times each synthetic registration is validated
+     */
+    public void warmUp(int iterations) {
+        AssertUtil.isTrue(iterations >= 0, "iterations must not be negative");
+        List<WebAuthnRegistrationContext> registrationContexts = new WarmUpCeremonyFactory(registry).createRegistrationContexts();
+        int rejected = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (WebAuthnRegistrationContext registrationContext : registrationContexts) {
+                try {
+                    WebAuthnException.supplyWithoutStackTrace(() -> validateForWarmUp(registrationContext));
+                } catch (WebAuthnException e) {
+                    rejected++;
+                }
+            }
         }
+        logger.debug("Warm-up validated {} registrations, {} rejected", (long) iterations * registrationContexts.size(), rejected);
+    }
 
-        byte[] authenticatorDataBytes = attestationObjectConverter.extractAuthenticatorData(attestationObjectBytes);
+    private WebAuthnRegistrationContextValidationResponse validateForWarmUp(WebAuthnRegistrationContext registrationContext) {
+        VerifiedRegistration verifiedRegistration = validateExceptTrustworthiness(registrationContext);
+        AttestationType attestationType = verifiedRegistration.attestationType;
+        if (attestationType == AttestationType.NONE || attestationType == AttestationType.SELF) {
+            attestationValidator.validateTrustworthiness(verifiedRegistration.registrationObject, attestationType);
+        }
+        return verifiedRegistration.createResponse();
+    }
 
-        RegistrationObject registrationObject = new RegistrationObject(
-                collectedClientData,
-                clientDataBytes,
-                attestationObject,
-                attestationObjectBytes,
-                authenticatorDataBytes,
-                registrationContext.getServerProperty()
-        );
+    /**
+     * Validates the registration in stages ordered by cost, so that a forged or replayed registration is rejected
+     * before the attestation object is decoded: the client data is checked first, then the rpIdHash and flags read
+     * from the raw authenticator data, and only then the attestation object is fully decoded and verified.
+     */
+    private VerifiedRegistration validateExceptTrustworthiness(WebAuthnRegistrationContext registrationContext) {
 
-        AuthenticatorData authenticatorData = attestationObject.getAuthenticatorData();
+        BeanAssertUtil.validate(registrationContext);
+
+        byte[] clientDataBytes = registrationContext.getClientDataJSON();
+        byte[] attestationObjectBytes = registrationContext.getAttestationObject();
         ServerProperty serverProperty = registrationContext.getServerProperty();
 
+        // Stage 1: client data
+
+        ValidationEvent clientDataEvent = validationEventRecorder.begin(ValidationStage.CLIENT_DATA_PARSED);
+        clientDataEvent.setPayloadSize(clientDataBytes.length);
+        CollectedClientData collectedClientData;
+        try {
+            collectedClientData = collectedClientDataConverter.convert(clientDataBytes);
+        } catch (RuntimeException e) {
+            clientDataEvent.end(e);
+            throw e;
+        }
+        clientDataEvent.end();
+        BeanAssertUtil.validate(collectedClientData);
+
         /// Verify that the value of C.type is webauthn.create.
         if (!Objects.equals(collectedClientData.getType(), ClientDataType.CREATE)) {
             throw new MaliciousDataException("Bad client data type");
@@ -220,22 +368,74 @@ public class WebAuthnRegistrationContextValidator {
 
         /// Compute the hash of response.clientDataJSON using SHA-256.
 
-        /// Perform CBOR decoding on the attestationObject field of the AuthenticatorAttestationResponse structure to
-        /// obtain the attestation statement format fmt, the authenticator data authData, and the attestation statement attStmt.
+        // Stage 2: authenticator data header, read at fixed offsets without decoding the attestation statement
+
+        byte[] authenticatorDataBytes = attestationObjectConverter.extractAuthenticatorData(attestationObjectBytes);
+        byte flags = authenticatorDataConverter.extractFlags(authenticatorDataBytes);
 
         /// Verify that the RP ID hash in authData is indeed the SHA-256 hash of the RP ID expected by the RP.
-        rpIdHashValidator.validate(authenticatorData.getRpIdHash(), serverProperty);
+        rpIdHashValidator.validate(authenticatorDataConverter.extractRpIdHash(authenticatorDataBytes), serverProperty);
 
         /// If user verification is required for this registration, verify that the User Verified bit of the flags in authData is set.
-        if (registrationContext.isUserVerificationRequired() && !authenticatorData.isFlagUV()) {
+        if (registrationContext.isUserVerificationRequired() && !AuthenticatorData.checkFlagUV(flags)) {
             throw new UserNotVerifiedException("User not verified");
         }
 
         /// Verify that the User Present bit of the flags in authData is set.
-        if (!registrationContext.isUserVerificationRequired() && !authenticatorData.isFlagUP()) {
+        if (!registrationContext.isUserVerificationRequired() && !AuthenticatorData.checkFlagUP(flags)) {
             throw new UserNotPresentException("User not present");
         }
 
+        if (!AuthenticatorData.checkFlagAT(flags)) {
+            throw new MaliciousDataException("attestedCredentialData must not be null on registration");
+        }
+
+        // Stage 3: attestation object
+
+        /// Perform CBOR decoding on the attestationObject field of the AuthenticatorAttestationResponse structure to
+        /// obtain the attestation statement format fmt, the authenticator data authData, and the attestation statement attStmt.
+        ValidationEvent attestationEvent = validationEventRecorder.begin(ValidationStage.ATTESTATION_DECODED);
+        attestationEvent.setPayloadSize(attestationObjectBytes.length);
+        AttestationObject attestationObject;
+        try {
+            attestationObject = attestationObjectConverter.convertExtracted(attestationObjectBytes);
+        } catch (RuntimeException e) {
+            attestationEvent.end(e);
+            throw e;
+        }
+        attestationEvent.setFormat(attestationObject.getFormat());
+        if (attestationObject.getAuthenticatorData().getAttestedCredentialData() != null) {
+            attestationEvent.setAaguid(attestationObject.getAuthenticatorData().getAttestedCredentialData().getAaguid());
+        }
+        attestationEvent.end();
+        AuthenticationExtensionsClientOutputs authenticationExtensionsClientOutputs =
+                authenticationExtensionsClientOutputsConverter.convert(registrationContext.getClientExtensionsJSON());
+
+        BeanAssertUtil.validate(attestationObject);
+        BeanAssertUtil.validateAuthenticationExtensionsClientOutputs(authenticationExtensionsClientOutputs);
+
+        if(attestationObject.getAuthenticatorData().getAttestedCredentialData() == null){
+            throw new MaliciousDataException("attestedCredentialData must not be null on registration");
+        }
+
+        // the authenticator data decoded with the attestation statement must be the one checked in stage 2
+        AuthenticatorData decodedAuthenticatorData = attestationObject.getAuthenticatorData();
+        if (decodedAuthenticatorData.getFlags() != flags ||
+                !Arrays.equals(decodedAuthenticatorData.getRpIdHash(), authenticatorDataConverter.extractRpIdHash(authenticatorDataBytes))) {
+            throw new MaliciousDataException("authData does not match the one validated");
+        }
+
+        RegistrationObject registrationObject = new RegistrationObject(
+                collectedClientData,
+                clientDataBytes,
+                attestationObject,
+                attestationObjectBytes,
+                authenticatorDataBytes,
+                serverProperty
+        );
+
+        AuthenticatorData authenticatorData = attestationObject.getAuthenticatorData();
+
         /// Verify that the values of the client extension outputs in clientExtensionResults and the authenticator
         /// extension outputs in the extensions in authData are as expected, considering the client extension input
         /// values that were given as the extensions option in the create() call. In particular, any extension identifier
@@ -246,8 +446,8 @@ public class WebAuthnRegistrationContextValidator {
         List<String> expectedExtensionIdentifiers = registrationContext.getExpectedExtensionIds();
         extensionValidator.validate(authenticationExtensionsClientOutputs, extensionsAuthenticatorOutputs, expectedExtensionIdentifiers);
 
-        // Verify attestation
-        attestationValidator.validate(registrationObject);
+        // Verify attestation statement. Its trustworthiness is assessed by the caller.
+        AttestationType attestationType = attestationValidator.validateAttestationStatement(registrationObject);
 
         // If the attestation statement attStmt verified successfully and is found to be trustworthy,
         // then register the new credential with the account that was denoted in the options.user passed to create(),
@@ -260,7 +460,135 @@ public class WebAuthnRegistrationContextValidator {
 
         // ******* This step is up to library user *******
 
-        return new WebAuthnRegistrationContextValidationResponse(collectedClientData, attestationObject, authenticationExtensionsClientOutputs);
+        return new VerifiedRegistration(registrationObject, attestationType, authenticationExtensionsClientOutputs);
+    }
+
+    public boolean isExceptionStackTraceEnabled() {
+        return exceptionStackTraceEnabled;
+    }
+
+    /**
+     * Sets whether the exceptions thrown by {@link #validate(WebAuthnRegistrationContext)} and the ones completing
+     * {@link #validateAsync(WebAuthnRegistrationContext)} capture the stack trace.
+     * Disabling it makes rejecting a registration cheaper, e.g. under attack, while the exception type and the message
+     * still identify the failure. A custom {@link AsyncCertPathTrustworthinessValidator} creates its exceptions on its
+     * own threads, so they are not covered.
+     *
+     * @param exceptionStackTraceEnabled false to throw exceptions without the stack trace
+     */
+    public void setExceptionStackTraceEnabled(boolean exceptionStackTraceEnabled) {
+        this.exceptionStackTraceEnabled = exceptionStackTraceEnabled;
+    }
+
+    public ValidationEventRecorder getValidationEventRecorder() {
+        return validationEventRecorder;
+    }
+
+    /**
+     * Sets the recorder of the validation stages, e.g. {@link com.webauthn4j.validator.event.JfrValidationEventRecorder}.
+     * The certification path validated by {@link #validateAsync(WebAuthnRegistrationContext)} is not recorded.
+     *
+     * @param validationEventRecorder validation event recorder
+     */
+    public void setValidationEventRecorder(ValidationEventRecorder validationEventRecorder) {
+        AssertUtil.notNull(validationEventRecorder, "validationEventRecorder must not be null");
+        this.validationEventRecorder = validationEventRecorder;
+        this.attestationValidator.setValidationEventRecorder(validationEventRecorder);
+    }
+
+    public AsyncCertPathTrustworthinessValidator getAsyncCertPathTrustworthinessValidator() {
+        AsyncCertPathTrustworthinessValidator validator = asyncCertPathTrustworthinessValidator;
+        if (validator != null) {
+            return validator;
+        }
+        synchronized (this) {
+            // the pool is created on first use, so that a validator never validating asynchronously starts no thread
+            if (asyncCertPathTrustworthinessValidator == null) {
+                defaultTrustworthinessExecutor = createTrustworthinessExecutor();
+                asyncCertPathTrustworthinessValidator = new ExecutorCertPathTrustworthinessValidator(this::validateCertPath, defaultTrustworthinessExecutor);
+            }
+            return asyncCertPathTrustworthinessValidator;
+        }
+    }
+
+    /**
+     * Sets the validator used by {@link #validateAsync(WebAuthnRegistrationContext)} for the certification path.
+     * By default, the blocking {@link CertPathTrustworthinessValidator} runs on a pool of {@link #DEFAULT_TRUSTWORTHINESS_THREADS}
+     * daemon threads dedicated to this validator, created on the first call of {@link #validateAsync(WebAuthnRegistrationContext)}
+     * and shut down by {@link #close()}, and a registration is failed with {@link RejectedExecutionException}
+     * once {@link #DEFAULT_TRUSTWORTHINESS_QUEUE_CAPACITY} ones are waiting for it.
+     *
+     * @param asyncCertPathTrustworthinessValidator validator
+     */
+    public void setAsyncCertPathTrustworthinessValidator(AsyncCertPathTrustworthinessValidator asyncCertPathTrustworthinessValidator) {
+        AssertUtil.notNull(asyncCertPathTrustworthinessValidator, "asyncCertPathTrustworthinessValidator must not be null");
+        replaceAsyncCertPathTrustworthinessValidator(asyncCertPathTrustworthinessValidator);
+    }
+
+    /**
+     * Runs the blocking {@link CertPathTrustworthinessValidator} on the specified executor in {@link #validateAsync(WebAuthnRegistrationContext)}
+     *
+     * @param executor executor for I/O bound trustworthiness checks
+     */
+    public void setTrustworthinessExecutor(Executor executor) {
+        AssertUtil.notNull(executor, "executor must not be null");
+        replaceAsyncCertPathTrustworthinessValidator(new ExecutorCertPathTrustworthinessValidator(this::validateCertPath, executor));
+    }
+
+    private synchronized void replaceAsyncCertPathTrustworthinessValidator(AsyncCertPathTrustworthinessValidator asyncCertPathTrustworthinessValidator) {
+        this.asyncCertPathTrustworthinessValidator = asyncCertPathTrustworthinessValidator;
+        if (defaultTrustworthinessExecutor != null) {
+            defaultTrustworthinessExecutor.shutdown();
+            defaultTrustworthinessExecutor = null;
+        }
+    }
+
+    /**
+     * Validates the certification path on a thread of the trustworthiness executor, suppressing the stack trace of
+     * the exceptions as {@link #validate(WebAuthnRegistrationContext)} does
+     */
+    private void validateCertPath(byte[] aaguid, CertificateBaseAttestationStatement attestationStatement) {
+        if (exceptionStackTraceEnabled) {
+            certPathTrustworthinessValidator.validate(aaguid, attestationStatement);
+            return;
+        }
+        WebAuthnException.supplyWithoutStackTrace(() -> {
+            certPathTrustworthinessValidator.validate(aaguid, attestationStatement);
+            return null;
+        });
+    }
+
+    private static ExecutorService createTrustworthinessExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                DEFAULT_TRUSTWORTHINESS_THREADS, DEFAULT_TRUSTWORTHINESS_THREADS,
+                TRUSTWORTHINESS_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(DEFAULT_TRUSTWORTHINESS_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "webauthn4j-trustworthiness-validation");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static class VerifiedRegistration {
+
+        private final RegistrationObject registrationObject;
+        private final AttestationType attestationType;
+        private final AuthenticationExtensionsClientOutputs authenticationExtensionsClientOutputs;
+
+        private VerifiedRegistration(RegistrationObject registrationObject, AttestationType attestationType,
+                                     AuthenticationExtensionsClientOutputs authenticationExtensionsClientOutputs) {
+            this.registrationObject = registrationObject;
+            this.attestationType = attestationType;
+            this.authenticationExtensionsClientOutputs = authenticationExtensionsClientOutputs;
+        }
+
+        private WebAuthnRegistrationContextValidationResponse createResponse() {
+            return new WebAuthnRegistrationContextValidationResponse(
+                    registrationObject.getCollectedClientData(), registrationObject.getAttestationObject(), authenticationExtensionsClientOutputs);
+        }
     }
 
 
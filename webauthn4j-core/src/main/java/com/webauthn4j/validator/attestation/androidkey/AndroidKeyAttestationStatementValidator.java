@@ -19,7 +19,6 @@ package com.webauthn4j.validator.attestation.androidkey;
 import com.webauthn4j.response.attestation.statement.AndroidKeyAttestationStatement;
 import com.webauthn4j.response.attestation.statement.AttestationStatement;
 import com.webauthn4j.response.attestation.statement.AttestationType;
-import com.webauthn4j.util.MessageDigestUtil;
 import com.webauthn4j.util.SignatureUtil;
 import com.webauthn4j.validator.RegistrationObject;
 import com.webauthn4j.validator.attestation.AttestationStatementValidator;
@@ -30,7 +29,7 @@ import com.webauthn4j.validator.exception.UnsupportedAttestationFormatException;
 
 import java.nio.ByteBuffer;
 import java.security.*;
-import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
 
 public class AndroidKeyAttestationStatementValidator implements AttestationStatementValidator {
 
@@ -56,14 +55,14 @@ public class AndroidKeyAttestationStatementValidator implements AttestationState
         validateSignature(registrationObject);
 
         /// Verify that the public key in the first certificate in x5c matches the credentialPublicKey in the attestedCredentialData in authenticatorData.
-        PublicKey publicKeyInEndEntityCert = attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate().getPublicKey();
-        PublicKey publicKeyInCredentialData = registrationObject.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialPublicKey().getPublicKey();
+        X509Certificate endEntityCertificate = registrationObject.getEndEntityAttestationCertificate().getCertificate();
+        PublicKey publicKeyInEndEntityCert = endEntityCertificate.getPublicKey();
+        PublicKey publicKeyInCredentialData = registrationObject.getCredentialPublicKey();
         if(!publicKeyInEndEntityCert.equals(publicKeyInCredentialData)){
             throw new PublicKeyMismatchException("The public key in the first certificate in x5c doesn't matches the credentialPublicKey in the attestedCredentialData in authenticatorData.");
         }
 
-        byte[] clientDataHash = MessageDigestUtil.createSHA256().digest(registrationObject.getCollectedClientDataBytes());
-        keyDescriptionValidator.validate(attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate(), clientDataHash, teeEnforcedOnly);
+        keyDescriptionValidator.validate(endEntityCertificate, registrationObject.getClientDataHash(), teeEnforcedOnly);
 
         return AttestationType.BASIC;
     }
@@ -80,10 +79,10 @@ public class AndroidKeyAttestationStatementValidator implements AttestationState
 
         byte[] signedData = getSignedData(registrationObject);
         byte[] signature = attestationStatement.getSig();
-        PublicKey publicKey = getPublicKey(attestationStatement);
+        PublicKey publicKey = registrationObject.getEndEntityAttestationCertificate().getCertificate().getPublicKey();
 
         try {
-            Signature verifier = SignatureUtil.createSignatureWithJWAIdentifier(attestationStatement.getAlg().getName());
+            Signature verifier = SignatureUtil.createSignature(attestationStatement.getAlg().getName());
             verifier.initVerify(publicKey);
             verifier.update(signedData);
             if (verifier.verify(signature)) {
@@ -96,14 +95,8 @@ public class AndroidKeyAttestationStatementValidator implements AttestationState
     }
 
     private byte[] getSignedData(RegistrationObject registrationObject) {
-        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
         byte[] authenticatorData = registrationObject.getAuthenticatorDataBytes();
-        byte[] clientDataHash = messageDigest.digest(registrationObject.getCollectedClientDataBytes());
+        byte[] clientDataHash = registrationObject.getClientDataHash();
         return ByteBuffer.allocate(authenticatorData.length + clientDataHash.length).put(authenticatorData).put(clientDataHash).array();
     }
-
-    private PublicKey getPublicKey(AndroidKeyAttestationStatement attestationStatement) {
-        Certificate cert = attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate();
-        return cert.getPublicKey();
-    }
 }
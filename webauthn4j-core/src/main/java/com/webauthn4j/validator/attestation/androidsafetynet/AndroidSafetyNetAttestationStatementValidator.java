@@ -64,12 +64,11 @@ public class AndroidSafetyNetAttestationStatementValidator implements Attestatio
         Response response = attestationStatement.getResponse().getPayload();
         String nonce = response.getNonce();
         byte[] authenticatorData = registrationObject.getAuthenticatorDataBytes();
-        byte[] collectedClientData = registrationObject.getCollectedClientDataBytes();
-        validateNonce(nonce, authenticatorData, collectedClientData);
+        validateNonce(nonce, authenticatorData, registrationObject.getClientDataHash());
 
         /// Let attestationCert be the attestation certificate.
         /// Verify that attestationCert is issued to the hostname "attest.android.com" (see SafetyNet online documentation).
-        AttestationCertificate attestationCertificate = attestationStatement.getX5c().getEndEntityAttestationCertificate();
+        AttestationCertificate attestationCertificate = registrationObject.getEndEntityAttestationCertificate();
         if(!Objects.equals(attestationCertificate.getSubjectCommonName(), "attest.android.com")){
             throw new BadAttestationStatementException("The attestation certificate is not issued to 'attest.android.com'.");
         }
@@ -97,8 +96,7 @@ public class AndroidSafetyNetAttestationStatementValidator implements Attestatio
         return AttestationType.BASIC;
     }
 
-    private void validateNonce(String nonce, byte[] authenticatorData, byte[] collectedClientData) {
-        byte[] clientDataHash = MessageDigestUtil.createSHA256().digest(collectedClientData);
+    private void validateNonce(String nonce, byte[] authenticatorData, byte[] clientDataHash) {
         ByteBuffer buffer = ByteBuffer.allocate(authenticatorData.length + clientDataHash.length);
         byte[] data = buffer.put(authenticatorData).put(clientDataHash).array();
         byte[] hash = MessageDigestUtil.createSHA256().digest(data);
@@ -17,11 +17,11 @@
 package com.webauthn4j.validator.attestation.packed;
 
 import com.webauthn4j.response.attestation.authenticator.CredentialPublicKey;
+import com.webauthn4j.response.attestation.statement.AttestationCertificate;
 import com.webauthn4j.response.attestation.statement.AttestationStatement;
 import com.webauthn4j.response.attestation.statement.AttestationType;
 import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
 import com.webauthn4j.response.attestation.statement.PackedAttestationStatement;
-import com.webauthn4j.util.MessageDigestUtil;
 import com.webauthn4j.util.SignatureUtil;
 import com.webauthn4j.util.exception.NotImplementedException;
 import com.webauthn4j.validator.RegistrationObject;
@@ -58,15 +58,16 @@ public class PackedAttestationStatementValidator implements AttestationStatement
 
             // Verify that sig is a valid signature over the concatenation of authenticatorData and clientDataHash
             // using the attestation public key in x5c with the algorithm specified in alg.
-            if (!verifySignature(attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate().getPublicKey(), alg, sig, signedData)) {
+            AttestationCertificate attestationCertificate = registrationObject.getEndEntityAttestationCertificate();
+            if (!verifySignature(attestationCertificate.getCertificate().getPublicKey(), alg, sig, signedData)) {
                 throw new BadSignatureException("Bad signature");
             }
             // Verify that x5c meets the requirements in §8.2.1 Packed attestation statement certificate requirements.
-            attestationStatement.getX5c().getEndEntityAttestationCertificate().validate();
+            attestationCertificate.validate();
 
             // If x5c contains an extension with OID 1.3.6.1.4.1.45724.1.1.4 (id-fido-gen-ce-aaguid) verify that
             // the value of this extension matches the aaguid in authenticatorData.
-            byte[] aaguidInCertificate = attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate().getExtensionValue("1.3.6.1.4.1.45724.1.1.4");
+            byte[] aaguidInCertificate = attestationCertificate.getCertificate().getExtensionValue("1.3.6.1.4.1.45724.1.1.4");
             byte[] aaguid = registrationObject.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getAaguid();
             if (aaguidInCertificate != null && !Arrays.equals(aaguidInCertificate, aaguid)) {
                 throw new BadAttestationStatementException("Bad aaguid");
@@ -94,7 +95,7 @@ public class PackedAttestationStatementValidator implements AttestationStatement
                 throw new BadAlgorithmException("Algorithm doesn't match");
             }
             // Verify that sig is a valid signature over the concatenation of authenticatorData and clientDataHash using the credential public key with alg.
-            if (!verifySignature(credentialPublicKey.getPublicKey(), alg, sig, signedData)) {
+            if (!credentialPublicKey.verifySignature(sig, signedData)) {
                 throw new BadSignatureException("Bad signature");
             }
             // If successful, return attestation type Self and empty attestation trust path.
@@ -122,9 +123,8 @@ public class PackedAttestationStatementValidator implements AttestationStatement
     }
 
     private byte[] getSignedData(RegistrationObject registrationObject) {
-        MessageDigest messageDigest = MessageDigestUtil.createSHA256();
         byte[] authenticatorData = registrationObject.getAuthenticatorDataBytes();
-        byte[] clientDataHash = messageDigest.digest(registrationObject.getCollectedClientDataBytes());
+        byte[] clientDataHash = registrationObject.getClientDataHash();
         return ByteBuffer.allocate(authenticatorData.length + clientDataHash.length).put(authenticatorData).put(clientDataHash).array();
     }
 
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.attestation.trustworthiness.certpath;
+
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Validates the specified {@link AttestationStatement} x5c trustworthiness without blocking the caller thread
+ */
+public interface AsyncCertPathTrustworthinessValidator {
+
+    /**
+     * Validates the x5c trustworthiness
+     *
+     * @param aaguid               aaguid of the authenticator
+     * @param attestationStatement attestation statement
+     * @return stage completed when validated, or completed exceptionally with {@link com.webauthn4j.validator.exception.ValidationException}
+     */
+    CompletionStage<Void> validateAsync(byte[] aaguid, CertificateBaseAttestationStatement attestationStatement);
+}
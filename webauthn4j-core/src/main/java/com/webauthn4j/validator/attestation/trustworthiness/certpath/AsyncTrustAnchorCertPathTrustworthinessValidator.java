@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.attestation.trustworthiness.certpath;
+
+import com.webauthn4j.anchor.AsyncTrustAnchorResolver;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
+import com.webauthn4j.revocation.LocalCRLStore;
+import com.webauthn4j.revocation.OCSPResponseCache;
+import com.webauthn4j.util.AssertUtil;
+
+import java.security.cert.TrustAnchor;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Validates the specified {@link AttestationStatement} x5c trustworthiness based on {@link TrustAnchor}s resolved
+ * by {@link AsyncTrustAnchorResolver}. Certification path validation, which may fetch revocation information,
+ * runs on the specified {@link Executor}.
+ */
+public class AsyncTrustAnchorCertPathTrustworthinessValidator implements AsyncCertPathTrustworthinessValidator {
+
+    private final AsyncTrustAnchorResolver asyncTrustAnchorResolver;
+    private final Executor executor;
+
+    private boolean isRevocationCheckEnabled = false;
+    private boolean fullChainProhibited = false;
+    private LocalCRLStore crlStore;
+    private OCSPResponseCache ocspResponseCache;
+
+    public AsyncTrustAnchorCertPathTrustworthinessValidator(AsyncTrustAnchorResolver asyncTrustAnchorResolver, Executor executor) {
+        AssertUtil.notNull(asyncTrustAnchorResolver, "asyncTrustAnchorResolver must not be null");
+        AssertUtil.notNull(executor, "executor must not be null");
+        this.asyncTrustAnchorResolver = asyncTrustAnchorResolver;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<Void> validateAsync(byte[] aaguid, CertificateBaseAttestationStatement attestationStatement) {
+        return asyncTrustAnchorResolver.resolveAsync(aaguid).thenAcceptAsync(
+                trustAnchors -> TrustAnchorCertPathTrustworthinessValidator.validateCertPath(
+                        attestationStatement, trustAnchors, isRevocationCheckEnabled, fullChainProhibited, crlStore, ocspResponseCache),
+                executor);
+    }
+
+    public boolean isRevocationCheckEnabled() {
+        return isRevocationCheckEnabled;
+    }
+
+    public void setRevocationCheckEnabled(boolean revocationCheckEnabled) {
+        isRevocationCheckEnabled = revocationCheckEnabled;
+    }
+
+    public LocalCRLStore getCRLStore() {
+        return crlStore;
+    }
+
+    public void setCRLStore(LocalCRLStore crlStore) {
+        this.crlStore = crlStore;
+    }
+
+    public OCSPResponseCache getOCSPResponseCache() {
+        return ocspResponseCache;
+    }
+
+    public void setOCSPResponseCache(OCSPResponseCache ocspResponseCache) {
+        this.ocspResponseCache = ocspResponseCache;
+    }
+
+    public boolean isFullChainProhibited() {
+        return fullChainProhibited;
+    }
+
+    public void setFullChainProhibited(boolean fullChainProhibited) {
+        this.fullChainProhibited = fullChainProhibited;
+    }
+}
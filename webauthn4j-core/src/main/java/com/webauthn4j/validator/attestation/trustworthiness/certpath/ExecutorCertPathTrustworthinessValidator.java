@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.attestation.trustworthiness.certpath;
+
+import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
+import com.webauthn4j.util.AssertUtil;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapts a blocking {@link CertPathTrustworthinessValidator} to {@link AsyncCertPathTrustworthinessValidator}
+ * by running it on the specified {@link Executor}
+ */
+public class ExecutorCertPathTrustworthinessValidator implements AsyncCertPathTrustworthinessValidator {
+
+    private final CertPathTrustworthinessValidator certPathTrustworthinessValidator;
+    private final Executor executor;
+
+    public ExecutorCertPathTrustworthinessValidator(CertPathTrustworthinessValidator certPathTrustworthinessValidator, Executor executor) {
+        AssertUtil.notNull(certPathTrustworthinessValidator, "certPathTrustworthinessValidator must not be null");
+        AssertUtil.notNull(executor, "executor must not be null");
+        this.certPathTrustworthinessValidator = certPathTrustworthinessValidator;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<Void> validateAsync(byte[] aaguid, CertificateBaseAttestationStatement attestationStatement) {
+        return CompletableFuture.runAsync(() -> certPathTrustworthinessValidator.validate(aaguid, attestationStatement), executor);
+    }
+}
@@ -19,8 +19,15 @@ package com.webauthn4j.validator.attestation.trustworthiness.certpath;
 import com.webauthn4j.anchor.TrustAnchorResolver;
 import com.webauthn4j.response.attestation.statement.AttestationStatement;
 import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
+import com.webauthn4j.revocation.LocalCRLStore;
+import com.webauthn4j.revocation.OCSPException;
+import com.webauthn4j.revocation.OCSPResponseCache;
 import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.CertificateUtil;
+import com.webauthn4j.validator.event.NullValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationEvent;
+import com.webauthn4j.validator.event.ValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationStage;
 import com.webauthn4j.validator.exception.CertificateException;
 
 import java.security.InvalidAlgorithmParameterException;
@@ -37,6 +44,9 @@ public class TrustAnchorCertPathTrustworthinessValidator implements CertPathTrus
 
     private boolean isRevocationCheckEnabled = false;
     private boolean fullChainProhibited = false;
+    private LocalCRLStore crlStore;
+    private OCSPResponseCache ocspResponseCache;
+    private ValidationEventRecorder validationEventRecorder = new NullValidationEventRecorder();
 
     public TrustAnchorCertPathTrustworthinessValidator(TrustAnchorResolver trustAnchorResolver) {
         AssertUtil.notNull(trustAnchorResolver, "trustAnchorResolver must not be null");
@@ -44,34 +54,76 @@ public class TrustAnchorCertPathTrustworthinessValidator implements CertPathTrus
     }
 
     public void validate(byte[] aaguid, CertificateBaseAttestationStatement attestationStatement) {
-        CertPath certPath = attestationStatement.getX5c().createCertPath();
+        ValidationEvent event = validationEventRecorder.begin(ValidationStage.TRUST_ANCHORS_RESOLVED);
+        event.setFormat(attestationStatement.getFormat());
+        event.setAaguid(aaguid);
+        Set<TrustAnchor> trustAnchors;
+        try {
+            trustAnchors = trustAnchorResolver.resolve(aaguid);
+        } catch (RuntimeException e) {
+            event.end(e);
+            throw e;
+        }
+        event.end();
+        validateCertPath(attestationStatement, trustAnchors, isRevocationCheckEnabled(), fullChainProhibited, crlStore, ocspResponseCache);
+    }
 
-        Set<TrustAnchor> trustAnchors = trustAnchorResolver.resolve(aaguid);
+    static void validateCertPath(CertificateBaseAttestationStatement attestationStatement, Set<TrustAnchor> trustAnchors,
+                                 boolean isRevocationCheckEnabled, boolean fullChainProhibited,
+                                 LocalCRLStore crlStore, OCSPResponseCache ocspResponseCache) {
+        CertPath certPath = attestationStatement.getX5c().createCertPath();
 
         CertPathValidator certPathValidator = CertificateUtil.createCertPathValidator();
         PKIXParameters certPathParameters = CertificateUtil.createPKIXParameters(trustAnchors);
 
-        if (isRevocationCheckEnabled()) {
+        if (isRevocationCheckEnabled) {
             //Set PKIXRevocationChecker to enable CRL based revocation check, which is disabled by default.
             //Ref. http://docs.oracle.com/javase/7/docs/technotes/guides/security/certpath/CertPathProgGuide.html#AppB
             PKIXRevocationChecker pkixRevocationChecker = (PKIXRevocationChecker) certPathValidator.getRevocationChecker();
-            pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS));
+            if (ocspResponseCache != null) {
+                //Supply the cached OCSP responses, so that OCSP responders are not queried while validating.
+                //If a CRL store is also set, its CRLs are used as the fallback.
+                //The anchor is matched from x5c without validating the path, which is validated once below with the responses.
+                TrustAnchor trustAnchor = CertificateUtil.findIssuingTrustAnchor(attestationStatement.getX5c(), trustAnchors);
+                if (trustAnchor == null) {
+                    throw new CertificateException("invalid cert path: no trust anchor issued the certificates");
+                }
+                try {
+                    pkixRevocationChecker.setOcspResponses(ocspResponseCache.getResponses(attestationStatement.getX5c(), trustAnchor));
+                } catch (OCSPException e) {
+                    throw new CertificateException("OCSP response is not available", e);
+                }
+                if (crlStore == null) {
+                    pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.NO_FALLBACK));
+                } else {
+                    certPathParameters.addCertStore(crlStore.getCertStore());
+                }
+            } else if (crlStore == null) {
+                pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS));
+            } else {
+                //Only use the locally held CRLs, so that no network I/O happens while validating.
+                pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS, PKIXRevocationChecker.Option.NO_FALLBACK));
+                certPathParameters.addCertStore(crlStore.getCertStore());
+            }
             certPathParameters.addCertPathChecker(pkixRevocationChecker);
         } else {
             certPathParameters.setRevocationEnabled(false);
         }
 
-        PKIXCertPathValidatorResult result;
+        PKIXCertPathValidatorResult result = validate(certPathValidator, certPath, certPathParameters);
+        if(fullChainProhibited && certPath.getCertificates().contains(result.getTrustAnchor().getTrustedCert())){
+            throw new CertificateException("certpath contains full chain");
+        }
+    }
+
+    private static PKIXCertPathValidatorResult validate(CertPathValidator certPathValidator, CertPath certPath, PKIXParameters certPathParameters) {
         try {
-             result = (PKIXCertPathValidatorResult) certPathValidator.validate(certPath, certPathParameters);
+            return (PKIXCertPathValidatorResult) certPathValidator.validate(certPath, certPathParameters);
         } catch (InvalidAlgorithmParameterException e) {
             throw new CertificateException("invalid algorithm parameter", e);
         } catch (CertPathValidatorException e) {
             throw new CertificateException("invalid cert path", e);
         }
-        if(fullChainProhibited && certPath.getCertificates().contains(result.getTrustAnchor().getTrustedCert())){
-            throw new CertificateException("certpath contains full chain");
-        }
     }
 
     public boolean isRevocationCheckEnabled() {
@@ -82,6 +134,35 @@ public class TrustAnchorCertPathTrustworthinessValidator implements CertPathTrus
         isRevocationCheckEnabled = revocationCheckEnabled;
     }
 
+    public LocalCRLStore getCRLStore() {
+        return crlStore;
+    }
+
+    /**
+     * Sets the {@link LocalCRLStore} used for revocation checking instead of CRL distribution points and OCSP.
+     * Without {@link OCSPResponseCache}, revocation is checked against the CRLs of the store only, so every certification
+     * path is rejected while the store holds no valid CRL for an issuer in it, e.g. when the CRL of the issuer has failed
+     * to load, or is past its nextUpdate.
+     *
+     * @param crlStore CRL store, or null to use the default revocation checking
+     */
+    public void setCRLStore(LocalCRLStore crlStore) {
+        this.crlStore = crlStore;
+    }
+
+    public OCSPResponseCache getOCSPResponseCache() {
+        return ocspResponseCache;
+    }
+
+    /**
+     * Sets the {@link OCSPResponseCache} providing the OCSP responses for revocation checking
+     *
+     * @param ocspResponseCache OCSP response cache, or null to use the default revocation checking
+     */
+    public void setOCSPResponseCache(OCSPResponseCache ocspResponseCache) {
+        this.ocspResponseCache = ocspResponseCache;
+    }
+
     public boolean isFullChainProhibited() {
         return fullChainProhibited;
     }
@@ -89,4 +170,18 @@ public class TrustAnchorCertPathTrustworthinessValidator implements CertPathTrus
     public void setFullChainProhibited(boolean fullChainProhibited) {
         this.fullChainProhibited = fullChainProhibited;
     }
+
+    public ValidationEventRecorder getValidationEventRecorder() {
+        return validationEventRecorder;
+    }
+
+    /**
+     * Sets the recorder of the trust anchor resolution
+     *
+     * @param validationEventRecorder validation event recorder
+     */
+    public void setValidationEventRecorder(ValidationEventRecorder validationEventRecorder) {
+        AssertUtil.notNull(validationEventRecorder, "validationEventRecorder must not be null");
+        this.validationEventRecorder = validationEventRecorder;
+    }
 }
@@ -23,6 +23,7 @@ import com.webauthn4j.response.attestation.statement.AttestationType;
 import com.webauthn4j.response.attestation.statement.FIDOU2FAttestationStatement;
 import com.webauthn4j.util.ECUtil;
 import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.util.SignatureUtil;
 import com.webauthn4j.validator.RegistrationObject;
 import com.webauthn4j.validator.attestation.AttestationStatementValidator;
 import com.webauthn4j.validator.exception.BadAttestationStatementException;
@@ -33,7 +34,6 @@ import com.webauthn4j.validator.exception.UnsupportedAttestationFormatException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
-import java.security.cert.Certificate;
 import java.security.interfaces.ECPublicKey;
 
 /**
@@ -81,17 +81,17 @@ public class FIDOU2FAttestationStatementValidator implements AttestationStatemen
 
         byte[] signedData = getSignedData(registrationObject);
         byte[] signature = attestationStatement.getSig();
-        PublicKey publicKey = getPublicKey(attestationStatement);
+        PublicKey publicKey = registrationObject.getEndEntityAttestationCertificate().getCertificate().getPublicKey();
 
         try {
-            Signature verifier = Signature.getInstance("SHA256withECDSA");
+            Signature verifier = SignatureUtil.getES256();
             verifier.initVerify(publicKey);
             verifier.update(signedData);
             if (verifier.verify(signature)) {
                 return;
             }
             throw new BadSignatureException("Bad signature");
-        } catch (NoSuchAlgorithmException | SignatureException | InvalidKeyException e) {
+        } catch (SignatureException | InvalidKeyException e) {
             throw new BadSignatureException("Bad signature", e);
         }
     }
@@ -113,10 +113,8 @@ public class FIDOU2FAttestationStatementValidator implements AttestationStatemen
 
         byte[] rpIdBytes = rpId.getBytes(StandardCharsets.UTF_8);
 
-        byte[] clientDataJsonBytes = registrationObject.getCollectedClientDataBytes();
-
         byte[] applicationParameter = messageDigest.digest(rpIdBytes);
-        byte[] challengeParameter = messageDigest.digest(clientDataJsonBytes);
+        byte[] challengeParameter = registrationObject.getClientDataHash();
         byte[] keyHandle = attestationObject.getAuthenticatorData().getAttestedCredentialData().getCredentialId();
         byte[] userPublicKeyBytes = credentialPublicKey.getBytes();
 
@@ -129,9 +127,4 @@ public class FIDOU2FAttestationStatementValidator implements AttestationStatemen
         return byteBuffer.array();
     }
 
-    private PublicKey getPublicKey(FIDOU2FAttestationStatement attestationStatement) {
-        Certificate cert = attestationStatement.getX5c().getEndEntityAttestationCertificate().getCertificate();
-        return cert.getPublicKey();
-    }
-
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.event;
+
+import com.webauthn4j.validator.ValidationFailureCode;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link ValidationEventRecorder} emitting Java Flight Recorder events named {@code com.webauthn4j.<stage>},
+ * e.g. {@code com.webauthn4j.AssertionSignatureVerified}, with the format, AAGUID, payload size and outcome as fields.
+ * <p>
+ * The events are defined with the {@code jdk.jfr.EventFactory} API, which is bound reflectively so that
+ * WebAuthn4J still runs on Java runtimes without JFR. While no recording enables the events, {@link #begin(ValidationStage)}
+ * checks a flag and returns a shared no-op event.
+ */
+public class JfrValidationEventRecorder implements ValidationEventRecorder {
+
+    // ~ Static fields/initializers
+    // ================================================================================================
+
+    private static final String EVENT_NAME_PREFIX = "com.webauthn4j.";
+    private static final String[] CATEGORY = {"WebAuthn4J", "Validation"};
+
+    private static final int FORMAT_FIELD = 0;
+    private static final int AAGUID_FIELD = 1;
+    private static final int PAYLOAD_SIZE_FIELD = 2;
+    private static final int OUTCOME_FIELD = 3;
+
+    private static final String OUTCOME_SUCCESS = "SUCCESS";
+
+    private static final MethodHandle NEW_EVENT;
+    private static final MethodHandle IS_ENABLED;
+    private static final MethodHandle BEGIN;
+    private static final MethodHandle END;
+    private static final MethodHandle SHOULD_COMMIT;
+    private static final MethodHandle SET;
+    private static final MethodHandle COMMIT;
+    private static final Throwable UNAVAILABILITY_CAUSE;
+
+    static {
+        MethodHandle newEvent = null;
+        MethodHandle isEnabled = null;
+        MethodHandle begin = null;
+        MethodHandle end = null;
+        MethodHandle shouldCommit = null;
+        MethodHandle set = null;
+        MethodHandle commit = null;
+        Throwable unavailabilityCause = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+            Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+            Class<?> eventClass = Class.forName("jdk.jfr.Event");
+            Class<?> flightRecorderClass = Class.forName("jdk.jfr.FlightRecorder");
+            if (!(boolean) lookup.findStatic(flightRecorderClass, "isAvailable", MethodType.methodType(boolean.class)).invoke()) {
+                throw new IllegalStateException("Java Flight Recorder is not available");
+            }
+            newEvent = lookup.findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass));
+            isEnabled = lookup.findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class));
+            begin = lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class));
+            end = lookup.findVirtual(eventClass, "end", MethodType.methodType(void.class));
+            shouldCommit = lookup.findVirtual(eventClass, "shouldCommit", MethodType.methodType(boolean.class));
+            set = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class));
+            commit = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class));
+        } catch (Throwable e) {
+            unavailabilityCause = e;
+        }
+        NEW_EVENT = newEvent;
+        IS_ENABLED = isEnabled;
+        BEGIN = begin;
+        END = end;
+        SHOULD_COMMIT = shouldCommit;
+        SET = set;
+        COMMIT = commit;
+        UNAVAILABILITY_CAUSE = unavailabilityCause;
+    }
+
+    // ~ Instance fields
+    // ================================================================================================
+
+    private final Object[] eventFactories;
+    private final Object[] eventTypes;
+
+    // ~ Constructor
+    // ========================================================================================================
+
+    /**
+     * Registers the events with Java Flight Recorder
+     *
+     * @throws IllegalStateException if Java Flight Recorder is not available on this runtime
+     */
+    public JfrValidationEventRecorder() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder is not available", UNAVAILABILITY_CAUSE);
+        }
+        ValidationStage[] stages = ValidationStage.values();
+        eventFactories = new Object[stages.length];
+        eventTypes = new Object[stages.length];
+        try {
+            EventDefinition definition = new EventDefinition();
+            for (ValidationStage stage : stages) {
+                eventFactories[stage.ordinal()] = definition.createEventFactory(stage);
+                eventTypes[stage.ordinal()] = definition.getEventType(eventFactories[stage.ordinal()]);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    // ~ Methods
+    // ========================================================================================================
+
+    /**
+     * Returns true if the Java Flight Recorder events API is available on this runtime
+     *
+     * @return true if available
+     */
+    public static boolean isAvailable() {
+        return UNAVAILABILITY_CAUSE == null;
+    }
+
+    @Override
+    public ValidationEvent begin(ValidationStage stage) {
+        try {
+            if (!(boolean) IS_ENABLED.invoke(eventTypes[stage.ordinal()])) {
+                return NullValidationEventRecorder.NULL_EVENT;
+            }
+            Object event = NEW_EVENT.invoke(eventFactories[stage.ordinal()]);
+            BEGIN.invoke(event);
+            return new JfrValidationEvent(event);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new UnexpectedCheckedException(e);
+    }
+
+    /**
+     * Creates the event definitions through the {@code jdk.jfr} API
+     */
+    private static class EventDefinition {
+
+        private final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        private final Class<?> annotationElementClass;
+        private final MethodHandle newAnnotationElement;
+        private final MethodHandle newValueDescriptor;
+        private final MethodHandle createEventFactory;
+        private final MethodHandle getEventType;
+        private final List<Object> fields;
+
+        EventDefinition() throws Throwable {
+            annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+            Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+            newAnnotationElement = lookup.findConstructor(annotationElementClass, MethodType.methodType(void.class, Class.class, Object.class));
+            newValueDescriptor = lookup.findConstructor(valueDescriptorClass, MethodType.methodType(void.class, Class.class, String.class, List.class));
+            createEventFactory = lookup.findStatic(eventFactoryClass, "create", MethodType.methodType(eventFactoryClass, List.class, List.class));
+            getEventType = lookup.findVirtual(eventFactoryClass, "getEventType", MethodType.methodType(Class.forName("jdk.jfr.EventType")));
+
+            // the order must match the *_FIELD indices
+            fields = Arrays.asList(
+                    newValueDescriptor(String.class, "format", "Attestation Statement Format"),
+                    newValueDescriptor(String.class, "aaguid", "AAGUID"),
+                    newValueDescriptor(long.class, "payloadSize", "Payload Size",
+                            newAnnotationElement("jdk.jfr.DataAmount", "BYTES")),
+                    newValueDescriptor(String.class, "outcome", "Outcome")
+            );
+        }
+
+        Object createEventFactory(ValidationStage stage) throws Throwable {
+            Object category = Array.newInstance(String.class, CATEGORY.length);
+            System.arraycopy(CATEGORY, 0, category, 0, CATEGORY.length);
+            List<Object> annotations = Arrays.asList(
+                    newAnnotationElement("jdk.jfr.Name", EVENT_NAME_PREFIX + stage.getEventName()),
+                    newAnnotationElement("jdk.jfr.Label", stage.getLabel()),
+                    newAnnotationElement("jdk.jfr.Category", category),
+                    newAnnotationElement("jdk.jfr.StackTrace", false)
+            );
+            return createEventFactory.invoke(annotations, fields);
+        }
+
+        Object getEventType(Object eventFactory) throws Throwable {
+            return getEventType.invoke(eventFactory);
+        }
+
+        private Object newAnnotationElement(String annotationClassName, Object value) throws Throwable {
+            return newAnnotationElement.invoke(Class.forName(annotationClassName), value);
+        }
+
+        private Object newValueDescriptor(Class<?> type, String name, String label, Object... annotations) throws Throwable {
+            List<Object> annotationElements = new ArrayList<>(Arrays.asList(annotations));
+            annotationElements.add(newAnnotationElement("jdk.jfr.Label", label));
+            return newValueDescriptor.invoke(type, name, Collections.unmodifiableList(annotationElements));
+        }
+    }
+
+    private static class JfrValidationEvent implements ValidationEvent {
+
+        private final Object event;
+        private String format;
+        private byte[] aaguid;
+        private long payloadSize;
+
+        JfrValidationEvent(Object event) {
+            this.event = event;
+        }
+
+        @Override
+        public void setFormat(String format) {
+            this.format = format;
+        }
+
+        @Override
+        public void setAaguid(byte[] aaguid) {
+            this.aaguid = aaguid;
+        }
+
+        @Override
+        public void setPayloadSize(long payloadSize) {
+            this.payloadSize = payloadSize;
+        }
+
+        @Override
+        public void end() {
+            commit(OUTCOME_SUCCESS);
+        }
+
+        @Override
+        public void end(RuntimeException failure) {
+            if (failure instanceof WebAuthnException) {
+                commit(ValidationFailureCode.of((WebAuthnException) failure).name());
+            } else {
+                commit(failure.getClass().getName());
+            }
+        }
+
+        private void commit(String outcome) {
+            try {
+                END.invoke(event);
+                if ((boolean) SHOULD_COMMIT.invoke(event)) {
+                    SET.invoke(event, FORMAT_FIELD, (Object) format);
+                    SET.invoke(event, AAGUID_FIELD, (Object) formatAaguid(aaguid));
+                    SET.invoke(event, PAYLOAD_SIZE_FIELD, (Object) payloadSize);
+                    SET.invoke(event, OUTCOME_FIELD, (Object) outcome);
+                    COMMIT.invoke(event);
+                }
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        private static String formatAaguid(byte[] aaguid) {
+            if (aaguid == null || aaguid.length != 16) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(aaguid);
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.event;
+
+/**
+ * {@link ValidationEventRecorder} which records nothing
+ */
+public class NullValidationEventRecorder implements ValidationEventRecorder {
+
+    static final ValidationEvent NULL_EVENT = new NullValidationEvent();
+
+    @Override
+    public ValidationEvent begin(ValidationStage stage) {
+        return NULL_EVENT;
+    }
+
+    private static class NullValidationEvent implements ValidationEvent {
+
+        @Override
+        public void setFormat(String format) {
+            // nop
+        }
+
+        @Override
+        public void setAaguid(byte[] aaguid) {
+            // nop
+        }
+
+        @Override
+        public void setPayloadSize(long payloadSize) {
+            // nop
+        }
+
+        @Override
+        public void end() {
+            // nop
+        }
+
+        @Override
+        public void end(RuntimeException failure) {
+            // nop
+        }
+    }
+}
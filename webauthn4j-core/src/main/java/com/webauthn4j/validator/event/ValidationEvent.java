@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.event;
+
+/**
+ * Timed event of a single {@link ValidationStage}, started by {@link ValidationEventRecorder#begin(ValidationStage)}.
+ * An event is used by one thread and ended exactly once.
+ */
+public interface ValidationEvent {
+
+    /**
+     * Sets the attestation statement format the stage handled
+     *
+     * @param format attestation statement format identifier
+     */
+    void setFormat(String format);
+
+    /**
+     * Sets the AAGUID of the authenticator the stage handled
+     *
+     * @param aaguid AAGUID
+     */
+    void setAaguid(byte[] aaguid);
+
+    /**
+     * Sets the size of the data the stage processed
+     *
+     * @param payloadSize size in bytes
+     */
+    void setPayloadSize(long payloadSize);
+
+    /**
+     * Ends the event as succeeded
+     */
+    void end();
+
+    /**
+     * Ends the event as failed
+     *
+     * @param failure exception the stage failed with
+     */
+    void end(RuntimeException failure);
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.event;
+
+/**
+ * Records the duration and the outcome of validation stages, e.g. as Java Flight Recorder events.
+ * The validators call {@link #begin(ValidationStage)} on every validation, so implementations must be thread-safe
+ * and should return a shared no-op event when the stage is not recorded.
+ *
+ * @see JfrValidationEventRecorder
+ * @see NullValidationEventRecorder
+ */
+public interface ValidationEventRecorder {
+
+    /**
+     * Starts timing the stage
+     *
+     * @param stage validation stage
+     * @return event to be ended when the stage completes
+     */
+    ValidationEvent begin(ValidationStage stage);
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.event;
+
+/**
+ * Stage of a validation reported to {@link ValidationEventRecorder}
+ */
+public enum ValidationStage {
+
+    CLIENT_DATA_PARSED("ClientDataParsed", "Client Data Parsed"),
+    ATTESTATION_DECODED("AttestationDecoded", "Attestation Decoded"),
+    ATTESTATION_VALIDATED("AttestationValidated", "Attestation Validated"),
+    CERT_PATH_VALIDATED("CertPathValidated", "Cert Path Validated"),
+    ASSERTION_SIGNATURE_VERIFIED("AssertionSignatureVerified", "Assertion Signature Verified"),
+    TRUST_ANCHORS_RESOLVED("TrustAnchorsResolved", "Trust Anchors Resolved");
+
+    private final String eventName;
+    private final String label;
+
+    ValidationStage(String eventName, String label) {
+        this.eventName = eventName;
+        this.label = label;
+    }
+
+    /**
+     * Returns the simple name of the event reported for the stage
+     *
+     * @return event name
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Returns the human readable name of the stage
+     *
+     * @return label
+     */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.authenticator;
+
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.response.attestation.authenticator.CredentialPublicKey;
+import com.webauthn4j.test.TestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MappedAuthenticatorStoreTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Registry registry = new Registry();
+    private Path path;
+    private MappedAuthenticatorStore target;
+
+    @Before
+    public void setup() throws IOException {
+        path = temporaryFolder.newFile().toPath();
+        target = new MappedAuthenticatorStore(path, registry, SEGMENT_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        target.close();
+    }
+
+    @Test
+    public void put_get_test() {
+        Authenticator authenticator = TestUtil.createAuthenticator();
+        byte[] credentialId = authenticator.getAttestedCredentialData().getCredentialId();
+        target.put(authenticator);
+
+        Authenticator stored = target.get(credentialId);
+        assertThat(stored.getAttestedCredentialData()).isEqualTo(authenticator.getAttestedCredentialData());
+        assertThat(stored.getAttestationStatement()).isEqualTo(authenticator.getAttestationStatement());
+        assertThat(stored.getCounter()).isEqualTo(authenticator.getCounter());
+        assertThat(target.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_with_unknown_credentialId_test() {
+        assertThat(target.get(new byte[]{0x01, 0x02})).isNull();
+        assertThat(target.contains(new byte[]{0x01, 0x02})).isFalse();
+    }
+
+    @Test
+    public void setCounter_test() {
+        Authenticator authenticator = createAuthenticator(1);
+        target.put(authenticator);
+
+        Authenticator stored = target.get(credentialId(1));
+        stored.setCounter(4294967295L);
+        assertThat(target.get(credentialId(1)).getCounter()).isEqualTo(4294967295L);
+        assertThatThrownBy(() -> stored.setCounter(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void setCounter_test_with_concurrent_readers() throws Exception {
+        target.put(createAuthenticator(1));
+        Authenticator stored = target.get(credentialId(1));
+        stored.setCounter(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    stored.setCounter(i % 2 == 0 ? 0 : 4294967295L);
+                }
+            });
+            Future<Boolean> reader = executor.submit(() -> {
+                while (!writer.isDone()) {
+                    long counter = target.get(credentialId(1)).getCounter();
+                    if (counter != 0 && counter != 4294967295L) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            writer.get();
+            assertThat(reader.get()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void put_replaces_existing_record_test() {
+        target.put(createAuthenticator(1));
+        AttestedCredentialData replacement = new AttestedCredentialData(new byte[16], credentialId(1), TestUtil.createRSCredentialPublicKey());
+        target.put(new AuthenticatorImpl(replacement, null, 7));
+
+        Authenticator stored = target.get(credentialId(1));
+        assertThat(stored.getAttestedCredentialData()).isEqualTo(replacement);
+        assertThat(stored.getAttestationStatement()).isNull();
+        assertThat(stored.getCounter()).isEqualTo(7);
+        assertThat(target.size()).isEqualTo(1);
+        assertThat(target.getGarbageRatio()).isGreaterThan(0);
+    }
+
+    @Test
+    public void remove_test() {
+        for (int i = 0; i < 100; i++) {
+            target.put(createAuthenticator(i));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertThat(target.remove(credentialId(i))).isTrue();
+        }
+        assertThat(target.remove(credentialId(0))).isFalse();
+        assertThat(target.size()).isEqualTo(50);
+        for (int i = 0; i < 100; i++) {
+            assertThat(target.contains(credentialId(i))).isEqualTo(i % 2 == 1);
+        }
+    }
+
+    @Test
+    public void reopen_test() {
+        for (int i = 0; i < 2000; i++) {
+            target.put(createAuthenticator(i));
+        }
+        target.remove(credentialId(3));
+        target.get(credentialId(5)).setCounter(100);
+        target.close();
+
+        target = new MappedAuthenticatorStore(path, registry);
+        assertThat(target.size()).isEqualTo(1999);
+        assertThat(target.contains(credentialId(3))).isFalse();
+        assertThat(target.get(credentialId(5)).getCounter()).isEqualTo(100);
+        assertThat(target.get(credentialId(1999)).getAttestedCredentialData().getCredentialId()).isEqualTo(credentialId(1999));
+    }
+
+    @Test
+    public void compact_test() {
+        for (int i = 0; i < 2000; i++) {
+            target.put(createAuthenticator(i));
+        }
+        for (int i = 0; i < 2000; i++) {
+            if (i % 10 != 0) {
+                target.remove(credentialId(i));
+            }
+        }
+        Authenticator view = target.get(credentialId(10));
+        view.setCounter(42);
+
+        target.compactAsync().join();
+
+        assertThat(target.getGarbageRatio()).isEqualTo(0);
+        assertThat(target.size()).isEqualTo(200);
+        assertThat(view.getCounter()).isEqualTo(42);
+        assertThat(view.getAttestedCredentialData().getCredentialId()).isEqualTo(credentialId(10));
+        target.put(createAuthenticator(1));
+        target.close();
+
+        target = new MappedAuthenticatorStore(path, registry);
+        assertThat(target.size()).isEqualTo(201);
+        assertThat(target.get(credentialId(10)).getCounter()).isEqualTo(42);
+    }
+
+    @Test
+    public void compact_test_with_concurrent_changes() {
+        for (int i = 0; i < 2000; i++) {
+            target.put(createAuthenticator(i));
+        }
+        for (int i = 0; i < 2000; i++) {
+            if (i % 10 != 0) {
+                target.remove(credentialId(i));
+            }
+        }
+
+        CompletableFuture<Void> compaction = target.compactAsync();
+        for (int i = 0; i < 2000; i += 10) {
+            if (i % 20 == 0) {
+                target.remove(credentialId(i));
+            } else {
+                target.get(credentialId(i)).setCounter(i);
+            }
+        }
+        for (int i = 2000; i < 2100; i++) {
+            target.put(createAuthenticator(i));
+        }
+        compaction.join();
+
+        assertThat(target.size()).isEqualTo(200);
+        target.close();
+        target = new MappedAuthenticatorStore(path, registry);
+        assertThat(target.size()).isEqualTo(200);
+        for (int i = 0; i < 2000; i += 10) {
+            assertThat(target.contains(credentialId(i))).isEqualTo(i % 20 != 0);
+        }
+        assertThat(target.get(credentialId(10)).getCounter()).isEqualTo(10);
+        assertThat(target.contains(credentialId(2099))).isTrue();
+    }
+
+    @Test
+    public void closed_store_test() {
+        target.close();
+        assertThatThrownBy(() -> target.get(credentialId(1))).isInstanceOf(IllegalStateException.class);
+    }
+
+    private Authenticator createAuthenticator(int number) {
+        CredentialPublicKey credentialPublicKey = TestUtil.createECCredentialPublicKey();
+        AttestedCredentialData attestedCredentialData = new AttestedCredentialData(new byte[16], credentialId(number), credentialPublicKey);
+        return new AuthenticatorImpl(attestedCredentialData, TestUtil.createFIDOU2FAttestationStatement(), 1);
+    }
+
+    private byte[] credentialId(int number) {
+        return ByteBuffer.allocate(32).putInt(28, number).array();
+    }
+}
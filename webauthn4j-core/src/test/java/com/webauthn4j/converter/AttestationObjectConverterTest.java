@@ -16,8 +16,13 @@
 
 package com.webauthn4j.converter;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.exception.InputLimitExceededException;
+import com.webauthn4j.converter.util.InputLimits;
 import com.webauthn4j.response.attestation.AttestationObject;
 import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.response.attestation.statement.AttestationCertificatePath;
 import com.webauthn4j.response.attestation.statement.AndroidKeyAttestationStatement;
 import com.webauthn4j.response.attestation.statement.AndroidSafetyNetAttestationStatement;
 import com.webauthn4j.response.attestation.statement.AttestationStatement;
@@ -27,6 +32,11 @@ import com.webauthn4j.test.TestUtil;
 import com.webauthn4j.util.Base64UrlUtil;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class AttestationObjectConverterTest {
@@ -81,5 +91,46 @@ public class AttestationObjectConverterTest {
         assertThat(deserialized).isEqualTo(input);
     }
 
+    @Test
+    public void extractAuthenticatorData_test() {
+        AttestationObject input = TestUtil.createAttestationObjectWithFIDOU2FAttestationStatement();
+        byte[] source = target.convertToBytes(input);
+        byte[] authenticatorData = target.extractAuthenticatorData(source);
+        assertThat(authenticatorData).isEqualTo(new AuthenticatorDataConverter(registry).convert(input.getAuthenticatorData()));
+    }
+
+    @Test(expected = DataConversionException.class)
+    public void extractAuthenticatorData_test_without_authData() throws Exception {
+        target.extractAuthenticatorData(registry.getCborMapper().writeValueAsBytes(Collections.singletonMap("fmt", "none")));
+    }
+
+    @Test(expected = DataConversionException.class)
+    public void extractAuthenticatorData_test_with_duplicated_authData() throws Exception {
+        byte[] authData = new AuthenticatorDataConverter(registry).convert(TestUtil.createAuthenticatorData());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = registry.getCborMapper().getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("fmt", "none");
+            generator.writeBinaryField("authData", authData);
+            generator.writeObjectField("attStmt", Collections.emptyMap());
+            generator.writeBinaryField("authData", authData);
+            generator.writeEndObject();
+        }
+        target.extractAuthenticatorData(output.toByteArray());
+    }
+
+    @Test(expected = DataConversionException.class)
+    public void extractAuthenticatorData_test_with_authData_longer_than_input() {
+        // {"authData": byte string header claiming 2^31-1 bytes, followed by no data}
+        byte[] source = new byte[]{(byte) 0xa1, 0x68, 'a', 'u', 't', 'h', 'D', 'a', 't', 'a', 0x5a, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+        target.extractAuthenticatorData(source);
+    }
+
+    @Test(expected = InputLimitExceededException.class)
+    public void extractAuthenticatorData_test_with_x5c_exceeding_limit() {
+        List<X509Certificate> certificates = Collections.nCopies(InputLimits.DEFAULT_MAX_X5C_LENGTH + 1, TestUtil.load3tierTestAuthenticatorAttestationCertificate());
+        AttestationObject input = new AttestationObject(TestUtil.createAuthenticatorData(), TestUtil.createFIDOU2FAttestationStatement(new AttestationCertificatePath(certificates)));
+        target.extractAuthenticatorData(target.convertToBytes(input));
+    }
 
 }
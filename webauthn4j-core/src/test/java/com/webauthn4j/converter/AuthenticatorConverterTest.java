@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
+import com.webauthn4j.response.attestation.authenticator.RSACredentialPublicKey;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.test.TestUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for AuthenticatorConverter
+ */
+public class AuthenticatorConverterTest {
+
+    private Registry registry = new Registry();
+
+    @Test
+    public void convert_test_with_fido_u2f_attestation_statement() {
+        Authenticator authenticator = TestUtil.createAuthenticator();
+        AuthenticatorConverter target = new AuthenticatorConverter(registry);
+
+        byte[] serialized = target.convert(authenticator);
+        AuthenticatorImpl result = target.convert(serialized);
+
+        assertThat(result).isEqualTo(authenticator);
+    }
+
+    @Test
+    public void convert_test_with_packed_attestation_statement_and_rsa_key() {
+        AttestedCredentialData attestedCredentialData = TestUtil.createAttestedCredentialData(TestUtil.createRSCredentialPublicKey());
+        Authenticator authenticator = new AuthenticatorImpl(attestedCredentialData, TestUtil.createBasicPackedAttestationStatement(COSEAlgorithmIdentifier.RS256, new byte[]{0x01, 0x02}), 4294967295L);
+        AuthenticatorConverter target = new AuthenticatorConverter(registry);
+
+        AuthenticatorImpl result = target.convert(target.convert(authenticator));
+
+        assertThat(result).isEqualTo(authenticator);
+    }
+
+    @Test
+    public void convert_test_with_none_and_missing_attestation_statement() {
+        AuthenticatorConverter target = new AuthenticatorConverter(registry);
+        Authenticator none = new AuthenticatorImpl(TestUtil.createAttestedCredentialData(), new NoneAttestationStatement(), 0);
+        Authenticator missing = new AuthenticatorImpl(TestUtil.createAttestedCredentialData(), null, 0);
+
+        AuthenticatorImpl result = target.convert(target.convert(none));
+        assertThat(result.getAttestedCredentialData()).isEqualTo(none.getAttestedCredentialData());
+        assertThat(result.getAttestationStatement()).isInstanceOf(NoneAttestationStatement.class);
+        assertThat(target.convert(target.convert(missing))).isEqualTo(missing);
+    }
+
+    @Test
+    public void convert_test_with_certificate_repository() {
+        InMemoryCertificateRepository certificateRepository = new InMemoryCertificateRepository();
+        AuthenticatorConverter target = new AuthenticatorConverter(registry, certificateRepository);
+        Authenticator authenticatorA = TestUtil.createAuthenticator();
+        Authenticator authenticatorB = TestUtil.createAuthenticator();
+
+        byte[] serializedA = target.convert(authenticatorA);
+        byte[] serializedB = target.convert(authenticatorB);
+
+        assertThat(certificateRepository.getCertificates()).hasSize(1);
+        assertThatThrownBy(() -> certificateRepository.getCertificates().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(serializedA.length).isLessThan(new AuthenticatorConverter(registry).convert(authenticatorA).length);
+        assertThat(target.convert(serializedA)).isEqualTo(authenticatorA);
+        assertThat(target.convert(serializedB)).isEqualTo(authenticatorB);
+        assertThatThrownBy(() -> new AuthenticatorConverter(registry).convert(serializedA)).isInstanceOf(DataConversionException.class);
+        assertThatThrownBy(() -> new AuthenticatorConverter(registry, new InMemoryCertificateRepository()).convert(serializedA)).isInstanceOf(DataConversionException.class);
+    }
+
+    @Test
+    public void convert_test_is_smaller_than_java_serialization() throws IOException {
+        Authenticator authenticator = TestUtil.createAuthenticator();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(authenticator);
+        }
+
+        byte[] serialized = new AuthenticatorConverter(registry).convert(authenticator);
+
+        assertThat(serialized.length).isLessThan(byteArrayOutputStream.size());
+    }
+
+    @Test
+    public void convert_test_with_too_long_credentialPublicKey() {
+        RSACredentialPublicKey credentialPublicKey = new RSACredentialPublicKey(null, COSEAlgorithmIdentifier.RS256, null, null, new byte[0x10000], new byte[3]);
+        Authenticator authenticator = new AuthenticatorImpl(TestUtil.createAttestedCredentialData(credentialPublicKey), null, 0);
+        AuthenticatorConverter target = new AuthenticatorConverter(registry);
+
+        assertThatThrownBy(() -> target.convert(authenticator)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void convert_test_with_invalid_data() {
+        AuthenticatorConverter target = new AuthenticatorConverter(registry);
+        byte[] serialized = target.convert(TestUtil.createAuthenticator());
+
+        assertThatThrownBy(() -> target.convert(Arrays.copyOf(serialized, serialized.length - 1))).isInstanceOf(DataConversionException.class);
+        assertThatThrownBy(() -> target.convert(Arrays.copyOf(serialized, serialized.length + 1))).isInstanceOf(DataConversionException.class);
+        assertThatThrownBy(() -> target.convert(new byte[]{0x02})).isInstanceOf(DataConversionException.class);
+    }
+}
@@ -92,4 +92,27 @@ public class AuthenticatorDataConverterTest {
         //When
         new AuthenticatorDataConverter(registry).convert(bytes);
     }
+
+    @Test
+    public void extractRpIdHash_and_extractFlags_test() {
+        //Given
+        byte[] rpIdHash = new byte[32];
+        rpIdHash[0] = 0x01;
+        AuthenticatorData authenticatorData = new AuthenticatorData(rpIdHash, BIT_UP, 0, new AuthenticationExtensionsAuthenticatorOutputs());
+        AuthenticatorDataConverter target = new AuthenticatorDataConverter(registry);
+        byte[] serialized = target.convert(authenticatorData);
+
+        //When
+        byte[] extractedRpIdHash = target.extractRpIdHash(serialized);
+        byte extractedFlags = target.extractFlags(serialized);
+
+        //Then
+        assertThat(extractedRpIdHash).isEqualTo(rpIdHash);
+        assertThat(extractedFlags).isEqualTo(BIT_UP);
+    }
+
+    @Test(expected = DataConversionException.class)
+    public void extractFlags_test_with_short_data() {
+        new AuthenticatorDataConverter(registry).extractFlags(new byte[36]);
+    }
 }
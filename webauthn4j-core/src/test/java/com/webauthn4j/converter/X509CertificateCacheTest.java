@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter;
+
+import com.webauthn4j.test.TestUtil;
+import org.junit.Test;
+
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class X509CertificateCacheTest {
+
+    @Test
+    public void parse_test() throws CertificateEncodingException {
+        X509CertificateCache target = new X509CertificateCache();
+        byte[] encoded = TestUtil.load3tierTestRootCACertificate().getEncoded();
+
+        X509Certificate first = target.parse(encoded);
+        X509Certificate second = target.parse(encoded.clone());
+
+        assertThat(first.getEncoded()).isEqualTo(encoded);
+        assertThat(second).isSameAs(first);
+        assertThat(target.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void parse_concurrently_returns_one_instance_test() throws Exception {
+        X509CertificateCache target = new X509CertificateCache();
+        byte[] encoded = TestUtil.load3tierTestRootCACertificate().getEncoded();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<X509Certificate>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executorService.submit(() -> target.parse(encoded)));
+            }
+            X509Certificate first = futures.get(0).get();
+            for (Future<X509Certificate> future : futures) {
+                assertThat(future.get()).isSameAs(first);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void parse_invalid_certificate_test() {
+        X509CertificateCache target = new X509CertificateCache();
+        assertThatThrownBy(() -> target.parse(new byte[]{0x01, 0x02})).isInstanceOf(IllegalArgumentException.class);
+        assertThat(target.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void parse_is_bounded_test() throws CertificateEncodingException {
+        X509CertificateCache target = new X509CertificateCache(2);
+        target.parse(TestUtil.load3tierTestRootCACertificate().getEncoded());
+        target.parse(TestUtil.load3tierTestIntermediateCACertificate().getEncoded());
+        target.parse(TestUtil.load3tierTestAuthenticatorAttestationCertificate().getEncoded());
+
+        assertThat(target.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void parse_with_interning_test() throws CertificateEncodingException {
+        X509CertificateCache target = new X509CertificateCache(1, true);
+        X509Certificate root = target.parse(TestUtil.load3tierTestRootCACertificate().getEncoded());
+        target.parse(TestUtil.load3tierTestIntermediateCACertificate().getEncoded());
+
+        assertThat(target.size()).isEqualTo(1);
+        assertThat(target.parse(root.getEncoded())).isSameAs(root);
+    }
+
+    @Test
+    public void intern_test() throws CertificateEncodingException {
+        X509CertificateCache target = new X509CertificateCache();
+        X509Certificate parsed = target.parse(TestUtil.load3tierTestRootCACertificate().getEncoded());
+
+        assertThat(target.intern(TestUtil.load3tierTestRootCACertificate())).isSameAs(parsed);
+        X509Certificate intermediate = TestUtil.load3tierTestIntermediateCACertificate();
+        assertThat(target.intern(intermediate)).isSameAs(intermediate);
+        assertThat(target.size()).isEqualTo(2);
+    }
+}
@@ -16,9 +16,14 @@
 
 package com.webauthn4j.converter.jackson.deserializer;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.extension.AbstractExtensionOutput;
 import com.webauthn4j.response.extension.Coordinates;
 import com.webauthn4j.response.extension.client.*;
 import org.junit.Test;
@@ -28,6 +33,7 @@ import java.util.Arrays;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class ExtensionClientOutputDeserializerTest {
 
@@ -73,4 +79,51 @@ public class ExtensionClientOutputDeserializerTest {
         );
     }
 
+    @Test
+    public void deserialize_test_with_unknown_extension() {
+        ObjectMapper objectMapper = new Registry().getJsonMapper();
+
+        assertThatThrownBy(() -> objectMapper.readValue("{ \"unknown\": true }", new TypeReference<Map<String, ExtensionClientOutput>>() {
+        })).isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    public void deserialize_test_with_extension_registered_to_registry() throws IOException {
+        ObjectMapper objectMapper = new Registry.Builder()
+                .registerExtensionClientOutput(CustomExtensionClientOutput.ID, CustomExtensionClientOutput.class)
+                .build().getJsonMapper();
+
+        Map<String, ExtensionClientOutput> extensionOutputs = objectMapper.readValue("{ \"custom\": \"value\", \"appid\": true }", new TypeReference<Map<String, ExtensionClientOutput>>() {
+        });
+
+        assertThat(extensionOutputs).containsValues(new CustomExtensionClientOutput("value"), new FIDOAppIDExtensionClientOutput(true));
+    }
+
+    @Test
+    public void deserialize_test_with_extension_registered_as_subtype() throws IOException {
+        SimpleModule module = new SimpleModule();
+        module.registerSubtypes(new NamedType(CustomExtensionClientOutput.class, CustomExtensionClientOutput.ID));
+        ObjectMapper objectMapper = new Registry.Builder().registerJsonModule(module).build().getJsonMapper();
+
+        Map<String, ExtensionClientOutput> extensionOutputs = objectMapper.readValue("{ \"appid\": true, \"custom\": \"value\" }", new TypeReference<Map<String, ExtensionClientOutput>>() {
+        });
+
+        assertThat(extensionOutputs).containsValues(new CustomExtensionClientOutput("value"), new FIDOAppIDExtensionClientOutput(true));
+    }
+
+    public static class CustomExtensionClientOutput extends AbstractExtensionOutput<String> implements ExtensionClientOutput<String> {
+
+        static final String ID = "custom";
+
+        @JsonCreator
+        public CustomExtensionClientOutput(String value) {
+            super(value);
+        }
+
+        @Override
+        public String getIdentifier() {
+            return ID;
+        }
+    }
+
 }
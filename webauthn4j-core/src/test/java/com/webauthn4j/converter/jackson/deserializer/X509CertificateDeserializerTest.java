@@ -54,4 +54,19 @@ public class X509CertificateDeserializerTest {
         X509CertificateDeserializerTestData result = objectMapper.readValue(input, X509CertificateDeserializerTestData.class);
         assertThat(result.getCertificate()).isNull();
     }
+
+    @Test
+    public void deserialize_shares_parsed_certificate_test() throws IOException, CertificateEncodingException {
+        Registry registry = new Registry();
+        ObjectMapper objectMapper = registry.getCborMapper();
+
+        Map<String, byte[]> source = new HashMap<>();
+        source.put("certificate", TestUtil.load2tierTestAuthenticatorAttestationCertificate().getEncoded());
+        byte[] input = objectMapper.writeValueAsBytes(source);
+
+        X509CertificateDeserializerTestData first = objectMapper.readValue(input, X509CertificateDeserializerTestData.class);
+        X509CertificateDeserializerTestData second = objectMapper.readValue(input, X509CertificateDeserializerTestData.class);
+        assertThat(second.getCertificate()).isSameAs(first.getCertificate());
+        assertThat(registry.getX509CertificateCache().size()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.converter.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.exception.InputLimitExceededException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.test.TestUtil;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InputLimitsTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    private InputLimits target = new InputLimits();
+
+    @Test
+    public void validate_within_limits_test() throws JsonProcessingException {
+        target.validate(cborMapper.getFactory(), cborMapper.writeValueAsBytes(createAttestationStatement(InputLimits.DEFAULT_MAX_X5C_LENGTH)));
+        target.validate(jsonFactory, createNestedArray(InputLimits.DEFAULT_MAX_NESTING_DEPTH));
+
+        assertThat(target.getRejectedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void validate_payload_size_test() {
+        InputLimits target = new InputLimits.Builder().setMaxPayloadSize(8).build();
+
+        assertThatThrownBy(() -> target.validate(jsonFactory, "\"123456789\""))
+                .isInstanceOf(InputLimitExceededException.class)
+                .extracting("limit").containsExactly(InputLimits.Limit.PAYLOAD_SIZE);
+        assertThat(target.getRejectedCount(InputLimits.Limit.PAYLOAD_SIZE)).isEqualTo(1);
+    }
+
+    @Test
+    public void validate_nesting_depth_test() {
+        assertThatThrownBy(() -> target.validate(jsonFactory, createNestedArray(InputLimits.DEFAULT_MAX_NESTING_DEPTH + 1)))
+                .isInstanceOf(InputLimitExceededException.class);
+        assertThat(target.getRejectedCount(InputLimits.Limit.NESTING_DEPTH)).isEqualTo(1);
+    }
+
+    @Test
+    public void validate_x5c_length_test() throws JsonProcessingException {
+        byte[] source = cborMapper.writeValueAsBytes(createAttestationStatement(InputLimits.DEFAULT_MAX_X5C_LENGTH + 1));
+
+        assertThatThrownBy(() -> target.validate(cborMapper.getFactory(), source))
+                .isInstanceOf(InputLimitExceededException.class);
+        assertThat(target.getRejectedCount(InputLimits.Limit.X5C_LENGTH)).isEqualTo(1);
+    }
+
+    @Test
+    public void validate_byte_string_longer_than_input_test() {
+        // byte string header claiming 2^31-1 bytes, followed by no data
+        byte[] source = new byte[]{0x5a, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+
+        assertThatThrownBy(() -> target.validate(cborMapper.getFactory(), source))
+                .isInstanceOf(DataConversionException.class);
+    }
+
+    @Test
+    public void validateExtensions_test() throws JsonProcessingException {
+        InputLimits target = new InputLimits.Builder().setMaxExtensionCount(2).build();
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("a", Collections.singletonMap("nested", 1));
+        extensions.put("b", true);
+        target.validateExtensions(jsonFactory, new ObjectMapper().writeValueAsString(extensions));
+
+        extensions.put("c", true);
+        String source = new ObjectMapper().writeValueAsString(extensions);
+        assertThatThrownBy(() -> target.validateExtensions(jsonFactory, source))
+                .isInstanceOf(InputLimitExceededException.class);
+        assertThat(target.getRejectedCount(InputLimits.Limit.EXTENSION_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void checkCredentialIdLength_test() {
+        target.checkCredentialIdLength(InputLimits.DEFAULT_MAX_CREDENTIAL_ID_LENGTH);
+
+        assertThatThrownBy(() -> target.checkCredentialIdLength(InputLimits.DEFAULT_MAX_CREDENTIAL_ID_LENGTH + 1))
+                .isInstanceOf(InputLimitExceededException.class);
+        assertThat(target.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void registry_applies_limits_to_converters_test() {
+        InputLimits inputLimits = new InputLimits.Builder().setMaxCredentialIdLength(1).build();
+        Registry registry = new Registry.Builder().setInputLimits(inputLimits).build();
+        AttestationObjectConverter converter = new AttestationObjectConverter(registry);
+        byte[] source = converter.convertToBytes(TestUtil.createAttestationObjectWithFIDOU2FAttestationStatement());
+
+        assertThatThrownBy(() -> converter.convert(source)).isInstanceOf(InputLimitExceededException.class);
+        assertThat(registry.getInputLimits().getRejectedCount(InputLimits.Limit.CREDENTIAL_ID_LENGTH)).isEqualTo(1);
+    }
+
+    private Map<String, Object> createAttestationStatement(int x5cLength) {
+        List<byte[]> x5c = new ArrayList<>();
+        for (int i = 0; i < x5cLength; i++) {
+            x5c.add(new byte[]{0x30, 0x00});
+        }
+        Map<String, Object> attestationStatement = new LinkedHashMap<>();
+        attestationStatement.put("x5c", x5c);
+        attestationStatement.put("sig", new byte[64]);
+        return Collections.singletonMap("attStmt", attestationStatement);
+    }
+
+    private String createNestedArray(int depth) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            builder.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            builder.append(']');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.registry;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.statement.AttestationStatement;
+import com.webauthn4j.response.attestation.statement.FIDOU2FAttestationStatement;
+import com.webauthn4j.response.attestation.statement.NoneAttestationStatement;
+import com.webauthn4j.response.attestation.statement.PackedAttestationStatement;
+import com.webauthn4j.test.TestUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttestationStatementFormatRegistryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void createDefault_test() {
+        AttestationStatementFormatRegistry target = AttestationStatementFormatRegistry.createDefault();
+
+        assertThat(target.getFormats()).extracting(AttestationStatementFormat::getFormat)
+                .containsExactly("fido-u2f", "packed", "android-key", "android-safetynet", "none");
+        assertThat(target.get(PackedAttestationStatement.FORMAT).getAttestationStatementClass()).isEqualTo(PackedAttestationStatement.class);
+        assertThat(target.get("unknown")).isNull();
+    }
+
+    @Test
+    public void createDefault_shares_discovered_formats_test() {
+        AttestationStatementFormatRegistry first = AttestationStatementFormatRegistry.createDefault();
+        AttestationStatementFormatRegistry second = AttestationStatementFormatRegistry.createDefault();
+        first.register(new TestAttestationStatementFormat());
+
+        assertThat(second.get(PackedAttestationStatement.FORMAT)).isSameAs(first.get(PackedAttestationStatement.FORMAT));
+        assertThat(second.get(TestAttestationStatement.FORMAT)).isNull();
+    }
+
+    @Test
+    public void register_replaces_format_test() {
+        AttestationStatementFormat format = new DefaultAttestationStatementFormat(NoneAttestationStatement.FORMAT, NoneAttestationStatement.class);
+        AttestationStatementFormatRegistry target = AttestationStatementFormatRegistry.createDefault().register(format);
+
+        assertThat(target.get(NoneAttestationStatement.FORMAT)).isSameAs(format);
+        assertThat(target.getFormats()).hasSize(5);
+    }
+
+    @Test
+    public void loadServices_test() throws IOException {
+        ClassLoader classLoader = createServiceClassLoader(TestAttestationStatementFormat.class, DuplicatePackedAttestationStatementFormat.class);
+        AttestationStatementFormatRegistry target = AttestationStatementFormatRegistry.createDefault().loadServices(classLoader);
+
+        assertThat(target.get(TestAttestationStatement.FORMAT)).isInstanceOf(TestAttestationStatementFormat.class);
+        assertThat(target.get(PackedAttestationStatement.FORMAT)).isNotInstanceOf(DuplicatePackedAttestationStatementFormat.class);
+        assertThat(target.getFormats()).hasSize(6);
+    }
+
+    @Test
+    public void registry_deserializes_registered_format_test() {
+        Registry registry = new Registry.Builder()
+                .setAttestationStatementFormatRegistry(AttestationStatementFormatRegistry.createDefault().register(new TestAttestationStatementFormat()))
+                .build();
+        AttestationObjectConverter converter = new AttestationObjectConverter(registry);
+        AttestationObject attestationObject = new AttestationObject(TestUtil.createAuthenticatorData(), new TestAttestationStatement(new byte[]{0x01, 0x02}));
+
+        AttestationObject result = converter.convert(converter.convertToBytes(attestationObject));
+
+        assertThat(registry.getAttestationStatementFormatRegistry().get(TestAttestationStatement.FORMAT)).isNotNull();
+        assertThat(result.getFormat()).isEqualTo(TestAttestationStatement.FORMAT);
+        assertThat(((TestAttestationStatement) result.getAttestationStatement()).getSig()).isEqualTo(new byte[]{0x01, 0x02});
+    }
+
+    @Test
+    public void registry_without_format_falls_back_to_default_test() {
+        Registry registry = new Registry.Builder().build();
+        AttestationObjectConverter converter = new AttestationObjectConverter(registry);
+        AttestationObject attestationObject = TestUtil.createAttestationObjectWithFIDOU2FAttestationStatement();
+
+        assertThat(converter.convert(converter.convertToBytes(attestationObject)).getAttestationStatement()).isInstanceOf(FIDOU2FAttestationStatement.class);
+    }
+
+    private ClassLoader createServiceClassLoader(Class<?>... implementations) throws IOException {
+        File root = temporaryFolder.newFolder();
+        File services = new File(root, "META-INF/services");
+        assertThat(services.mkdirs()).isTrue();
+        StringBuilder content = new StringBuilder();
+        Arrays.stream(implementations).forEach(implementation -> content.append(implementation.getName()).append('\n'));
+        Files.write(new File(services, AttestationStatementFormat.class.getName()).toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        return new URLClassLoader(new URL[]{root.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    @JsonIgnoreProperties(value = "format")
+    public static class TestAttestationStatement implements AttestationStatement {
+
+        static final String FORMAT = "test-vendor";
+
+        @JsonProperty
+        private byte[] sig;
+
+        public TestAttestationStatement(byte[] sig) {
+            this.sig = sig;
+        }
+
+        public TestAttestationStatement() {
+        }
+
+        public byte[] getSig() {
+            return sig;
+        }
+
+        @JsonIgnore
+        @Override
+        public String getFormat() {
+            return FORMAT;
+        }
+
+        @Override
+        public void validate() {
+            // nop
+        }
+    }
+
+    public static class TestAttestationStatementFormat extends DefaultAttestationStatementFormat {
+
+        public TestAttestationStatementFormat() {
+            super(TestAttestationStatement.FORMAT, TestAttestationStatement.class);
+        }
+    }
+
+    public static class DuplicatePackedAttestationStatementFormat extends DefaultAttestationStatementFormat {
+
+        public DuplicatePackedAttestationStatementFormat() {
+            super(PackedAttestationStatement.FORMAT, TestAttestationStatement.class);
+        }
+    }
+}
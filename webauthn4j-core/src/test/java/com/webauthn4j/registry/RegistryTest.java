@@ -16,19 +16,113 @@
 
 package com.webauthn4j.registry;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.CollectedClientDataConverter;
+import com.webauthn4j.response.client.ClientDataType;
+import com.webauthn4j.response.client.CollectedClientData;
+import com.webauthn4j.test.TestUtil;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class RegistryTest {
 
+    @SuppressWarnings("deprecation")
     @Test
-    public void constructor_test(){
+    public void constructor_test() throws JsonProcessingException {
         ObjectMapper jsonMapper = new ObjectMapper();
-        ObjectMapper cborMapper = new ObjectMapper();
+        jsonMapper.registerModule(createTestModule());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
         Registry registry = new Registry(jsonMapper, cborMapper);
         assertThat(registry.getJsonMapper()).isEqualTo(jsonMapper);
         assertThat(registry.getCborMapper()).isEqualTo(cborMapper);
+        assertThat(registry.getJsonWriter(TestData.class).writeValueAsString(new TestData())).isEqualTo("\"test\"");
+
+        jsonMapper.registerModule(new SimpleModule("other"));
+        jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
+        assertThat(registry.getJsonWriter(String.class).writeValueAsString("test")).isEqualTo("\"test\"");
+    }
+
+    @Test
+    public void getJsonMapper_reconfigured_after_first_writer_test() throws JsonProcessingException {
+        Registry registry = new Registry();
+        registry.getJsonWriter(String.class);
+        ObjectMapper jsonMapper = registry.getJsonMapper();
+        jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
+
+        assertThat(registry.getJsonMapper()).isSameAs(jsonMapper);
+        assertThat(registry.getJsonWriter(String.class).writeValueAsString("test")).isEqualTo("\"test\"");
+    }
+
+    @Test
+    public void getCborMapper_reconfigured_after_first_reader_test() {
+        Registry registry = new Registry();
+        registry.getCborReader(CollectedClientData.class);
+        ObjectMapper cborMapper = registry.getCborMapper();
+        cborMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+        assertThat(cborMapper.getFactory()).isInstanceOf(CBORFactory.class);
+        assertThat(registry.getCborReader(CollectedClientData.class).isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+    }
+
+    @Test
+    public void getDefault_test(){
+        assertThat(Registry.getDefault()).isSameAs(Registry.getDefault());
+        assertThat(Registry.getDefault().getCborMapper().getFactory()).isInstanceOf(CBORFactory.class);
+    }
+
+    @Test
+    public void reader_writer_cache_test(){
+        Registry registry = new Registry();
+        assertThat(registry.getJsonReader(CollectedClientData.class)).isSameAs(registry.getJsonReader(CollectedClientData.class));
+        assertThat(registry.getJsonWriter(CollectedClientData.class)).isSameAs(registry.getJsonWriter(CollectedClientData.class));
+        assertThat(registry.getCborReader(CollectedClientData.class)).isSameAs(registry.getCborReader(CollectedClientData.class));
+        assertThat(registry.getCborWriter(CollectedClientData.class)).isSameAs(registry.getCborWriter(CollectedClientData.class));
+        assertThat(registry.getJsonReader(CollectedClientData.class)).isNotSameAs(registry.getCborReader(CollectedClientData.class));
+    }
+
+    @Test
+    public void builder_registerModule_test() throws JsonProcessingException {
+        Registry registry = new Registry.Builder().registerModule(createTestModule()).build();
+        assertThat(registry.getJsonMapper().writeValueAsString(new TestData())).isEqualTo("\"test\"");
+        assertThat(registry.getCborMapper().writeValueAsBytes(new TestData())).isEqualTo(new ObjectMapper(new CBORFactory()).writeValueAsBytes("test"));
+    }
+
+    @Test
+    public void builder_registerJsonModule_test() throws JsonProcessingException {
+        Registry registry = new Registry.Builder().registerJsonModule(createTestModule()).build();
+        assertThat(registry.getJsonMapper().writeValueAsString(new TestData())).isEqualTo("\"test\"");
+        assertThat(registry.getCborMapper().writeValueAsBytes(new TestData())).isNotEqualTo(new ObjectMapper(new CBORFactory()).writeValueAsBytes("test"));
+    }
+
+    @Test
+    public void builder_enableAfterburner_test(){
+        Registry registry = new Registry.Builder().enableAfterburner().build();
+
+        CollectedClientDataConverter converter = new CollectedClientDataConverter(registry);
+        CollectedClientData clientData = TestUtil.createClientData(ClientDataType.GET);
+        assertThat(converter.convert(converter.convertToBytes(clientData))).isEqualTo(clientData);
+    }
+
+    private SimpleModule createTestModule() {
+        SimpleModule module = new SimpleModule("test");
+        module.addSerializer(TestData.class, new ToStringSerializer());
+        return module;
+    }
+
+    private static class TestData {
+
+        public String value = "value";
+
+        @Override
+        public String toString() {
+            return "test";
+        }
     }
 }
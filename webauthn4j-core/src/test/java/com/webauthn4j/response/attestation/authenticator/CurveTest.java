@@ -30,6 +30,8 @@ public class CurveTest {
         assertThat(Curve.create(1)).isEqualTo(Curve.SECP256R1);
         assertThat(Curve.create(2)).isEqualTo(Curve.SECP384R1);
         assertThat(Curve.create(3)).isEqualTo(Curve.SECP521R1);
+        assertThat(Curve.create(6)).isEqualTo(Curve.ED25519);
+        assertThat(Curve.create(7)).isEqualTo(Curve.ED448);
         //noinspection ResultOfMethodCallIgnored
         assertThatThrownBy(()-> Curve.create(4)).isInstanceOf(InvalidFormatException.class);
     }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.response.attestation.authenticator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.attestation.statement.COSEKeyType;
+import com.webauthn4j.test.Ed25519PrivateKey;
+import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.validator.exception.ConstraintViolationException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for OKPCredentialPublicKey
+ */
+public class OKPCredentialPublicKeyTest {
+
+    private ObjectMapper jsonMapper = new Registry().getJsonMapper();
+    private ObjectMapper cborMapper = new Registry().getCborMapper();
+
+    @Test
+    public void equals_test() {
+        OKPCredentialPublicKey instanceA = TestUtil.createOKPCredentialPublicKey();
+        OKPCredentialPublicKey instanceB = TestUtil.createOKPCredentialPublicKey();
+        assertThat(instanceA).isEqualTo(instanceB);
+        assertThat(instanceA).hasSameHashCodeAs(instanceB);
+        assertThat(instanceA.getKeyType()).isEqualTo(COSEKeyType.OKP);
+    }
+
+    @Test
+    public void cbor_serialize_deserialize_test() throws Exception {
+        OKPCredentialPublicKey original = TestUtil.createOKPCredentialPublicKey();
+        byte[] serialized = cborMapper.writeValueAsBytes(original);
+        CredentialPublicKey result = cborMapper.readValue(serialized, CredentialPublicKey.class);
+        assertThat(result).isEqualToComparingFieldByFieldRecursively(original);
+    }
+
+    @Test
+    public void json_serialize_deserialize_test() throws Exception {
+        OKPCredentialPublicKey original = TestUtil.createOKPCredentialPublicKey();
+        String serialized = jsonMapper.writeValueAsString(original);
+        CredentialPublicKey result = jsonMapper.readValue(serialized, CredentialPublicKey.class);
+        assertThat(result).isEqualToComparingFieldByFieldRecursively(original);
+    }
+
+    @Test
+    public void verifySignature_test() {
+        Ed25519PrivateKey privateKey = Ed25519PrivateKey.create();
+        OKPCredentialPublicKey target = new OKPCredentialPublicKey(null, COSEAlgorithmIdentifier.EdDSA, null, null, Curve.ED25519, privateKey.getPublicKeyBytes());
+        byte[] data = "data".getBytes(StandardCharsets.UTF_8);
+        byte[] signature = privateKey.sign(data);
+
+        assertThat(target.verifySignature(signature, data)).isTrue();
+        assertThat(target.verifySignature(signature, "tampered".getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(target.verifySignature(new byte[10], data)).isFalse();
+    }
+
+    @Test
+    public void verifySignature_with_other_key_test() {
+        byte[] data = "data".getBytes(StandardCharsets.UTF_8);
+        byte[] signature = Ed25519PrivateKey.create().sign(data);
+        OKPCredentialPublicKey target = new OKPCredentialPublicKey(null, COSEAlgorithmIdentifier.EdDSA, null, null, Curve.ED25519, Ed25519PrivateKey.create().getPublicKeyBytes());
+
+        assertThat(target.verifySignature(signature, data)).isFalse();
+    }
+
+    @Test
+    public void validate_test() {
+        TestUtil.createOKPCredentialPublicKey().validate();
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void validate_with_invalid_curve_test() {
+        new OKPCredentialPublicKey(null, COSEAlgorithmIdentifier.EdDSA, null, null, Curve.SECP256R1, new byte[32]).validate();
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void validate_with_invalid_x_length_test() {
+        new OKPCredentialPublicKey(null, COSEAlgorithmIdentifier.EdDSA, null, null, Curve.ED25519, new byte[31]).validate();
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void validate_with_invalid_algorithm_test() {
+        new OKPCredentialPublicKey(null, null, null, null, Curve.ED25519, new byte[32]).validate();
+    }
+}
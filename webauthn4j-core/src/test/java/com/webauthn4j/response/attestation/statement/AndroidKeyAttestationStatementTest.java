@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webauthn4j.response.attestation.statement;
+
+import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.validator.exception.ConstraintViolationException;
+import org.junit.Test;
+
+public class AndroidKeyAttestationStatementTest {
+
+    @Test
+    public void validate_test() {
+        AndroidKeyAttestationStatement androidKeyAttestationStatement = new AndroidKeyAttestationStatement(COSEAlgorithmIdentifier.ES256, new byte[32], TestUtil.create2tierTestAuthenticatorCertPath());
+        androidKeyAttestationStatement.validate();
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void validate_invalid_instance_test() {
+        AndroidKeyAttestationStatement androidKeyAttestationStatement = new AndroidKeyAttestationStatement();
+        androidKeyAttestationStatement.validate();
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void validate_with_empty_x5c_test() {
+        AndroidKeyAttestationStatement androidKeyAttestationStatement = new AndroidKeyAttestationStatement(COSEAlgorithmIdentifier.ES256, new byte[32], new AttestationCertificatePath());
+        androidKeyAttestationStatement.validate();
+    }
+}
@@ -29,6 +29,17 @@ public class AttestationCertificatePathTest {
         assertThat(attestationCertificatePath.getEndEntityAttestationCertificate()).isEqualTo(attestationCertificatePath.getEndEntityAttestationCertificate());
     }
 
+    @Test
+    public void getEndEntityCertificate_reuses_wrapper_test() {
+        AttestationCertificatePath attestationCertificatePath = new AttestationCertificatePath(TestUtil.create2tierTestAuthenticatorCertPath());
+        AttestationCertificate attestationCertificate = attestationCertificatePath.getEndEntityAttestationCertificate();
+        assertThat(attestationCertificatePath.getEndEntityAttestationCertificate()).isSameAs(attestationCertificate);
+
+        attestationCertificatePath.set(0, TestUtil.load3tierTestAuthenticatorAttestationCertificate());
+        assertThat(attestationCertificatePath.getEndEntityAttestationCertificate().getCertificate())
+                .isEqualTo(TestUtil.load3tierTestAuthenticatorAttestationCertificate());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void getEndEntityCertificate_test_with_no_certificates() {
         AttestationCertificatePath attestationCertificatePath = new AttestationCertificatePath();
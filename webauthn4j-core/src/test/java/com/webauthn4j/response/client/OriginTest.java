@@ -16,6 +16,7 @@
 
 package com.webauthn4j.response.client;
 
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -85,4 +86,34 @@ public class OriginTest {
         assertThat(originA.hashCode()).isEqualTo(originB.hashCode());
     }
 
+    @Test
+    public void create_test() throws Exception {
+        Origin originA = Origin.create("https://example.com:8443");
+        Origin originB = Origin.create("https://example.com:8443");
+
+        assertThat(originA).isEqualTo(new Origin("https://example.com:8443"));
+        assertThat(originA).isNotSameAs(originB);
+    }
+
+    @Test
+    public void create_test_with_interned_origin() throws Exception {
+        Origin interned = Origin.intern(new Origin("https://interned.example.com:8443"));
+
+        assertThat(Origin.create("https://interned.example.com:8443")).isSameAs(interned);
+        assertThat(Origin.intern(new Origin("https://interned.example.com:8443"))).isSameAs(interned);
+    }
+
+    @Test
+    public void intern_test_with_equal_origin() throws Exception {
+        Origin interned = Origin.intern(new Origin("https://default-port.example.com"));
+
+        assertThat(Origin.intern(new Origin("https", "default-port.example.com", 443))).isSameAs(interned);
+        assertThat(Origin.create("https://default-port.example.com:443")).isEqualTo(interned);
+    }
+
+    @Test(expected = InvalidFormatException.class)
+    public void create_test_with_illegal_input() throws Exception {
+        Origin.create("ftp://example.com");
+    }
+
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+import com.webauthn4j.test.TestCertificateAuthority;
+import com.webauthn4j.util.KeyUtil;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.CRL;
+import java.security.cert.CRLException;
+import java.security.cert.CertStoreException;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLSelector;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalCRLStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TestCertificateAuthority rootCA = TestCertificateAuthority.createRoot("CN=Test Root CA");
+    private TestCertificateAuthority intermediateCA = rootCA.createIntermediate("CN=Test Intermediate CA");
+    private LocalCRLStore target;
+
+    @After
+    public void tearDown() {
+        if (target != null) {
+            target.close();
+        }
+    }
+
+    @Test
+    public void refresh_indexes_crls_by_issuer_test() throws IOException, CRLException, CertStoreException {
+        Instant now = Instant.now();
+        X509Certificate revoked = intermediateCA.issueCertificate("CN=Revoked", KeyUtil.createECKeyPair());
+        Path rootCRL = write(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        Path intermediateCRL = write(intermediateCA.createCRL(now, now.plus(Duration.ofDays(1)), revoked));
+        target = new LocalCRLStore(rootCRL, intermediateCRL);
+
+        assertThat(target.refresh()).isTrue();
+
+        assertThat(target.getCRLs()).hasSize(2);
+        assertThat(target.getCRLs(rootCA.getCertificate().getSubjectX500Principal())).hasSize(1);
+        X509CRL crl = target.getCRLs(intermediateCA.getCertificate().getSubjectX500Principal()).iterator().next();
+        assertThat(crl.isRevoked(revoked)).isTrue();
+
+        X509CRLSelector selector = new X509CRLSelector();
+        selector.addIssuer(intermediateCA.getCertificate().getSubjectX500Principal());
+        Collection<? extends CRL> selected = target.getCertStore().getCRLs(selector);
+        assertThat(selected).hasSize(1);
+        assertThat(selected.iterator().next()).isEqualTo(crl);
+    }
+
+    @Test
+    public void refresh_keeps_previous_crls_on_failure_test() throws IOException, CRLException {
+        Instant now = Instant.now();
+        Path file = write(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        target = new LocalCRLStore(file);
+        assertThat(target.refresh()).isTrue();
+
+        Files.write(file, new byte[]{0x01, 0x02, 0x03});
+
+        assertThat(target.refresh()).isFalse();
+        assertThat(target.getCRLs()).hasSize(1);
+    }
+
+    @Test
+    public void refresh_replaces_crls_test() throws IOException, CRLException {
+        Instant now = Instant.now();
+        Path file = write(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        target = new LocalCRLStore(file);
+        target.refresh();
+
+        X509Certificate revoked = rootCA.issueCertificate("CN=Revoked", KeyUtil.createECKeyPair());
+        Files.write(file, rootCA.createCRL(now, now.plus(Duration.ofDays(1)), revoked).getEncoded());
+        target.refresh();
+
+        assertThat(target.getCRLs()).hasSize(1);
+        assertThat(target.getCRLs().iterator().next().isRevoked(revoked)).isTrue();
+    }
+
+    @Test
+    public void computeRefreshDelay_test() throws IOException, CRLException {
+        Instant now = Instant.now();
+        Path file = write(rootCA.createCRL(now, now.plus(Duration.ofMinutes(35))));
+        target = new LocalCRLStore(file);
+        target.setRefreshMargin(Duration.ofMinutes(5));
+        target.setMinRefreshInterval(Duration.ofMinutes(1));
+        target.setMaxRefreshInterval(Duration.ofHours(1));
+
+        assertThat(target.computeRefreshDelay(now, true)).isEqualTo(Duration.ofHours(1));
+
+        target.refresh();
+        // CRL encodes the time in seconds
+        assertThat(target.computeRefreshDelay(now, true)).isBetween(Duration.ofMinutes(29), Duration.ofMinutes(30));
+        assertThat(target.computeRefreshDelay(now.plus(Duration.ofMinutes(34)), true)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(target.computeRefreshDelay(now.minus(Duration.ofDays(1)), true)).isEqualTo(Duration.ofHours(1));
+        assertThat(target.computeRefreshDelay(now, false)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void start_refreshes_in_background_test() throws IOException, CRLException, InterruptedException {
+        Instant now = Instant.now();
+        Path file = write(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        target = new LocalCRLStore(file);
+        target.setMinRefreshInterval(Duration.ofMillis(10));
+        target.setMaxRefreshInterval(Duration.ofMillis(10));
+        target.start();
+        assertThat(target.getCRLs()).hasSize(1);
+
+        X509Certificate revoked = rootCA.issueCertificate("CN=Revoked", KeyUtil.createECKeyPair());
+        Files.write(file, rootCA.createCRL(now, now.plus(Duration.ofDays(1)), revoked).getEncoded());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!target.getCRLs().iterator().next().isRevoked(revoked) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(target.getCRLs().iterator().next().isRevoked(revoked)).isTrue();
+    }
+
+    @Test
+    public void refresh_with_stalled_location_test() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            URL stalled = new URL("http", "127.0.0.1", serverSocket.getLocalPort(), "/crl");
+            target = new LocalCRLStore(Collections.singletonList(stalled));
+            target.setReadTimeout(Duration.ofMillis(500));
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<Boolean> refresh = executor.submit(target::refresh);
+                Thread.sleep(100);
+
+                // the stalled fetch does not hold the lock
+                long startedAt = System.nanoTime();
+                target.close();
+                assertThat(System.nanoTime() - startedAt).isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+
+                assertThat(refresh.get(5, TimeUnit.SECONDS)).isFalse();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void getCertStore_selects_crls_by_issuer_and_time_test() throws IOException, CRLException, CertStoreException {
+        Instant now = Instant.now();
+        Path stale = write(rootCA.createCRL(now.minus(Duration.ofDays(2)), now.minus(Duration.ofDays(1))));
+        Path current = write(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        Path other = write(intermediateCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        target = new LocalCRLStore(stale, current, other);
+        target.refresh();
+
+        X509CRLSelector selector = new X509CRLSelector();
+        selector.addIssuer(rootCA.getCertificate().getSubjectX500Principal());
+        selector.setDateAndTime(Date.from(now.plus(Duration.ofHours(1))));
+
+        assertThat(target.getCertStore().getCRLs(selector)).hasSize(1);
+        assertThat(target.getCertStore().getCRLs(null)).hasSize(3);
+    }
+
+    private Path write(X509CRL crl) throws IOException, CRLException {
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, crl.getEncoded());
+        return file;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.revocation;
+
+import com.webauthn4j.test.TestCertificateAuthority;
+import com.webauthn4j.test.TestOCSPResponder;
+import com.webauthn4j.util.KeyUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OCSPResponseCacheTest {
+
+    private TestCertificateAuthority rootCA = TestCertificateAuthority.createRoot("CN=Test Root CA");
+    private TestCertificateAuthority intermediateCA = rootCA.createIntermediate("CN=Test Intermediate CA");
+    private TestOCSPResponder ocspResponder = new TestOCSPResponder(rootCA, intermediateCA);
+    private X509Certificate certificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+
+    @Test
+    public void getResponse_caches_response_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+
+        byte[] first = target.getResponse(certificate, intermediateCA.getCertificate());
+        byte[] second = target.getResponse(certificate, intermediateCA.getCertificate());
+
+        assertThat(second).isSameAs(first);
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(1);
+        assertThat(target.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void getResponse_fetches_again_after_nextUpdate_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+        target.getResponse(certificate, intermediateCA.getCertificate());
+
+        target.setClock(Clock.fixed(Instant.now().plus(Duration.ofHours(2)), ZoneOffset.UTC));
+        assertThatThrownBy(() -> target.getResponse(certificate, intermediateCA.getCertificate()))
+                .isInstanceOf(OCSPException.class);
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getResponse_refreshes_before_nextUpdate_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+        target.setRefreshExecutor(Runnable::run);
+        target.setRefreshMargin(Duration.ofMinutes(10));
+        target.getResponse(certificate, intermediateCA.getCertificate());
+
+        target.setClock(Clock.fixed(Instant.now().plus(Duration.ofMinutes(55)), ZoneOffset.UTC));
+        target.setClockSkew(Duration.ofHours(1));
+        target.getResponse(certificate, intermediateCA.getCertificate());
+
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getResponse_is_bounded_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder, 2);
+        for (int i = 0; i < 3; i++) {
+            target.getResponse(intermediateCA.issueCertificate("CN=Attestation" + i, KeyUtil.createECKeyPair()), intermediateCA.getCertificate());
+        }
+        assertThat(target.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void getResponse_with_response_signed_by_other_CA_test() {
+        TestCertificateAuthority otherCA = TestCertificateAuthority.createRoot("CN=Test Intermediate CA");
+        OCSPResponseCache target = new OCSPResponseCache(
+                (cert, issuer) -> otherCA.createOCSPResponse(cert, false, Instant.now(), Instant.now().plus(Duration.ofHours(1))));
+
+        assertThatThrownBy(() -> target.getResponse(certificate, intermediateCA.getCertificate()))
+                .isInstanceOf(OCSPException.class);
+        assertThat(target.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void getResponses_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+        Map<X509Certificate, byte[]> responses = target.getResponses(
+                Arrays.asList(certificate, intermediateCA.getCertificate()),
+                new TrustAnchor(rootCA.getCertificate(), null));
+
+        assertThat(responses).containsOnlyKeys(certificate, intermediateCA.getCertificate());
+    }
+
+    @Test
+    public void getResponses_does_not_query_for_path_not_issued_by_trust_anchor_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+        TestCertificateAuthority forgedCA = TestCertificateAuthority.createRoot("CN=Test Intermediate CA");
+        X509Certificate forgedCertificate = forgedCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+
+        assertThatThrownBy(() -> target.getResponses(Arrays.asList(forgedCertificate, forgedCA.getCertificate()), new TrustAnchor(rootCA.getCertificate(), null)))
+                .isInstanceOf(OCSPException.class);
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void getResponse_is_not_served_for_issuer_with_other_key_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+        target.getResponse(certificate, intermediateCA.getCertificate());
+        TestCertificateAuthority forgedCA = TestCertificateAuthority.createRoot("CN=Test Intermediate CA");
+
+        assertThatThrownBy(() -> target.getResponse(certificate, forgedCA.getCertificate()))
+                .isInstanceOf(OCSPException.class);
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getResponse_wraps_responder_IOException_test() {
+        OCSPResponseCache target = new OCSPResponseCache((cert, issuer) -> {
+            throw new UncheckedIOException(new IOException("connection refused"));
+        });
+
+        assertThatThrownBy(() -> target.getResponse(certificate, intermediateCA.getCertificate()))
+                .isInstanceOf(OCSPException.class)
+                .hasCauseInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    public void prefetch_test() {
+        OCSPResponseCache target = new OCSPResponseCache(ocspResponder);
+        target.prefetch(certificate, intermediateCA.getCertificate()).join();
+        target.getResponse(certificate, intermediateCA.getCertificate());
+
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getResponse_shares_concurrent_fetch_test() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OCSPResponseCache target = new OCSPResponseCache((cert, issuer) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ocspResponder.respond(cert, issuer);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> responses = new ArrayList<>();
+            responses.add(executor.submit(() -> target.getResponse(certificate, intermediateCA.getCertificate())));
+            entered.await();
+            for (int i = 0; i < 3; i++) {
+                responses.add(executor.submit(() -> target.getResponse(certificate, intermediateCA.getCertificate())));
+            }
+            release.countDown();
+
+            for (Future<byte[]> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS)).isNotEmpty();
+            }
+            assertThat(ocspResponder.getRequestCount()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void prefetch_test_with_default_executor() {
+        AtomicReference<Thread> fetchThread = new AtomicReference<>();
+        OCSPResponseCache target = new OCSPResponseCache((cert, issuer) -> {
+            fetchThread.set(Thread.currentThread());
+            return ocspResponder.respond(cert, issuer);
+        });
+        target.prefetch(certificate, intermediateCA.getCertificate()).join();
+        target.close();
+
+        assertThat(fetchThread.get().getName()).isEqualTo("webauthn4j-ocsp-response-refresh");
+        assertThat(fetchThread.get().isDaemon()).isTrue();
+        assertThatThrownBy(() -> target.prefetch(rootCA.getCertificate(), rootCA.getCertificate()).join())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.server;
+
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticatorDataConverter;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.response.extension.authenticator.AuthenticationExtensionsAuthenticatorOutputs;
+import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.webauthn4j.response.attestation.authenticator.AuthenticatorData.BIT_UP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RelyingPartyRegistryTest {
+
+    private Registry registry = new Registry();
+    private AtomicInteger createdValidators = new AtomicInteger();
+    private RelyingPartyRegistry<String, Object> target = new RelyingPartyRegistry<>(configuration -> {
+        createdValidators.incrementAndGet();
+        return new Object();
+    }, registry);
+
+    @Test
+    public void register_test_shares_validator_between_equal_configurations() {
+        RelyingPartyRegistry.RelyingParty<String, Object> a = target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+        RelyingPartyRegistry.RelyingParty<String, Object> b = target.register("b.example.com", Collections.singleton(new Origin("https://b.example.com")), "strict");
+        RelyingPartyRegistry.RelyingParty<String, Object> c = target.register("c.example.com", Collections.singleton(new Origin("https://c.example.com")), "non-strict");
+
+        assertThat(a.getValidator()).isSameAs(b.getValidator());
+        assertThat(a.getValidator()).isNotSameAs(c.getValidator());
+        assertThat(createdValidators.get()).isEqualTo(2);
+        assertThat(target.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void findByRpIdHash_test() {
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+
+        RelyingPartyRegistry.RelyingParty<String, Object> found = target.findByRpIdHash(sha256("a.example.com"));
+        assertThat(found.getRpId()).isEqualTo("a.example.com");
+        assertThat(found.getRpIdHash()).isEqualTo(sha256("a.example.com"));
+        assertThat(target.findByRpIdHash(sha256("unknown.example.com"))).isNull();
+    }
+
+    @Test
+    public void findByAuthenticatorData_and_findByAttestationObject_test() {
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+        target.register("b.example.com", Collections.singleton(new Origin("https://b.example.com")), "strict");
+        AuthenticatorData authenticatorData = new AuthenticatorData(sha256("b.example.com"), BIT_UP, 0, new AuthenticationExtensionsAuthenticatorOutputs());
+        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(registry).convert(authenticatorData);
+        byte[] attestationObjectBytes = new AttestationObjectConverter(registry).convertToBytes(new AttestationObject(authenticatorData, TestUtil.createFIDOU2FAttestationStatement()));
+
+        assertThat(target.findByAuthenticatorData(authenticatorDataBytes).getRpId()).isEqualTo("b.example.com");
+        assertThat(target.findByAttestationObject(attestationObjectBytes).getRpId()).isEqualTo("b.example.com");
+        assertThatThrownBy(() -> target.findByAuthenticatorData(new byte[36])).isInstanceOf(DataConversionException.class);
+    }
+
+    @Test
+    public void unregister_test() {
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+
+        assertThat(target.unregister("a.example.com")).isNotNull();
+        assertThat(target.unregister("a.example.com")).isNull();
+        assertThat(target.findByRpIdHash(sha256("a.example.com"))).isNull();
+    }
+
+    @Test
+    public void unregister_test_releases_validator_no_longer_referred() {
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+        target.register("b.example.com", Collections.singleton(new Origin("https://b.example.com")), "strict");
+
+        target.unregister("a.example.com");
+        assertThat(target.getValidatorCount()).isEqualTo(1);
+        target.unregister("b.example.com");
+        assertThat(target.getValidatorCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void register_test_releases_validator_of_replaced_relying_party() {
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "non-strict");
+
+        assertThat(target.getValidatorCount()).isEqualTo(1);
+        assertThat(target.findByRpIdHash(sha256("a.example.com")).getConfiguration()).isEqualTo("non-strict");
+    }
+
+    @Test
+    public void register_test_keeps_validator_of_relying_party_replaced_with_same_configuration() {
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+        target.register("a.example.com", Collections.singleton(new Origin("https://a.example.com")), "strict");
+        assertThat(target.getValidatorCount()).isEqualTo(1);
+
+        target.unregister("a.example.com");
+        assertThat(target.getValidatorCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void createServerProperty_test() {
+        Origin origin = new Origin("https://a.example.com");
+        RelyingPartyRegistry.RelyingParty<String, Object> relyingParty = target.register("a.example.com", Collections.singleton(origin), "strict");
+        DefaultChallenge challenge = new DefaultChallenge();
+
+        ServerProperty serverProperty = relyingParty.createServerProperty(challenge, null);
+        assertThat(serverProperty.getOrigins()).containsExactly(origin);
+        assertThat(serverProperty.getRpId()).isEqualTo("a.example.com");
+        assertThat(serverProperty.getChallenge()).isEqualTo(challenge);
+        assertThat(relyingParty.createServerProperty(challenge, null).getOrigins()).isSameAs(serverProperty.getOrigins());
+    }
+
+    private byte[] sha256(String value) {
+        return MessageDigestUtil.createSHA256().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
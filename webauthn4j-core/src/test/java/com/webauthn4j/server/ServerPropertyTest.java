@@ -16,11 +16,15 @@
 
 package com.webauthn4j.server;
 
+import com.webauthn4j.response.client.Origin;
 import com.webauthn4j.response.client.challenge.Challenge;
 import com.webauthn4j.response.client.challenge.DefaultChallenge;
 import com.webauthn4j.test.TestUtil;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ServerPropertyTest {
@@ -34,4 +38,34 @@ public class ServerPropertyTest {
         assertThat(serverPropertyA).isEqualTo(serverPropertyB);
         assertThat(serverPropertyA).hasSameHashCodeAs(serverPropertyB);
     }
+
+    @Test
+    public void origins_test(){
+        Origin originA = new Origin("https://a.example.com");
+        Origin originB = new Origin("https://b.example.com");
+        ServerProperty serverProperty = ServerProperty.create(new HashSet<>(Arrays.asList(originA, originB)), "example.com", new DefaultChallenge(), null);
+
+        assertThat(serverProperty.getOrigins()).containsExactlyInAnyOrder(originA, originB);
+        assertThat(serverProperty.getOrigin()).isIn(originA, originB);
+        assertThat(new ServerProperty(originA, "example.com", null, null).getOrigins()).containsExactly(originA);
+    }
+
+    @Test
+    public void equals_test_with_different_origin(){
+        Origin originA = new Origin("https://a.example.com");
+        Origin originB = new Origin("https://b.example.com");
+        Challenge challenge = new DefaultChallenge();
+        ServerProperty serverPropertyA = new ServerProperty(originA, new HashSet<>(Arrays.asList(originA, originB)), "example.com", challenge, null);
+        ServerProperty serverPropertyB = new ServerProperty(originB, new HashSet<>(Arrays.asList(originA, originB)), "example.com", challenge, null);
+
+        assertThat(serverPropertyA).isNotEqualTo(serverPropertyB);
+    }
+
+    @Test
+    public void create_test_does_not_intern_origins() throws Exception {
+        Origin origin = new Origin("https://create.example.com:8443");
+        ServerProperty.create(new HashSet<>(Arrays.asList(origin)), "example.com", new DefaultChallenge(), null);
+
+        assertThat(Origin.create("https://create.example.com:8443")).isNotSameAs(origin);
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebAuthnExceptionTest {
+
+    @Test
+    public void supplyWithoutStackTrace_test() {
+        WebAuthnException exception = WebAuthnException.supplyWithoutStackTrace(() -> {
+            WebAuthnException nested = WebAuthnException.supplyWithoutStackTrace(() -> new WebAuthnException("nested"));
+            assertThat(nested.getStackTrace()).isEmpty();
+            return new WebAuthnException("test");
+        });
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(new WebAuthnException("test").getStackTrace()).isNotEmpty();
+    }
+}
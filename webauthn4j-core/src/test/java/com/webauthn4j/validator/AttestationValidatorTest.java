@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator;
+
+import com.webauthn4j.registry.AttestationStatementFormatRegistry;
+import com.webauthn4j.registry.AttestationStatementFormatRegistryTest.TestAttestationStatement;
+import com.webauthn4j.registry.DefaultAttestationStatementFormat;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.statement.AttestationType;
+import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.validator.attestation.AttestationStatementValidator;
+import com.webauthn4j.validator.attestation.none.NoneAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.NullCertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.NullECDAATrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.self.NullSelfAttestationTrustworthinessValidator;
+import com.webauthn4j.validator.exception.BadAttestationStatementException;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AttestationValidatorTest {
+
+    private RegistrationObject registrationObject = TestUtil.createRegistrationObject(
+            clientDataBytes -> new AttestationObject(TestUtil.createAuthenticatorData(), new TestAttestationStatement(new byte[]{0x01})));
+
+    @Test
+    public void validateAttestationStatement_test_with_validator_of_registered_format() {
+        AttestationStatementValidator attestationStatementValidator = mock(AttestationStatementValidator.class);
+        when(attestationStatementValidator.supports(any())).thenReturn(true);
+        when(attestationStatementValidator.validate(any())).thenReturn(AttestationType.NONE);
+        String format = registrationObject.getAttestationObject().getFormat();
+        AttestationStatementFormatRegistry attestationStatementFormatRegistry = AttestationStatementFormatRegistry.createDefault()
+                .register(new DefaultAttestationStatementFormat(format, TestAttestationStatement.class, null, attestationStatementValidator));
+        AttestationValidator target = createAttestationValidator(attestationStatementFormatRegistry);
+
+        assertThat(target.validateAttestationStatement(registrationObject)).isEqualTo(AttestationType.NONE);
+        assertThat(target.validateAttestationStatement(registrationObject)).isEqualTo(AttestationType.NONE);
+        verify(attestationStatementValidator, times(2)).validate(registrationObject);
+    }
+
+    @Test
+    public void validateAttestationStatement_test_with_unsupported_format() {
+        AttestationValidator target = createAttestationValidator(AttestationStatementFormatRegistry.createDefault());
+
+        assertThatThrownBy(() -> target.validateAttestationStatement(registrationObject)).isInstanceOf(BadAttestationStatementException.class);
+    }
+
+    private AttestationValidator createAttestationValidator(AttestationStatementFormatRegistry attestationStatementFormatRegistry) {
+        return new AttestationValidator(
+                Collections.singletonList(new NoneAttestationStatementValidator()),
+                new NullCertPathTrustworthinessValidator(),
+                new NullECDAATrustworthinessValidator(),
+                new NullSelfAttestationTrustworthinessValidator(),
+                attestationStatementFormatRegistry
+        );
+    }
+}
@@ -24,6 +24,9 @@ import com.webauthn4j.test.TestUtil;
 import com.webauthn4j.validator.exception.BadOriginException;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 /**
  * Test for OriginValidator
  */
@@ -51,4 +54,32 @@ public class OriginValidatorTest {
         target.validate(collectedClientData, serverProperty);
     }
 
+    @Test
+    public void test_with_null_origins() {
+        CollectedClientData collectedClientData = new CollectedClientData(ClientDataType.CREATE, TestUtil.createChallenge(), null, null);
+        ServerProperty serverProperty = new ServerProperty(null, "example.com", TestUtil.createChallenge(), null);
+        target.validate(collectedClientData, serverProperty);
+    }
+
+    @Test
+    public void test_with_allowed_origins() {
+        Origin originA = new Origin("https://b.example.com");
+        Origin originB = new Origin("https://a.example.com");
+        Origin originC = new Origin("https://b.example.com");
+
+        CollectedClientData collectedClientData = new CollectedClientData(ClientDataType.CREATE, TestUtil.createChallenge(), originA, null);
+        ServerProperty serverProperty = ServerProperty.create(new HashSet<>(Arrays.asList(originB, originC)), "example.com", TestUtil.createChallenge(), null);
+        target.validate(collectedClientData, serverProperty);
+    }
+
+    @Test(expected = BadOriginException.class)
+    public void test_with_origin_not_in_allowed_origins() {
+        Origin originA = new Origin("https://c.example.com");
+        Origin originB = new Origin("https://a.example.com");
+        Origin originC = new Origin("https://b.example.com");
+
+        CollectedClientData collectedClientData = new CollectedClientData(ClientDataType.CREATE, TestUtil.createChallenge(), originA, null);
+        ServerProperty serverProperty = ServerProperty.create(new HashSet<>(Arrays.asList(originB, originC)), "example.com", TestUtil.createChallenge(), null);
+        target.validate(collectedClientData, serverProperty);
+    }
 }
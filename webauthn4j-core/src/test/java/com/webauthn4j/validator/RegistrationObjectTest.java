@@ -18,6 +18,10 @@ package com.webauthn4j.validator;
 
 import com.webauthn4j.response.attestation.AttestationObject;
 import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.response.attestation.statement.AndroidKeyAttestationStatement;
+import com.webauthn4j.response.attestation.statement.AttestationCertificatePath;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.attestation.statement.FIDOU2FAttestationStatement;
 import com.webauthn4j.response.client.ClientDataType;
 import com.webauthn4j.response.client.CollectedClientData;
 import com.webauthn4j.converter.AttestationObjectConverter;
@@ -26,6 +30,8 @@ import com.webauthn4j.converter.CollectedClientDataConverter;
 import com.webauthn4j.registry.Registry;
 import com.webauthn4j.server.ServerProperty;
 import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.validator.exception.BadAttestationStatementException;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -58,4 +64,47 @@ public class RegistrationObjectTest {
         assertThat(registrationObject.getAuthenticatorDataBytes()).isEqualTo(authenticatorDataBytes);
         assertThat(registrationObject.getServerProperty()).isEqualTo(serverProperty);
     }
+
+    @Test
+    public void derived_values_test() {
+        Registry registry = new Registry();
+        CollectedClientData clientData = TestUtil.createClientData(ClientDataType.CREATE);
+        byte[] clientDataBytes = new CollectedClientDataConverter(registry).convertToBytes(clientData);
+        AttestationObject attestationObject = TestUtil.createAttestationObjectWithFIDOU2FAttestationStatement();
+        RegistrationObject registrationObject = new RegistrationObject(
+                clientData,
+                clientDataBytes,
+                attestationObject,
+                new AttestationObjectConverter(registry).convertToBytes(attestationObject),
+                new AuthenticatorDataConverter(registry).convert(attestationObject.getAuthenticatorData()),
+                TestUtil.createServerProperty()
+        );
+
+        assertThat(registrationObject.getClientDataHash()).isEqualTo(MessageDigestUtil.createSHA256().digest(clientDataBytes));
+        assertThat(registrationObject.getClientDataHash()).isSameAs(registrationObject.getClientDataHash());
+
+        FIDOU2FAttestationStatement attestationStatement = (FIDOU2FAttestationStatement) attestationObject.getAttestationStatement();
+        assertThat(registrationObject.getEndEntityAttestationCertificate().getCertificate()).isEqualTo(attestationStatement.getX5c().get(0));
+        assertThat(registrationObject.getEndEntityAttestationCertificate()).isSameAs(registrationObject.getEndEntityAttestationCertificate());
+
+        assertThat(registrationObject.getCredentialPublicKey())
+                .isEqualTo(attestationObject.getAuthenticatorData().getAttestedCredentialData().getCredentialPublicKey().getPublicKey());
+        assertThat(registrationObject.getCredentialPublicKey()).isSameAs(registrationObject.getCredentialPublicKey());
+    }
+
+    @Test
+    public void getEndEntityAttestationCertificate_without_x5c_test() {
+        RegistrationObject registrationObject = new RegistrationObject(
+                null, null, TestUtil.createAttestationObjectWithSelfPackedECAttestationStatement(new byte[32]), null, null, null);
+        assertThat(registrationObject.getEndEntityAttestationCertificate()).isNull();
+    }
+
+    @Test(expected = BadAttestationStatementException.class)
+    public void getEndEntityAttestationCertificate_with_empty_x5c_test() {
+        AttestationObject attestationObject = new AttestationObject(
+                TestUtil.createAuthenticatorData(),
+                new AndroidKeyAttestationStatement(COSEAlgorithmIdentifier.ES256, new byte[32], new AttestationCertificatePath()));
+        RegistrationObject registrationObject = new RegistrationObject(null, null, attestationObject, null, null, null);
+        registrationObject.getEndEntityAttestationCertificate();
+    }
 }
@@ -23,6 +23,8 @@ import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 /**
  * Created by ynojima on 2017/08/27.
  */
@@ -84,4 +86,19 @@ public class RpIdHashValidatorTest {
         target.validate(rpIdHashA, serverProperty);
     }
 
+    @Test
+    public void verifyRpIdHash_test_with_alternating_rpIds() {
+
+        byte[] rpIdHashA = MessageDigestUtil.createSHA256().digest("a.example.com".getBytes(StandardCharsets.UTF_8));
+        byte[] rpIdHashB = MessageDigestUtil.createSHA256().digest("b.example.com".getBytes(StandardCharsets.UTF_8));
+        ServerProperty serverPropertyA = new ServerProperty(null, "a.example.com", null, null);
+        ServerProperty serverPropertyB = new ServerProperty(null, "b.example.com", null, null);
+
+        //When
+        target.validate(rpIdHashA, serverPropertyA);
+        target.validate(rpIdHashB, serverPropertyB);
+        target.validate(rpIdHashA, serverPropertyA);
+        assertThatThrownBy(() -> target.validate(rpIdHashB, serverPropertyA)).isInstanceOf(BadRpIdException.class);
+    }
+
 }
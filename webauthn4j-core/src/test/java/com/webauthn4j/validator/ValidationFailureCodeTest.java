@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator;
+
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.converter.exception.InputLimitExceededException;
+import com.webauthn4j.converter.util.InputLimits;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.validator.exception.BadChallengeException;
+import com.webauthn4j.validator.exception.KeyDescriptionValidationException;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ValidationFailureCodeTest {
+
+    @Test
+    public void of_test() {
+        assertThat(ValidationFailureCode.of(new BadChallengeException("test"))).isEqualTo(ValidationFailureCode.BAD_CHALLENGE);
+        assertThat(ValidationFailureCode.of(new KeyDescriptionValidationException("test"))).isEqualTo(ValidationFailureCode.KEY_DESCRIPTION_VALIDATION);
+        assertThat(ValidationFailureCode.of(new InputLimitExceededException(InputLimits.Limit.PAYLOAD_SIZE, "test"))).isEqualTo(ValidationFailureCode.INPUT_LIMIT_EXCEEDED);
+        assertThat(ValidationFailureCode.of(new DataConversionException("test"))).isEqualTo(ValidationFailureCode.DATA_CONVERSION);
+        assertThat(ValidationFailureCode.of(new WebAuthnException("test"))).isEqualTo(ValidationFailureCode.OTHER);
+    }
+
+    @Test
+    public void of_subclass_test() {
+        BadChallengeException exception = new BadChallengeException("test") {
+        };
+        assertThat(ValidationFailureCode.of(exception)).isEqualTo(ValidationFailureCode.BAD_CHALLENGE);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator;
+
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.validator.attestation.androidkey.AndroidKeyAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.androidsafetynet.AndroidSafetyNetAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.none.NoneAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.packed.PackedAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.NullCertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.NullECDAATrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.self.NullSelfAttestationTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.u2f.FIDOU2FAttestationStatementValidator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WarmUpCeremonyFactoryTest {
+
+    private WarmUpCeremonyFactory target = new WarmUpCeremonyFactory(Registry.getDefault());
+
+    @Test
+    public void registration_contexts_pass_validation_test() {
+        WebAuthnRegistrationContextValidator validator = new WebAuthnRegistrationContextValidator(
+                Arrays.asList(
+                        new NoneAttestationStatementValidator(),
+                        new FIDOU2FAttestationStatementValidator(),
+                        new PackedAttestationStatementValidator(),
+                        new AndroidKeyAttestationStatementValidator(),
+                        new AndroidSafetyNetAttestationStatementValidator()
+                ),
+                new NullCertPathTrustworthinessValidator(),
+                new NullECDAATrustworthinessValidator(),
+                new NullSelfAttestationTrustworthinessValidator()
+        );
+
+        List<WebAuthnRegistrationContext> registrationContexts = target.createRegistrationContexts();
+
+        assertThat(registrationContexts).hasSize(10);
+        for (WebAuthnRegistrationContext registrationContext : registrationContexts) {
+            validator.validate(registrationContext);
+        }
+    }
+
+    @Test
+    public void authentication_ceremonies_pass_validation_test() {
+        WebAuthnAuthenticationContextValidator validator = new WebAuthnAuthenticationContextValidator();
+
+        List<WarmUpCeremonyFactory.AuthenticationCeremony> authenticationCeremonies = target.createAuthenticationCeremonies();
+
+        assertThat(authenticationCeremonies).hasSize(3);
+        for (WarmUpCeremonyFactory.AuthenticationCeremony authenticationCeremony : authenticationCeremonies) {
+            validator.validate(authenticationCeremony.getAuthenticationContext(), authenticationCeremony.createAuthenticator());
+        }
+    }
+}
@@ -16,9 +16,31 @@
 
 package com.webauthn4j.validator;
 
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.validator.event.ValidationEvent;
+import com.webauthn4j.validator.event.ValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationStage;
+import com.webauthn4j.validator.exception.BadRpIdException;
+import com.webauthn4j.validator.exception.BadSignatureException;
+import com.webauthn4j.validator.exception.MaliciousDataException;
+import com.webauthn4j.validator.exception.UserNotVerifiedException;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 public class WebAuthnAuthenticationContextValidatorTest {
 
@@ -31,4 +53,143 @@ public class WebAuthnAuthenticationContextValidatorTest {
         assertThat(target.getMaliciousCounterValueHandler()).isEqualTo(maliciousCounterValueHandler);
 
     }
+
+    @Test
+    public void precheck_rejects_bad_rpIdHash_without_parsing_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("other.example.com", AuthenticatorData.BIT_UP), new byte[64], false);
+
+        assertThatThrownBy(() -> target.validate(authenticationContext, TestUtil.createAuthenticator())).isInstanceOf(BadRpIdException.class);
+    }
+
+    @Test
+    public void precheck_rejects_attested_credential_data_flag_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        byte flags = AuthenticatorData.BIT_UP | AuthenticatorData.BIT_AT;
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("example.com", flags), new byte[64], false);
+
+        assertThatThrownBy(() -> target.validate(authenticationContext, TestUtil.createAuthenticator())).isInstanceOf(MaliciousDataException.class);
+    }
+
+    @Test
+    public void precheck_rejects_missing_user_verification_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("example.com", AuthenticatorData.BIT_UP), new byte[64], true);
+
+        assertThatThrownBy(() -> target.validate(authenticationContext, TestUtil.createAuthenticator())).isInstanceOf(UserNotVerifiedException.class);
+    }
+
+    @Test
+    public void precheck_rejects_signature_length_out_of_bounds_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        byte[] authenticatorData = createAuthenticatorData("example.com", AuthenticatorData.BIT_UP);
+
+        assertThatThrownBy(() -> target.validate(createAuthenticationContext(authenticatorData, new byte[AssertionSignatureValidator.MIN_SIGNATURE_LENGTH - 1], false), TestUtil.createAuthenticator()))
+                .isInstanceOf(BadSignatureException.class);
+        assertThatThrownBy(() -> target.validate(createAuthenticationContext(authenticatorData, new byte[AssertionSignatureValidator.MAX_SIGNATURE_LENGTH + 1], false), TestUtil.createAuthenticator()))
+                .isInstanceOf(BadSignatureException.class);
+    }
+
+    @Test
+    public void tryValidate_reports_failure_code_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("other.example.com", AuthenticatorData.BIT_UP), new byte[64], false);
+
+        ValidationResult<WebAuthnAuthenticationContextValidationResponse> result = target.tryValidate(authenticationContext, TestUtil.createAuthenticator());
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getFailureCode()).isEqualTo(ValidationFailureCode.BAD_RP_ID);
+        assertThat(result.getMessage()).isEqualTo("Bad rpId");
+    }
+
+    @Test
+    public void tryValidate_reports_data_conversion_failure_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("example.com", AuthenticatorData.BIT_UP), new byte[64], false);
+
+        ValidationResult<WebAuthnAuthenticationContextValidationResponse> result = target.tryValidate(authenticationContext, TestUtil.createAuthenticator());
+
+        assertThat(result.getFailureCode()).isEqualTo(ValidationFailureCode.DATA_CONVERSION);
+    }
+
+    @Test
+    public void tryValidate_reports_unexpected_failure_as_other_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = mock(WebAuthnAuthenticationContext.class);
+        when(authenticationContext.getCredentialId()).thenThrow(new UncheckedIOException(new IOException("connection reset")));
+
+        ValidationResult<WebAuthnAuthenticationContextValidationResponse> result = target.tryValidate(authenticationContext, TestUtil.createAuthenticator());
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getFailureCode()).isEqualTo(ValidationFailureCode.OTHER);
+    }
+
+    @Test
+    public void tryValidate_throws_on_null_authenticator_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = mock(WebAuthnAuthenticationContext.class);
+
+        assertThatThrownBy(() -> target.tryValidate(authenticationContext, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void validate_without_exception_stack_trace_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("other.example.com", AuthenticatorData.BIT_UP), new byte[64], false);
+
+        assertThat(target.isExceptionStackTraceEnabled()).isTrue();
+        assertThat(catchThrowable(() -> target.validate(authenticationContext, TestUtil.createAuthenticator())).getStackTrace()).isNotEmpty();
+
+        target.setExceptionStackTraceEnabled(false);
+        Throwable thrown = catchThrowable(() -> target.validate(authenticationContext, TestUtil.createAuthenticator()));
+        assertThat(thrown).isInstanceOf(BadRpIdException.class);
+        assertThat(thrown.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void validation_event_is_ended_with_failure_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        ValidationEventRecorder validationEventRecorder = mock(ValidationEventRecorder.class);
+        ValidationEvent validationEvent = mock(ValidationEvent.class);
+        when(validationEventRecorder.begin(any())).thenReturn(validationEvent);
+        target.setValidationEventRecorder(validationEventRecorder);
+        WebAuthnAuthenticationContext authenticationContext = createAuthenticationContext(createAuthenticatorData("example.com", AuthenticatorData.BIT_UP), new byte[64], false);
+
+        assertThatThrownBy(() -> target.validate(authenticationContext, TestUtil.createAuthenticator())).isInstanceOf(DataConversionException.class);
+
+        verify(validationEventRecorder).begin(ValidationStage.CLIENT_DATA_PARSED);
+        verify(validationEventRecorder, never()).begin(ValidationStage.ASSERTION_SIGNATURE_VERIFIED);
+        verify(validationEvent).setPayloadSize(1);
+        verify(validationEvent).end(any(DataConversionException.class));
+        verify(validationEvent, never()).end();
+    }
+
+    @Test
+    public void warmUp_test() {
+        WebAuthnAuthenticationContextValidator target = new WebAuthnAuthenticationContextValidator();
+        ValidationEventRecorder validationEventRecorder = mock(ValidationEventRecorder.class);
+        ValidationEvent validationEvent = mock(ValidationEvent.class);
+        when(validationEventRecorder.begin(any())).thenReturn(validationEvent);
+        target.setValidationEventRecorder(validationEventRecorder);
+
+        target.warmUp(2);
+
+        verify(validationEventRecorder, times(6)).begin(ValidationStage.ASSERTION_SIGNATURE_VERIFIED);
+        verify(validationEvent, never()).end(any());
+    }
+
+    /**
+     * Creates an authentication context with a client data which fails to be parsed, so that the check in question
+     * is proven to run before parsing
+     */
+    private WebAuthnAuthenticationContext createAuthenticationContext(byte[] authenticatorData, byte[] signature, boolean userVerificationRequired) {
+        ServerProperty serverProperty = new ServerProperty(TestUtil.createOrigin(), "example.com", TestUtil.createChallenge(), null);
+        byte[] clientDataJSON = "{".getBytes(StandardCharsets.UTF_8);
+        return new WebAuthnAuthenticationContext(new byte[32], clientDataJSON, authenticatorData, signature, serverProperty, userVerificationRequired);
+    }
+
+    private byte[] createAuthenticatorData(String rpId, byte flags) {
+        byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(rpId.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.allocate(37).put(rpIdHash).put(flags).putInt(1).array();
+    }
 }
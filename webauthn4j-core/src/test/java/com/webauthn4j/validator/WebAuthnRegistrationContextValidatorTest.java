@@ -17,12 +17,134 @@
 package com.webauthn4j.validator;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.webauthn4j.converter.AuthenticatorDataConverter;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
+import com.webauthn4j.response.client.ClientDataType;
+import com.webauthn4j.response.client.challenge.Challenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+import com.webauthn4j.validator.event.ValidationEvent;
+import com.webauthn4j.validator.event.ValidationEventRecorder;
+import com.webauthn4j.validator.event.ValidationStage;
+import com.webauthn4j.validator.exception.BadRpIdException;
+import com.webauthn4j.validator.exception.MaliciousDataException;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
 public class WebAuthnRegistrationContextValidatorTest {
 
+    private static final String RP_ID = "example.com";
+
+    private final Challenge challenge = TestUtil.createChallenge();
+    private final ServerProperty serverProperty = new ServerProperty(TestUtil.createOrigin(), RP_ID, challenge, null);
+    private final WebAuthnRegistrationContextValidator target = WebAuthnRegistrationContextValidator.createNonStrictRegistrationContextValidator();
+
     @Test
     public void test(){
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void warmUp_test() {
+        ValidationEventRecorder validationEventRecorder = mock(ValidationEventRecorder.class);
+        ValidationEvent validationEvent = mock(ValidationEvent.class);
+        when(validationEventRecorder.begin(any())).thenReturn(validationEvent);
+        target.setValidationEventRecorder(validationEventRecorder);
+
+        target.warmUp(2);
+
+        verify(validationEventRecorder, times(20)).begin(ValidationStage.ATTESTATION_VALIDATED);
+        verify(validationEventRecorder, never()).begin(ValidationStage.CERT_PATH_VALIDATED);
+        verify(validationEvent, never()).end(any());
+    }
+
+    @Test
+    public void tryValidate_throws_on_misuse_test() {
+        WebAuthnRegistrationContext registrationContext = mock(WebAuthnRegistrationContext.class);
+        when(registrationContext.getAttestationObject()).thenThrow(new IllegalStateException("not initialized"));
+
+        assertThatThrownBy(() -> target.tryValidate(registrationContext)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void bad_client_data_type_is_rejected_before_attestation_object_is_decoded_test() {
+        WebAuthnRegistrationContext registrationContext = new WebAuthnRegistrationContext(
+                TestUtil.createClientDataJSON(ClientDataType.GET, challenge), new byte[]{0x01, 0x02}, serverProperty, false);
+
+        assertThatThrownBy(() -> target.validate(registrationContext)).isInstanceOf(MaliciousDataException.class);
+    }
+
+    @Test
+    public void bad_rpIdHash_is_rejected_before_attestation_statement_is_decoded_test() throws JsonProcessingException {
+        byte[] authenticatorData = new AuthenticatorDataConverter(Registry.getDefault()).convert(TestUtil.createAuthenticatorData());
+        WebAuthnRegistrationContext registrationContext = new WebAuthnRegistrationContext(
+                TestUtil.createClientDataJSON(ClientDataType.CREATE, challenge), createUndecodableAttestationObject(authenticatorData), serverProperty, false);
+
+        assertThatThrownBy(() -> target.validate(registrationContext)).isInstanceOf(BadRpIdException.class);
+    }
+
+    @Test
+    public void missing_attested_credential_data_is_rejected_before_attestation_statement_is_decoded_test() throws JsonProcessingException {
+        byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(RP_ID.getBytes(StandardCharsets.UTF_8));
+        byte[] authenticatorData = new AuthenticatorDataConverter(Registry.getDefault()).convert(new AuthenticatorData(rpIdHash, AuthenticatorData.BIT_UP, 1));
+        WebAuthnRegistrationContext registrationContext = new WebAuthnRegistrationContext(
+                TestUtil.createClientDataJSON(ClientDataType.CREATE, challenge), createUndecodableAttestationObject(authenticatorData), serverProperty, false);
+
+        assertThatThrownBy(() -> target.validate(registrationContext))
+                .isInstanceOf(MaliciousDataException.class)
+                .hasMessage("attestedCredentialData must not be null on registration");
+    }
+
+    @Test
+    public void duplicated_authData_is_rejected_test() throws IOException {
+        AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(Registry.getDefault());
+        byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(RP_ID.getBytes(StandardCharsets.UTF_8));
+        byte[] evilRpIdHash = MessageDigestUtil.createSHA256().digest("evil.com".getBytes(StandardCharsets.UTF_8));
+        byte[] authenticatorData = authenticatorDataConverter.convert(
+                new AuthenticatorData(rpIdHash, (byte) (AuthenticatorData.BIT_UP | AuthenticatorData.BIT_AT), 1, TestUtil.createAttestedCredentialData()));
+        byte[] evilAuthenticatorData = authenticatorDataConverter.convert(
+                new AuthenticatorData(evilRpIdHash, AuthenticatorData.BIT_AT, 1, TestUtil.createAttestedCredentialData()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new CBORFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("fmt", "none");
+            generator.writeBinaryField("authData", authenticatorData);
+            generator.writeObjectFieldStart("attStmt");
+            generator.writeEndObject();
+            generator.writeBinaryField("authData", evilAuthenticatorData);
+            generator.writeEndObject();
+        }
+        WebAuthnRegistrationContext registrationContext = new WebAuthnRegistrationContext(
+                TestUtil.createClientDataJSON(ClientDataType.CREATE, challenge), output.toByteArray(), serverProperty, false);
+
+        assertThatThrownBy(() -> target.validate(registrationContext)).isInstanceOf(DataConversionException.class);
+    }
+
+    /**
+     * Creates an attestation object whose attestation statement fails to be decoded
+     */
+    private byte[] createUndecodableAttestationObject(byte[] authenticatorData) throws JsonProcessingException {
+        Map<String, Object> attestationObject = new LinkedHashMap<>();
+        attestationObject.put("fmt", "unknown-format");
+        attestationObject.put("attStmt", new LinkedHashMap<>());
+        attestationObject.put("authData", authenticatorData);
+        return new ObjectMapper(new CBORFactory()).writeValueAsBytes(attestationObject);
+    }
+}
@@ -19,16 +19,33 @@ package com.webauthn4j.validator.attestation.trustworthiness.certpath;
 import com.webauthn4j.anchor.TrustAnchorResolver;
 import com.webauthn4j.response.attestation.statement.AttestationCertificatePath;
 import com.webauthn4j.response.attestation.statement.CertificateBaseAttestationStatement;
+import com.webauthn4j.revocation.LocalCRLStore;
+import com.webauthn4j.revocation.OCSPResponseCache;
+import com.webauthn4j.test.TestCertificateAuthority;
+import com.webauthn4j.test.TestOCSPResponder;
 import com.webauthn4j.test.TestUtil;
+import com.webauthn4j.util.KeyUtil;
 import com.webauthn4j.util.CertificateUtil;
 import com.webauthn4j.validator.exception.CertificateException;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.CRLException;
 import java.security.cert.TrustAnchor;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +55,13 @@ public class TrustAnchorCertPathTrustworthinessValidatorTest {
     private TrustAnchorCertPathTrustworthinessValidator target = new TrustAnchorCertPathTrustworthinessValidator(trustAnchorResolver);
     private byte[] aaguid = new byte[16];
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Instant now = Instant.now();
+    private TestCertificateAuthority rootCA = TestCertificateAuthority.createRoot("CN=Test Root CA");
+    private TestCertificateAuthority intermediateCA = rootCA.createIntermediate("CN=Test Intermediate CA");
+
     @Test
     public void validate_test() {
 
@@ -67,4 +91,108 @@ public class TrustAnchorCertPathTrustworthinessValidatorTest {
         target.validate(aaguid, attestationStatement);
     }
 
+    @Test
+    public void validate_with_crlStore_test() throws IOException, CRLException {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        setupCRLStore(rootCA.createCRL(now, now.plus(Duration.ofDays(1))), intermediateCA.createCRL(now, now.plus(Duration.ofDays(1))));
+
+        target.validate(aaguid, createAttestationStatement(attestationCertificate));
+    }
+
+    @Test(expected = CertificateException.class)
+    public void validate_with_crlStore_and_revoked_certificate_test() throws IOException, CRLException {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        setupCRLStore(rootCA.createCRL(now, now.plus(Duration.ofDays(1))), intermediateCA.createCRL(now, now.plus(Duration.ofDays(1)), attestationCertificate));
+
+        target.validate(aaguid, createAttestationStatement(attestationCertificate));
+    }
+
+    @Test(expected = CertificateException.class)
+    public void validate_with_crlStore_without_crl_of_issuer_test() throws IOException, CRLException {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        setupCRLStore(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+
+        target.validate(aaguid, createAttestationStatement(attestationCertificate));
+    }
+
+    @Test(expected = CertificateException.class)
+    public void validate_with_crlStore_and_stale_crl_test() throws IOException, CRLException {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        setupCRLStore(rootCA.createCRL(now, now.plus(Duration.ofDays(1))), intermediateCA.createCRL(now.minus(Duration.ofDays(2)), now.minus(Duration.ofDays(1))));
+
+        target.validate(aaguid, createAttestationStatement(attestationCertificate));
+    }
+
+    @Test
+    public void validate_with_crlStore_failed_to_load_test() throws IOException, CRLException {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        setupCRLStore(rootCA.createCRL(now, now.plus(Duration.ofDays(1))));
+        Path broken = temporaryFolder.newFile().toPath();
+        Files.write(broken, new byte[]{0x01, 0x02, 0x03});
+        LocalCRLStore crlStore = new LocalCRLStore(Arrays.asList(target.getCRLStore().getLocations().get(0), broken.toUri().toURL()));
+
+        assertThat(crlStore.refresh()).isFalse();
+        target.setCRLStore(crlStore);
+
+        assertThatThrownBy(() -> target.validate(aaguid, createAttestationStatement(attestationCertificate))).isInstanceOf(CertificateException.class);
+    }
+
+    @Test
+    public void validate_with_ocspResponseCache_test() {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        setupOCSPResponseCache(new TestOCSPResponder(rootCA, intermediateCA));
+
+        target.validate(aaguid, createAttestationStatement(attestationCertificate));
+    }
+
+    @Test(expected = CertificateException.class)
+    public void validate_with_ocspResponseCache_and_revoked_certificate_test() {
+        X509Certificate attestationCertificate = intermediateCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        TestOCSPResponder ocspResponder = new TestOCSPResponder(rootCA, intermediateCA);
+        ocspResponder.revoke(attestationCertificate);
+        setupOCSPResponseCache(ocspResponder);
+
+        target.validate(aaguid, createAttestationStatement(attestationCertificate));
+    }
+
+    @Test
+    public void validate_with_ocspResponseCache_and_untrusted_certificate_test() {
+        TestCertificateAuthority untrustedCA = TestCertificateAuthority.createRoot("CN=Test Root CA").createIntermediate("CN=Test Intermediate CA");
+        X509Certificate attestationCertificate = untrustedCA.issueCertificate("CN=Attestation", KeyUtil.createECKeyPair());
+        TestOCSPResponder ocspResponder = new TestOCSPResponder(rootCA, intermediateCA, untrustedCA);
+        setupOCSPResponseCache(ocspResponder);
+        CertificateBaseAttestationStatement attestationStatement = TestUtil.createFIDOU2FAttestationStatement(
+                new AttestationCertificatePath(Arrays.asList(attestationCertificate, untrustedCA.getCertificate())));
+
+        assertThatThrownBy(() -> target.validate(aaguid, attestationStatement)).isInstanceOf(CertificateException.class);
+        assertThat(ocspResponder.getRequestCount()).isEqualTo(0);
+    }
+
+    private void setupOCSPResponseCache(TestOCSPResponder ocspResponder) {
+        when(trustAnchorResolver.resolve(aaguid)).thenReturn(
+                CertificateUtil.generateTrustAnchors(Collections.singletonList(rootCA.getCertificate())));
+        target.setRevocationCheckEnabled(true);
+        target.setOCSPResponseCache(new OCSPResponseCache(ocspResponder));
+    }
+
+    private void setupCRLStore(X509CRL... crls) throws IOException, CRLException {
+        Path[] files = new Path[crls.length];
+        for (int i = 0; i < crls.length; i++) {
+            files[i] = temporaryFolder.newFile().toPath();
+            Files.write(files[i], crls[i].getEncoded());
+        }
+        LocalCRLStore crlStore = new LocalCRLStore(files);
+        crlStore.refresh();
+        when(trustAnchorResolver.resolve(aaguid)).thenReturn(
+                CertificateUtil.generateTrustAnchors(Collections.singletonList(rootCA.getCertificate())));
+        target.setRevocationCheckEnabled(true);
+        target.setCRLStore(crlStore);
+    }
+
+    private CertificateBaseAttestationStatement createAttestationStatement(X509Certificate attestationCertificate) {
+        return TestUtil.createFIDOU2FAttestationStatement(
+                new AttestationCertificatePath(Arrays.asList(attestationCertificate, intermediateCA.getCertificate())));
+    }
+
 }
+
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.validator.event;
+
+import com.webauthn4j.validator.exception.BadSignatureException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class JfrValidationEventRecorderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private JfrValidationEventRecorder target;
+
+    @Before
+    public void setup() {
+        assumeTrue(JfrValidationEventRecorder.isAvailable());
+        target = new JfrValidationEventRecorder();
+    }
+
+    @Test
+    public void begin_without_recording_returns_null_event_test() {
+        assertThat(target.begin(ValidationStage.CLIENT_DATA_PARSED)).isSameAs(NullValidationEventRecorder.NULL_EVENT);
+    }
+
+    @Test
+    public void events_are_recorded_test() throws Exception {
+        Path file = temporaryFolder.newFile("validation.jfr").toPath();
+
+        // jdk.jfr is not referenced directly, as the tests are also compiled on Java 8
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        Object recording = recordingClass.getConstructor().newInstance();
+        try {
+            recordingClass.getMethod("enable", String.class).invoke(recording, "com.webauthn4j.AssertionSignatureVerified");
+            recordingClass.getMethod("start").invoke(recording);
+
+            ValidationEvent succeeded = target.begin(ValidationStage.ASSERTION_SIGNATURE_VERIFIED);
+            succeeded.setAaguid(new byte[16]);
+            succeeded.setPayloadSize(100);
+            succeeded.end();
+            ValidationEvent failed = target.begin(ValidationStage.ASSERTION_SIGNATURE_VERIFIED);
+            failed.end(new BadSignatureException("Bad signature"));
+
+            recordingClass.getMethod("stop").invoke(recording);
+            recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+        } finally {
+            recordingClass.getMethod("close").invoke(recording);
+        }
+
+        List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", Path.class).invoke(null, file);
+        assertThat(events).hasSize(2);
+        Class<?> recordedEventClass = Class.forName("jdk.jfr.consumer.RecordedEvent");
+        Method getValue = recordedEventClass.getMethod("getValue", String.class);
+        Object eventType = recordedEventClass.getMethod("getEventType").invoke(events.get(0));
+        assertThat(eventType.getClass().getMethod("getName").invoke(eventType)).isEqualTo("com.webauthn4j.AssertionSignatureVerified");
+        assertThat(getValue.invoke(events.get(0), "aaguid")).isEqualTo("00000000-0000-0000-0000-000000000000");
+        assertThat(getValue.invoke(events.get(0), "payloadSize")).isEqualTo(100L);
+        assertThat(getValue.invoke(events.get(0), "outcome")).isEqualTo("SUCCESS");
+        assertThat(getValue.invoke(events.get(1), "outcome")).isEqualTo("BAD_SIGNATURE");
+    }
+}
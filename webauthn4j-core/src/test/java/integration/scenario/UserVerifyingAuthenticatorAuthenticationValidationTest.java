@@ -27,6 +27,7 @@ import com.webauthn4j.response.AuthenticatorAttestationResponse;
 import com.webauthn4j.response.PublicKeyCredential;
 import com.webauthn4j.response.WebAuthnAuthenticationContext;
 import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.authenticator.OKPCredentialPublicKey;
 import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
 import com.webauthn4j.response.client.ClientDataType;
 import com.webauthn4j.response.client.CollectedClientData;
@@ -106,6 +107,47 @@ public class UserVerifyingAuthenticatorAuthenticationValidationTest {
 
     }
 
+    @Test
+    public void validate_test_with_EdDSA_credential() {
+        String rpId = "example.com";
+        long timeout = 0;
+        Challenge challenge = new DefaultChallenge();
+
+        // create
+        AttestationObject attestationObject = createAttestationObject(rpId, challenge, COSEAlgorithmIdentifier.EdDSA);
+        assertThat(attestationObject.getAuthenticatorData().getAttestedCredentialData().getCredentialPublicKey()).isInstanceOf(OKPCredentialPublicKey.class);
+
+        // get
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                timeout,
+                rpId,
+                null,
+                UserVerificationRequirement.REQUIRED,
+                null
+        );
+
+        PublicKeyCredential<AuthenticatorAssertionResponse> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse authenticationRequest = credential.getAuthenticatorResponse();
+
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, challenge, null);
+
+        WebAuthnAuthenticationContext authenticationContext =
+                new WebAuthnAuthenticationContext(
+                        credential.getRawId(),
+                        authenticationRequest.getClientDataJSON(),
+                        authenticationRequest.getAuthenticatorData(),
+                        authenticationRequest.getSignature(),
+                        serverProperty,
+                        true
+                );
+        Authenticator authenticator = TestUtil.createAuthenticator(attestationObject);
+
+        WebAuthnAuthenticationContextValidationResponse response = target.validate(authenticationContext, authenticator);
+
+        assertThat(response.getAuthenticatorData()).isNotNull();
+    }
+
     @Test
     public void validate_assertion_with_tokenBinding_test() {
         String rpId = "example.com";
@@ -390,13 +432,17 @@ public class UserVerifyingAuthenticatorAuthenticationValidationTest {
 
 
     private AttestationObject createAttestationObject(String rpId, Challenge challenge) {
+        return createAttestationObject(rpId, challenge, COSEAlgorithmIdentifier.ES256);
+    }
+
+    private AttestationObject createAttestationObject(String rpId, Challenge challenge, COSEAlgorithmIdentifier algorithm) {
         AuthenticatorSelectionCriteria authenticatorSelectionCriteria =
                 new AuthenticatorSelectionCriteria(
                         AuthenticatorAttachment.CROSS_PLATFORM,
                         true,
                         UserVerificationRequirement.REQUIRED);
 
-        PublicKeyCredentialParameters publicKeyCredentialParameters = new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256);
+        PublicKeyCredentialParameters publicKeyCredentialParameters = new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, algorithm);
 
         PublicKeyCredentialUserEntity publicKeyCredentialUserEntity = new PublicKeyCredentialUserEntity();
 
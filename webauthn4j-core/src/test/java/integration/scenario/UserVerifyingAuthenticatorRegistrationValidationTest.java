@@ -34,23 +34,37 @@ import com.webauthn4j.server.ServerProperty;
 import com.webauthn4j.test.TestUtil;
 import com.webauthn4j.test.authenticator.model.WebAuthnModelAuthenticatorAdaptor;
 import com.webauthn4j.test.client.ClientPlatform;
+import com.webauthn4j.validator.ValidationFailureCode;
+import com.webauthn4j.validator.ValidationResult;
 import com.webauthn4j.validator.WebAuthnRegistrationContextValidationResponse;
 import com.webauthn4j.validator.WebAuthnRegistrationContextValidator;
 import com.webauthn4j.validator.attestation.androidkey.AndroidKeyAttestationStatementValidator;
 import com.webauthn4j.validator.attestation.none.NoneAttestationStatementValidator;
 import com.webauthn4j.validator.attestation.packed.PackedAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.CertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.certpath.TrustAnchorCertPathTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.DefaultECDAATrustworthinessValidator;
 import com.webauthn4j.validator.attestation.trustworthiness.self.DefaultSelfAttestationTrustworthinessValidator;
 import com.webauthn4j.validator.attestation.u2f.FIDOU2FAttestationStatementValidator;
+import com.webauthn4j.validator.exception.BadChallengeException;
+import com.webauthn4j.validator.exception.CertificateException;
 import com.webauthn4j.validator.exception.UnexpectedExtensionException;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 public class UserVerifyingAuthenticatorRegistrationValidationTest {
 
@@ -222,4 +236,217 @@ public class UserVerifyingAuthenticatorRegistrationValidationTest {
         );
         target.validate(registrationContext);
     }
+
+    @Test
+    public void validateAsync_WebAuthnRegistrationContext_with_packed_attestation_statement_test() {
+        String rpId = "example.com";
+        Challenge challenge = new DefaultChallenge();
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, challenge, AttestationConveyancePreference.DIRECT, Collections.emptyList());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            target.setTrustworthinessExecutor(executor);
+            WebAuthnRegistrationContextValidationResponse response = target.validateAsync(registrationContext).toCompletableFuture().join();
+
+            assertThat(response.getCollectedClientData()).isNotNull();
+            assertThat(response.getAttestationObject()).isNotNull();
+            assertThat(response.getRegistrationExtensionsClientOutputs()).isNotNull();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void validateAsync_WebAuthnRegistrationContext_with_default_executor_test() {
+        String rpId = "example.com";
+        Challenge challenge = new DefaultChallenge();
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, challenge, AttestationConveyancePreference.DIRECT, Collections.emptyList());
+        AtomicReference<Thread> validationThread = new AtomicReference<>();
+        CertPathTrustworthinessValidator certPathTrustworthinessValidator = (aaguid, attestationStatement) -> validationThread.set(Thread.currentThread());
+        WebAuthnRegistrationContextValidator validator = new WebAuthnRegistrationContextValidator(
+                Collections.singletonList(packedAttestationStatementValidator),
+                certPathTrustworthinessValidator,
+                new DefaultECDAATrustworthinessValidator(),
+                new DefaultSelfAttestationTrustworthinessValidator()
+        );
+
+        validator.validateAsync(registrationContext).toCompletableFuture().join();
+
+        assertThat(validationThread.get().getName()).isEqualTo("webauthn4j-trustworthiness-validation");
+        assertThat(validationThread.get().isDaemon()).isTrue();
+    }
+
+    @Test
+    public void validateAsync_WebAuthnRegistrationContext_after_close_test() {
+        String rpId = "example.com";
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, new DefaultChallenge(), AttestationConveyancePreference.DIRECT, Collections.emptyList());
+        WebAuthnRegistrationContextValidator validator = new WebAuthnRegistrationContextValidator(
+                Collections.singletonList(packedAttestationStatementValidator),
+                (aaguid, attestationStatement) -> {
+                },
+                new DefaultECDAATrustworthinessValidator(),
+                new DefaultSelfAttestationTrustworthinessValidator()
+        );
+        validator.validateAsync(registrationContext).toCompletableFuture().join();
+
+        validator.close();
+
+        assertThatThrownBy(() -> validator.validateAsync(registrationContext).toCompletableFuture().join())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void validateAsync_WebAuthnRegistrationContext_without_stack_trace_test() {
+        String rpId = "example.com";
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, new DefaultChallenge(), AttestationConveyancePreference.DIRECT, Collections.emptyList());
+        WebAuthnRegistrationContextValidator validator = new WebAuthnRegistrationContextValidator(
+                Collections.singletonList(packedAttestationStatementValidator),
+                (aaguid, attestationStatement) -> {
+                    throw new CertificateException("untrusted");
+                },
+                new DefaultECDAATrustworthinessValidator(),
+                new DefaultSelfAttestationTrustworthinessValidator()
+        );
+        validator.setExceptionStackTraceEnabled(false);
+
+        Throwable thrown = catchThrowable(() -> validator.validateAsync(registrationContext).toCompletableFuture().join());
+        validator.close();
+
+        assertThat(thrown).hasCauseInstanceOf(CertificateException.class);
+        assertThat(thrown.getCause().getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void setTrustworthinessExecutor_with_null_test() {
+        assertThatThrownBy(() -> target.setTrustworthinessExecutor(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void validateAsync_WebAuthnRegistrationContext_with_bad_challenge_test() {
+        String rpId = "example.com";
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, new DefaultChallenge(), AttestationConveyancePreference.NONE, Collections.emptyList());
+        WebAuthnRegistrationContext badRegistrationContext = new WebAuthnRegistrationContext(
+                registrationContext.getClientDataJSON(),
+                registrationContext.getAttestationObject(),
+                registrationContext.getClientExtensionsJSON(),
+                new ServerProperty(origin, rpId, new DefaultChallenge(), null),
+                false,
+                Collections.emptyList()
+        );
+
+        CompletableFuture<WebAuthnRegistrationContextValidationResponse> future = target.validateAsync(badRegistrationContext).toCompletableFuture();
+
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::join).hasCauseInstanceOf(BadChallengeException.class);
+    }
+
+    @Test
+    public void tryValidate_WebAuthnRegistrationContext_with_packed_attestation_statement_test() {
+        String rpId = "example.com";
+        Challenge challenge = new DefaultChallenge();
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, challenge, AttestationConveyancePreference.DIRECT, Collections.emptyList());
+
+        ValidationResult<WebAuthnRegistrationContextValidationResponse> result = target.tryValidate(registrationContext);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getValue().getAttestationObject()).isNotNull();
+    }
+
+    @Test
+    public void tryValidate_WebAuthnRegistrationContext_with_bad_challenge_test() {
+        String rpId = "example.com";
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, new DefaultChallenge(), AttestationConveyancePreference.NONE, Collections.emptyList());
+        WebAuthnRegistrationContext badRegistrationContext = new WebAuthnRegistrationContext(
+                registrationContext.getClientDataJSON(),
+                registrationContext.getAttestationObject(),
+                registrationContext.getClientExtensionsJSON(),
+                new ServerProperty(origin, rpId, new DefaultChallenge(), null),
+                false,
+                Collections.emptyList()
+        );
+
+        ValidationResult<WebAuthnRegistrationContextValidationResponse> result = target.tryValidate(badRegistrationContext);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getValue()).isNull();
+        assertThat(result.getFailureCode()).isEqualTo(ValidationFailureCode.BAD_CHALLENGE);
+        assertThatThrownBy(() -> target.validate(badRegistrationContext)).isInstanceOf(result.getFailureCode().getExceptionClass());
+    }
+
+    @Test
+    public void tryValidate_WebAuthnRegistrationContext_with_unexpected_failure_test() {
+        String rpId = "example.com";
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, new DefaultChallenge(), AttestationConveyancePreference.DIRECT, Collections.emptyList());
+        CertPathTrustworthinessValidator certPathTrustworthinessValidator = (aaguid, attestationStatement) -> {
+            throw new UncheckedIOException(new IOException("connection reset"));
+        };
+        WebAuthnRegistrationContextValidator validator = new WebAuthnRegistrationContextValidator(
+                Collections.singletonList(packedAttestationStatementValidator),
+                certPathTrustworthinessValidator,
+                new DefaultECDAATrustworthinessValidator(),
+                new DefaultSelfAttestationTrustworthinessValidator()
+        );
+
+        ValidationResult<WebAuthnRegistrationContextValidationResponse> result = validator.tryValidate(registrationContext);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getFailureCode()).isEqualTo(ValidationFailureCode.OTHER);
+        assertThat(result.getMessage()).contains("connection reset");
+    }
+
+    @Test
+    public void validate_without_exception_stack_trace_test() {
+        String rpId = "example.com";
+        WebAuthnRegistrationContext registrationContext = createRegistrationContext(rpId, new DefaultChallenge(), AttestationConveyancePreference.NONE, Collections.emptyList());
+        WebAuthnRegistrationContext badRegistrationContext = new WebAuthnRegistrationContext(
+                registrationContext.getClientDataJSON(),
+                registrationContext.getAttestationObject(),
+                registrationContext.getClientExtensionsJSON(),
+                new ServerProperty(origin, rpId, new DefaultChallenge(), null),
+                false,
+                Collections.emptyList()
+        );
+        target.setExceptionStackTraceEnabled(false);
+
+        Throwable thrown = catchThrowable(() -> target.validate(badRegistrationContext));
+
+        assertThat(thrown).isInstanceOf(BadChallengeException.class);
+        assertThat(thrown.getStackTrace()).isEmpty();
+    }
+
+    private WebAuthnRegistrationContext createRegistrationContext(String rpId, Challenge challenge, AttestationConveyancePreference attestation, List<String> expectedExtensions) {
+        AuthenticatorSelectionCriteria authenticatorSelectionCriteria =
+                new AuthenticatorSelectionCriteria(
+                        AuthenticatorAttachment.CROSS_PLATFORM,
+                        true,
+                        UserVerificationRequirement.REQUIRED);
+
+        PublicKeyCredentialParameters publicKeyCredentialParameters = new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256);
+
+        PublicKeyCredentialCreationOptions credentialCreationOptions
+                = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(rpId, "example.com"),
+                new PublicKeyCredentialUserEntity(),
+                challenge,
+                Collections.singletonList(publicKeyCredentialParameters),
+                null,
+                Collections.emptyList(),
+                authenticatorSelectionCriteria,
+                attestation,
+                new AuthenticationExtensionsClientInputs()
+        );
+
+        PublicKeyCredential<AuthenticatorAttestationResponse> credential = clientPlatform.create(credentialCreationOptions);
+        AuthenticatorAttestationResponse registrationRequest = credential.getAuthenticatorResponse();
+        String clientExtensionJSON = authenticationExtensionsClientOutputsConverter.convertToString(credential.getClientExtensionResults());
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, challenge, null);
+        return new WebAuthnRegistrationContext(
+                registrationRequest.getClientDataJSON(),
+                registrationRequest.getAttestationObject(),
+                clientExtensionJSON,
+                serverProperty,
+                false,
+                expectedExtensions
+        );
+    }
 }
@@ -19,6 +19,8 @@ package com.webauthn4j.extras.fido.metadata;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.util.Base64;
+import com.webauthn4j.revocation.OCSPException;
+import com.webauthn4j.revocation.OCSPResponseCache;
 import com.webauthn4j.util.CertificateUtil;
 import com.webauthn4j.util.WIP;
 import com.webauthn4j.validator.exception.CertificateException;
@@ -47,6 +49,7 @@ public class CertPathJWSVerifier implements JWSVerifier {
     //~ Instance fields ================================================================================================
 
     private Resource rootCertificate;
+    private OCSPResponseCache ocspResponseCache;
 
     /**
      * constructor
@@ -76,9 +79,29 @@ public class CertPathJWSVerifier implements JWSVerifier {
         //Set PKIXRevocationChecker to enable CRL based revocation check, which is disabled by default.
         //Ref. http://docs.oracle.com/javase/7/docs/technotes/guides/security/certpath/CertPathProgGuide.html#AppB
         PKIXRevocationChecker pkixRevocationChecker = (PKIXRevocationChecker) validator.getRevocationChecker();
-        pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS));
+        if (ocspResponseCache == null) {
+            pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS));
+        } else {
+            //Supply the cached OCSP responses, so that OCSP responders are not queried while verifying.
+            //The anchor is matched from the certificates without verifying the path, which is verified once below with the responses.
+            List<X509Certificate> x509Certificates = certificates.stream().map(X509Certificate.class::cast).collect(Collectors.toList());
+            TrustAnchor issuingTrustAnchor = CertificateUtil.findIssuingTrustAnchor(x509Certificates, trustAnchor);
+            if (issuingTrustAnchor == null) {
+                throw new CertificateException("Certificate validation failed: no trust anchor issued the certificates");
+            }
+            try {
+                pkixRevocationChecker.setOcspResponses(ocspResponseCache.getResponses(x509Certificates, issuingTrustAnchor));
+            } catch (OCSPException e) {
+                throw new CertificateException("OCSP response is not available", e);
+            }
+            pkixRevocationChecker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.NO_FALLBACK));
+        }
         certPathParameters.addCertPathChecker(pkixRevocationChecker);
 
+        validate(validator, certPath, certPathParameters);
+    }
+
+    private void validate(CertPathValidator validator, CertPath certPath, PKIXParameters certPathParameters) {
         try {
             validator.validate(certPath, certPathParameters);
         } catch (CertPathValidatorException e) {
@@ -106,6 +129,24 @@ public class CertPathJWSVerifier implements JWSVerifier {
         this.rootCertificate = rootCertificate;
     }
 
+    /**
+     * Provides {@link OCSPResponseCache} used for revocation checking.
+     *
+     * @return OCSP response cache
+     */
+    public OCSPResponseCache getOCSPResponseCache() {
+        return ocspResponseCache;
+    }
+
+    /**
+     * Sets {@link OCSPResponseCache} used for revocation checking instead of CRL distribution points.
+     *
+     * @param ocspResponseCache OCSP response cache, or null to use CRL based revocation checking
+     */
+    public void setOCSPResponseCache(OCSPResponseCache ocspResponseCache) {
+        this.ocspResponseCache = ocspResponseCache;
+    }
+
     private X509Certificate getX5c() {
         try {
             Resource certificateResource = getRootCertificate();
@@ -56,6 +56,7 @@ public class FIDOMetadataServiceClient {
         this.jwsVerifier = jwsVerifier;
         this.fidoMetadataServiceEndpoint = fidoMetadataServiceEndpoint;
 
+        // the registry returns a private copy of its mapper, so the module can be registered to it
         objectMapper = registry.getJsonMapper();
         objectMapper.registerModule(new JavaTimeModule());
     }
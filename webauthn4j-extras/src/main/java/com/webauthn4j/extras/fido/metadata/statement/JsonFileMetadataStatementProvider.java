@@ -43,7 +43,7 @@ public class JsonFileMetadataStatementProvider implements MetadataStatementProvi
 
     MetadataStatement readJsonFile(Path path){
         try(InputStream inputStream = Files.newInputStream(path)){
-            return registry.getJsonMapper().readValue(inputStream, MetadataStatement.class);
+            return registry.getJsonReader(MetadataStatement.class).readValue(inputStream);
         }catch (IOException e) {
             throw new UncheckedIOException("Failed to load a metadata statement json file", e);
         }
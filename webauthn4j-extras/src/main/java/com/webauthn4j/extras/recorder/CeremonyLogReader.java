@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.converter.AuthenticatorConverter;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.Challenge;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.ValidationFailureCode;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a ceremony log written by {@link CeremonyLogWriter}.
+ * <p>
+ * A record cut short at the end of the log, as left by a process that stopped while writing, ends the log
+ * and is reported by {@link #isTruncated()}.
+ */
+public class CeremonyLogReader implements Closeable {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    private static final String INPUT_MISMATCH_ERROR_MESSAGE = "Input data does not match expected form";
+    private static final RecordedCeremony.Type[] TYPES = RecordedCeremony.Type.values();
+    private static final int MAX_FIELD_LENGTH = 16 * 1024 * 1024;
+
+    //~ Instance fields
+    // ================================================================================================
+    private final DataInputStream in;
+    private final AuthenticatorConverter authenticatorConverter;
+    private boolean truncated;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public CeremonyLogReader(InputStream inputStream, Registry registry) throws IOException {
+        AssertUtil.notNull(inputStream, "inputStream must not be null");
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.in = new DataInputStream(new BufferedInputStream(inputStream, 64 * 1024));
+        this.authenticatorConverter = new AuthenticatorConverter(registry);
+        try {
+            if (in.readInt() != CeremonyLogWriter.MAGIC || in.readByte() != CeremonyLogWriter.VERSION_1) {
+                throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+            }
+        } catch (EOFException e) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
+        }
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Reads the next ceremony
+     *
+     * @return the next ceremony, or null at the end of the log
+     */
+    public RecordedCeremony read() throws IOException {
+        if (truncated) {
+            return null;
+        }
+        int type = in.read();
+        if (type < 0) {
+            return null;
+        }
+        if (type >= TYPES.length) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+        }
+        try {
+            return read(TYPES[type]);
+        } catch (EOFException e) {
+            truncated = true;
+            return null;
+        }
+    }
+
+    /**
+     * Reads all the remaining ceremonies
+     */
+    public List<RecordedCeremony> readAll() throws IOException {
+        List<RecordedCeremony> ceremonies = new ArrayList<>();
+        RecordedCeremony ceremony;
+        while ((ceremony = read()) != null) {
+            ceremonies.add(ceremony);
+        }
+        return ceremonies;
+    }
+
+    /**
+     * Returns true if the log ended in the middle of a record
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private RecordedCeremony read(RecordedCeremony.Type type) throws IOException {
+        long timestamp = in.readLong();
+        long latencyNanos = in.readLong();
+        String failureCode = readString();
+
+        Set<Origin> origins = readOrigins();
+        String rpId = readString();
+        byte[] challengeValue = readBytes();
+        byte[] tokenBindingId = readBytes();
+        Challenge challenge = challengeValue == null ? null : new DefaultChallenge(challengeValue);
+        ServerProperty serverProperty = origins.size() == 1
+                ? new ServerProperty(origins.iterator().next(), rpId, challenge, tokenBindingId)
+                : ServerProperty.create(origins, rpId, challenge, tokenBindingId);
+        boolean userVerificationRequired = in.readBoolean();
+        List<String> expectedExtensionIds = readStrings();
+        byte[] clientDataJSON = readBytes();
+        String clientExtensionsJSON = readString();
+
+        if (type == RecordedCeremony.Type.REGISTRATION) {
+            byte[] attestationObject = readBytes();
+            WebAuthnRegistrationContext registrationContext = new WebAuthnRegistrationContext(
+                    clientDataJSON, attestationObject, clientExtensionsJSON, serverProperty, userVerificationRequired, expectedExtensionIds);
+            return RecordedCeremony.registration(timestamp, latencyNanos, toFailureCode(failureCode), registrationContext);
+        }
+        byte[] credentialId = readBytes();
+        byte[] authenticatorData = readBytes();
+        byte[] signature = readBytes();
+        Authenticator authenticator = authenticatorConverter.convert(readBytes());
+        WebAuthnAuthenticationContext authenticationContext = new WebAuthnAuthenticationContext(
+                credentialId, clientDataJSON, authenticatorData, signature, clientExtensionsJSON,
+                serverProperty, userVerificationRequired, expectedExtensionIds);
+        return RecordedCeremony.authentication(timestamp, latencyNanos, toFailureCode(failureCode), authenticationContext, authenticator);
+    }
+
+    private ValidationFailureCode toFailureCode(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return ValidationFailureCode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            // recorded by a version with codes unknown to this one
+            return ValidationFailureCode.OTHER;
+        }
+    }
+
+    private Set<Origin> readOrigins() throws IOException {
+        int count = readCount();
+        Set<Origin> origins = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            origins.add(new Origin(readString()));
+        }
+        return origins;
+    }
+
+    private List<String> readStrings() throws IOException {
+        int count = in.readInt();
+        if (count == -1) {
+            return null;
+        }
+        if (count < 0) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+        }
+        List<String> values = new ArrayList<>(Math.min(count, 64));
+        for (int i = 0; i < count; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    private int readCount() throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+        }
+        return count;
+    }
+
+    private String readString() throws IOException {
+        byte[] value = readBytes();
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_FIELD_LENGTH) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+        }
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
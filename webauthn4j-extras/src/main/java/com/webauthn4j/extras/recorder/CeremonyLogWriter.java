@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.converter.AuthenticatorConverter;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends {@link RecordedCeremony}s to a binary ceremony log.
+ * <p>
+ * A log starts with {@link #MAGIC} and {@link #VERSION_1}, followed by records. Each record is its type ordinal
+ * as a single byte, the timestamp and the latency as 8 byte integers, and then its fields in a fixed order.
+ * Byte and string fields are a 4 byte length followed by the raw bytes, and a length of -1 stands for null.
+ * Stored authenticators are encoded by {@link AuthenticatorConverter}.
+ */
+public class CeremonyLogWriter implements Closeable {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    public static final int MAGIC = 0x57344A52; // "W4JR"
+    public static final byte VERSION_1 = 1;
+
+    //~ Instance fields
+    // ================================================================================================
+    private final DataOutputStream out;
+    private final AuthenticatorConverter authenticatorConverter;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public CeremonyLogWriter(OutputStream outputStream, Registry registry) throws IOException {
+        AssertUtil.notNull(outputStream, "outputStream must not be null");
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        this.authenticatorConverter = new AuthenticatorConverter(registry);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION_1);
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    public void write(RecordedCeremony ceremony) throws IOException {
+        AssertUtil.notNull(ceremony, "ceremony must not be null");
+        out.writeByte(ceremony.getType().ordinal());
+        out.writeLong(ceremony.getTimestamp());
+        out.writeLong(ceremony.getLatencyNanos());
+        writeString(ceremony.getFailureCode() == null ? null : ceremony.getFailureCode().name());
+
+        if (ceremony.getType() == RecordedCeremony.Type.REGISTRATION) {
+            WebAuthnRegistrationContext registrationContext = ceremony.getRegistrationContext();
+            writeCommonFields(registrationContext.getServerProperty(), registrationContext.isUserVerificationRequired(),
+                    registrationContext.getExpectedExtensionIds(), registrationContext.getClientDataJSON(), registrationContext.getClientExtensionsJSON());
+            writeBytes(registrationContext.getAttestationObject());
+        } else {
+            WebAuthnAuthenticationContext authenticationContext = ceremony.getAuthenticationContext();
+            writeCommonFields(authenticationContext.getServerProperty(), authenticationContext.isUserVerificationRequired(),
+                    authenticationContext.getExpectedExtensionIds(), authenticationContext.getClientDataJSON(), authenticationContext.getClientExtensionsJSON());
+            writeBytes(authenticationContext.getCredentialId());
+            writeBytes(authenticationContext.getAuthenticatorData());
+            writeBytes(authenticationContext.getSignature());
+            writeBytes(authenticatorConverter.convert(ceremony.getAuthenticator()));
+        }
+    }
+
+    /**
+     * Returns the number of bytes written so far, header included
+     */
+    public long size() {
+        return out.size() & 0xFFFFFFFFL;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeCommonFields(ServerProperty serverProperty, boolean userVerificationRequired, List<String> expectedExtensionIds,
+                                   byte[] clientDataJSON, String clientExtensionsJSON) throws IOException {
+        writeOrigins(serverProperty.getOrigins());
+        writeString(serverProperty.getRpId());
+        writeBytes(serverProperty.getChallenge() == null ? null : serverProperty.getChallenge().getValue());
+        writeBytes(serverProperty.getTokenBindingId());
+        out.writeBoolean(userVerificationRequired);
+        writeStrings(expectedExtensionIds);
+        writeBytes(clientDataJSON);
+        writeString(clientExtensionsJSON);
+    }
+
+    private void writeOrigins(Collection<Origin> origins) throws IOException {
+        out.writeInt(origins.size());
+        for (Origin origin : origins) {
+            writeString(origin.toString());
+        }
+    }
+
+    private void writeStrings(Collection<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.ValidationFailureCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Captures ceremonies into rotating, append-only ceremony logs, for later replay by {@link CeremonyReplayer}.
+ * <p>
+ * Recording never blocks the caller: ceremonies are put on a bounded queue and written in batches by a background
+ * thread, and ceremonies which do not fit into the queue are dropped and counted.
+ * A new segment named {@code <prefix>-<sequence>.log} is started when the current one exceeds
+ * {@link #getMaxSegmentBytes()}, and the oldest segments beyond {@link #getMaxSegments()} are deleted.
+ * <p>
+ * Recorded logs hold raw credentials and client data of real users, so they must be handled as sensitive data.
+ */
+public class CeremonyRecorder implements Closeable {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    //~ Instance fields
+    // ================================================================================================
+    private final Logger logger = LoggerFactory.getLogger(CeremonyRecorder.class);
+
+    private final Path directory;
+    private final Registry registry;
+    private String prefix = "ceremonies";
+    private Pattern segmentPattern = createSegmentPattern(prefix);
+    private int queueCapacity = 8192;
+    private int batchSize = 256;
+    private long maxSegmentBytes = 64L * 1024 * 1024;
+    private int maxSegments = 16;
+
+    private final LongAdder recordedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile BlockingQueue<RecordedCeremony> queue;
+    private Thread writerThread;
+    private volatile boolean closed;
+
+    private CeremonyLogWriter segment;
+    private long sequence;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public CeremonyRecorder(Path directory, Registry registry) {
+        AssertUtil.notNull(directory, "directory must not be null");
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.directory = directory;
+        this.registry = registry;
+    }
+
+    public CeremonyRecorder(Path directory) {
+        this(directory, Registry.getDefault());
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Starts the background writer. Ceremonies passed before the recorder is started are dropped.
+     */
+    public synchronized void start() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Ceremony recorder is closed");
+        }
+        if (writerThread != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        sequence = findLastSequence();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writerThread = new Thread(this::drain, "webauthn4j-ceremony-recorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void recordRegistration(WebAuthnRegistrationContext registrationContext, ValidationFailureCode failureCode, long latencyNanos) {
+        offer(RecordedCeremony.registration(System.currentTimeMillis(), latencyNanos, failureCode, registrationContext));
+    }
+
+    /**
+     * Records an authentication
+     *
+     * @param authenticationContext validated context
+     * @param authenticator         stored authenticator, as it was before the validation
+     * @param failureCode           reason of the rejection, or null if the assertion was accepted
+     * @param latencyNanos          time spent in the validator
+     */
+    public void recordAuthentication(WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator,
+                                     ValidationFailureCode failureCode, long latencyNanos) {
+        offer(RecordedCeremony.authentication(System.currentTimeMillis(), latencyNanos, failureCode, authenticationContext, authenticator));
+    }
+
+    /**
+     * Takes a snapshot of an authenticator, as the application may update it once the validation completes
+     *
+     * @param authenticator stored authenticator
+     * @return copy to pass to {@link #recordAuthentication}
+     */
+    public static Authenticator snapshot(Authenticator authenticator) {
+        return new AuthenticatorImpl(authenticator.getAttestedCredentialData(), authenticator.getAttestationStatement(), authenticator.getCounter());
+    }
+
+    /**
+     * Returns the number of ceremonies written to the logs
+     */
+    public long getRecordedCount() {
+        return recordedCount.sum();
+    }
+
+    /**
+     * Returns the number of ceremonies dropped because the recorder was not running, its queue was full
+     * or writing failed
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stops accepting ceremonies, writes the queued ones and closes the current segment
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = writerThread;
+        }
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer(RecordedCeremony ceremony) {
+        BlockingQueue<RecordedCeremony> target = queue;
+        if (closed || target == null || !target.offer(ceremony)) {
+            droppedCount.increment();
+        }
+    }
+
+    private void drain() {
+        List<RecordedCeremony> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                RecordedCeremony first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void write(List<RecordedCeremony> batch) {
+        try {
+            if (segment == null || segment.size() >= maxSegmentBytes) {
+                rotate();
+            }
+            for (RecordedCeremony ceremony : batch) {
+                segment.write(ceremony);
+            }
+            segment.flush();
+            recordedCount.add(batch.size());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write {} ceremonies", batch.size(), e);
+            droppedCount.add(batch.size());
+            closeSegment();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        sequence++;
+        Path path = directory.resolve(String.format("%s-%06d%s", prefix, sequence, SEGMENT_SUFFIX));
+        OutputStream outputStream = Files.newOutputStream(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segment = new CeremonyLogWriter(outputStream, registry);
+        deleteOldSegments();
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close ceremony log segment", e);
+        }
+        segment = null;
+    }
+
+    private void deleteOldSegments() throws IOException {
+        if (maxSegments <= 0) {
+            return;
+        }
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    private long findLastSequence() throws IOException {
+        long last = 0;
+        for (Path path : listSegments()) {
+            last = Math.max(last, parseSequence(path));
+        }
+        return last;
+    }
+
+    /**
+     * Returns the segments of this recorder in the directory, oldest first
+     */
+    List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.filter(path -> parseSequence(path) > 0).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(parseSequence(a), parseSequence(b)));
+        return segments;
+    }
+
+    private long parseSequence(Path path) {
+        Matcher matcher = segmentPattern.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static Pattern createSegmentPattern(String prefix) {
+        return Pattern.compile(Pattern.quote(prefix) + "-(\\d+)" + Pattern.quote(SEGMENT_SUFFIX));
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        AssertUtil.notNull(prefix, "prefix must not be null");
+        this.prefix = prefix;
+        this.segmentPattern = createSegmentPattern(prefix);
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        AssertUtil.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        AssertUtil.isTrue(batchSize > 0, "batchSize must be positive");
+        this.batchSize = batchSize;
+    }
+
+    public long getMaxSegmentBytes() {
+        return maxSegmentBytes;
+    }
+
+    public void setMaxSegmentBytes(long maxSegmentBytes) {
+        AssertUtil.isTrue(maxSegmentBytes > 0 && maxSegmentBytes <= Integer.MAX_VALUE, "maxSegmentBytes must be positive and fit in an int");
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Returns the number of segments kept in the directory, or 0 to keep them all
+     */
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+}
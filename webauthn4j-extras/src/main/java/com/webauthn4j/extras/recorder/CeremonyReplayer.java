@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.ValidationResult;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidator;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Re-runs ceremonies captured by {@link CeremonyRecorder} against a candidate configuration of the validators,
+ * and reports throughput, latency and the ceremonies whose outcome changed.
+ * <p>
+ * Recorded authenticators are used as they were before each validation, so challenges and counters recorded
+ * in the logs are replayed as is.
+ */
+public class CeremonyReplayer {
+
+    //~ Instance fields
+    // ================================================================================================
+    private final WebAuthnRegistrationContextValidator registrationContextValidator;
+    private final WebAuthnAuthenticationContextValidator authenticationContextValidator;
+    private final Registry registry;
+    private int maxDiffs = 1000;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public CeremonyReplayer(WebAuthnRegistrationContextValidator registrationContextValidator,
+                            WebAuthnAuthenticationContextValidator authenticationContextValidator,
+                            Registry registry) {
+        AssertUtil.notNull(registrationContextValidator, "registrationContextValidator must not be null");
+        AssertUtil.notNull(authenticationContextValidator, "authenticationContextValidator must not be null");
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.registrationContextValidator = registrationContextValidator;
+        this.authenticationContextValidator = authenticationContextValidator;
+        this.registry = registry;
+    }
+
+    public CeremonyReplayer(WebAuthnRegistrationContextValidator registrationContextValidator,
+                            WebAuthnAuthenticationContextValidator authenticationContextValidator) {
+        this(registrationContextValidator, authenticationContextValidator, Registry.getDefault());
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Replays ceremony logs in order
+     *
+     * @param paths log files, or directories whose {@code .log} files are replayed in name order
+     * @return the replay report
+     */
+    public ReplayReport replay(List<Path> paths) throws IOException {
+        Replay replay = new Replay();
+        for (Path path : expand(paths)) {
+            try (InputStream inputStream = Files.newInputStream(path);
+                 CeremonyLogReader reader = new CeremonyLogReader(inputStream, registry)) {
+                RecordedCeremony ceremony;
+                while ((ceremony = reader.read()) != null) {
+                    replay.replay(ceremony);
+                }
+            }
+        }
+        return replay.createReport();
+    }
+
+    /**
+     * Replays ceremonies in iteration order
+     *
+     * @param ceremonies ceremonies to replay
+     * @return the replay report
+     */
+    public ReplayReport replay(Iterable<RecordedCeremony> ceremonies) {
+        Replay replay = new Replay();
+        for (RecordedCeremony ceremony : ceremonies) {
+            replay.replay(ceremony);
+        }
+        return replay.createReport();
+    }
+
+    private List<Path> expand(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    files.addAll(children.filter(child -> child.getFileName().toString().endsWith(".log")).sorted().collect(Collectors.toList()));
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the maximum number of diffs kept in the report. Diffs beyond it are only counted.
+     */
+    public int getMaxDiffs() {
+        return maxDiffs;
+    }
+
+    public void setMaxDiffs(int maxDiffs) {
+        this.maxDiffs = maxDiffs;
+    }
+
+    /**
+     * State of a single replay
+     */
+    private class Replay {
+
+        private final long start = System.nanoTime();
+        private final List<DecisionDiff> diffs = new ArrayList<>();
+        private long[] recordedLatencies = new long[1024];
+        private long[] replayedLatencies = new long[1024];
+        private long registrations;
+        private long authentications;
+        private long diffCount;
+        private int count;
+
+        void replay(RecordedCeremony ceremony) {
+            long replayStart = System.nanoTime();
+            ValidationResult<?> result;
+            if (ceremony.getType() == RecordedCeremony.Type.REGISTRATION) {
+                result = registrationContextValidator.tryValidate(ceremony.getRegistrationContext());
+                registrations++;
+            } else {
+                result = authenticationContextValidator.tryValidate(ceremony.getAuthenticationContext(), ceremony.getAuthenticator());
+                authentications++;
+            }
+            long latency = System.nanoTime() - replayStart;
+
+            if (count == recordedLatencies.length) {
+                recordedLatencies = Arrays.copyOf(recordedLatencies, count * 2);
+                replayedLatencies = Arrays.copyOf(replayedLatencies, count * 2);
+            }
+            recordedLatencies[count] = ceremony.getLatencyNanos();
+            replayedLatencies[count] = latency;
+
+            if (ceremony.getFailureCode() != result.getFailureCode()) {
+                diffCount++;
+                if (diffs.size() < maxDiffs) {
+                    diffs.add(new DecisionDiff(count, ceremony.getType(), ceremony.getTimestamp(),
+                            ceremony.getFailureCode(), result.getFailureCode(), result.getMessage()));
+                }
+            }
+            count++;
+        }
+
+        ReplayReport createReport() {
+            return new ReplayReport(registrations, authentications, diffCount, diffs, System.nanoTime() - start,
+                    Arrays.copyOf(recordedLatencies, count), Arrays.copyOf(replayedLatencies, count));
+        }
+    }
+}
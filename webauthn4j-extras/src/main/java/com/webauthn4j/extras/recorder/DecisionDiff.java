@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.validator.ValidationFailureCode;
+
+/**
+ * A ceremony whose outcome on replay differs from the recorded one
+ */
+public class DecisionDiff {
+
+    private final long index;
+    private final RecordedCeremony.Type type;
+    private final long timestamp;
+    private final ValidationFailureCode recordedFailureCode;
+    private final ValidationFailureCode replayedFailureCode;
+    private final String message;
+
+    public DecisionDiff(long index, RecordedCeremony.Type type, long timestamp,
+                        ValidationFailureCode recordedFailureCode, ValidationFailureCode replayedFailureCode, String message) {
+        this.index = index;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.recordedFailureCode = recordedFailureCode;
+        this.replayedFailureCode = replayedFailureCode;
+        this.message = message;
+    }
+
+    /**
+     * Returns the position of the ceremony in the replayed logs, starting at 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public RecordedCeremony.Type getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the recorded failure code, or null if the ceremony was accepted
+     */
+    public ValidationFailureCode getRecordedFailureCode() {
+        return recordedFailureCode;
+    }
+
+    /**
+     * Returns the failure code on replay, or null if the ceremony is accepted
+     */
+    public ValidationFailureCode getReplayedFailureCode() {
+        return replayedFailureCode;
+    }
+
+    /**
+     * Returns the failure message on replay, or null if the ceremony is accepted
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public Kind getKind() {
+        if (recordedFailureCode == null) {
+            return Kind.NEWLY_REJECTED;
+        }
+        if (replayedFailureCode == null) {
+            return Kind.NEWLY_ACCEPTED;
+        }
+        return Kind.FAILURE_CODE_CHANGED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s %s: %s -> %s%s", index, type, getKind(),
+                recordedFailureCode == null ? "SUCCESS" : recordedFailureCode,
+                replayedFailureCode == null ? "SUCCESS" : replayedFailureCode,
+                message == null ? "" : " (" + message + ")");
+    }
+
+    public enum Kind {
+        NEWLY_REJECTED,
+        NEWLY_ACCEPTED,
+        FAILURE_CODE_CHANGED
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.ValidationFailureCode;
+
+/**
+ * A ceremony captured by {@link CeremonyRecorder}: the raw context passed to the validator, the stored authenticator
+ * for authentications, and the outcome of the validation
+ */
+public class RecordedCeremony {
+
+    private final long timestamp;
+    private final long latencyNanos;
+    private final ValidationFailureCode failureCode;
+    private final WebAuthnRegistrationContext registrationContext;
+    private final WebAuthnAuthenticationContext authenticationContext;
+    private final Authenticator authenticator;
+
+    private RecordedCeremony(long timestamp, long latencyNanos, ValidationFailureCode failureCode,
+                             WebAuthnRegistrationContext registrationContext,
+                             WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator) {
+        this.timestamp = timestamp;
+        this.latencyNanos = latencyNanos;
+        this.failureCode = failureCode;
+        this.registrationContext = registrationContext;
+        this.authenticationContext = authenticationContext;
+        this.authenticator = authenticator;
+    }
+
+    /**
+     * @param timestamp           time of the ceremony in milliseconds since the epoch
+     * @param latencyNanos        time spent in the validator
+     * @param failureCode         reason of the rejection, or null if the registration was accepted
+     * @param registrationContext validated context
+     */
+    public static RecordedCeremony registration(long timestamp, long latencyNanos, ValidationFailureCode failureCode,
+                                                WebAuthnRegistrationContext registrationContext) {
+        AssertUtil.notNull(registrationContext, "registrationContext must not be null");
+        return new RecordedCeremony(timestamp, latencyNanos, failureCode, registrationContext, null, null);
+    }
+
+    /**
+     * @param timestamp             time of the ceremony in milliseconds since the epoch
+     * @param latencyNanos          time spent in the validator
+     * @param failureCode           reason of the rejection, or null if the assertion was accepted
+     * @param authenticationContext validated context
+     * @param authenticator         stored authenticator, as it was before the validation
+     */
+    public static RecordedCeremony authentication(long timestamp, long latencyNanos, ValidationFailureCode failureCode,
+                                                  WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator) {
+        AssertUtil.notNull(authenticationContext, "authenticationContext must not be null");
+        AssertUtil.notNull(authenticator, "authenticator must not be null");
+        return new RecordedCeremony(timestamp, latencyNanos, failureCode, null, authenticationContext, authenticator);
+    }
+
+    public Type getType() {
+        return registrationContext != null ? Type.REGISTRATION : Type.AUTHENTICATION;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public boolean isSuccess() {
+        return failureCode == null;
+    }
+
+    public ValidationFailureCode getFailureCode() {
+        return failureCode;
+    }
+
+    public WebAuthnRegistrationContext getRegistrationContext() {
+        return registrationContext;
+    }
+
+    public WebAuthnAuthenticationContext getAuthenticationContext() {
+        return authenticationContext;
+    }
+
+    public Authenticator getAuthenticator() {
+        return authenticator;
+    }
+
+    public enum Type {
+        REGISTRATION,
+        AUTHENTICATION
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.validator.ValidationFailureCode;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidationResponse;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidator;
+
+/**
+ * Validates assertions with a {@link WebAuthnAuthenticationContextValidator} and records each of them,
+ * with the stored authenticator, its outcome and latency, into a {@link CeremonyRecorder}
+ */
+public class RecordingWebAuthnAuthenticationContextValidator {
+
+    private final WebAuthnAuthenticationContextValidator delegate;
+    private final CeremonyRecorder ceremonyRecorder;
+
+    public RecordingWebAuthnAuthenticationContextValidator(WebAuthnAuthenticationContextValidator delegate, CeremonyRecorder ceremonyRecorder) {
+        AssertUtil.notNull(delegate, "delegate must not be null");
+        AssertUtil.notNull(ceremonyRecorder, "ceremonyRecorder must not be null");
+        this.delegate = delegate;
+        this.ceremonyRecorder = ceremonyRecorder;
+    }
+
+    public WebAuthnAuthenticationContextValidationResponse validate(WebAuthnAuthenticationContext authenticationContext, Authenticator authenticator) {
+        Authenticator snapshot = CeremonyRecorder.snapshot(authenticator);
+        long start = System.nanoTime();
+        try {
+            WebAuthnAuthenticationContextValidationResponse response = delegate.validate(authenticationContext, authenticator);
+            ceremonyRecorder.recordAuthentication(authenticationContext, snapshot, null, System.nanoTime() - start);
+            return response;
+        } catch (WebAuthnException e) {
+            ceremonyRecorder.recordAuthentication(authenticationContext, snapshot, ValidationFailureCode.of(e), System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
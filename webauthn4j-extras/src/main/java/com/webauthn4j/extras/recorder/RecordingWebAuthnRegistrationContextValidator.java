@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.validator.ValidationFailureCode;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidationResponse;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidator;
+
+/**
+ * Validates registrations with a {@link WebAuthnRegistrationContextValidator} and records each of them,
+ * with its outcome and latency, into a {@link CeremonyRecorder}
+ */
+public class RecordingWebAuthnRegistrationContextValidator {
+
+    private final WebAuthnRegistrationContextValidator delegate;
+    private final CeremonyRecorder ceremonyRecorder;
+
+    public RecordingWebAuthnRegistrationContextValidator(WebAuthnRegistrationContextValidator delegate, CeremonyRecorder ceremonyRecorder) {
+        AssertUtil.notNull(delegate, "delegate must not be null");
+        AssertUtil.notNull(ceremonyRecorder, "ceremonyRecorder must not be null");
+        this.delegate = delegate;
+        this.ceremonyRecorder = ceremonyRecorder;
+    }
+
+    public WebAuthnRegistrationContextValidationResponse validate(WebAuthnRegistrationContext registrationContext) {
+        long start = System.nanoTime();
+        try {
+            WebAuthnRegistrationContextValidationResponse response = delegate.validate(registrationContext);
+            ceremonyRecorder.recordRegistration(registrationContext, null, System.nanoTime() - start);
+            return response;
+        } catch (WebAuthnException e) {
+            ceremonyRecorder.recordRegistration(registrationContext, ValidationFailureCode.of(e), System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link CeremonyReplayer} run
+ */
+public class ReplayReport {
+
+    private final long registrations;
+    private final long authentications;
+    private final long diffCount;
+    private final List<DecisionDiff> diffs;
+    private final long elapsedNanos;
+    private final long[] recordedLatencies;
+    private final long[] replayedLatencies;
+
+    /**
+     * @param diffs             the first diffs found, up to {@link CeremonyReplayer#getMaxDiffs()}
+     * @param recordedLatencies recorded latency of each ceremony in nanoseconds, in any order
+     * @param replayedLatencies latency on replay of each ceremony in nanoseconds, in any order
+     */
+    public ReplayReport(long registrations, long authentications, long diffCount, List<DecisionDiff> diffs, long elapsedNanos,
+                        long[] recordedLatencies, long[] replayedLatencies) {
+        this.registrations = registrations;
+        this.authentications = authentications;
+        this.diffCount = diffCount;
+        this.diffs = Collections.unmodifiableList(diffs);
+        this.elapsedNanos = elapsedNanos;
+        this.recordedLatencies = recordedLatencies.clone();
+        this.replayedLatencies = replayedLatencies.clone();
+        Arrays.sort(this.recordedLatencies);
+        Arrays.sort(this.replayedLatencies);
+    }
+
+    public long getRegistrations() {
+        return registrations;
+    }
+
+    public long getAuthentications() {
+        return authentications;
+    }
+
+    public long getCeremonies() {
+        return registrations + authentications;
+    }
+
+    /**
+     * Returns the number of ceremonies whose outcome differs from the recorded one
+     */
+    public long getDiffCount() {
+        return diffCount;
+    }
+
+    public List<DecisionDiff> getDiffs() {
+        return diffs;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of replayed ceremonies per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCeremonies() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public long getRecordedLatencyAtPercentile(double percentile) {
+        return valueAtPercentile(recordedLatencies, percentile);
+    }
+
+    public long getReplayedLatencyAtPercentile(double percentile) {
+        return valueAtPercentile(replayedLatencies, percentile);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("ceremonies   %10d (registrations %d, authentications %d)%n", getCeremonies(), registrations, authentications));
+        builder.append(String.format("throughput   %10.1f ceremonies/s%n", getThroughput()));
+        builder.append(String.format("%-12s %10s %10s %10s%n", "latency (us)", "p50", "p99", "p999"));
+        builder.append(String.format("%-12s %10.1f %10.1f %10.1f%n", "recorded",
+                getRecordedLatencyAtPercentile(50) / 1000.0, getRecordedLatencyAtPercentile(99) / 1000.0, getRecordedLatencyAtPercentile(99.9) / 1000.0));
+        builder.append(String.format("%-12s %10.1f %10.1f %10.1f%n", "replayed",
+                getReplayedLatencyAtPercentile(50) / 1000.0, getReplayedLatencyAtPercentile(99) / 1000.0, getReplayedLatencyAtPercentile(99.9) / 1000.0));
+        builder.append(String.format("diffs        %10d%n", diffCount));
+        for (DecisionDiff diff : diffs) {
+            builder.append("  ").append(diff).append(String.format("%n"));
+        }
+        return builder.toString();
+    }
+
+    private static long valueAtPercentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        double clamped = Math.min(100, Math.max(0, percentile));
+        int index = (int) Math.ceil(clamped / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.extras.recorder;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.request.*;
+import com.webauthn4j.response.AuthenticatorAssertionResponse;
+import com.webauthn4j.response.AuthenticatorAttestationResponse;
+import com.webauthn4j.response.PublicKeyCredential;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticatorAdaptor;
+import com.webauthn4j.test.client.ClientPlatform;
+import com.webauthn4j.util.WebAuthnException;
+import com.webauthn4j.validator.ValidationFailureCode;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidator;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidationResponse;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidator;
+import com.webauthn4j.validator.attestation.none.NoneAttestationStatementValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.certpath.NullCertPathTrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.ecdaa.NullECDAATrustworthinessValidator;
+import com.webauthn4j.validator.attestation.trustworthiness.self.NullSelfAttestationTrustworthinessValidator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class CeremonyRecorderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Origin origin = new Origin("https://example.com");
+    private String rpId = "example.com";
+    private ClientPlatform clientPlatform = new ClientPlatform(origin, new FIDOU2FAuthenticatorAdaptor());
+    private WebAuthnRegistrationContextValidator registrationContextValidator = WebAuthnRegistrationContextValidator.createNonStrictRegistrationContextValidator();
+    private WebAuthnAuthenticationContextValidator authenticationContextValidator = new WebAuthnAuthenticationContextValidator();
+
+    @Test
+    public void record_and_replay_test() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        CeremonyRecorder recorder = new CeremonyRecorder(directory);
+        recorder.start();
+        Authenticator authenticator = recordCeremonies(recorder);
+        recorder.close();
+
+        assertThat(recorder.getRecordedCount()).isEqualTo(4);
+        assertThat(recorder.getDroppedCount()).isZero();
+        List<RecordedCeremony> ceremonies = readAll(recorder.listSegments().get(0));
+        assertThat(ceremonies).extracting(RecordedCeremony::getType).containsExactly(
+                RecordedCeremony.Type.REGISTRATION, RecordedCeremony.Type.AUTHENTICATION,
+                RecordedCeremony.Type.AUTHENTICATION, RecordedCeremony.Type.AUTHENTICATION);
+        assertThat(ceremonies.get(2).isSuccess()).isFalse();
+        assertThat(ceremonies.get(2).getFailureCode()).isEqualTo(ValidationFailureCode.BAD_CHALLENGE);
+        // authenticators are recorded as they were before the validation updated their counter
+        assertThat(ceremonies.get(3).getAuthenticator().getCounter()).isLessThan(authenticator.getCounter());
+
+        ReplayReport report = new CeremonyReplayer(registrationContextValidator, authenticationContextValidator)
+                .replay(Collections.singletonList(directory));
+
+        assertThat(report.getCeremonies()).isEqualTo(4);
+        assertThat(report.getDiffCount()).isZero();
+        assertThat(report.getThroughput()).isPositive();
+    }
+
+    @Test
+    public void replay_reports_decision_diffs_test() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        CeremonyRecorder recorder = new CeremonyRecorder(directory);
+        recorder.start();
+        recordCeremonies(recorder);
+        recorder.close();
+
+        // candidate configuration which only accepts the none attestation statement
+        WebAuthnRegistrationContextValidator candidate = new WebAuthnRegistrationContextValidator(
+                Collections.singletonList(new NoneAttestationStatementValidator()),
+                new NullCertPathTrustworthinessValidator(),
+                new NullECDAATrustworthinessValidator(),
+                new NullSelfAttestationTrustworthinessValidator()
+        );
+        ReplayReport report = new CeremonyReplayer(candidate, authenticationContextValidator)
+                .replay(Collections.singletonList(directory));
+
+        assertThat(report.getDiffCount()).isEqualTo(1);
+        DecisionDiff diff = report.getDiffs().get(0);
+        assertThat(diff.getIndex()).isZero();
+        assertThat(diff.getKind()).isEqualTo(DecisionDiff.Kind.NEWLY_REJECTED);
+        assertThat(report.toString()).contains("NEWLY_REJECTED");
+    }
+
+    @Test
+    public void segments_are_rotated_and_pruned_test() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        CeremonyRecorder recorder = new CeremonyRecorder(directory);
+        recorder.setMaxSegmentBytes(1);
+        recorder.setMaxSegments(2);
+        recorder.setBatchSize(1);
+        recorder.start();
+        recordCeremonies(recorder);
+        recorder.close();
+
+        List<Path> segments = recorder.listSegments();
+        assertThat(segments).hasSize(2);
+        assertThat(segments.get(1).getFileName().toString()).isEqualTo("ceremonies-000004.log");
+
+        CeremonyRecorder next = new CeremonyRecorder(directory);
+        next.start();
+        next.recordRegistration(createRegistrationContext(), null, 0);
+        next.close();
+        assertThat(next.listSegments()).last().satisfies(path -> assertThat(path.getFileName().toString()).isEqualTo("ceremonies-000005.log"));
+    }
+
+    @Test
+    public void recording_before_start_is_dropped_test() throws IOException {
+        CeremonyRecorder recorder = new CeremonyRecorder(temporaryFolder.newFolder().toPath());
+        recorder.recordRegistration(createRegistrationContext(), null, 0);
+        assertThat(recorder.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void truncated_log_test() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        CeremonyRecorder recorder = new CeremonyRecorder(directory);
+        recorder.start();
+        recordCeremonies(recorder);
+        recorder.close();
+        Path segment = recorder.listSegments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 10));
+
+        try (InputStream inputStream = Files.newInputStream(segment);
+             CeremonyLogReader reader = new CeremonyLogReader(inputStream, Registry.getDefault())) {
+            assertThat(reader.readAll()).hasSize(3);
+            assertThat(reader.isTruncated()).isTrue();
+        }
+    }
+
+    /**
+     * Records a registration, then two valid assertions and one with a wrong challenge
+     */
+    private Authenticator recordCeremonies(CeremonyRecorder recorder) {
+        RecordingWebAuthnRegistrationContextValidator recordingRegistrationContextValidator =
+                new RecordingWebAuthnRegistrationContextValidator(registrationContextValidator, recorder);
+        RecordingWebAuthnAuthenticationContextValidator recordingAuthenticationContextValidator =
+                new RecordingWebAuthnAuthenticationContextValidator(authenticationContextValidator, recorder);
+
+        WebAuthnRegistrationContextValidationResponse registration = recordingRegistrationContextValidator.validate(createRegistrationContext());
+        AttestationObject attestationObject = registration.getAttestationObject();
+        Authenticator authenticator = new AuthenticatorImpl(attestationObject.getAuthenticatorData().getAttestedCredentialData(),
+                attestationObject.getAttestationStatement(), attestationObject.getAuthenticatorData().getSignCount());
+
+        recordingAuthenticationContextValidator.validate(createAuthenticationContext(authenticator, false), authenticator);
+        try {
+            recordingAuthenticationContextValidator.validate(createAuthenticationContext(authenticator, true), authenticator);
+            fail("bad challenge must be rejected");
+        } catch (WebAuthnException e) {
+            // expected
+        }
+        recordingAuthenticationContextValidator.validate(createAuthenticationContext(authenticator, false), authenticator);
+        return authenticator;
+    }
+
+    private WebAuthnRegistrationContext createRegistrationContext() {
+        DefaultChallenge challenge = new DefaultChallenge();
+        PublicKeyCredentialCreationOptions credentialCreationOptions = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(rpId, rpId),
+                new PublicKeyCredentialUserEntity(),
+                challenge,
+                Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)),
+                null,
+                Collections.emptyList(),
+                null,
+                AttestationConveyancePreference.DIRECT,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAttestationResponse> credential = clientPlatform.create(credentialCreationOptions);
+        AuthenticatorAttestationResponse response = credential.getAuthenticatorResponse();
+        return new WebAuthnRegistrationContext(response.getClientDataJSON(), response.getAttestationObject(),
+                new ServerProperty(origin, rpId, challenge, null), false);
+    }
+
+    private WebAuthnAuthenticationContext createAuthenticationContext(Authenticator authenticator, boolean badChallenge) {
+        DefaultChallenge challenge = new DefaultChallenge();
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                0L,
+                rpId,
+                Collections.singletonList(new PublicKeyCredentialDescriptor(PublicKeyCredentialType.PUBLIC_KEY,
+                        authenticator.getAttestedCredentialData().getCredentialId(), null)),
+                UserVerificationRequirement.DISCOURAGED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse response = credential.getAuthenticatorResponse();
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, badChallenge ? new DefaultChallenge() : challenge, null);
+        return new WebAuthnAuthenticationContext(credential.getRawId(), response.getClientDataJSON(), response.getAuthenticatorData(),
+                response.getSignature(), serverProperty, false);
+    }
+
+    private List<RecordedCeremony> readAll(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path);
+             CeremonyLogReader reader = new CeremonyLogReader(inputStream, Registry.getDefault())) {
+            return reader.readAll();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test;
+
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Ed25519 private key held as the raw 32 bytes secret key, for emulating EdDSA authenticators
+ * on JDKs without EdDSA support in JCA
+ */
+public class Ed25519PrivateKey implements PrivateKey {
+
+    private final byte[] secretKey;
+
+    public Ed25519PrivateKey(byte[] secretKey) {
+        if (secretKey.length != Ed25519.SECRET_KEY_SIZE) {
+            throw new IllegalArgumentException("secretKey must be " + Ed25519.SECRET_KEY_SIZE + " bytes length");
+        }
+        this.secretKey = Arrays.copyOf(secretKey, secretKey.length);
+    }
+
+    public static Ed25519PrivateKey create() {
+        byte[] secretKey = new byte[Ed25519.SECRET_KEY_SIZE];
+        new SecureRandom().nextBytes(secretKey);
+        return new Ed25519PrivateKey(secretKey);
+    }
+
+    public byte[] getPublicKeyBytes() {
+        byte[] publicKey = new byte[Ed25519.PUBLIC_KEY_SIZE];
+        Ed25519.generatePublicKey(secretKey, 0, publicKey, 0);
+        return publicKey;
+    }
+
+    public byte[] sign(byte[] data) {
+        byte[] signature = new byte[Ed25519.SIGNATURE_SIZE];
+        Ed25519.sign(secretKey, 0, data, 0, data.length, signature, 0);
+        return signature;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return "EdDSA";
+    }
+
+    @Override
+    public String getFormat() {
+        return "RAW";
+    }
+
+    @Override
+    public byte[] getEncoded() {
+        return Arrays.copyOf(secretKey, secretKey.length);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test;
+
+import com.webauthn4j.util.KeyUtil;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.cert.CertIOException;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CRLConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.cert.CRLException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Certificate authority generating certificates and CRLs on the fly, for tests which need a PKI with known private keys
+ */
+public class TestCertificateAuthority {
+
+    private static final AtomicLong serialNumbers = new AtomicLong(System.currentTimeMillis());
+    private static final Duration VALIDITY = Duration.ofDays(365);
+
+    private final KeyPair keyPair;
+    private final X509Certificate certificate;
+
+    private TestCertificateAuthority(KeyPair keyPair, X509Certificate certificate) {
+        this.keyPair = keyPair;
+        this.certificate = certificate;
+    }
+
+    /**
+     * Creates a root CA with a self-signed certificate
+     *
+     * @param subject subject DN
+     * @return root CA
+     */
+    public static TestCertificateAuthority createRoot(String subject) {
+        KeyPair keyPair = KeyUtil.createECKeyPair();
+        X500Name name = new X500Name(subject);
+        X509Certificate certificate = issue(name, keyPair.getPrivate(), name, keyPair, true);
+        return new TestCertificateAuthority(keyPair, certificate);
+    }
+
+    /**
+     * Creates an intermediate CA issued by this CA
+     *
+     * @param subject subject DN
+     * @return intermediate CA
+     */
+    public TestCertificateAuthority createIntermediate(String subject) {
+        KeyPair intermediateKeyPair = KeyUtil.createECKeyPair();
+        X509Certificate intermediateCertificate = issue(getName(), keyPair.getPrivate(), new X500Name(subject), intermediateKeyPair, true);
+        return new TestCertificateAuthority(intermediateKeyPair, intermediateCertificate);
+    }
+
+    /**
+     * Issues an end entity certificate for the specified key pair
+     *
+     * @param subject subject DN
+     * @param subjectKeyPair key pair of the subject
+     * @return end entity certificate
+     */
+    public X509Certificate issueCertificate(String subject, KeyPair subjectKeyPair) {
+        return issue(getName(), keyPair.getPrivate(), new X500Name(subject), subjectKeyPair, false);
+    }
+
+    /**
+     * Creates a CRL of this CA revoking the specified certificates
+     *
+     * @param thisUpdate thisUpdate of the CRL
+     * @param nextUpdate nextUpdate of the CRL
+     * @param revokedCertificates revoked certificates
+     * @return CRL
+     */
+    public X509CRL createCRL(Instant thisUpdate, Instant nextUpdate, X509Certificate... revokedCertificates) {
+        X509v2CRLBuilder builder = new X509v2CRLBuilder(getName(), Date.from(thisUpdate));
+        builder.setNextUpdate(Date.from(nextUpdate));
+        for (X509Certificate revokedCertificate : revokedCertificates) {
+            builder.addCRLEntry(revokedCertificate.getSerialNumber(), Date.from(thisUpdate), CRLReason.keyCompromise);
+        }
+        X509CRLHolder holder = builder.build(createSigner(keyPair.getPrivate()));
+        try {
+            return new JcaX509CRLConverter().getCRL(holder);
+        } catch (CRLException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    /**
+     * Creates a DER encoded OCSP response of this CA for the specified certificate
+     *
+     * @param certificate certificate issued by this CA
+     * @param revoked whether the certificate is revoked
+     * @param thisUpdate thisUpdate of the response
+     * @param nextUpdate nextUpdate of the response, or null
+     * @return DER encoded OCSPResponse
+     */
+    public byte[] createOCSPResponse(X509Certificate certificate, boolean revoked, Instant thisUpdate, Instant nextUpdate) {
+        try {
+            DigestCalculatorProvider digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().build();
+            CertificateID certificateID = new CertificateID(
+                    digestCalculatorProvider.get(CertificateID.HASH_SHA1),
+                    new JcaX509CertificateHolder(this.certificate),
+                    certificate.getSerialNumber());
+            BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(
+                    new RespID(SubjectPublicKeyInfo.getInstance(keyPair.getPublic().getEncoded()), digestCalculatorProvider.get(RespID.HASH_SHA1)));
+            CertificateStatus status = revoked ? new RevokedStatus(Date.from(thisUpdate), CRLReason.keyCompromise) : CertificateStatus.GOOD;
+            builder.addResponse(certificateID, status, Date.from(thisUpdate), nextUpdate == null ? null : Date.from(nextUpdate));
+            BasicOCSPResp basicOCSPResp = builder.build(createSigner(keyPair.getPrivate()), null, Date.from(thisUpdate));
+            return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicOCSPResp).getEncoded();
+        } catch (OperatorCreationException | OCSPException | CertificateEncodingException e) {
+            throw new UnexpectedCheckedException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public KeyPair getKeyPair() {
+        return keyPair;
+    }
+
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    private X500Name getName() {
+        return X500Name.getInstance(certificate.getSubjectX500Principal().getEncoded());
+    }
+
+    private static X509Certificate issue(X500Name issuer, PrivateKey issuerKey, X500Name subject, KeyPair subjectKeyPair, boolean ca) {
+        Instant now = Instant.now();
+        X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(
+                issuer,
+                BigInteger.valueOf(serialNumbers.incrementAndGet()),
+                Date.from(now.minus(Duration.ofDays(1))),
+                Date.from(now.plus(VALIDITY)),
+                subject,
+                subjectKeyPair.getPublic());
+        try {
+            builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(ca));
+            if (ca) {
+                builder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign));
+            }
+            return new JcaX509CertificateConverter().getCertificate(builder.build(createSigner(issuerKey)));
+        } catch (CertIOException | CertificateException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    private static ContentSigner createSigner(PrivateKey privateKey) {
+        try {
+            return new JcaContentSignerBuilder("SHA256withECDSA").build(privateKey);
+        } catch (OperatorCreationException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test;
+
+import com.webauthn4j.revocation.OCSPException;
+import com.webauthn4j.revocation.OCSPResponder;
+
+import java.math.BigInteger;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in OCSP responder answering with responses precomputed by {@link TestCertificateAuthority}s
+ */
+public class TestOCSPResponder implements OCSPResponder {
+
+    private final List<TestCertificateAuthority> certificateAuthorities = new CopyOnWriteArrayList<>();
+    private final Set<BigInteger> revokedSerialNumbers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile Duration validity = Duration.ofHours(1);
+
+    public TestOCSPResponder(TestCertificateAuthority... certificateAuthorities) {
+        for (TestCertificateAuthority certificateAuthority : certificateAuthorities) {
+            this.certificateAuthorities.add(certificateAuthority);
+        }
+    }
+
+    @Override
+    public byte[] respond(X509Certificate certificate, X509Certificate issuer) {
+        requestCount.incrementAndGet();
+        for (TestCertificateAuthority certificateAuthority : certificateAuthorities) {
+            if (certificateAuthority.getCertificate().equals(issuer)) {
+                Instant now = Instant.now();
+                boolean revoked = revokedSerialNumbers.contains(certificate.getSerialNumber());
+                return certificateAuthority.createOCSPResponse(certificate, revoked, now, now.plus(validity));
+            }
+        }
+        throw new OCSPException("Unknown issuer");
+    }
+
+    public void revoke(X509Certificate certificate) {
+        revokedSerialNumbers.add(certificate.getSerialNumber());
+    }
+
+    /**
+     * Sets the time between thisUpdate and nextUpdate of the responses
+     *
+     * @param validity validity of the responses
+     */
+    public void setValidity(Duration validity) {
+        this.validity = validity;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+}
@@ -66,7 +66,7 @@ public class TestUtil {
     }
 
     public static RegistrationObject createRegistrationObject(Function<byte[], AttestationObject> attestationObjectProvider) {
-        Registry registry = new Registry();
+        Registry registry = Registry.getDefault();
         CollectedClientData collectedClientData = createClientData(ClientDataType.CREATE);
         byte[] collectedClientDataBytes = new CollectedClientDataConverter(registry).convertToBytes(collectedClientData);
         AttestationObject attestationObject = attestationObjectProvider.apply(collectedClientDataBytes);
@@ -90,7 +90,7 @@ public class TestUtil {
     public static AttestationObject createAttestationObjectWithBasicPackedECAttestationStatement(byte[] clientDataHash) {
         PrivateKey privateKey = TestUtil.load3tierTestAuthenticatorAttestationPrivateKey();
         AuthenticatorData authenticatorData = createAuthenticatorData();
-        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(new Registry()).convert(authenticatorData);
+        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(Registry.getDefault()).convert(authenticatorData);
         byte[] signedData = getSignedData(authenticatorDataBytes, clientDataHash);
         byte[] signature = calculateSignature(privateKey, signedData);
         return new AttestationObject(authenticatorData, createBasicPackedAttestationStatement(COSEAlgorithmIdentifier.ES256, signature));
@@ -100,7 +100,7 @@ public class TestUtil {
         KeyPair keyPair = KeyUtil.createECKeyPair();
         EC2CredentialPublicKey ec2CredentialPublicKey = EC2CredentialPublicKey.create((ECPublicKey) keyPair.getPublic());
         AuthenticatorData authenticatorData = createAuthenticatorData(ec2CredentialPublicKey);
-        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(new Registry()).convert(authenticatorData);
+        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(Registry.getDefault()).convert(authenticatorData);
         byte[] signedData = getSignedData(authenticatorDataBytes, clientDataHash);
         byte[] signature = calculateSignature(keyPair.getPrivate(), signedData);
         return new AttestationObject(authenticatorData, createSelfPackedAttestationStatement(COSEAlgorithmIdentifier.ES256, signature));
@@ -110,7 +110,7 @@ public class TestUtil {
         KeyPair keyPair = KeyUtil.createRSAKeyPair();
         RSACredentialPublicKey rsaCredentialPublicKey = RSACredentialPublicKey.create((RSAPublicKey) keyPair.getPublic());
         AuthenticatorData authenticatorData = createAuthenticatorData(rsaCredentialPublicKey);
-        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(new Registry()).convert(authenticatorData);
+        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(Registry.getDefault()).convert(authenticatorData);
         byte[] signedData = getSignedData(authenticatorDataBytes, clientDataHash);
         byte[] signature = calculateSignature(keyPair.getPrivate(), signedData);
         return new AttestationObject(authenticatorData, createSelfPackedAttestationStatement(COSEAlgorithmIdentifier.RS256, signature));
@@ -119,7 +119,7 @@ public class TestUtil {
     public static AttestationObject createAttestationObjectWithAndroidKeyAttestationStatement(byte[] clientDataHash) {
         PrivateKey privateKey = TestUtil.loadAndroidKeyAttestationPrivateKey();
         AuthenticatorData authenticatorData = createAuthenticatorData();
-        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(new Registry()).convert(authenticatorData);
+        byte[] authenticatorDataBytes = new AuthenticatorDataConverter(Registry.getDefault()).convert(authenticatorData);
         byte[] signedData = getSignedData(authenticatorDataBytes, clientDataHash);
         byte[] signature = calculateSignature(privateKey, signedData);
         return new AttestationObject(authenticatorData, createAndroidKeyAttestationStatement(COSEAlgorithmIdentifier.ES256, signature));
@@ -163,6 +163,17 @@ public class TestUtil {
         );
     }
 
+    public static OKPCredentialPublicKey createOKPCredentialPublicKey() {
+        return new OKPCredentialPublicKey(
+                null,
+                COSEAlgorithmIdentifier.EdDSA,
+                null,
+                null,
+                Curve.ED25519,
+                new byte[32]
+        );
+    }
+
     public static RSACredentialPublicKey createRSCredentialPublicKey() {
         RSACredentialPublicKey credentialPublicKey;
         credentialPublicKey = new RSACredentialPublicKey(
@@ -319,11 +330,11 @@ public class TestUtil {
     }
 
     public static byte[] createClientDataJSON(ClientDataType type) {
-        return new CollectedClientDataConverter(new Registry()).convertToBytes(createClientData(type));
+        return new CollectedClientDataConverter(Registry.getDefault()).convertToBytes(createClientData(type));
     }
 
     public static byte[] createClientDataJSON(ClientDataType type, Challenge challenge) {
-        return new CollectedClientDataConverter(new Registry()).convertToBytes(createClientData(type, challenge));
+        return new CollectedClientDataConverter(Registry.getDefault()).convertToBytes(createClientData(type, challenge));
     }
 
     public static Challenge createChallenge() {
@@ -409,6 +420,9 @@ public class TestUtil {
 
 
     public static byte[] calculateSignature(PrivateKey privateKey, byte[] signedData) {
+        if (privateKey instanceof Ed25519PrivateKey) {
+            return ((Ed25519PrivateKey) privateKey).sign(signedData);
+        }
         try {
             Signature signature;
             if(privateKey.getAlgorithm().equals("EC")){
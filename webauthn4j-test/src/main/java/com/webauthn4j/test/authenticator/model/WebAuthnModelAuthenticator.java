@@ -30,7 +30,9 @@ import com.webauthn4j.response.attestation.AttestationObject;
 import com.webauthn4j.response.attestation.authenticator.AttestedCredentialData;
 import com.webauthn4j.response.attestation.authenticator.AuthenticatorData;
 import com.webauthn4j.response.attestation.authenticator.CredentialPublicKey;
+import com.webauthn4j.response.attestation.authenticator.Curve;
 import com.webauthn4j.response.attestation.authenticator.EC2CredentialPublicKey;
+import com.webauthn4j.response.attestation.authenticator.OKPCredentialPublicKey;
 import com.webauthn4j.response.attestation.statement.AttestationCertificatePath;
 import com.webauthn4j.response.attestation.statement.AttestationStatement;
 import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
@@ -39,11 +41,14 @@ import com.webauthn4j.response.extension.authenticator.AuthenticationExtensionsA
 import com.webauthn4j.response.extension.authenticator.RegistrationExtensionsAuthenticatorOutputs;
 import com.webauthn4j.response.extension.authenticator.SupportedExtensionsExtensionAuthenticatorOutput;
 import com.webauthn4j.response.extension.client.AuthenticationExtensionsClientOutputs;
+import com.webauthn4j.test.Ed25519PrivateKey;
 import com.webauthn4j.test.TestData;
 import com.webauthn4j.test.TestUtil;
 import com.webauthn4j.test.client.AuthenticationEmulationOption;
 import com.webauthn4j.test.client.RegistrationEmulationOption;
-import com.webauthn4j.util.KeyUtil;
+import com.webauthn4j.test.keypair.DefaultKeyPairSource;
+import com.webauthn4j.test.keypair.KeyPairSource;
+import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.MessageDigestUtil;
 import com.webauthn4j.util.WIP;
 
@@ -54,6 +59,8 @@ import java.security.PrivateKey;
 import java.security.SecureRandom;
 import java.security.interfaces.ECPublicKey;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.webauthn4j.response.attestation.authenticator.AuthenticatorData.*;
@@ -65,19 +72,21 @@ public class WebAuthnModelAuthenticator {
     private PrivateKey attestationPrivateKey;
     private AttestationCertificatePath attestationCertificatePath;
     private boolean capableOfUserVerification;
-    private int counter;
-    private Map<CredentialMapKey, PublicKeyCredentialSource> credentialMap;
-    private boolean countUpEnabled = true;
+    private final AtomicInteger counter;
+    private final Map<CredentialMapKey, PublicKeyCredentialSource> credentialMap = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, PublicKeyCredentialSource> credentialIdIndex = new ConcurrentHashMap<>();
+    private final Map<String, Map<CredentialMapKey, PublicKeyCredentialSource>> rpIdIndex = new ConcurrentHashMap<>();
+    private volatile boolean countUpEnabled = true;
+    private volatile KeyPairSource keyPairSource = new DefaultKeyPairSource();
 
-    private AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(new Registry()); // TODO: inject registry from constructor
+    private AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(Registry.getDefault()); // TODO: inject registry from constructor
 
     public WebAuthnModelAuthenticator(PrivateKey attestationPrivateKey, AttestationCertificatePath attestationCertificatePath, boolean capableOfUserVerification, byte[] aaGuid, int counter) {
         this.attestationPrivateKey = attestationPrivateKey;
         this.attestationCertificatePath = attestationCertificatePath;
         this.capableOfUserVerification = capableOfUserVerification;
         this.aaGuid = aaGuid;
-        this.counter = counter;
-        this.credentialMap = new HashMap<>();
+        this.counter = new AtomicInteger(counter);
     }
 
     public WebAuthnModelAuthenticator() {
@@ -96,12 +105,10 @@ public class WebAuthnModelAuthenticator {
             PublicKeyCredentialSource credentialSource = null; //TODO: decrypt credentialId into a credSource;
             return credentialSource;
         }
-        for (Map.Entry<CredentialMapKey, PublicKeyCredentialSource> entry : credentialMap.entrySet()) {
-            if (Arrays.equals(credentialId, entry.getValue().getId())) {
-                return entry.getValue();
-            }
+        if (credentialId == null) {
+            return null;
         }
-        return null;
+        return credentialIdIndex.get(ByteBuffer.wrap(credentialId));
     }
 
     public MakeCredentialResponse makeCredential(MakeCredentialRequest makeCredentialRequest, RegistrationEmulationOption registrationEmulationOption) {
@@ -188,9 +195,15 @@ public class WebAuthnModelAuthenticator {
         PrivateKey credentialPrivateKey;
         CredentialPublicKey credentialPublicKey;
         try {
-            KeyPair keyPair = KeyUtil.createECKeyPair();
-            credentialPrivateKey = keyPair.getPrivate();
-            credentialPublicKey = EC2CredentialPublicKey.create((ECPublicKey) keyPair.getPublic());
+            if (publicKeyCredentialParameters.getAlg() == COSEAlgorithmIdentifier.EdDSA) {
+                Ed25519PrivateKey ed25519PrivateKey = Ed25519PrivateKey.create();
+                credentialPrivateKey = ed25519PrivateKey;
+                credentialPublicKey = new OKPCredentialPublicKey(null, COSEAlgorithmIdentifier.EdDSA, null, null, Curve.ED25519, ed25519PrivateKey.getPublicKeyBytes());
+            } else {
+                KeyPair keyPair = keyPairSource.createECKeyPair();
+                credentialPrivateKey = keyPair.getPrivate();
+                credentialPublicKey = EC2CredentialPublicKey.create((ECPublicKey) keyPair.getPublic());
+            }
 
             // Let userHandle be userEntity.id.
             byte[] userHandle = makeCredentialRequest.getUserEntity().getId();
@@ -211,8 +224,8 @@ public class WebAuthnModelAuthenticator {
                 // Set credentialSource.id to credentialId.
                 credentialSource.setId(credentialId);
                 // Let credentials be this authenticator’s credentials map.
-                Map<CredentialMapKey, PublicKeyCredentialSource> credentials = credentialMap;
-                credentials.put(new CredentialMapKey(rpEntity.getId(), userHandle), credentialSource);
+                // Set credentials[(rpEntity.id, userHandle)] to credentialSource.
+                store(new CredentialMapKey(rpEntity.getId(), userHandle), credentialSource);
             }
             // Otherwise:
             else {
@@ -248,7 +261,7 @@ public class WebAuthnModelAuthenticator {
         //   Use the global signature counter's actual value when generating authenticator data.
         // a per credential signature counter
         //   allocate the counter, associate it with the new credential, and initialize the counter value as zero.
-        countUp(); // TODO: counter mode
+        int signCount = countUp(); // TODO: counter mode
 
         // Let attestedCredentialData be the attested credential data byte array including the credentialId and publicKey.
         byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(rpEntity.getId().getBytes(StandardCharsets.UTF_8));
@@ -261,7 +274,7 @@ public class WebAuthnModelAuthenticator {
 
         // Let authenticatorData be the byte array specified in §6.1 Authenticator data,
         // including attestedCredentialData as the attestedCredentialData and processedExtensions, if any, as the extensions.
-        AuthenticatorData authenticatorData = new AuthenticatorData(rpIdHash, flag, counter, attestedCredentialData, processedExtensions);
+        AuthenticatorData authenticatorData = new AuthenticatorData(rpIdHash, flag, signCount, attestedCredentialData, processedExtensions);
 
         byte[] authenticatorDataBytes = authenticatorDataConverter.convert(authenticatorData);
         byte[] signedData = getSignedData(authenticatorDataBytes, makeCredentialRequest.getHash());
@@ -316,9 +329,8 @@ public class WebAuthnModelAuthenticator {
         // Otherwise (allowCredentialDescriptorList was not supplied),
         // for each key -> credSource of this authenticator’s credentials map, append credSource to credentialOptions.
         else {
-            for (Map.Entry<CredentialMapKey, PublicKeyCredentialSource> entry : credentialMap.entrySet()) {
-                credentialOptions.add(entry.getValue());
-            }
+            // credentials are indexed by rpId, so that only the sources of the requested RP are visited
+            credentialOptions.addAll(rpIdIndex.getOrDefault(getAssertionRequest.getRpId(), Collections.emptyMap()).values());
         }
         // Remove any items from credentialOptions whose rpId is not equal to rpId.
         credentialOptions = credentialOptions.stream().filter(item -> item.getRpId().equals(getAssertionRequest.getRpId())).collect(Collectors.toList());
@@ -353,12 +365,12 @@ public class WebAuthnModelAuthenticator {
 
         // Increment the RP ID-associated signature counter or the global signature counter value,
         // depending on which approach is implemented by the authenticator, by some positive value.
-        countUp();
+        int signCount = countUp();
 
         // Let authenticatorData be the byte array specified in §6.1 Authenticator data including processedExtensions,
         // if any, as the extensions and excluding attestedCredentialData.
         byte[] rpIdHash = MessageDigestUtil.createSHA256().digest(getAssertionRequest.getRpId().getBytes(StandardCharsets.UTF_8));
-        AuthenticatorData authenticatorDataObject = new AuthenticatorData(rpIdHash, flags, counter, processedExtensions);
+        AuthenticatorData authenticatorDataObject = new AuthenticatorData(rpIdHash, flags, signCount, processedExtensions);
         byte[] authenticatorData = authenticatorDataConverter.convert(authenticatorDataObject);
 
         // Let signature be the assertion signature of the concatenation authenticatorData || hash using
@@ -394,7 +406,8 @@ public class WebAuthnModelAuthenticator {
 
     private boolean isCapableOfHandling(PublicKeyCredentialParameters publicKeyCredentialParameters) {
         return publicKeyCredentialParameters.getType() == PublicKeyCredentialType.PUBLIC_KEY &&
-                publicKeyCredentialParameters.getAlg() == COSEAlgorithmIdentifier.ES256;
+                (publicKeyCredentialParameters.getAlg() == COSEAlgorithmIdentifier.ES256 ||
+                        publicKeyCredentialParameters.getAlg() == COSEAlgorithmIdentifier.EdDSA);
     }
 
     public boolean isCountUpEnabled() {
@@ -405,13 +418,36 @@ public class WebAuthnModelAuthenticator {
         this.countUpEnabled = countUpEnabled;
     }
 
+    public KeyPairSource getKeyPairSource() {
+        return keyPairSource;
+    }
+
+    public void setKeyPairSource(KeyPairSource keyPairSource) {
+        AssertUtil.notNull(keyPairSource, "keyPairSource must not be null");
+        this.keyPairSource = keyPairSource;
+    }
+
     private byte[] getSignedData(byte[] authenticatorData, byte[] clientDataHash) {
         return ByteBuffer.allocate(authenticatorData.length + clientDataHash.length).put(authenticatorData).put(clientDataHash).array();
     }
 
-    private void countUp() {
+    private int countUp() {
         if (isCountUpEnabled()) {
-            counter++;
+            return counter.incrementAndGet();
+        }
+        return counter.get();
+    }
+
+    /**
+     * Stores a credential source, replacing the one registered for the same RP and user, and keeps the
+     * credential id and RP id indexes in sync. Lookups are lock-free; writes are serialized.
+     */
+    private synchronized void store(CredentialMapKey key, PublicKeyCredentialSource credentialSource) {
+        PublicKeyCredentialSource previous = credentialMap.put(key, credentialSource);
+        if (previous != null && previous.getId() != null) {
+            credentialIdIndex.remove(ByteBuffer.wrap(previous.getId()));
         }
+        credentialIdIndex.put(ByteBuffer.wrap(credentialSource.getId()), credentialSource);
+        rpIdIndex.computeIfAbsent(key.getRpId(), rpId -> new ConcurrentHashMap<>()).put(key, credentialSource);
     }
 }
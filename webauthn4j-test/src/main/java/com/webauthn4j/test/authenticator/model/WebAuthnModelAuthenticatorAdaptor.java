@@ -32,8 +32,19 @@ import com.webauthn4j.util.exception.NotImplementedException;
 
 public class WebAuthnModelAuthenticatorAdaptor implements AuthenticatorAdaptor {
 
-    private WebAuthnModelAuthenticator webAuthnModelAuthenticator = new WebAuthnModelAuthenticator();
-    private CollectedClientDataConverter collectedClientDataConverter = new CollectedClientDataConverter(new Registry());
+    private WebAuthnModelAuthenticator webAuthnModelAuthenticator;
+    private CollectedClientDataConverter collectedClientDataConverter = new CollectedClientDataConverter(Registry.getDefault());
+
+    /**
+     * @param webAuthnModelAuthenticator authenticator to emulate, which may be shared by adaptors on multiple threads
+     */
+    public WebAuthnModelAuthenticatorAdaptor(WebAuthnModelAuthenticator webAuthnModelAuthenticator) {
+        this.webAuthnModelAuthenticator = webAuthnModelAuthenticator;
+    }
+
+    public WebAuthnModelAuthenticatorAdaptor() {
+        this(new WebAuthnModelAuthenticator());
+    }
 
     @Override
     public CredentialCreationResponse register(PublicKeyCredentialCreationOptions publicKeyCredentialCreationOptions, CollectedClientData collectedClientData, RegistrationEmulationOption registrationEmulationOption) {
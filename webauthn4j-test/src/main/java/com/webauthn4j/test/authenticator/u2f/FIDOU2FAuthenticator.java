@@ -19,6 +19,7 @@ package com.webauthn4j.test.authenticator.u2f;
 import com.webauthn4j.test.TestData;
 import com.webauthn4j.test.client.AuthenticationEmulationOption;
 import com.webauthn4j.test.client.RegistrationEmulationOption;
+import com.webauthn4j.test.keypair.KeyPairSource;
 import com.webauthn4j.util.*;
 
 import java.nio.ByteBuffer;
@@ -27,6 +28,8 @@ import java.security.cert.X509Certificate;
 import java.security.interfaces.ECPublicKey;
 import java.security.spec.ECPoint;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @WIP
 public class FIDOU2FAuthenticator {
@@ -41,6 +44,10 @@ public class FIDOU2FAuthenticator {
     private boolean countUpEnabled = true;
     private byte flags = FLAG_UP;
 
+    // key pairs handed out by keyPairSource cannot be re-derived from the key handle, so they are kept here
+    private final Map<ByteBuffer, KeyPair> issuedKeyPairs = new ConcurrentHashMap<>();
+    private volatile KeyPairSource keyPairSource;
+
     public FIDOU2FAuthenticator(PrivateKey attestationPrivateKey, X509Certificate attestationPublicKeyCertificate, int counter) {
         AssertUtil.notNull(attestationPrivateKey, "attestationPrivateKey must not be null");
         AssertUtil.notNull(attestationPublicKeyCertificate, "attestationPublicKeyCertificate must not be null");
@@ -62,7 +69,8 @@ public class FIDOU2FAuthenticator {
         SecureRandom secureRandom = new SecureRandom();
         byte[] nonce = new byte[32];
         secureRandom.nextBytes(nonce);
-        KeyPair keyPair = getKeyPair(applicationParameter, nonce);
+        KeyPairSource source = keyPairSource;
+        KeyPair keyPair = source == null ? getKeyPair(applicationParameter, nonce) : source.createECKeyPair();
 
         byte[] rpPrivateKey = keyPair.getPrivate().getEncoded();
 
@@ -70,6 +78,9 @@ public class FIDOU2FAuthenticator {
                 .put(applicationParameter).put(rpPrivateKey).array();
         byte[] mac = MACUtil.calculateHMAC(message, attestationPrivateKey.getEncoded());
         byte[] keyHandle = ByteBuffer.allocate(64).put(nonce).put(mac).array();
+        if (source != null) {
+            issuedKeyPairs.put(ByteBuffer.wrap(keyHandle), keyPair);
+        }
 
         byte[] userPublicKey = getBytesFromECPublicKey((ECPublicKey) keyPair.getPublic());
 
@@ -99,8 +110,11 @@ public class FIDOU2FAuthenticator {
         byte[] challenge = authenticationRequest.getChallenge();
         byte[] keyHandle = authenticationRequest.getKeyHandle();
 
-        byte[] nonce = Arrays.copyOf(keyHandle, 32);
-        KeyPair keyPair = getKeyPair(applicationParameter, nonce);
+        KeyPair keyPair = issuedKeyPairs.get(ByteBuffer.wrap(keyHandle));
+        if (keyPair == null) {
+            byte[] nonce = Arrays.copyOf(keyHandle, 32);
+            keyPair = getKeyPair(applicationParameter, nonce);
+        }
         countUp();
         byte[] signedData = ByteBuffer.allocate(32 + 1 + 4 + 32).put(applicationParameter).put(flags).put(getCounterBytes()).put(challenge).array();
         byte[] signature = calculateSignature(keyPair.getPrivate(), signedData);
@@ -111,6 +125,20 @@ public class FIDOU2FAuthenticator {
         return authenticate(authenticationRequest, new AuthenticationEmulationOption());
     }
 
+    public KeyPairSource getKeyPairSource() {
+        return keyPairSource;
+    }
+
+    /**
+     * Sets the source of credential key pairs. When not set, the key pair is derived from the application
+     * parameter and the random nonce in the key handle, as a real U2F token does.
+     *
+     * @param keyPairSource key pair source, or null to derive key pairs from the key handle
+     */
+    public void setKeyPairSource(KeyPairSource keyPairSource) {
+        this.keyPairSource = keyPairSource;
+    }
+
     private byte[] getBytesFromECPublicKey(ECPublicKey ecPublicKey) {
         ECPoint ecPoint = ecPublicKey.getW();
         byte type = 0x04;
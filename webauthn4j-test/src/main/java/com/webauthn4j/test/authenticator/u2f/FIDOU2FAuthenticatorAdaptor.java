@@ -35,6 +35,7 @@ import com.webauthn4j.test.authenticator.CredentialCreationResponse;
 import com.webauthn4j.test.authenticator.CredentialRequestResponse;
 import com.webauthn4j.test.client.AuthenticationEmulationOption;
 import com.webauthn4j.test.client.RegistrationEmulationOption;
+import com.webauthn4j.util.AssertUtil;
 import com.webauthn4j.util.MessageDigestUtil;
 
 import java.nio.ByteBuffer;
@@ -47,12 +48,21 @@ import static com.webauthn4j.response.attestation.authenticator.AuthenticatorDat
 
 public class FIDOU2FAuthenticatorAdaptor implements AuthenticatorAdaptor {
 
-    private Registry registry = new Registry();
+    private Registry registry = Registry.getDefault();
 
-    private FIDOU2FAuthenticator fidoU2FAuthenticator = new FIDOU2FAuthenticator();
+    private FIDOU2FAuthenticator fidoU2FAuthenticator;
     private CollectedClientDataConverter collectedClientDataConverter = new CollectedClientDataConverter(registry);
     private AuthenticatorDataConverter authenticatorDataConverter = new AuthenticatorDataConverter(registry);
 
+    public FIDOU2FAuthenticatorAdaptor(FIDOU2FAuthenticator fidoU2FAuthenticator) {
+        AssertUtil.notNull(fidoU2FAuthenticator, "fidoU2FAuthenticator must not be null");
+        this.fidoU2FAuthenticator = fidoU2FAuthenticator;
+    }
+
+    public FIDOU2FAuthenticatorAdaptor() {
+        this(new FIDOU2FAuthenticator());
+    }
+
     @Override
     public CredentialCreationResponse register(PublicKeyCredentialCreationOptions publicKeyCredentialCreationOptions, CollectedClientData collectedClientData, RegistrationEmulationOption registrationEmulationOption) {
         String rpId = publicKeyCredentialCreationOptions.getRp().getId();
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.converter.AuthenticatorConverter;
+import com.webauthn4j.converter.InMemoryCertificateRepository;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.test.TestUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Measures the stored size and the decoding throughput of an {@link Authenticator} encoded with
+ * {@link AuthenticatorConverter}, Java serialization, and JSON via {@link Registry}.
+ * <p>
+ * Run with {@code java com.webauthn4j.test.benchmark.AuthenticatorConverterBenchmark [measurementMillis]}.
+ */
+public class AuthenticatorConverterBenchmark {
+
+    private final ThroughputMeter meter;
+
+    public AuthenticatorConverterBenchmark(ThroughputMeter meter) {
+        this.meter = meter;
+    }
+
+    public static void main(String[] args) {
+        ThroughputMeter meter = ThroughputMeter.fromArgs(args);
+        AuthenticatorConverterBenchmark benchmark = new AuthenticatorConverterBenchmark(meter);
+        Authenticator authenticator = TestUtil.createAuthenticator();
+        Registry registry = Registry.getDefault();
+
+        AuthenticatorConverter converter = new AuthenticatorConverter(registry);
+        AuthenticatorConverter repositoryConverter = new AuthenticatorConverter(registry, new InMemoryCertificateRepository());
+        ObjectWriter jsonWriter = registry.getJsonWriter(AuthenticatorImpl.class);
+        ObjectReader jsonReader = registry.getJsonReader(AuthenticatorImpl.class);
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        results.put("compact", benchmark.run(converter.convert(authenticator), converter::convert));
+        results.put("compact (cert ref)", benchmark.run(repositoryConverter.convert(authenticator), repositoryConverter::convert));
+        results.put("java serialization", benchmark.run(serialize(authenticator), AuthenticatorConverterBenchmark::deserialize));
+        results.put("json (Registry)", benchmark.run(writeJson(jsonWriter, authenticator), bytes -> readJson(jsonReader, bytes)));
+
+        results.forEach((format, result) ->
+                System.out.println(String.format("%-20s %8d bytes %12.1f decode/s", format, result.size, result.decodesPerSecond)));
+        System.out.println("checksum " + meter.getChecksum());
+    }
+
+    /**
+     * Measures decoding throughput of the encoded authenticator
+     *
+     * @param encoded encoded authenticator
+     * @param decoder decoder of the encoding
+     * @return encoded size and decodes per second
+     */
+    public Result run(byte[] encoded, Function<byte[], ?> decoder) {
+        return new Result(encoded.length, meter.measure(() -> decoder.apply(encoded)));
+    }
+
+    private static byte[] serialize(Authenticator authenticator) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(authenticator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectInputStream.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] writeJson(ObjectWriter jsonWriter, Authenticator authenticator) {
+        try {
+            return jsonWriter.writeValueAsBytes(authenticator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object readJson(ObjectReader jsonReader, byte[] bytes) {
+        try {
+            return jsonReader.readValue(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class Result {
+
+        private final int size;
+        private final double decodesPerSecond;
+
+        Result(int size, double decodesPerSecond) {
+            this.size = size;
+            this.decodesPerSecond = decodesPerSecond;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getDecodesPerSecond() {
+            return decodesPerSecond;
+        }
+    }
+}
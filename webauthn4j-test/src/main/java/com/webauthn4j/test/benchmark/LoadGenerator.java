@@ -0,0 +1,394 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import com.webauthn4j.request.AttestationConveyancePreference;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.test.authenticator.AuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.model.WebAuthnModelAuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticatorAdaptor;
+import com.webauthn4j.util.AssertUtil;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidationResponse;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidator;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidationResponse;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Drives a concurrent, mixed WebAuthn workload against the validators, without any external service.
+ * <p>
+ * Each virtual user registers a credential through {@link com.webauthn4j.test.client.ClientPlatform} and then
+ * repeatedly authenticates with it. Assertions are scheduled at a fixed rate, spread evenly across the users,
+ * and validated by {@link WebAuthnAuthenticationContextValidator} on a shared thread pool.
+ * Latency is measured from the scheduled start of each assertion, so the report stays meaningful when
+ * the pool cannot keep up with the target rate.
+ * <p>
+ * Run with {@code java com.webauthn4j.test.benchmark.LoadGenerator [virtualUsers] [targetRate] [durationSeconds] [threads] [workloads]},
+ * where workloads is a comma separated list of {@code authenticatorType:attestation:weight},
+ * for example {@code FIDO_U2F:DIRECT:1,WEBAUTHN_MODEL:NONE:3}.
+ */
+public class LoadGenerator {
+
+    // ~ Instance fields
+    // ================================================================================================
+
+    private Origin origin = new Origin("https://example.com");
+    private String rpId = "example.com";
+    private int virtualUsers = 16;
+    private double targetRate = 500;
+    private long durationMillis = 10_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private final List<Workload> workloads = new ArrayList<>();
+    private WebAuthnRegistrationContextValidator registrationContextValidator = WebAuthnRegistrationContextValidator.createNonStrictRegistrationContextValidator();
+    private WebAuthnAuthenticationContextValidator authenticationContextValidator = new WebAuthnAuthenticationContextValidator();
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadGenerator loadGenerator = new LoadGenerator();
+        if (args.length > 0) {
+            loadGenerator.setVirtualUsers(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            loadGenerator.setTargetRate(Double.parseDouble(args[1]));
+        }
+        if (args.length > 2) {
+            loadGenerator.setDurationMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(args[2])));
+        }
+        if (args.length > 3) {
+            loadGenerator.setThreads(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            for (String workload : args[4].split(",")) {
+                String[] parts = workload.trim().split(":");
+                loadGenerator.addWorkload(
+                        AuthenticatorType.valueOf(parts[0]),
+                        parts.length > 1 ? AttestationConveyancePreference.valueOf(parts[1]) : AttestationConveyancePreference.NONE,
+                        parts.length > 2 ? Integer.parseInt(parts[2]) : 1
+                );
+            }
+        }
+        System.out.print(loadGenerator.run());
+    }
+
+    // ~ Methods
+    // ========================================================================================================
+
+    /**
+     * Adds a kind of virtual user to the workload mix
+     *
+     * @param authenticatorType authenticator emulated for the virtual users
+     * @param attestation       attestation conveyance preference used on registration
+     * @param weight            relative share of the virtual users
+     */
+    public void addWorkload(AuthenticatorType authenticatorType, AttestationConveyancePreference attestation, int weight) {
+        AssertUtil.notNull(authenticatorType, "authenticatorType must not be null");
+        AssertUtil.notNull(attestation, "attestation must not be null");
+        AssertUtil.isTrue(weight > 0, "weight must be positive");
+        workloads.add(new Workload(authenticatorType, attestation, weight));
+    }
+
+    public List<Workload> getWorkloads() {
+        return Collections.unmodifiableList(workloads);
+    }
+
+    /**
+     * Registers all virtual users, then runs the assertion phase for the configured duration
+     *
+     * @return the load report
+     * @throws InterruptedException if interrupted while waiting for the run to complete
+     */
+    public LoadReport run() throws InterruptedException {
+        AssertUtil.isTrue(virtualUsers > 0, "virtualUsers must be positive");
+        AssertUtil.isTrue(targetRate > 0, "targetRate must be positive");
+        AssertUtil.isTrue(threads > 0, "threads must be positive");
+
+        List<Workload> mix = workloads.isEmpty()
+                ? Collections.singletonList(new Workload(AuthenticatorType.FIDO_U2F, AttestationConveyancePreference.NONE, 1))
+                : new ArrayList<>(workloads);
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "webauthn4j-load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            LoadRun loadRun = new LoadRun(executor);
+            List<VirtualUser> registered = loadRun.register(createVirtualUsers(mix));
+            return loadRun.authenticate(registered);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<VirtualUser> createVirtualUsers(List<Workload> mix) {
+        int totalWeight = 0;
+        for (Workload workload : mix) {
+            totalWeight += workload.getWeight();
+        }
+        List<VirtualUser> users = new ArrayList<>(virtualUsers);
+        for (int i = 0; i < virtualUsers; i++) {
+            int slot = i % totalWeight;
+            for (Workload workload : mix) {
+                slot -= workload.getWeight();
+                if (slot < 0) {
+                    users.add(new VirtualUser(workload, origin, rpId));
+                    break;
+                }
+            }
+        }
+        return users;
+    }
+
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(Origin origin) {
+        this.origin = origin;
+    }
+
+    public String getRpId() {
+        return rpId;
+    }
+
+    public void setRpId(String rpId) {
+        this.rpId = rpId;
+    }
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public void setVirtualUsers(int virtualUsers) {
+        this.virtualUsers = virtualUsers;
+    }
+
+    /**
+     * Returns the target number of assertions per second, across all virtual users
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public WebAuthnRegistrationContextValidator getRegistrationContextValidator() {
+        return registrationContextValidator;
+    }
+
+    public void setRegistrationContextValidator(WebAuthnRegistrationContextValidator registrationContextValidator) {
+        this.registrationContextValidator = registrationContextValidator;
+    }
+
+    public WebAuthnAuthenticationContextValidator getAuthenticationContextValidator() {
+        return authenticationContextValidator;
+    }
+
+    public void setAuthenticationContextValidator(WebAuthnAuthenticationContextValidator authenticationContextValidator) {
+        this.authenticationContextValidator = authenticationContextValidator;
+    }
+
+    /**
+     * Emulated authenticator types available to virtual users
+     */
+    public enum AuthenticatorType {
+
+        FIDO_U2F(FIDOU2FAuthenticatorAdaptor::new),
+        WEBAUTHN_MODEL(WebAuthnModelAuthenticatorAdaptor::new);
+
+        private final Supplier<AuthenticatorAdaptor> adaptorFactory;
+
+        AuthenticatorType(Supplier<AuthenticatorAdaptor> adaptorFactory) {
+            this.adaptorFactory = adaptorFactory;
+        }
+
+        AuthenticatorAdaptor createAdaptor() {
+            return adaptorFactory.get();
+        }
+    }
+
+    /**
+     * A kind of virtual user and its share of the workload mix
+     */
+    public static class Workload {
+
+        private final AuthenticatorType authenticatorType;
+        private final AttestationConveyancePreference attestation;
+        private final int weight;
+
+        public Workload(AuthenticatorType authenticatorType, AttestationConveyancePreference attestation, int weight) {
+            this.authenticatorType = authenticatorType;
+            this.attestation = attestation;
+            this.weight = weight;
+        }
+
+        public AuthenticatorType getAuthenticatorType() {
+            return authenticatorType;
+        }
+
+        public AttestationConveyancePreference getAttestation() {
+            return attestation;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    /**
+     * State of a single {@link #run()}
+     */
+    private class LoadRun {
+
+        private final ScheduledExecutorService executor;
+        private final LatencyHistogram registrationLatency = new LatencyHistogram();
+        private final LatencyHistogram authenticationLatency = new LatencyHistogram();
+        private final LatencyHistogram authenticationServiceTime = new LatencyHistogram();
+        private final LongAdder registrations = new LongAdder();
+        private final LongAdder registrationFailures = new LongAdder();
+        private final LongAdder authentications = new LongAdder();
+        private final LongAdder authenticationFailures = new LongAdder();
+        private long intervalNanos;
+        private long deadline;
+        private CountDownLatch remainingUsers;
+
+        LoadRun(ScheduledExecutorService executor) {
+            this.executor = executor;
+        }
+
+        List<VirtualUser> register(List<VirtualUser> users) throws InterruptedException {
+            List<Callable<VirtualUser>> tasks = new ArrayList<>(users.size());
+            for (VirtualUser user : users) {
+                tasks.add(() -> register(user));
+            }
+            List<VirtualUser> registered = new ArrayList<>(users.size());
+            for (Future<VirtualUser> future : executor.invokeAll(tasks)) {
+                VirtualUser user = getQuietly(future);
+                if (user != null) {
+                    registered.add(user);
+                }
+            }
+            return registered;
+        }
+
+        private VirtualUser register(VirtualUser user) {
+            try {
+                WebAuthnRegistrationContext registrationContext = user.createRegistrationContext();
+                long start = System.nanoTime();
+                WebAuthnRegistrationContextValidationResponse response = registrationContextValidator.validate(registrationContext);
+                registrationLatency.record(System.nanoTime() - start);
+                user.completeRegistration(response);
+                registrations.increment();
+                return user;
+            } catch (RuntimeException e) {
+                registrationFailures.increment();
+                return null;
+            }
+        }
+
+        LoadReport authenticate(List<VirtualUser> users) throws InterruptedException {
+            long start = System.nanoTime();
+            long elapsed = 0;
+            if (!users.isEmpty()) {
+                intervalNanos = (long) (users.size() * TimeUnit.SECONDS.toNanos(1) / targetRate);
+                deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+                remainingUsers = new CountDownLatch(users.size());
+                for (int i = 0; i < users.size(); i++) {
+                    VirtualUser user = users.get(i);
+                    long intendedStart = start + intervalNanos * i / users.size();
+                    executor.execute(() -> prepare(user, intendedStart));
+                }
+                remainingUsers.await();
+                elapsed = System.nanoTime() - start;
+            }
+            return new LoadReport(
+                    registrations.sum(), registrationFailures.sum(),
+                    authentications.sum(), authenticationFailures.sum(), elapsed,
+                    registrationLatency, authenticationLatency, authenticationServiceTime);
+        }
+
+        /**
+         * Prepares the next assertion of a user ahead of its scheduled start, so that only
+         * server side validation is on the measured path
+         */
+        private void prepare(VirtualUser user, long intendedStart) {
+            if (intendedStart >= deadline) {
+                remainingUsers.countDown();
+                return;
+            }
+            WebAuthnAuthenticationContext authenticationContext;
+            try {
+                authenticationContext = user.createAuthenticationContext();
+            } catch (RuntimeException e) {
+                authenticationFailures.increment();
+                remainingUsers.countDown();
+                return;
+            }
+            executor.schedule(() -> authenticate(user, authenticationContext, intendedStart),
+                    intendedStart - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private void authenticate(VirtualUser user, WebAuthnAuthenticationContext authenticationContext, long intendedStart) {
+            long start = System.nanoTime();
+            try {
+                WebAuthnAuthenticationContextValidationResponse response =
+                        authenticationContextValidator.validate(authenticationContext, user.getAuthenticator());
+                long end = System.nanoTime();
+                authenticationServiceTime.record(end - start);
+                authenticationLatency.record(end - intendedStart);
+                user.completeAuthentication(response);
+                authentications.increment();
+            } catch (RuntimeException e) {
+                authenticationFailures.increment();
+            }
+            prepare(user, intendedStart + intervalNanos);
+        }
+
+        private VirtualUser getQuietly(Future<VirtualUser> future) throws InterruptedException {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                registrationFailures.increment();
+                return null;
+            }
+        }
+    }
+}
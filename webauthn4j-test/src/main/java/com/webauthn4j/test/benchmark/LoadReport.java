@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link LoadGenerator} run
+ */
+public class LoadReport {
+
+    private final long registrations;
+    private final long registrationFailures;
+    private final long authentications;
+    private final long authenticationFailures;
+    private final long elapsedNanos;
+    private final LatencyHistogram registrationLatency;
+    private final LatencyHistogram authenticationLatency;
+    private final LatencyHistogram authenticationServiceTime;
+
+    public LoadReport(long registrations, long registrationFailures, long authentications, long authenticationFailures, long elapsedNanos,
+                      LatencyHistogram registrationLatency, LatencyHistogram authenticationLatency, LatencyHistogram authenticationServiceTime) {
+        this.registrations = registrations;
+        this.registrationFailures = registrationFailures;
+        this.authentications = authentications;
+        this.authenticationFailures = authenticationFailures;
+        this.elapsedNanos = elapsedNanos;
+        this.registrationLatency = registrationLatency;
+        this.authenticationLatency = authenticationLatency;
+        this.authenticationServiceTime = authenticationServiceTime;
+    }
+
+    public long getRegistrations() {
+        return registrations;
+    }
+
+    public long getRegistrationFailures() {
+        return registrationFailures;
+    }
+
+    public long getAuthentications() {
+        return authentications;
+    }
+
+    public long getAuthenticationFailures() {
+        return authenticationFailures;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the registration validation latency in nanoseconds
+     */
+    public LatencyHistogram getRegistrationLatency() {
+        return registrationLatency;
+    }
+
+    /**
+     * Returns the authentication latency in nanoseconds, measured from the scheduled start of each assertion.
+     * Time spent waiting for a free thread is included, so the histogram is not affected by coordinated omission.
+     */
+    public LatencyHistogram getAuthenticationLatency() {
+        return authenticationLatency;
+    }
+
+    /**
+     * Returns the time in nanoseconds spent in {@link com.webauthn4j.validator.WebAuthnAuthenticationContextValidator} only
+     */
+    public LatencyHistogram getAuthenticationServiceTime() {
+        return authenticationServiceTime;
+    }
+
+    /**
+     * Returns the number of completed assertions per second, failures included
+     */
+    public double getThroughput() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return (authentications + authenticationFailures) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("registrations   %10d (failed %d)%n", registrations, registrationFailures));
+        builder.append(String.format("authentications %10d (failed %d)%n", authentications, authenticationFailures));
+        builder.append(String.format("elapsed         %10.1f s%n", elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        builder.append(String.format("throughput      %10.1f assertions/s%n", getThroughput()));
+        builder.append(String.format("%-16s %10s %10s %10s %10s %10s%n", "latency (us)", "mean", "p50", "p99", "p999", "max"));
+        appendHistogram(builder, "registration", registrationLatency);
+        appendHistogram(builder, "authentication", authenticationLatency);
+        appendHistogram(builder, "  service time", authenticationServiceTime);
+        return builder.toString();
+    }
+
+    private void appendHistogram(StringBuilder builder, String name, LatencyHistogram histogram) {
+        builder.append(String.format("%-16s %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                name,
+                histogram.getMean() / 1000,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0));
+    }
+}
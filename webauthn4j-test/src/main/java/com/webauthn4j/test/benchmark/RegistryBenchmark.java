@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.CollectedClientDataConverter;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.client.ClientDataType;
+import com.webauthn4j.response.client.CollectedClientData;
+import com.webauthn4j.test.TestUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building a {@link Registry}, and the decoding throughput of the converters
+ * with the default configuration and with Afterburner enabled.
+ * <p>
+ * jackson-module-afterburner must be on the classpath.
+ * Run with {@code java com.webauthn4j.test.benchmark.RegistryBenchmark [measurementMillis]}.
+ */
+public class RegistryBenchmark {
+
+    private final ThroughputMeter meter;
+
+    public RegistryBenchmark(ThroughputMeter meter) {
+        this.meter = meter;
+    }
+
+    public static void main(String[] args) {
+        ThroughputMeter meter = ThroughputMeter.fromArgs(args);
+        RegistryBenchmark benchmark = new RegistryBenchmark(meter);
+
+        CollectedClientData clientData = TestUtil.createClientData(ClientDataType.CREATE);
+        byte[] clientDataBytes = new CollectedClientDataConverter(Registry.getDefault()).convertToBytes(clientData);
+        // a new registry builds its mappers and their serializer caches again on the first conversion
+        double registriesPerSecond = meter.measure(() -> new CollectedClientDataConverter(new Registry()).convert(clientDataBytes));
+        System.out.println(String.format("new Registry()       %12.3f ms/first decode", TimeUnit.SECONDS.toMillis(1) / registriesPerSecond));
+
+        Map<String, Registry> registries = new LinkedHashMap<>();
+        registries.put("default", Registry.getDefault());
+        registries.put("afterburner", new Registry.Builder().enableAfterburner().build());
+
+        Map<String, Map<String, Double>> results = new LinkedHashMap<>();
+        results.put("CollectedClientData (JSON)", benchmark.runClientData(registries, clientData));
+        results.put("AttestationObject (CBOR)", benchmark.runAttestationObject(registries, TestUtil.createAttestationObjectWithFIDOU2FAttestationStatement()));
+
+        for (Map.Entry<String, Map<String, Double>> entry : results.entrySet()) {
+            System.out.println(entry.getKey());
+            entry.getValue().forEach((configuration, opsPerSecond) ->
+                    System.out.println(String.format("  %-20s %12.1f decode/s", configuration, opsPerSecond)));
+        }
+        System.out.println("checksum " + meter.getChecksum());
+    }
+
+    /**
+     * Measures decoding throughput of the client data with each registry
+     *
+     * @param registries registries keyed by configuration name
+     * @param clientData client data to encode and decode
+     * @return decodes per second keyed by configuration name
+     */
+    public Map<String, Double> runClientData(Map<String, Registry> registries, CollectedClientData clientData) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        registries.forEach((configuration, registry) -> {
+            CollectedClientDataConverter converter = new CollectedClientDataConverter(registry);
+            byte[] bytes = converter.convertToBytes(clientData);
+            result.put(configuration, meter.measure(() -> converter.convert(bytes)));
+        });
+        return result;
+    }
+
+    /**
+     * Measures decoding throughput of the attestation object with each registry
+     *
+     * @param registries        registries keyed by configuration name
+     * @param attestationObject attestation object to encode and decode
+     * @return decodes per second keyed by configuration name
+     */
+    public Map<String, Double> runAttestationObject(Map<String, Registry> registries, AttestationObject attestationObject) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        registries.forEach((configuration, registry) -> {
+            AttestationObjectConverter converter = new AttestationObjectConverter(registry);
+            byte[] bytes = converter.convertToBytes(attestationObject);
+            result.put(configuration, meter.measure(() -> converter.convert(bytes)));
+        });
+        return result;
+    }
+}
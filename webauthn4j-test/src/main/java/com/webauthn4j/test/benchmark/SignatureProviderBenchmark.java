@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import com.webauthn4j.util.CryptoProviderPolicy;
+import com.webauthn4j.util.ECUtil;
+import com.webauthn4j.util.KeyUtil;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.*;
+import java.security.spec.ECParameterSpec;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures signature verification throughput of the installed JCA providers and BouncyCastle,
+ * for the algorithms used in WebAuthn ceremonies.
+ * <p>
+ * The result can be used to configure {@link CryptoProviderPolicy} for the running JDK.
+ * Run with {@code java com.webauthn4j.test.benchmark.SignatureProviderBenchmark [measurementMillis]}.
+ */
+public class SignatureProviderBenchmark {
+
+    private final ThroughputMeter meter;
+    private final List<Provider> providers;
+
+    public SignatureProviderBenchmark(ThroughputMeter meter, List<Provider> providers) {
+        this.meter = meter;
+        this.providers = providers;
+    }
+
+    public static void main(String[] args) throws GeneralSecurityException {
+        ThroughputMeter meter = ThroughputMeter.fromArgs(args);
+        List<Provider> providers = new ArrayList<>();
+        for (Provider provider : Security.getProviders()) {
+            providers.add(provider);
+        }
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            providers.add(new BouncyCastleProvider());
+        }
+        SignatureProviderBenchmark benchmark = new SignatureProviderBenchmark(meter, providers);
+
+        Map<String, Map<String, Double>> results = new LinkedHashMap<>();
+        results.put("ES256", benchmark.run("SHA256withECDSA", KeyUtil.createECKeyPair(ECUtil.P_256_SPEC)));
+        results.put("ES384", benchmark.run("SHA384withECDSA", KeyUtil.createECKeyPair(ECUtil.P_384_SPEC)));
+        results.put("ES512", benchmark.run("SHA512withECDSA", KeyUtil.createECKeyPair(ECUtil.P_521_SPEC)));
+        results.put("RS256", benchmark.run("SHA256withRSA", KeyUtil.createRSAKeyPair()));
+
+        for (Map.Entry<String, Map<String, Double>> entry : results.entrySet()) {
+            System.out.println(entry.getKey());
+            entry.getValue().forEach((provider, opsPerSecond) ->
+                    System.out.println(String.format("  %-20s %12.1f verify/s", provider, opsPerSecond)));
+        }
+        System.out.println("checksum " + meter.getChecksum());
+    }
+
+    /**
+     * Measures verification throughput of each provider supporting the algorithm
+     *
+     * @param algorithm JCA signature algorithm name
+     * @param keyPair   key pair to sign and verify with
+     * @return verifications per second keyed by provider name, in provider order
+     */
+    public Map<String, Double> run(String algorithm, KeyPair keyPair) throws GeneralSecurityException {
+        byte[] data = new byte[256];
+        new SecureRandom().nextBytes(data);
+        Signature signer = Signature.getInstance(algorithm);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(data);
+        byte[] signature = signer.sign();
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Provider provider : providers) {
+            if (provider.getService("Signature", algorithm) == null) {
+                continue;
+            }
+            Signature verifier = Signature.getInstance(algorithm, provider);
+            result.put(provider.getName(), meter.measure(() -> verify(verifier, keyPair.getPublic(), data, signature)));
+        }
+        return result;
+    }
+
+    private boolean verify(Signature verifier, PublicKey publicKey, byte[] data, byte[] signature) throws GeneralSecurityException {
+        verifier.initVerify(publicKey);
+        verifier.update(data);
+        if (!verifier.verify(signature)) {
+            throw new SignatureException("signature verification failed with " + verifier.getProvider().getName());
+        }
+        return true;
+    }
+}
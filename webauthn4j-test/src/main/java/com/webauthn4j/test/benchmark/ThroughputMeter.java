@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput measurement shared by the micro benchmarks.
+ * <p>
+ * Each operation is warmed up, then run repeatedly for the measurement time. The result of every run is folded
+ * into a checksum, which the benchmark prints, so that the JIT cannot eliminate the measured work as dead code.
+ */
+public class ThroughputMeter {
+
+    private static final int WARM_UP_ITERATIONS = 2_000;
+    private static final long DEFAULT_MEASUREMENT_MILLIS = 2_000;
+
+    private final long measurementNanos;
+    private int checksum;
+
+    public ThroughputMeter(long measurementMillis) {
+        this.measurementNanos = TimeUnit.MILLISECONDS.toNanos(measurementMillis);
+    }
+
+    /**
+     * Creates a meter with the measurement time given as the first command line argument in milliseconds
+     *
+     * @param args command line arguments of the benchmark
+     * @return meter
+     */
+    public static ThroughputMeter fromArgs(String[] args) {
+        return new ThroughputMeter(args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_MEASUREMENT_MILLIS);
+    }
+
+    /**
+     * Measures the throughput of the operation
+     *
+     * @param operation operation returning the result of the measured work
+     * @return operations per second
+     */
+    public double measure(Callable<?> operation) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            consume(call(operation));
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            consume(call(operation));
+            count++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < measurementNanos);
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Returns the checksum of the results, to be printed by the benchmark
+     *
+     * @return checksum
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    private void consume(Object result) {
+        checksum = 31 * checksum + System.identityHashCode(result);
+    }
+
+    private static Object call(Callable<?> operation) {
+        try {
+            return operation.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
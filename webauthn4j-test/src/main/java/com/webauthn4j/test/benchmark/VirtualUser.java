@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.request.*;
+import com.webauthn4j.request.extension.client.AuthenticationExtensionsClientInputs;
+import com.webauthn4j.response.AuthenticatorAssertionResponse;
+import com.webauthn4j.response.AuthenticatorAttestationResponse;
+import com.webauthn4j.response.PublicKeyCredential;
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.Challenge;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.client.ClientPlatform;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidationResponse;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidationResponse;
+
+import java.util.Collections;
+
+/**
+ * A single user of {@link LoadGenerator}, owning one client platform and one emulated authenticator.
+ * <p>
+ * Emulated authenticators are not thread-safe, so a virtual user must only be driven by one thread at a time.
+ */
+class VirtualUser {
+
+    private static final long TIMEOUT = 0;
+
+    private final ClientPlatform clientPlatform;
+    private final String rpId;
+    private final AttestationConveyancePreference attestation;
+    private Authenticator authenticator;
+
+    VirtualUser(LoadGenerator.Workload workload, Origin origin, String rpId) {
+        this.clientPlatform = new ClientPlatform(origin, workload.getAuthenticatorType().createAdaptor());
+        this.rpId = rpId;
+        this.attestation = workload.getAttestation();
+    }
+
+    WebAuthnRegistrationContext createRegistrationContext() {
+        Challenge challenge = new DefaultChallenge();
+        PublicKeyCredentialCreationOptions credentialCreationOptions = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(rpId, rpId),
+                new PublicKeyCredentialUserEntity(),
+                challenge,
+                Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)),
+                null,
+                Collections.emptyList(),
+                // WebAuthnModelAuthenticator only issues credential ids for resident keys
+                new AuthenticatorSelectionCriteria(AuthenticatorAttachment.CROSS_PLATFORM, true, UserVerificationRequirement.DISCOURAGED),
+                attestation,
+                new AuthenticationExtensionsClientInputs()
+        );
+        PublicKeyCredential<AuthenticatorAttestationResponse> credential = clientPlatform.create(credentialCreationOptions);
+        AuthenticatorAttestationResponse response = credential.getAuthenticatorResponse();
+        ServerProperty serverProperty = new ServerProperty(clientPlatform.getOrigin(), rpId, challenge, null);
+        return new WebAuthnRegistrationContext(response.getClientDataJSON(), response.getAttestationObject(), serverProperty, false);
+    }
+
+    void completeRegistration(WebAuthnRegistrationContextValidationResponse response) {
+        AttestationObject attestationObject = response.getAttestationObject();
+        authenticator = new AuthenticatorImpl(
+                attestationObject.getAuthenticatorData().getAttestedCredentialData(),
+                attestationObject.getAttestationStatement(),
+                attestationObject.getAuthenticatorData().getSignCount()
+        );
+    }
+
+    WebAuthnAuthenticationContext createAuthenticationContext() {
+        Challenge challenge = new DefaultChallenge();
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                TIMEOUT,
+                rpId,
+                Collections.singletonList(
+                        new PublicKeyCredentialDescriptor(
+                                PublicKeyCredentialType.PUBLIC_KEY,
+                                authenticator.getAttestedCredentialData().getCredentialId(),
+                                Collections.singletonList(AuthenticatorTransport.USB)
+                        )
+                ),
+                UserVerificationRequirement.DISCOURAGED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse response = credential.getAuthenticatorResponse();
+        ServerProperty serverProperty = new ServerProperty(clientPlatform.getOrigin(), rpId, challenge, null);
+        return new WebAuthnAuthenticationContext(
+                credential.getRawId(),
+                response.getClientDataJSON(),
+                response.getAuthenticatorData(),
+                response.getSignature(),
+                serverProperty,
+                false
+        );
+    }
+
+    void completeAuthentication(WebAuthnAuthenticationContextValidationResponse response) {
+        authenticator.setCounter(response.getAuthenticatorData().getSignCount());
+    }
+
+    Authenticator getAuthenticator() {
+        return authenticator;
+    }
+}
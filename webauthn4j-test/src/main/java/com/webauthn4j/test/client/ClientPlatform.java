@@ -31,6 +31,9 @@ import com.webauthn4j.test.authenticator.AuthenticatorAdaptor;
 import com.webauthn4j.test.authenticator.CredentialCreationResponse;
 import com.webauthn4j.test.authenticator.CredentialRequestResponse;
 import com.webauthn4j.test.authenticator.model.WebAuthnModelAuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.model.WebAuthnModelException;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FException;
+import com.webauthn4j.request.PublicKeyCredentialDescriptor;
 import com.webauthn4j.request.PublicKeyCredentialCreationOptions;
 import com.webauthn4j.request.PublicKeyCredentialRequestOptions;
 import com.webauthn4j.request.extension.client.SupportedExtensionsExtensionClientInput;
@@ -41,22 +44,31 @@ import com.webauthn4j.util.WIP;
 import com.webauthn4j.util.exception.NotImplementedException;
 import com.webauthn4j.validator.exception.ValidationException;
 
-import java.util.Collections;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @WIP
 public class ClientPlatform {
 
-    private Registry registry = new Registry();
+    private Registry registry = Registry.getDefault();
     private AttestationObjectConverter attestationObjectConverter = new AttestationObjectConverter(registry);
     private CollectedClientDataConverter collectedClientDataConverter = new CollectedClientDataConverter(registry);
 
     private Origin origin;
-    //TODO: support multiple authenticators
-    private AuthenticatorAdaptor authenticatorAdaptor;
+    private final List<AuthenticatorAdaptor> authenticatorAdaptors = new CopyOnWriteArrayList<>();
+    private final Map<ByteBuffer, AuthenticatorAdaptor> credentialOwners = new ConcurrentHashMap<>();
 
-    public ClientPlatform(Origin origin, AuthenticatorAdaptor authenticatorAdaptor) {
+    public ClientPlatform(Origin origin, List<AuthenticatorAdaptor> authenticatorAdaptors) {
         this.origin = origin;
-        this.authenticatorAdaptor = authenticatorAdaptor;
+        for (AuthenticatorAdaptor authenticatorAdaptor : authenticatorAdaptors) {
+            addAuthenticatorAdaptor(authenticatorAdaptor);
+        }
+    }
+
+    public ClientPlatform(Origin origin, AuthenticatorAdaptor authenticatorAdaptor) {
+        this(origin, Collections.singletonList(authenticatorAdaptor));
     }
 
     public ClientPlatform(AuthenticatorAdaptor authenticatorAdaptor) {
@@ -80,12 +92,29 @@ public class ClientPlatform {
             collectedClientData = createCollectedClientData(ClientDataType.CREATE, publicKeyCredentialCreationOptions.getChallenge());
         }
 
-        if (authenticatorAdaptor == null) {
-            throw new NoAuthenticatorSuccessException();
+        // Authenticators are tried in order, and the first one to succeed creates the credential
+        NoAuthenticatorSuccessException noAuthenticatorSuccessException = new NoAuthenticatorSuccessException();
+        for (AuthenticatorAdaptor authenticatorAdaptor : authenticatorAdaptors) {
+            CredentialCreationResponse credentialCreationResponse;
+            try {
+                credentialCreationResponse =
+                        authenticatorAdaptor.register(publicKeyCredentialCreationOptions, collectedClientData, registrationEmulationOption);
+            } catch (WebAuthnModelException | FIDOU2FException | ValidationException e) {
+                noAuthenticatorSuccessException.addSuppressed(e);
+                continue;
+            }
+            byte[] credentialId = credentialCreationResponse.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+            if (credentialId != null) {
+                credentialOwners.put(ByteBuffer.wrap(credentialId), authenticatorAdaptor);
+            }
+            return createPublicKeyCredential(publicKeyCredentialCreationOptions, collectedClientData, credentialCreationResponse);
         }
-        CredentialCreationResponse credentialCreationResponse =
-                authenticatorAdaptor.register(publicKeyCredentialCreationOptions, collectedClientData, registrationEmulationOption);
+        throw noAuthenticatorSuccessException;
+    }
 
+    private PublicKeyCredential<AuthenticatorAttestationResponse> createPublicKeyCredential(PublicKeyCredentialCreationOptions publicKeyCredentialCreationOptions,
+                                                                                            CollectedClientData collectedClientData,
+                                                                                            CredentialCreationResponse credentialCreationResponse) {
         AttestationObject attestationObject = credentialCreationResponse.getAttestationObject();
         AttestationStatement attestationStatement = credentialCreationResponse.getAttestationObject().getAttestationStatement();
         AttestationConveyancePreference attestationConveyancePreference = publicKeyCredentialCreationOptions.getAttestation();
@@ -162,13 +191,15 @@ public class ClientPlatform {
                                                                    AuthenticationEmulationOption authenticationEmulationOption) {
 
         NoAuthenticatorSuccessException noAuthenticatorSuccessException = new NoAuthenticatorSuccessException();
-        if (authenticatorAdaptor == null) {
-            throw noAuthenticatorSuccessException;
-        }
-        try {
-            CredentialRequestResponse credentialRequestResponse =
-                    authenticatorAdaptor.authenticate(publicKeyCredentialRequestOptions, collectedClientData, authenticationEmulationOption);
-
+        for (AuthenticatorAdaptor authenticatorAdaptor : getCandidateAuthenticatorAdaptors(publicKeyCredentialRequestOptions)) {
+            CredentialRequestResponse credentialRequestResponse;
+            try {
+                credentialRequestResponse =
+                        authenticatorAdaptor.authenticate(publicKeyCredentialRequestOptions, collectedClientData, authenticationEmulationOption);
+            } catch (WebAuthnModelException | FIDOU2FException | ValidationException e) {
+                noAuthenticatorSuccessException.addSuppressed(e);
+                continue;
+            }
             byte[] credentialId = credentialRequestResponse.getCredentialId();
 
             AuthenticationExtensionsClientOutputs clientExtensions = processAuthenticationExtensions(publicKeyCredentialRequestOptions.getExtensions());
@@ -183,8 +214,6 @@ public class ClientPlatform {
                     ),
                     clientExtensions
             );
-        } catch (ValidationException e) {
-            noAuthenticatorSuccessException.addSuppressed(e);
         }
         throw noAuthenticatorSuccessException;
     }
@@ -198,6 +227,25 @@ public class ClientPlatform {
         return get(publicKeyCredentialRequestOptions, collectedClientData);
     }
 
+    /**
+     * Returns the authenticators that created one of the allowed credentials first, followed by the others,
+     * as an emulated authenticator cannot always tell that a credential id is not its own
+     */
+    private List<AuthenticatorAdaptor> getCandidateAuthenticatorAdaptors(PublicKeyCredentialRequestOptions publicKeyCredentialRequestOptions) {
+        Set<AuthenticatorAdaptor> candidates = new LinkedHashSet<>();
+        List<PublicKeyCredentialDescriptor> allowCredentials = publicKeyCredentialRequestOptions.getAllowCredentials();
+        if (allowCredentials != null) {
+            for (PublicKeyCredentialDescriptor descriptor : allowCredentials) {
+                AuthenticatorAdaptor owner = descriptor.getId() == null ? null : credentialOwners.get(ByteBuffer.wrap(descriptor.getId()));
+                if (owner != null && authenticatorAdaptors.contains(owner)) {
+                    candidates.add(owner);
+                }
+            }
+        }
+        candidates.addAll(authenticatorAdaptors);
+        return new ArrayList<>(candidates);
+    }
+
     public CollectedClientData createCollectedClientData(ClientDataType type, Challenge challenge) {
         return new CollectedClientData(type, challenge, origin, null);
     }
@@ -215,11 +263,29 @@ public class ClientPlatform {
         this.origin = origin;
     }
 
+    /**
+     * Returns the first authenticator of this platform, or null if there is none
+     */
     public AuthenticatorAdaptor getAuthenticatorAdaptor() {
-        return authenticatorAdaptor;
+        return authenticatorAdaptors.isEmpty() ? null : authenticatorAdaptors.get(0);
     }
 
+    /**
+     * Replaces all the authenticators of this platform with the given one
+     */
     public void setAuthenticatorAdaptor(AuthenticatorAdaptor authenticatorAdaptor) {
-        this.authenticatorAdaptor = authenticatorAdaptor;
+        authenticatorAdaptors.clear();
+        credentialOwners.clear();
+        addAuthenticatorAdaptor(authenticatorAdaptor);
+    }
+
+    public List<AuthenticatorAdaptor> getAuthenticatorAdaptors() {
+        return Collections.unmodifiableList(authenticatorAdaptors);
+    }
+
+    public void addAuthenticatorAdaptor(AuthenticatorAdaptor authenticatorAdaptor) {
+        if (authenticatorAdaptor != null) {
+            authenticatorAdaptors.add(authenticatorAdaptor);
+        }
     }
 }
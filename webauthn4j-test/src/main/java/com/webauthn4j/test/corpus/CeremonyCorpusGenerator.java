@@ -0,0 +1,264 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.corpus;
+
+import com.webauthn4j.authenticator.AuthenticatorImpl;
+import com.webauthn4j.converter.AttestationObjectConverter;
+import com.webauthn4j.converter.AuthenticationExtensionsClientOutputsConverter;
+import com.webauthn4j.converter.AuthenticatorConverter;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.request.*;
+import com.webauthn4j.request.extension.client.AuthenticationExtensionsClientInputs;
+import com.webauthn4j.response.AuthenticatorAssertionResponse;
+import com.webauthn4j.response.AuthenticatorAttestationResponse;
+import com.webauthn4j.response.PublicKeyCredential;
+import com.webauthn4j.response.attestation.AttestationObject;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.Challenge;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.test.authenticator.AuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.model.WebAuthnModelAuthenticator;
+import com.webauthn4j.test.authenticator.model.WebAuthnModelAuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticator;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticatorAdaptor;
+import com.webauthn4j.test.client.ClientPlatform;
+import com.webauthn4j.test.keypair.DefaultKeyPairSource;
+import com.webauthn4j.test.keypair.KeyPairSource;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.function.Function;
+
+/**
+ * Generates a corpus of registration and assertion ceremonies for every attestation statement format
+ * the emulated authenticators support, so that benchmarks and regression tests do not pay for key generation
+ * and signing on setup.
+ * <p>
+ * Run with {@code java com.webauthn4j.test.corpus.CeremonyCorpusGenerator <file> [credentialsPerFormat] [assertionsPerCredential]}.
+ * android-key and android-safetynet are not generated, as there are no emulators for them yet.
+ */
+public class CeremonyCorpusGenerator {
+
+    // ~ Instance fields
+    // ================================================================================================
+
+    private final Registry registry;
+    private final AttestationObjectConverter attestationObjectConverter;
+    private final AuthenticationExtensionsClientOutputsConverter authenticationExtensionsClientOutputsConverter;
+    private final AuthenticatorConverter authenticatorConverter;
+
+    private Origin origin = new Origin("https://example.com");
+    private String rpId = "example.com";
+    private int credentialsPerFormat = 10;
+    private int assertionsPerCredential = 100;
+    private KeyPairSource keyPairSource = new DefaultKeyPairSource();
+
+    public CeremonyCorpusGenerator(Registry registry) {
+        AssertUtil.notNull(registry, "registry must not be null");
+        this.registry = registry;
+        this.attestationObjectConverter = new AttestationObjectConverter(registry);
+        this.authenticationExtensionsClientOutputsConverter = new AuthenticationExtensionsClientOutputsConverter(registry);
+        this.authenticatorConverter = new AuthenticatorConverter(registry);
+    }
+
+    public CeremonyCorpusGenerator() {
+        this(Registry.getDefault());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: CeremonyCorpusGenerator <file> [credentialsPerFormat] [assertionsPerCredential]");
+            return;
+        }
+        CeremonyCorpusGenerator generator = new CeremonyCorpusGenerator();
+        if (args.length > 1) {
+            generator.setCredentialsPerFormat(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            generator.setAssertionsPerCredential(Integer.parseInt(args[2]));
+        }
+        Path path = Paths.get(args[0]);
+        long start = System.nanoTime();
+        long count;
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            count = generator.generate(outputStream);
+        }
+        System.out.println(String.format("%d ceremonies written to %s in %.1f s (%d bytes)",
+                count, path, (System.nanoTime() - start) / 1e9, Files.size(path)));
+    }
+
+    // ~ Methods
+    // ========================================================================================================
+
+    /**
+     * Writes a corpus with {@link #getCredentialsPerFormat()} registrations for each format, each followed by
+     * {@link #getAssertionsPerCredential()} assertions of the registered credential
+     *
+     * @param outputStream stream to write the corpus to. It is flushed but not closed
+     * @return the number of records written
+     */
+    public long generate(OutputStream outputStream) throws IOException {
+        CeremonyCorpusWriter writer = new CeremonyCorpusWriter(outputStream);
+        for (Format format : Format.values()) {
+            ClientPlatform clientPlatform = new ClientPlatform(origin, format.createAdaptor(keyPairSource));
+            for (int i = 0; i < credentialsPerFormat; i++) {
+                byte[] userHandle = ByteBuffer.allocate(8).putLong(i).array();
+                AuthenticatorImpl authenticator = register(writer, clientPlatform, format, userHandle);
+                byte[] authenticatorBytes = authenticatorConverter.convert(authenticator);
+                for (int j = 0; j < assertionsPerCredential; j++) {
+                    authenticate(writer, clientPlatform, format, authenticator.getAttestedCredentialData().getCredentialId(), authenticatorBytes);
+                }
+            }
+        }
+        writer.flush();
+        return writer.getCount();
+    }
+
+    private AuthenticatorImpl register(CeremonyCorpusWriter writer, ClientPlatform clientPlatform, Format format, byte[] userHandle) {
+        Challenge challenge = new DefaultChallenge();
+        PublicKeyCredentialCreationOptions credentialCreationOptions = new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(rpId, rpId),
+                new PublicKeyCredentialUserEntity(userHandle, "user", "user"),
+                challenge,
+                Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)),
+                null,
+                Collections.emptyList(),
+                new AuthenticatorSelectionCriteria(AuthenticatorAttachment.CROSS_PLATFORM, true, UserVerificationRequirement.DISCOURAGED),
+                format.attestation,
+                new AuthenticationExtensionsClientInputs()
+        );
+        PublicKeyCredential<AuthenticatorAttestationResponse> credential = clientPlatform.create(credentialCreationOptions);
+        AuthenticatorAttestationResponse response = credential.getAuthenticatorResponse();
+        String clientExtensionsJSON = authenticationExtensionsClientOutputsConverter.convertToString(credential.getClientExtensionResults());
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, challenge, null);
+        writer.write(CeremonyRecord.registration(format.name, serverProperty, response.getClientDataJSON(), response.getAttestationObject(), clientExtensionsJSON));
+
+        AttestationObject attestationObject = attestationObjectConverter.convert(response.getAttestationObject());
+        // the attestation statement is not needed for assertions, and leaving it out keeps records small
+        return new AuthenticatorImpl(
+                attestationObject.getAuthenticatorData().getAttestedCredentialData(),
+                null,
+                attestationObject.getAuthenticatorData().getSignCount()
+        );
+    }
+
+    private void authenticate(CeremonyCorpusWriter writer, ClientPlatform clientPlatform, Format format, byte[] credentialId, byte[] authenticatorBytes) {
+        Challenge challenge = new DefaultChallenge();
+        PublicKeyCredentialRequestOptions credentialRequestOptions = new PublicKeyCredentialRequestOptions(
+                challenge,
+                0L,
+                rpId,
+                Collections.singletonList(new PublicKeyCredentialDescriptor(PublicKeyCredentialType.PUBLIC_KEY, credentialId, null)),
+                UserVerificationRequirement.DISCOURAGED,
+                null
+        );
+        PublicKeyCredential<AuthenticatorAssertionResponse> credential = clientPlatform.get(credentialRequestOptions);
+        AuthenticatorAssertionResponse response = credential.getAuthenticatorResponse();
+        String clientExtensionsJSON = authenticationExtensionsClientOutputsConverter.convertToString(credential.getClientExtensionResults());
+        ServerProperty serverProperty = new ServerProperty(origin, rpId, challenge, null);
+        writer.write(CeremonyRecord.authentication(format.name, serverProperty, credential.getRawId(), response.getClientDataJSON(),
+                response.getAuthenticatorData(), response.getSignature(), clientExtensionsJSON, authenticatorBytes));
+    }
+
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(Origin origin) {
+        this.origin = origin;
+    }
+
+    public String getRpId() {
+        return rpId;
+    }
+
+    public void setRpId(String rpId) {
+        this.rpId = rpId;
+    }
+
+    public int getCredentialsPerFormat() {
+        return credentialsPerFormat;
+    }
+
+    public void setCredentialsPerFormat(int credentialsPerFormat) {
+        this.credentialsPerFormat = credentialsPerFormat;
+    }
+
+    public int getAssertionsPerCredential() {
+        return assertionsPerCredential;
+    }
+
+    public void setAssertionsPerCredential(int assertionsPerCredential) {
+        this.assertionsPerCredential = assertionsPerCredential;
+    }
+
+    public KeyPairSource getKeyPairSource() {
+        return keyPairSource;
+    }
+
+    /**
+     * Sets the source of the credential key pairs. Use a {@link com.webauthn4j.test.keypair.SeededKeyPairSource}
+     * to generate corpora with the same credentials on every run
+     *
+     * @param keyPairSource key pair source
+     */
+    public void setKeyPairSource(KeyPairSource keyPairSource) {
+        AssertUtil.notNull(keyPairSource, "keyPairSource must not be null");
+        this.keyPairSource = keyPairSource;
+    }
+
+    private static AuthenticatorAdaptor createFIDOU2FAuthenticatorAdaptor(KeyPairSource keyPairSource) {
+        FIDOU2FAuthenticator authenticator = new FIDOU2FAuthenticator();
+        authenticator.setKeyPairSource(keyPairSource);
+        return new FIDOU2FAuthenticatorAdaptor(authenticator);
+    }
+
+    private static AuthenticatorAdaptor createWebAuthnModelAuthenticatorAdaptor(KeyPairSource keyPairSource) {
+        WebAuthnModelAuthenticator authenticator = new WebAuthnModelAuthenticator();
+        authenticator.setKeyPairSource(keyPairSource);
+        return new WebAuthnModelAuthenticatorAdaptor(authenticator);
+    }
+
+    private enum Format {
+
+        FIDO_U2F("fido-u2f", CeremonyCorpusGenerator::createFIDOU2FAuthenticatorAdaptor, AttestationConveyancePreference.DIRECT),
+        PACKED("packed", CeremonyCorpusGenerator::createWebAuthnModelAuthenticatorAdaptor, AttestationConveyancePreference.DIRECT),
+        NONE("none", CeremonyCorpusGenerator::createWebAuthnModelAuthenticatorAdaptor, AttestationConveyancePreference.NONE);
+
+        private final String name;
+        private final Function<KeyPairSource, AuthenticatorAdaptor> adaptorFactory;
+        private final AttestationConveyancePreference attestation;
+
+        Format(String name, Function<KeyPairSource, AuthenticatorAdaptor> adaptorFactory, AttestationConveyancePreference attestation) {
+            this.name = name;
+            this.adaptorFactory = adaptorFactory;
+            this.attestation = attestation;
+        }
+
+        AuthenticatorAdaptor createAdaptor(KeyPairSource keyPairSource) {
+            return adaptorFactory.apply(keyPairSource);
+        }
+    }
+}
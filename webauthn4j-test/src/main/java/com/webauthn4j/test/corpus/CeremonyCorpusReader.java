@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.corpus;
+
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a corpus written by {@link CeremonyCorpusWriter}, either streaming from an {@link InputStream}
+ * or from a memory-mapped file.
+ */
+public class CeremonyCorpusReader implements Closeable {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    private static final String INPUT_MISMATCH_ERROR_MESSAGE = "Input data does not match expected form";
+    private static final CeremonyRecord.Type[] TYPES = CeremonyRecord.Type.values();
+    private static final int MAX_FIELD_LENGTH = 16 * 1024 * 1024;
+
+    //~ Instance fields
+    // ================================================================================================
+    private final DataInputStream in;
+    private final ByteBuffer buffer;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public CeremonyCorpusReader(InputStream inputStream) {
+        AssertUtil.notNull(inputStream, "inputStream must not be null");
+        this.in = new DataInputStream(new BufferedInputStream(inputStream, 64 * 1024));
+        this.buffer = null;
+        readHeader();
+    }
+
+    public CeremonyCorpusReader(ByteBuffer buffer) {
+        AssertUtil.notNull(buffer, "buffer must not be null");
+        this.in = null;
+        this.buffer = buffer;
+        readHeader();
+    }
+
+    /**
+     * Opens a corpus file by memory-mapping it. Files larger than 2GiB are not supported; stream them instead.
+     *
+     * @param path corpus file
+     * @return reader over the mapped file
+     */
+    public static CeremonyCorpusReader map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CeremonyCorpusReader(mapped);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    /**
+     * Reads the next record
+     *
+     * @return the next record, or null at the end of the corpus
+     */
+    public CeremonyRecord read() {
+        try {
+            int type = readType();
+            if (type < 0) {
+                return null;
+            }
+            if (type >= TYPES.length) {
+                throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+            }
+            String format = readString();
+            String origin = readString();
+            String rpId = readString();
+            byte[] challenge = readBytes();
+            byte[] tokenBindingId = readBytes();
+            ServerProperty serverProperty = new ServerProperty(
+                    origin == null ? null : new Origin(origin),
+                    rpId,
+                    challenge == null ? null : new DefaultChallenge(challenge),
+                    tokenBindingId
+            );
+            return new CeremonyRecord(TYPES[type], format, serverProperty,
+                    readBytes(), readBytes(), readBytes(), readBytes(), readBytes(), readString(), readBytes());
+        } catch (EOFException | BufferUnderflowException e) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads all the remaining records
+     */
+    public List<CeremonyRecord> readAll() {
+        List<CeremonyRecord> records = new ArrayList<>();
+        CeremonyRecord record;
+        while ((record = read()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private void readHeader() {
+        try {
+            if (readInt() != CeremonyCorpusWriter.MAGIC || readByte() != CeremonyCorpusWriter.VERSION_1) {
+                throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+            }
+        } catch (EOFException | BufferUnderflowException e) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readType() throws IOException {
+        if (buffer != null) {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+        return in.read();
+    }
+
+    private String readString() throws IOException {
+        byte[] value = readBytes();
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        int length = readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_FIELD_LENGTH) {
+            throw new DataConversionException(INPUT_MISMATCH_ERROR_MESSAGE);
+        }
+        byte[] value = new byte[length];
+        if (buffer != null) {
+            buffer.get(value);
+        } else {
+            in.readFully(value);
+        }
+        return value;
+    }
+
+    private int readInt() throws IOException {
+        return buffer != null ? buffer.getInt() : in.readInt();
+    }
+
+    private byte readByte() throws IOException {
+        return buffer != null ? buffer.get() : in.readByte();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.corpus;
+
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link CeremonyRecord}s to a compact, length-prefixed binary corpus.
+ * <p>
+ * The corpus starts with {@link #MAGIC} and {@link #VERSION_1}, followed by the records. Each record is its type
+ * ordinal as a single byte, followed by its fields in a fixed order. Each field is a 4 byte big-endian length and
+ * the raw bytes, and a length of -1 stands for null.
+ */
+public class CeremonyCorpusWriter implements Closeable {
+
+    //~ Static fields/initializers
+    // ================================================================================================
+    public static final int MAGIC = 0x57344A43; // "W4JC"
+    public static final byte VERSION_1 = 1;
+
+    //~ Instance fields
+    // ================================================================================================
+    private final DataOutputStream out;
+    private long count;
+
+    //~ Constructors
+    // ================================================================================================
+
+    public CeremonyCorpusWriter(OutputStream outputStream) {
+        AssertUtil.notNull(outputStream, "outputStream must not be null");
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION_1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //~ Methods
+    // ================================================================================================
+
+    public void write(CeremonyRecord record) {
+        AssertUtil.notNull(record, "record must not be null");
+        ServerProperty serverProperty = record.getServerProperty();
+        try {
+            out.writeByte(record.getType().ordinal());
+            writeString(record.getFormat());
+            writeString(serverProperty.getOrigin() == null ? null : serverProperty.getOrigin().toString());
+            writeString(serverProperty.getRpId());
+            writeBytes(serverProperty.getChallenge() == null ? null : serverProperty.getChallenge().getValue());
+            writeBytes(serverProperty.getTokenBindingId());
+            writeBytes(record.getCredentialId());
+            writeBytes(record.getClientDataJSON());
+            writeBytes(record.getAttestationObject());
+            writeBytes(record.getAuthenticatorData());
+            writeBytes(record.getSignature());
+            writeString(record.getClientExtensionsJSON());
+            writeBytes(record.getAuthenticator());
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of records written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeString(String value) throws IOException {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+}
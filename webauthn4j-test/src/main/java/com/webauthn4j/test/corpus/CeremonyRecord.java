@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.corpus;
+
+import com.webauthn4j.response.WebAuthnAuthenticationContext;
+import com.webauthn4j.response.WebAuthnRegistrationContext;
+import com.webauthn4j.server.ServerProperty;
+import com.webauthn4j.util.AssertUtil;
+
+import java.util.Collections;
+
+/**
+ * A single pre-generated registration or authentication ceremony: the raw bytes sent by the client,
+ * and the {@link ServerProperty} the relying party is expected to validate them with.
+ * <p>
+ * Authentication records also hold the credential being asserted, encoded by
+ * {@link com.webauthn4j.converter.AuthenticatorConverter}.
+ */
+public class CeremonyRecord {
+
+    private final Type type;
+    private final String format;
+    private final ServerProperty serverProperty;
+    private final byte[] credentialId;
+    private final byte[] clientDataJSON;
+    private final byte[] attestationObject;
+    private final byte[] authenticatorData;
+    private final byte[] signature;
+    private final String clientExtensionsJSON;
+    private final byte[] authenticator;
+
+    CeremonyRecord(Type type, String format, ServerProperty serverProperty, byte[] credentialId, byte[] clientDataJSON,
+                   byte[] attestationObject, byte[] authenticatorData, byte[] signature, String clientExtensionsJSON, byte[] authenticator) {
+        AssertUtil.notNull(type, "type must not be null");
+        AssertUtil.notNull(serverProperty, "serverProperty must not be null");
+        this.type = type;
+        this.format = format;
+        this.serverProperty = serverProperty;
+        this.credentialId = credentialId;
+        this.clientDataJSON = clientDataJSON;
+        this.attestationObject = attestationObject;
+        this.authenticatorData = authenticatorData;
+        this.signature = signature;
+        this.clientExtensionsJSON = clientExtensionsJSON;
+        this.authenticator = authenticator;
+    }
+
+    public static CeremonyRecord registration(String format, ServerProperty serverProperty, byte[] clientDataJSON,
+                                              byte[] attestationObject, String clientExtensionsJSON) {
+        return new CeremonyRecord(Type.REGISTRATION, format, serverProperty, null, clientDataJSON, attestationObject,
+                null, null, clientExtensionsJSON, null);
+    }
+
+    public static CeremonyRecord authentication(String format, ServerProperty serverProperty, byte[] credentialId, byte[] clientDataJSON,
+                                                byte[] authenticatorData, byte[] signature, String clientExtensionsJSON, byte[] authenticator) {
+        return new CeremonyRecord(Type.AUTHENTICATION, format, serverProperty, credentialId, clientDataJSON, null,
+                authenticatorData, signature, clientExtensionsJSON, authenticator);
+    }
+
+    public WebAuthnRegistrationContext toRegistrationContext() {
+        AssertUtil.isTrue(type == Type.REGISTRATION, "record is not a registration");
+        return new WebAuthnRegistrationContext(clientDataJSON, attestationObject, clientExtensionsJSON, serverProperty, false, Collections.emptyList());
+    }
+
+    public WebAuthnAuthenticationContext toAuthenticationContext() {
+        AssertUtil.isTrue(type == Type.AUTHENTICATION, "record is not an authentication");
+        return new WebAuthnAuthenticationContext(credentialId, clientDataJSON, authenticatorData, signature, clientExtensionsJSON,
+                serverProperty, false, Collections.emptyList());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the attestation statement format of the credential
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    public ServerProperty getServerProperty() {
+        return serverProperty;
+    }
+
+    public byte[] getCredentialId() {
+        return credentialId;
+    }
+
+    public byte[] getClientDataJSON() {
+        return clientDataJSON;
+    }
+
+    public byte[] getAttestationObject() {
+        return attestationObject;
+    }
+
+    public byte[] getAuthenticatorData() {
+        return authenticatorData;
+    }
+
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    public String getClientExtensionsJSON() {
+        return clientExtensionsJSON;
+    }
+
+    /**
+     * Returns the asserted credential encoded by {@link com.webauthn4j.converter.AuthenticatorConverter},
+     * or null for registration records
+     */
+    public byte[] getAuthenticator() {
+        return authenticator;
+    }
+
+    public enum Type {
+        REGISTRATION,
+        AUTHENTICATION
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.keypair;
+
+import com.webauthn4j.util.ECUtil;
+import com.webauthn4j.util.KeyUtil;
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+
+/**
+ * {@link KeyPairSource} generating a fresh key pair on each call, with a non-blocking {@link SecureRandom}
+ */
+public class DefaultKeyPairSource implements KeyPairSource {
+
+    private final ThreadLocal<KeyPairGenerator> keyPairGenerator = ThreadLocal.withInitial(() -> {
+        KeyPairGenerator generator = KeyUtil.createECKeyPairGenerator();
+        try {
+            generator.initialize(ECUtil.P_256_SPEC, new SecureRandom());
+        } catch (InvalidAlgorithmParameterException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+        return generator;
+    });
+
+    @Override
+    public KeyPair createECKeyPair() {
+        return keyPairGenerator.get().generateKeyPair();
+    }
+}
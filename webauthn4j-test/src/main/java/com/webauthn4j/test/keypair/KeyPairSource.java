@@ -0,0 +1,33 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.keypair;
+
+import java.security.KeyPair;
+
+/**
+ * Source of the P-256 key pairs used as credential keys by the emulated authenticators.
+ * Implementations must be thread-safe.
+ */
+public interface KeyPairSource {
+
+    /**
+     * Returns a P-256 key pair which has not been returned before
+     *
+     * @return key pair
+     */
+    KeyPair createECKeyPair();
+}
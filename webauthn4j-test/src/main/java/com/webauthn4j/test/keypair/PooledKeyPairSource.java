@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.keypair;
+
+import com.webauthn4j.util.AssertUtil;
+
+import java.io.Closeable;
+import java.security.KeyPair;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link KeyPairSource} handing out key pairs pre-generated by background threads.
+ * <p>
+ * When the pool is drained, key pairs are generated on the calling thread instead of waiting for the pool.
+ * Key pairs come from the delegate in an order that depends on thread scheduling, so a pool over a
+ * {@link SeededKeyPairSource} yields the same set of key pairs but not in a reproducible order.
+ */
+public class PooledKeyPairSource implements KeyPairSource, Closeable {
+
+    private final KeyPairSource delegate;
+    private final BlockingQueue<KeyPair> pool;
+    private final ExecutorService executor;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * @param delegate source of the pre-generated key pairs
+     * @param capacity number of key pairs kept ready
+     * @param threads  number of background threads
+     */
+    public PooledKeyPairSource(KeyPairSource delegate, int capacity, int threads) {
+        AssertUtil.notNull(delegate, "delegate must not be null");
+        AssertUtil.isTrue(capacity > 0, "capacity must be positive");
+        AssertUtil.isTrue(threads > 0, "threads must be positive");
+        this.delegate = delegate;
+        this.pool = new ArrayBlockingQueue<>(capacity);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "webauthn4j-key-pair-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            executor.execute(this::fill);
+        }
+    }
+
+    public PooledKeyPairSource(int capacity) {
+        this(new DefaultKeyPairSource(), capacity, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    @Override
+    public KeyPair createECKeyPair() {
+        KeyPair keyPair = pool.poll();
+        if (keyPair != null) {
+            hitCount.increment();
+            return keyPair;
+        }
+        missCount.increment();
+        return delegate.createECKeyPair();
+    }
+
+    /**
+     * Returns the number of key pairs currently ready
+     */
+    public int getAvailableCount() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the number of key pairs served from the pool
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of key pairs generated on the calling thread because the pool was drained
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Stops the background threads
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void fill() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                pool.put(delegate.createECKeyPair());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
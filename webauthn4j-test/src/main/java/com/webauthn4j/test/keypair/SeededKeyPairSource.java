@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.keypair;
+
+import com.webauthn4j.util.KeyUtil;
+import com.webauthn4j.util.MessageDigestUtil;
+
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link KeyPairSource} deriving the n-th key pair from a seed and n, so that the same seed yields the same
+ * sequence of key pairs on every run. Intended for reproducible test corpora only.
+ */
+public class SeededKeyPairSource implements KeyPairSource {
+
+    private final long seed;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SeededKeyPairSource(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public KeyPair createECKeyPair() {
+        return createECKeyPair(sequence.getAndIncrement());
+    }
+
+    /**
+     * Returns the key pair at the given position of the sequence
+     *
+     * @param index position in the sequence
+     * @return key pair
+     */
+    public KeyPair createECKeyPair(long index) {
+        byte[] material = ByteBuffer.allocate(16).putLong(seed).putLong(index).array();
+        return KeyUtil.createECKeyPair(MessageDigestUtil.createSHA256().digest(material));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.authenticator.model;
+
+import com.webauthn4j.request.PublicKeyCredentialParameters;
+import com.webauthn4j.request.PublicKeyCredentialRpEntity;
+import com.webauthn4j.request.PublicKeyCredentialType;
+import com.webauthn4j.request.PublicKeyCredentialUserEntity;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebAuthnModelAuthenticatorTest {
+
+    private WebAuthnModelAuthenticator target = new WebAuthnModelAuthenticator();
+
+    @Test
+    public void lookup_test() {
+        byte[] credentialId = makeCredential("example.com", new byte[]{0x01}).getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+
+        PublicKeyCredentialSource credentialSource = target.lookup(credentialId);
+
+        assertThat(credentialSource).isNotNull();
+        assertThat(credentialSource.getId()).isEqualTo(credentialId);
+        assertThat(target.lookup(new byte[32])).isNull();
+    }
+
+    @Test
+    public void makeCredential_replaces_credential_of_same_user_test() {
+        byte[] first = makeCredential("example.com", new byte[]{0x01}).getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+        byte[] second = makeCredential("example.com", new byte[]{0x01}).getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+
+        assertThat(target.lookup(first)).isNull();
+        assertThat(target.lookup(second)).isNotNull();
+    }
+
+    @Test
+    public void getAssertion_without_allowCredentials_only_uses_credentials_of_the_rp_test() {
+        makeCredential("other.example.com", new byte[]{0x01});
+        byte[] credentialId = makeCredential("example.com", new byte[]{0x02}).getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialId();
+
+        GetAssertionRequest getAssertionRequest = new GetAssertionRequest();
+        getAssertionRequest.setRpId("example.com");
+        getAssertionRequest.setHash(new byte[32]);
+        getAssertionRequest.setRequireUserPresence(true);
+        GetAssertionResponse response = target.getAssertion(getAssertionRequest);
+
+        assertThat(response.getCredentialId()).isEqualTo(credentialId);
+    }
+
+    @Test
+    public void makeCredential_from_multiple_threads_test() throws Exception {
+        int count = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MakeCredentialResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                byte[] userHandle = ByteBuffer.allocate(4).putInt(i).array();
+                futures.add(executor.submit(() -> makeCredential("example.com", userHandle)));
+            }
+            Set<Long> signCounts = new HashSet<>();
+            for (Future<MakeCredentialResponse> future : futures) {
+                MakeCredentialResponse response = future.get();
+                assertThat(target.lookup(response.getAttestationObject().getAuthenticatorData().getAttestedCredentialData().getCredentialId())).isNotNull();
+                signCounts.add(response.getAttestationObject().getAuthenticatorData().getSignCount());
+            }
+            assertThat(signCounts).hasSize(count);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MakeCredentialResponse makeCredential(String rpId, byte[] userHandle) {
+        MakeCredentialRequest makeCredentialRequest = new MakeCredentialRequest();
+        makeCredentialRequest.setHash(new byte[32]);
+        makeCredentialRequest.setRpEntity(new PublicKeyCredentialRpEntity(rpId, rpId));
+        makeCredentialRequest.setUserEntity(new PublicKeyCredentialUserEntity(userHandle, "user", "user"));
+        makeCredentialRequest.setRequireResidentKey(true);
+        makeCredentialRequest.setRequireUserPresence(true);
+        makeCredentialRequest.setCredTypesAndPublicKeyAlgs(Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)));
+        return target.makeCredential(makeCredentialRequest);
+    }
+}
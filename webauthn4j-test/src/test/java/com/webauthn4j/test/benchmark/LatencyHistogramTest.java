@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void getValueAtPercentile_test() {
+        LatencyHistogram target = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            target.record(value * 1000);
+        }
+        assertThat(target.getTotalCount()).isEqualTo(10_000);
+        assertThat(target.getMaxValue()).isEqualTo(10_000_000);
+        assertThat((double) target.getValueAtPercentile(50)).isCloseTo(5_000_000, within(50_000.0));
+        assertThat((double) target.getValueAtPercentile(99)).isCloseTo(9_900_000, within(99_000.0));
+        assertThat((double) target.getValueAtPercentile(99.9)).isCloseTo(9_990_000, within(99_900.0));
+        assertThat(target.getValueAtPercentile(100)).isEqualTo(10_000_000);
+        assertThat(target.getMean()).isEqualTo(5_000_500.0);
+    }
+
+    @Test
+    public void bucket_boundaries_are_contiguous_test() {
+        for (int index = 1; index < 4096; index++) {
+            assertThat(LatencyHistogram.indexOf(LatencyHistogram.highestEquivalentValue(index - 1) + 1)).isEqualTo(index);
+        }
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isGreaterThan(0);
+    }
+
+    @Test
+    public void add_test() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(-1);
+
+        first.add(second);
+
+        assertThat(first.getTotalCount()).isEqualTo(3);
+        assertThat(first.getMaxValue()).isEqualTo(20);
+        assertThat(first.getValueAtPercentile(0)).isEqualTo(0);
+    }
+}
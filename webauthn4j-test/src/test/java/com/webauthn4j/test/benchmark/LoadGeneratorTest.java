@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.benchmark;
+
+import com.webauthn4j.request.AttestationConveyancePreference;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadGeneratorTest {
+
+    @Test
+    public void run_with_mixed_workload_test() throws InterruptedException {
+        LoadGenerator target = new LoadGenerator();
+        target.setVirtualUsers(4);
+        target.setTargetRate(200);
+        target.setDurationMillis(300);
+        target.setThreads(2);
+        target.addWorkload(LoadGenerator.AuthenticatorType.FIDO_U2F, AttestationConveyancePreference.DIRECT, 1);
+        target.addWorkload(LoadGenerator.AuthenticatorType.WEBAUTHN_MODEL, AttestationConveyancePreference.NONE, 1);
+
+        LoadReport report = target.run();
+
+        assertThat(report.getRegistrations()).isEqualTo(4);
+        assertThat(report.getRegistrationFailures()).isZero();
+        assertThat(report.getAuthentications()).isPositive();
+        assertThat(report.getAuthenticationFailures()).isZero();
+        assertThat(report.getAuthenticationLatency().getTotalCount()).isEqualTo(report.getAuthentications());
+        assertThat(report.getThroughput()).isPositive();
+        assertThat(report.toString()).contains("p999");
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.client;
+
+import com.webauthn4j.request.*;
+import com.webauthn4j.response.AuthenticatorAssertionResponse;
+import com.webauthn4j.response.AuthenticatorAttestationResponse;
+import com.webauthn4j.response.PublicKeyCredential;
+import com.webauthn4j.response.attestation.statement.COSEAlgorithmIdentifier;
+import com.webauthn4j.response.client.Origin;
+import com.webauthn4j.response.client.challenge.DefaultChallenge;
+import com.webauthn4j.test.authenticator.AuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.model.WebAuthnModelAuthenticatorAdaptor;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticatorAdaptor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ClientPlatformTest {
+
+    private String rpId = "example.com";
+
+    @Test
+    public void get_is_routed_to_the_authenticator_that_created_the_credential_test() {
+        AuthenticatorAdaptor fidoU2FAuthenticatorAdaptor = spy(new FIDOU2FAuthenticatorAdaptor());
+        WebAuthnModelAuthenticatorAdaptor webAuthnModelAuthenticatorAdaptor = new WebAuthnModelAuthenticatorAdaptor();
+        ClientPlatform target = new ClientPlatform(new Origin("https://example.com"), Arrays.asList(fidoU2FAuthenticatorAdaptor, webAuthnModelAuthenticatorAdaptor));
+        PublicKeyCredential<AuthenticatorAttestationResponse> credential = target.create(createCreationOptions());
+        target.setAuthenticatorAdaptor(webAuthnModelAuthenticatorAdaptor);
+        target.addAuthenticatorAdaptor(fidoU2FAuthenticatorAdaptor);
+        PublicKeyCredential<AuthenticatorAttestationResponse> modelCredential = target.create(createCreationOptions());
+
+        PublicKeyCredential<AuthenticatorAssertionResponse> assertion = target.get(createRequestOptions(credential.getRawId()));
+        PublicKeyCredential<AuthenticatorAssertionResponse> modelAssertion = target.get(createRequestOptions(modelCredential.getRawId()));
+
+        assertThat(assertion.getRawId()).isEqualTo(credential.getRawId());
+        assertThat(modelAssertion.getRawId()).isEqualTo(modelCredential.getRawId());
+        verify(fidoU2FAuthenticatorAdaptor, times(1)).authenticate(any(), any(), any());
+    }
+
+    @Test(expected = NoAuthenticatorSuccessException.class)
+    public void create_without_authenticator_test() {
+        ClientPlatform target = new ClientPlatform(new Origin("https://example.com"), Collections.emptyList());
+        target.create(createCreationOptions());
+    }
+
+    private PublicKeyCredentialCreationOptions createCreationOptions() {
+        return new PublicKeyCredentialCreationOptions(
+                new PublicKeyCredentialRpEntity(rpId, rpId),
+                new PublicKeyCredentialUserEntity(),
+                new DefaultChallenge(),
+                Collections.singletonList(new PublicKeyCredentialParameters(PublicKeyCredentialType.PUBLIC_KEY, COSEAlgorithmIdentifier.ES256)),
+                null,
+                Collections.emptyList(),
+                new AuthenticatorSelectionCriteria(AuthenticatorAttachment.CROSS_PLATFORM, true, UserVerificationRequirement.DISCOURAGED),
+                AttestationConveyancePreference.NONE,
+                null
+        );
+    }
+
+    private PublicKeyCredentialRequestOptions createRequestOptions(byte[] credentialId) {
+        return new PublicKeyCredentialRequestOptions(
+                new DefaultChallenge(),
+                0L,
+                rpId,
+                Collections.singletonList(new PublicKeyCredentialDescriptor(PublicKeyCredentialType.PUBLIC_KEY, credentialId, null)),
+                UserVerificationRequirement.DISCOURAGED,
+                null
+        );
+    }
+}
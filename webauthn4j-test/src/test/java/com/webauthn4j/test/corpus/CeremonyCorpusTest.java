@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.corpus;
+
+import com.webauthn4j.authenticator.Authenticator;
+import com.webauthn4j.converter.AuthenticatorConverter;
+import com.webauthn4j.converter.exception.DataConversionException;
+import com.webauthn4j.registry.Registry;
+import com.webauthn4j.validator.WebAuthnAuthenticationContextValidator;
+import com.webauthn4j.validator.WebAuthnRegistrationContextValidator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CeremonyCorpusTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private WebAuthnRegistrationContextValidator registrationContextValidator = WebAuthnRegistrationContextValidator.createNonStrictRegistrationContextValidator();
+    private WebAuthnAuthenticationContextValidator authenticationContextValidator = new WebAuthnAuthenticationContextValidator();
+    private AuthenticatorConverter authenticatorConverter = new AuthenticatorConverter(Registry.getDefault());
+
+    @Test
+    public void generated_corpus_is_valid_test() throws IOException {
+        byte[] corpus = generate();
+
+        List<CeremonyRecord> records;
+        try (CeremonyCorpusReader reader = new CeremonyCorpusReader(new ByteArrayInputStream(corpus))) {
+            records = reader.readAll();
+        }
+
+        assertThat(records).hasSize(9);
+        assertThat(records).extracting(CeremonyRecord::getFormat).containsOnly("fido-u2f", "packed", "none");
+        for (CeremonyRecord record : records) {
+            if (record.getType() == CeremonyRecord.Type.REGISTRATION) {
+                registrationContextValidator.validate(record.toRegistrationContext());
+            } else {
+                Authenticator authenticator = authenticatorConverter.convert(record.getAuthenticator());
+                authenticationContextValidator.validate(record.toAuthenticationContext(), authenticator);
+            }
+        }
+    }
+
+    @Test
+    public void map_test() throws IOException {
+        byte[] corpus = generate();
+        Path path = temporaryFolder.newFile("corpus.bin").toPath();
+        Files.write(path, corpus);
+
+        CeremonyCorpusReader reader = CeremonyCorpusReader.map(path);
+        List<CeremonyRecord> records = reader.readAll();
+
+        assertThat(records).hasSize(9);
+        assertThat(records.get(1).getType()).isEqualTo(CeremonyRecord.Type.AUTHENTICATION);
+        assertThat(records.get(1).getServerProperty().getRpId()).isEqualTo("example.com");
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test(expected = DataConversionException.class)
+    public void truncated_corpus_test() throws IOException {
+        byte[] corpus = generate();
+        new CeremonyCorpusReader(new ByteArrayInputStream(Arrays.copyOf(corpus, corpus.length - 1))).readAll();
+    }
+
+    @Test(expected = DataConversionException.class)
+    public void bad_magic_test() {
+        new CeremonyCorpusReader(new ByteArrayInputStream(new byte[]{0x00, 0x00, 0x00, 0x00, CeremonyCorpusWriter.VERSION_1}));
+    }
+
+    private byte[] generate() throws IOException {
+        CeremonyCorpusGenerator generator = new CeremonyCorpusGenerator();
+        generator.setCredentialsPerFormat(1);
+        generator.setAssertionsPerCredential(2);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThat(generator.generate(outputStream)).isEqualTo(9);
+        return outputStream.toByteArray();
+    }
+}
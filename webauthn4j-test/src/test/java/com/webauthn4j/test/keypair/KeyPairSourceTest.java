@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.test.keypair;
+
+import com.webauthn4j.test.authenticator.u2f.AuthenticationRequest;
+import com.webauthn4j.test.authenticator.u2f.AuthenticationResponse;
+import com.webauthn4j.test.authenticator.u2f.FIDOU2FAuthenticator;
+import com.webauthn4j.test.authenticator.u2f.RegistrationRequest;
+import com.webauthn4j.test.authenticator.u2f.RegistrationResponse;
+import com.webauthn4j.util.SignatureUtil;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyPairSourceTest {
+
+    @Test
+    public void seeded_source_is_deterministic_test() {
+        SeededKeyPairSource source = new SeededKeyPairSource(42);
+        KeyPair first = source.createECKeyPair();
+        KeyPair second = source.createECKeyPair();
+
+        assertThat(first.getPublic()).isNotEqualTo(second.getPublic());
+        assertThat(new SeededKeyPairSource(42).createECKeyPair().getPublic()).isEqualTo(first.getPublic());
+        assertThat(new SeededKeyPairSource(42).createECKeyPair(1).getPublic()).isEqualTo(second.getPublic());
+        assertThat(new SeededKeyPairSource(43).createECKeyPair().getPublic()).isNotEqualTo(first.getPublic());
+    }
+
+    @Test
+    public void pooled_source_serves_pre_generated_key_pairs_test() throws Exception {
+        try (PooledKeyPairSource source = new PooledKeyPairSource(new SeededKeyPairSource(1), 4, 1)) {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (source.getAvailableCount() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            for (int i = 0; i < 4; i++) {
+                assertThat(source.createECKeyPair().getPublic()).isInstanceOf(ECPublicKey.class);
+            }
+            assertThat(source.getHitCount()).isEqualTo(4);
+            assertThat(source.getMissCount()).isZero();
+        }
+    }
+
+    @Test
+    public void fidoU2FAuthenticator_signs_with_key_pair_from_source_test() throws Exception {
+        FIDOU2FAuthenticator authenticator = new FIDOU2FAuthenticator();
+        authenticator.setKeyPairSource(new SeededKeyPairSource(7));
+        KeyPair expected = new SeededKeyPairSource(7).createECKeyPair(0);
+        byte[] applicationParameter = new byte[32];
+        byte[] challenge = new byte[32];
+
+        RegistrationResponse registrationResponse = authenticator.register(new RegistrationRequest(challenge, applicationParameter));
+        AuthenticationResponse authenticationResponse = authenticator.authenticate(
+                new AuthenticationRequest((byte) 0x03, challenge, applicationParameter, registrationResponse.getKeyHandle()));
+
+        byte[] signedData = ByteBuffer.allocate(32 + 1 + 4 + 32)
+                .put(applicationParameter).put(authenticationResponse.getUserPresence())
+                .put(authenticationResponse.getCounter()).put(challenge).array();
+        Signature signature = SignatureUtil.getES256();
+        signature.initVerify(expected.getPublic());
+        signature.update(signedData);
+        assertThat(signature.verify(authenticationResponse.getSignature())).isTrue();
+    }
+}
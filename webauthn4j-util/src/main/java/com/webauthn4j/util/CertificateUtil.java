@@ -18,6 +18,7 @@ package com.webauthn4j.util;
 
 import com.webauthn4j.util.exception.UnexpectedCheckedException;
 
+import javax.security.auth.x500.X500Principal;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.security.*;
@@ -46,11 +47,7 @@ public class CertificateUtil {
     }
 
     public static CertPathValidator createCertPathValidator() {
-        try {
-            return CertPathValidator.getInstance("PKIX");
-        } catch (NoSuchAlgorithmException e) {
-            throw new UnexpectedCheckedException(e);
-        }
+        return CryptoProviderPolicy.getDefault().createCertPathValidator("PKIX");
     }
 
     public static PKIXParameters createPKIXParameters(Set<TrustAnchor> trustAnchors) {
@@ -94,6 +91,40 @@ public class CertificateUtil {
         }
     }
 
+    /**
+     * Returns the trust anchor which issued the last certificate of a certification path, matched by the subject name and,
+     * when several anchors share the name, by the key the certificate is signed with.
+     * The path is not validated, so the result is only a candidate, to be confirmed by a PKIX validation.
+     *
+     * @param certificates certificates of the certification path, starting from the end entity
+     * @param trustAnchors trust anchors
+     * @return the issuing trust anchor, or null if none matches
+     */
+    public static TrustAnchor findIssuingTrustAnchor(List<X509Certificate> certificates, Set<TrustAnchor> trustAnchors) {
+        AssertUtil.notEmpty(certificates, "certificates must not be empty");
+        X509Certificate last = certificates.get(certificates.size() - 1);
+        List<TrustAnchor> candidates = trustAnchors.stream()
+                .filter(trustAnchor -> last.getIssuerX500Principal().equals(getCA(trustAnchor)))
+                .collect(Collectors.toList());
+        if (candidates.size() <= 1) {
+            return candidates.isEmpty() ? null : candidates.get(0);
+        }
+        for (TrustAnchor candidate : candidates) {
+            PublicKey publicKey = candidate.getTrustedCert() == null ? candidate.getCAPublicKey() : candidate.getTrustedCert().getPublicKey();
+            try {
+                last.verify(publicKey);
+                return candidate;
+            } catch (GeneralSecurityException e) {
+                // signed by another key, try the next candidate
+            }
+        }
+        return null;
+    }
+
+    private static X500Principal getCA(TrustAnchor trustAnchor) {
+        return trustAnchor.getTrustedCert() == null ? trustAnchor.getCA() : trustAnchor.getTrustedCert().getSubjectX500Principal();
+    }
+
     public static boolean isSelfSigned(X509Certificate certificate) {
         Signature signature = SignatureUtil.createSignature(certificate.getSigAlgName());
         try {
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.security.cert.CertPathValidator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Policy for choosing the JCA {@link Provider} used for signature verification, key construction and
+ * certification path validation.
+ * <p>
+ * A provider can be set per algorithm, using the JCA algorithm name (for example {@code SHA256withECDSA} for ES256,
+ * or {@code EC} for a key factory). Algorithms without a provider set use the preferred provider when it supports them,
+ * and the highest-priority installed provider otherwise.
+ * The utility classes of WebAuthn4J use {@link #getDefault()}, which can be replaced by {@link #setDefault(CryptoProviderPolicy)}.
+ */
+public class CryptoProviderPolicy {
+
+    private static volatile CryptoProviderPolicy defaultPolicy = new CryptoProviderPolicy();
+
+    private final Map<String, Provider> signatureProviders = new ConcurrentHashMap<>();
+    private final Map<String, Provider> keyFactoryProviders = new ConcurrentHashMap<>();
+    private final Map<String, Provider> algorithmParametersProviders = new ConcurrentHashMap<>();
+    private final Map<String, Provider> certPathValidatorProviders = new ConcurrentHashMap<>();
+    private final Map<String, PreferredProviderSupport> preferredProviderSupports = new ConcurrentHashMap<>();
+    private volatile Provider preferredProvider;
+
+    public CryptoProviderPolicy() {
+        // EC parameters have been resolved with SunEC historically, and it is kept as the default where available
+        Provider sunEC = Security.getProvider("SunEC");
+        if (sunEC != null) {
+            algorithmParametersProviders.put("EC", sunEC);
+        }
+    }
+
+    public static CryptoProviderPolicy getDefault() {
+        return defaultPolicy;
+    }
+
+    public static void setDefault(CryptoProviderPolicy policy) {
+        AssertUtil.notNull(policy, "policy must not be null");
+        defaultPolicy = policy;
+    }
+
+    public Provider getPreferredProvider() {
+        return preferredProvider;
+    }
+
+    /**
+     * Sets the provider used for the algorithms without a provider set, if it supports them
+     *
+     * @param preferredProvider provider, or null to use the installed providers in priority order
+     */
+    public void setPreferredProvider(Provider preferredProvider) {
+        this.preferredProvider = preferredProvider;
+    }
+
+    public void setSignatureProvider(String algorithm, Provider provider) {
+        setProvider(signatureProviders, algorithm, provider);
+    }
+
+    public void setKeyFactoryProvider(String algorithm, Provider provider) {
+        setProvider(keyFactoryProviders, algorithm, provider);
+    }
+
+    public void setAlgorithmParametersProvider(String algorithm, Provider provider) {
+        setProvider(algorithmParametersProviders, algorithm, provider);
+    }
+
+    public void setCertPathValidatorProvider(String algorithm, Provider provider) {
+        setProvider(certPathValidatorProviders, algorithm, provider);
+    }
+
+    public Signature createSignature(String algorithm) {
+        AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
+        try {
+            return getInstance("Signature", signatureProviders, algorithm,
+                    (name, provider) -> provider == null ? Signature.getInstance(name) : Signature.getInstance(name, provider));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public KeyFactory createKeyFactory(String algorithm) {
+        AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
+        try {
+            return getInstance("KeyFactory", keyFactoryProviders, algorithm,
+                    (name, provider) -> provider == null ? KeyFactory.getInstance(name) : KeyFactory.getInstance(name, provider));
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    public AlgorithmParameters createAlgorithmParameters(String algorithm) {
+        AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
+        try {
+            return getInstance("AlgorithmParameters", algorithmParametersProviders, algorithm,
+                    (name, provider) -> provider == null ? AlgorithmParameters.getInstance(name) : AlgorithmParameters.getInstance(name, provider));
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    public CertPathValidator createCertPathValidator(String algorithm) {
+        AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
+        try {
+            return getInstance("CertPathValidator", certPathValidatorProviders, algorithm,
+                    (name, provider) -> provider == null ? CertPathValidator.getInstance(name) : CertPathValidator.getInstance(name, provider));
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedCheckedException(e);
+        }
+    }
+
+    private void setProvider(Map<String, Provider> providers, String algorithm, Provider provider) {
+        AssertUtil.notNull(algorithm, "algorithm must not be null");
+        if (provider == null) {
+            providers.remove(algorithm);
+        } else {
+            providers.put(algorithm, provider);
+        }
+    }
+
+    private <T> T getInstance(String type, Map<String, Provider> providers, String algorithm, InstanceFactory<T> factory) throws NoSuchAlgorithmException {
+        Provider provider = providers.get(algorithm);
+        if (provider != null) {
+            return factory.getInstance(algorithm, provider);
+        }
+        Provider preferred = preferredProvider;
+        if (preferred != null) {
+            String key = type + "." + algorithm;
+            PreferredProviderSupport support = preferredProviderSupports.get(key);
+            if (support == null || support.provider != preferred) {
+                support = new PreferredProviderSupport(preferred, preferred.getService(type, algorithm) != null);
+                preferredProviderSupports.put(key, support);
+            }
+            if (support.supported) {
+                try {
+                    return factory.getInstance(algorithm, preferred);
+                } catch (NoSuchAlgorithmException e) {
+                    // the preferred provider doesn't support the algorithm after all; stop trying it
+                    preferredProviderSupports.put(key, new PreferredProviderSupport(preferred, false));
+                }
+            }
+        }
+        return factory.getInstance(algorithm, null);
+    }
+
+    /**
+     * Whether the preferred provider supports an algorithm, remembered so that an unsupported algorithm falls back
+     * to the installed providers without a failed lookup on every call
+     */
+    private static class PreferredProviderSupport {
+
+        private final Provider provider;
+        private final boolean supported;
+
+        private PreferredProviderSupport(Provider provider, boolean supported) {
+            this.provider = provider;
+            this.supported = supported;
+        }
+    }
+
+    @FunctionalInterface
+    private interface InstanceFactory<T> {
+        T getInstance(String algorithm, Provider provider) throws NoSuchAlgorithmException;
+    }
+}
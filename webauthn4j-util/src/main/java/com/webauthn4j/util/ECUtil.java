@@ -34,20 +34,19 @@ public class ECUtil {
 
     public static PublicKey createPublicKey(ECPublicKeySpec ecPublicKeySpec){
         try {
-            KeyFactory factory = KeyFactory.getInstance("EC");
+            KeyFactory factory = CryptoProviderPolicy.getDefault().createKeyFactory("EC");
             return factory.generatePublic(ecPublicKeySpec);
-        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+        } catch (InvalidKeySpecException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
 
     private static ECParameterSpec createECParameterSpec(String name){
         try {
-            AlgorithmParameters parameters;
-            parameters = AlgorithmParameters.getInstance("EC", "SunEC");
+            AlgorithmParameters parameters = CryptoProviderPolicy.getDefault().createAlgorithmParameters("EC");
             parameters.init(new ECGenParameterSpec(name));
             return parameters.getParameterSpec(ECParameterSpec.class);
-        } catch (NoSuchAlgorithmException | NoSuchProviderException | InvalidParameterSpecException e) {
+        } catch (InvalidParameterSpecException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
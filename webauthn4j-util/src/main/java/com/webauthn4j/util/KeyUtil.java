@@ -35,9 +35,9 @@ public class KeyUtil {
         PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(bytes);
         KeyFactory keyFactory;
         try {
-            keyFactory = KeyFactory.getInstance("EC");
+            keyFactory = CryptoProviderPolicy.getDefault().createKeyFactory("EC");
             return keyFactory.generatePrivate(keySpec);
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+        } catch (InvalidKeySpecException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
@@ -19,7 +19,6 @@ package com.webauthn4j.util;
 import com.webauthn4j.util.exception.UnexpectedCheckedException;
 
 import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.spec.*;
 
@@ -29,9 +28,9 @@ public class RSAUtil {
 
     public static PublicKey createPublicKey(RSAPublicKeySpec rsaPublicKeySpec){
         try {
-            KeyFactory factory = KeyFactory.getInstance("RSA");
+            KeyFactory factory = CryptoProviderPolicy.getDefault().createKeyFactory("RSA");
             return factory.generatePublic(rsaPublicKeySpec);
-        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+        } catch (InvalidKeySpecException e) {
             throw new UnexpectedCheckedException(e);
         }
     }
@@ -18,44 +18,38 @@ package com.webauthn4j.util;
 
 import com.webauthn4j.util.exception.NotImplementedException;
 
-import java.security.NoSuchAlgorithmException;
 import java.security.Signature;
 
 /**
  * A Utility class for signature calculation
+ * <p>
+ * {@link Signature} instances are not thread-safe, so a new instance is returned on each call.
+ * The provider is chosen by {@link CryptoProviderPolicy#getDefault()}.
  */
 public class SignatureUtil {
 
-    private static Signature es256 = createSignature("SHA256withECDSA");
-    private static Signature rs256 = createSignature("SHA256withRSA");
-
     private SignatureUtil() {
     }
 
     public static Signature getRS256(){
-        return rs256;
+        return createSignature("SHA256withRSA");
     }
 
     public static Signature getES256(){
-        return es256;
+        return createSignature("SHA256withECDSA");
     }
 
     public static Signature createSignature(String algorithm) {
-        AssertUtil.notNull(algorithm, "algorithm is required; it must not be null");
-        try {
-            return Signature.getInstance(algorithm);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalArgumentException(e);
-        }
+        return CryptoProviderPolicy.getDefault().createSignature(algorithm);
     }
 
     public static Signature createSignatureWithJWAIdentifier(String jwaIdentifier){
         AssertUtil.notNull(jwaIdentifier, "jwaIdentifier is required; it must not be null");
         switch (jwaIdentifier){
             case "ES256":
-                return es256;
+                return getES256();
             case "RS256":
-                return rs256;
+                return getRS256();
             default:
                 throw new NotImplementedException();
         }
@@ -38,6 +38,16 @@ public class AssertUtilTest {
         assertThatThrownBy(()-> AssertUtil.notNull(null, "message")).isInstanceOf(IllegalArgumentException.class).hasMessage("message");
     }
 
+    @Test
+    public void isTrue_test(){
+        AssertUtil.isTrue(true, "message");
+    }
+
+    @Test
+    public void isTrue_test_with_false(){
+        assertThatThrownBy(()-> AssertUtil.isTrue(false, "message")).isInstanceOf(IllegalArgumentException.class).hasMessage("message");
+    }
+
     @Test
     public void notEmpty_test_with_list(){
         AssertUtil.notEmpty(Collections.singletonList(new Object()), "message");
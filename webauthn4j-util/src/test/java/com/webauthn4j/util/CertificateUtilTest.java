@@ -18,15 +18,23 @@ package com.webauthn4j.util;
 
 import org.junit.Test;
 
+import javax.security.auth.x500.X500Principal;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.SignatureException;
 import java.security.cert.CertPathValidator;
 import java.security.cert.PKIXParameters;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class CertificateUtilTest {
 
@@ -50,6 +58,22 @@ public class CertificateUtilTest {
         assertThatThrownBy(()-> CertificateUtil.createPKIXParameters(trustAnchors)).isInstanceOf(IllegalArgumentException.class).hasMessage("trustAnchors is required; it must not be empty");
     }
 
+    @Test
+    public void findIssuingTrustAnchor_test() throws GeneralSecurityException {
+        X500Principal ca = new X500Principal("CN=Test CA");
+        X509Certificate certificate = mock(X509Certificate.class);
+        when(certificate.getIssuerX500Principal()).thenReturn(ca);
+        PublicKey otherKey = mock(PublicKey.class);
+        PublicKey issuerKey = mock(PublicKey.class);
+        doThrow(new SignatureException()).when(certificate).verify(otherKey);
+        TrustAnchor other = new TrustAnchor(ca, otherKey, null);
+        TrustAnchor issuer = new TrustAnchor(ca, issuerKey, null);
+        TrustAnchor unrelated = new TrustAnchor(new X500Principal("CN=Other CA"), issuerKey, null);
+
+        assertThat(CertificateUtil.findIssuingTrustAnchor(Collections.singletonList(certificate), new HashSet<>(Arrays.asList(other, issuer, unrelated)))).isSameAs(issuer);
+        assertThat(CertificateUtil.findIssuingTrustAnchor(Collections.singletonList(certificate), Collections.singleton(unrelated))).isNull();
+    }
+
     @Test
     public void createKeystore_test(){
         CertificateUtil.createKeyStore();
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webauthn4j.util;
+
+import com.webauthn4j.util.exception.UnexpectedCheckedException;
+import org.junit.Test;
+
+import java.security.Provider;
+import java.security.Security;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CryptoProviderPolicyTest {
+
+    private CryptoProviderPolicy target = new CryptoProviderPolicy();
+
+    @Test
+    public void createSignature_test_with_installed_providers(){
+        assertThat(target.createSignature("SHA256withECDSA").getAlgorithm()).isEqualTo("SHA256withECDSA");
+    }
+
+    @Test
+    public void createSignature_test_with_provider_set_for_algorithm(){
+        Provider provider = Security.getProvider("SunRsaSign");
+        target.setSignatureProvider("SHA256withRSA", provider);
+        assertThat(target.createSignature("SHA256withRSA").getProvider()).isSameAs(provider);
+
+        target.setSignatureProvider("SHA256withRSA", null);
+        assertThat(target.createSignature("SHA256withRSA").getAlgorithm()).isEqualTo("SHA256withRSA");
+    }
+
+    @Test
+    public void createSignature_test_with_provider_not_supporting_algorithm(){
+        target.setSignatureProvider("SHA256withECDSA", Security.getProvider("SunRsaSign"));
+        assertThatThrownBy(() -> target.createSignature("SHA256withECDSA")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void createSignature_test_with_preferred_provider(){
+        Provider provider = Security.getProvider("SunRsaSign");
+        target.setPreferredProvider(provider);
+        assertThat(target.getPreferredProvider()).isSameAs(provider);
+        assertThat(target.createSignature("SHA256withRSA").getProvider()).isSameAs(provider);
+        // falls back to the installed providers
+        assertThat(target.createSignature("SHA256withECDSA").getProvider()).isNotSameAs(provider);
+    }
+
+    @Test
+    public void createSignature_test_with_preferred_provider_resolves_fallback_once(){
+        CountingProvider provider = new CountingProvider();
+        target.setPreferredProvider(provider);
+        target.createSignature("SHA256withECDSA");
+        target.createSignature("SHA256withECDSA");
+        assertThat(provider.lookups.get()).isEqualTo(1);
+
+        CountingProvider other = new CountingProvider();
+        target.setPreferredProvider(other);
+        target.createSignature("SHA256withECDSA");
+        assertThat(other.lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void createKeyFactory_test(){
+        Provider provider = Security.getProvider("SunRsaSign");
+        target.setKeyFactoryProvider("RSA", provider);
+        assertThat(target.createKeyFactory("RSA").getProvider()).isSameAs(provider);
+        assertThatThrownBy(() -> target.createKeyFactory("dummyAlg")).isInstanceOf(UnexpectedCheckedException.class);
+    }
+
+    @Test
+    public void createAlgorithmParameters_test(){
+        assertThat(target.createAlgorithmParameters("EC").getAlgorithm()).isEqualTo("EC");
+    }
+
+    @Test
+    public void createCertPathValidator_test(){
+        assertThat(target.createCertPathValidator("PKIX").getAlgorithm()).isEqualTo("PKIX");
+    }
+
+    @Test
+    public void getDefault_test(){
+        CryptoProviderPolicy original = CryptoProviderPolicy.getDefault();
+        try {
+            CryptoProviderPolicy.setDefault(target);
+            assertThat(CryptoProviderPolicy.getDefault()).isSameAs(target);
+        } finally {
+            CryptoProviderPolicy.setDefault(original);
+        }
+        assertThatThrownBy(() -> CryptoProviderPolicy.setDefault(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static class CountingProvider extends Provider {
+
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        private CountingProvider() {
+            super("Counting", 1.0, "provider without services");
+        }
+
+        @Override
+        public synchronized Service getService(String type, String algorithm) {
+            lookups.incrementAndGet();
+            return super.getService(type, algorithm);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.webauthn4j.util;
 
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class SignatureUtilTest {
@@ -38,4 +39,15 @@ public class SignatureUtilTest {
         assertThatThrownBy(()-> SignatureUtil.createSignature("dummyAlg"))
                 .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("dummyAlg Signature not available");
     }
+
+    @Test
+    public void getES256_test(){
+        assertThat(SignatureUtil.getES256().getAlgorithm()).isEqualTo("SHA256withECDSA");
+        assertThat(SignatureUtil.getES256()).isNotSameAs(SignatureUtil.getES256());
+    }
+
+    @Test
+    public void createSignatureWithJWAIdentifier_test(){
+        assertThat(SignatureUtil.createSignatureWithJWAIdentifier("RS256").getAlgorithm()).isEqualTo("SHA256withRSA");
+    }
 }